@@ -0,0 +1,23 @@
+/**
+ * 
+ */
+package net.magiccode.kilauea.annotation;
+
+import static java.lang.annotation.ElementType.TYPE;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Target;
+
+@Documented
+@Target(TYPE)
+/**
+ * Marks a class as deeply immutable. Values of such classes are shared by
+ * the generated classes instead of being copied, e.g. in collections.
+ * 
+ * Annotations named {@code Immutable} from other libraries (JSR-305, 
+ * Error Prone, JCIP) are honoured as well. The processor does not verify
+ * the claim.
+ */
+public @interface Immutable {
+
+}
@@ -35,8 +35,8 @@ public @interface Mapped {
 	
 	/**
 	 * type of generator to be used for the mapped class. 
-	 * defaults to GeneratorType.POJO, also available GeneratorType.JSON
-	 * and GeneratorType.XML
+	 * defaults to GeneratorType.POJO, also available GeneratorType.JSON,
+	 * GeneratorType.XML, GeneratorType.BINARY, GeneratorType.OFFHEAP and GeneratorType.CSV
 	 *  
 	 * @return the selected generator types
 	 */
@@ -59,7 +59,7 @@ public @interface Mapped {
 	/**
 	 * Adds a prefix to the name of the generated class. Defaults to "JSON"
 	 * 
-	 * @return  as set or the uppercase type (POJO,JSON,XML)
+	 * @return  as set or the uppercase type (POJO,JSON,XML,BINARY,OFFHEAP,CSV)
 	 */
 	String prefix() default "";
 	
@@ -129,6 +129,53 @@ public @interface Mapped {
 	 */
 	Include jsonInclude() default Include.ALWAYS;
 	
+	/**
+	 * The of(), to(), toJSONString() and toXMLString() methods of the generated class emit 
+	 * the JFR event <i>kilauea.Mapping</i> with source class, target class, number of fields and duration. 
+	 * Can be switched on for all classes with the processor option <i>kilauea.jfr</i>.
+	 * 
+	 * @return as set or false (default)
+	 */
+	boolean jfrEvents() default false;
+
+	/**
+	 * Additionally generates the columnar companion class <i>XXXBatch</i>, which holds
+	 * the values of many instances in one array per field.
+	 * 
+	 * @return as set or false (default)
+	 */
+	boolean batch() default false;
+
+	/**
+	 * Generates a record instead of a class, with the fields as components, a static 
+	 * <i>of()</i> method and <i>to()</i>, but without setters. 
+	 * (Only for type=GeneratorType.POJO, GeneratorType.JSON and GeneratorType.XML)
+	 * 
+	 * @return as set or false (default)
+	 */
+	boolean record() default false;
+
+	/**
+	 * Generates an immutable class with final fields, getters only and a nested <i>Builder</i>. 
+	 * Collections and maps are wrapped unmodifiable when an instance is created.
+	 * (Only for type=GeneratorType.POJO, GeneratorType.JSON and GeneratorType.XML)
+	 * 
+	 * @return as set or false (default)
+	 */
+	boolean immutable() default false;
+
+	/**
+	 * Additionally generates <i>writeProto(OutputStream)</i>, <i>parseProto(InputStream)</i> and
+	 * <i>protoSize()</i>, which use the protobuf binary wire format, and the schema <i>XXX.proto</i>
+	 * as resource next to the generated class. Field numbers are set with {@code @PROTOField},
+	 * fields without it are numbered in declaration order and reported with a warning. Enums
+	 * are written by ordinal, so their constants must only be appended.
+	 * (Not for records, immutable classes and type=GeneratorType.OFFHEAP)
+	 * 
+	 * @return as set or false (default)
+	 */
+	boolean protobuf() default false;
+	
 	/**
 	 * Defines the default namespace to  be generated into the Property annotation for 
 	 * all fields. 
@@ -137,6 +184,15 @@ public @interface Mapped {
 	 * @return the namespace set for the generated XML annotated class.
 	 */
 	String xmlns() default "";
+
+	/**
+	 * <i>toXMLString()</i> writes {@code java.time} values as ISO text, like <i>writeXML</i>
+	 * does, instead of the numeric timestamps Jackson writes by default.
+	 * (Only for type=GeneratorType.XML)
+	 * 
+	 * @return as set or false (default)
+	 */
+	boolean xmlTimeAsText() default false;
 	
 	/**
 	 * yet undocumented and experimental feature which allows to specify @Field annotations
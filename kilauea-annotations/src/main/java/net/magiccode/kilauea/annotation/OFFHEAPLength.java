@@ -0,0 +1,22 @@
+/**
+ * 
+ */
+package net.magiccode.kilauea.annotation;
+
+import static java.lang.annotation.ElementType.FIELD;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Target;
+
+@Documented
+@Target({FIELD})
+/**
+ * For classes having a {@code @Mapped(type=GeneratorType.OFFHEAP)} annotation,
+ * this annotation defines the maximum number of UTF-8 encoded bytes reserved
+ * for the annotated {@code String} field in each record. Defaults to 32 bytes
+ * for fields without this annotation.
+ */
+public @interface OFFHEAPLength {
+
+	int value();
+}
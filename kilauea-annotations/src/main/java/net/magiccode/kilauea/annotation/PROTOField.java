@@ -0,0 +1,24 @@
+/**
+ * 
+ */
+package net.magiccode.kilauea.annotation;
+
+import static java.lang.annotation.ElementType.FIELD;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Target;
+
+@Documented
+@Target({FIELD})
+/**
+ * For classes having a {@code @Mapped(protobuf = true)} annotation, this annotation
+ * defines the protobuf field number of the annotated field. Fields without this
+ * annotation are numbered by their position in the class, starting with 1, and are
+ * reported with a warning, as reordering the fields changes their numbers. Numbers
+ * must be unique within the class and must stay the same once messages have been
+ * exchanged.
+ */
+public @interface PROTOField {
+
+	int value();
+}
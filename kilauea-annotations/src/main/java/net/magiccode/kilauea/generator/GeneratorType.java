@@ -20,6 +20,9 @@ public enum GeneratorType {
 
 	POJO,
 	JSON,
-	XML;
+	XML,
+	BINARY,
+	OFFHEAP,
+	CSV;
 	
 }
@@ -0,0 +1,226 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: AllocationBudgetCheck.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import net.magiccode.kilauea.benchmarks.model.Catalog;
+import net.magiccode.kilauea.benchmarks.model.Company;
+import net.magiccode.kilauea.benchmarks.model.Flat;
+import net.magiccode.kilauea.benchmarks.model.Wide;
+import net.magiccode.kilauea.benchmarks.model.json.JSONCatalog;
+import net.magiccode.kilauea.benchmarks.model.json.JSONCompany;
+import net.magiccode.kilauea.benchmarks.model.json.JSONFlat;
+import net.magiccode.kilauea.benchmarks.model.json.JSONWide;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOCatalog;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOCompany;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOFlat;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOWide;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLCatalog;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLCompany;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLFlat;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLWide;
+
+/**
+ * Measures the bytes allocated per call of the generated {@code of()}, {@code to()},
+ * {@code toJSONString()} and {@code toXMLString()} methods for every shape of the corpus 
+ * and checks them against the budgets in <i>allocation-budgets.properties</i>.
+ * 
+ * Each operation is warmed up before the allocated bytes of the current thread are
+ * read from {@code com.sun.management.ThreadMXBean}. The process exits with status 1
+ * if an operation exceeds it's budget or has no budget, which fails the build.
+ * 
+ * Allocation depends on the JVM: object layout, escape analysis and the collector differ
+ * between releases and options. The budgets are measured with the options in <i>allocation.jvmArgs</i>
+ * of the benchmarks pom and hold the feature release of the JDK as entry <i>jdk</i>. On another
+ * release the values are reported but not checked.
+ * 
+ * Running with the argument <i>update</i> prints budget entries for the measured values instead.
+ */
+public final class AllocationBudgetCheck {
+
+	static final String BUDGETS = "/allocation-budgets.properties";
+
+	/** key of the feature release of the JDK the budgets were measured with */
+	static final String JDK = "jdk";
+
+	/** additional allowance for budgets printed in update mode, covers the noise of short measurements */
+	private static final double HEADROOM = 1.25d;
+
+	private static final long WARMUP_NANOS = 300_000_000L;
+	private static final long MEASUREMENT_NANOS = 150_000_000L;
+	private static final int MIN_ITERATIONS = 20;
+
+	/** keeps the results alive, so the mapping cannot be eliminated by the JIT */
+	private static volatile Object sink;
+
+	private AllocationBudgetCheck() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		boolean update = args.length > 0 && "update".equals(args[0]);
+		com.sun.management.ThreadMXBean threadBean = 
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threadBean.isThreadAllocatedMemorySupported()) {
+			System.err.println("Allocated memory per thread is not supported by this JVM, check skipped.");
+			return;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		Properties budgets = loadBudgets();
+		int jdk = Runtime.version().feature();
+		boolean check = !update && String.valueOf(jdk).equals(budgets.getProperty(JDK, "").trim());
+		if (update) {
+			System.out.println(JDK + "=" + jdk);
+		} else if (!check) {
+			System.err.println("Allocation budgets are measured with JDK " + budgets.getProperty(JDK) + ", running on JDK "
+					+ jdk + ". Values are reported, but not checked.");
+		}
+		List<String> failures = new ArrayList<>();
+		for (Map.Entry<String, Callable<Object>> operation : operations().entrySet()) {
+			String key = operation.getKey();
+			long allocated = bytesPerOperation(threadBean, operation.getValue());
+			if (update) {
+				System.out.println(key + "=" + roundUp((long) (allocated * HEADROOM)));
+				continue;
+			}
+			String budget = budgets.getProperty(key);
+			String status;
+			if (!check) {
+				status = "";
+			} else if (budget == null) {
+				status = "NO BUDGET";
+				failures.add(key + ": no budget defined, measured " + allocated + " B/op");
+			} else if (allocated > Long.parseLong(budget.trim())) {
+				status = "EXCEEDED";
+				failures.add(key + ": " + allocated + " B/op exceeds budget of " + budget.trim() + " B/op");
+			} else {
+				status = "OK";
+			}
+			System.out.println(String.format("%-32s %12d B/op %12s B/op  %s", key, allocated, budget, status));
+		}
+		if (!failures.isEmpty()) {
+			System.err.println("Allocation budgets violated:");
+			failures.forEach(failure -> System.err.println("  " + failure));
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * warm up the given operation, then measure the average number of bytes it allocates.
+	 */
+	private static long bytesPerOperation(final com.sun.management.ThreadMXBean threadBean, 
+										  final Callable<Object> operation) throws Exception {
+		run(operation, WARMUP_NANOS);
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		long iterations = run(operation, MEASUREMENT_NANOS);
+		long after = threadBean.getThreadAllocatedBytes(threadId);
+		return (after - before) / iterations;
+	}
+
+	private static long run(final Callable<Object> operation, final long nanos) throws Exception {
+		long end = System.nanoTime() + nanos;
+		long iterations = 0;
+		while (iterations < MIN_ITERATIONS || System.nanoTime() < end) {
+			sink = operation.call();
+			iterations++;
+		}
+		return iterations;
+	}
+
+	/**
+	 * @return the measured operations by budget key <i>shape.type.method</i>
+	 */
+	private static Map<String, Callable<Object>> operations() throws IllegalAccessException {
+		Map<String, Callable<Object>> operations = new LinkedHashMap<>();
+
+		Flat flat = Corpus.flat();
+		POJOFlat pojoFlat = POJOFlat.of(flat);
+		JSONFlat jsonFlat = JSONFlat.of(flat);
+		XMLFlat xmlFlat = XMLFlat.of(flat);
+		operations.put("flat.pojo.of", () -> POJOFlat.of(flat));
+		operations.put("flat.json.of", () -> JSONFlat.of(flat));
+		operations.put("flat.xml.of", () -> XMLFlat.of(flat));
+		operations.put("flat.pojo.to", pojoFlat::to);
+		operations.put("flat.json.to", jsonFlat::to);
+		operations.put("flat.xml.to", xmlFlat::to);
+		operations.put("flat.json.toJSONString", jsonFlat::toJSONString);
+		operations.put("flat.xml.toXMLString", xmlFlat::toXMLString);
+
+		Wide wide = Corpus.wide();
+		POJOWide pojoWide = POJOWide.of(wide);
+		JSONWide jsonWide = JSONWide.of(wide);
+		XMLWide xmlWide = XMLWide.of(wide);
+		operations.put("wide.pojo.of", () -> POJOWide.of(wide));
+		operations.put("wide.json.of", () -> JSONWide.of(wide));
+		operations.put("wide.xml.of", () -> XMLWide.of(wide));
+		operations.put("wide.pojo.to", pojoWide::to);
+		operations.put("wide.json.to", jsonWide::to);
+		operations.put("wide.xml.to", xmlWide::to);
+		operations.put("wide.json.toJSONString", jsonWide::toJSONString);
+		operations.put("wide.xml.toXMLString", xmlWide::toXMLString);
+
+		Company company = Corpus.company();
+		POJOCompany pojoCompany = POJOCompany.of(company);
+		JSONCompany jsonCompany = JSONCompany.of(company);
+		XMLCompany xmlCompany = XMLCompany.of(company);
+		operations.put("deep.pojo.of", () -> POJOCompany.of(company));
+		operations.put("deep.json.of", () -> JSONCompany.of(company));
+		operations.put("deep.xml.of", () -> XMLCompany.of(company));
+		operations.put("deep.pojo.to", pojoCompany::to);
+		operations.put("deep.json.to", jsonCompany::to);
+		operations.put("deep.xml.to", xmlCompany::to);
+		operations.put("deep.json.toJSONString", jsonCompany::toJSONString);
+		operations.put("deep.xml.toXMLString", xmlCompany::toXMLString);
+
+		Catalog catalog = Corpus.catalog();
+		POJOCatalog pojoCatalog = POJOCatalog.of(catalog);
+		JSONCatalog jsonCatalog = JSONCatalog.of(catalog);
+		XMLCatalog xmlCatalog = XMLCatalog.of(catalog);
+		operations.put("collection.pojo.of", () -> POJOCatalog.of(catalog));
+		operations.put("collection.json.of", () -> JSONCatalog.of(catalog));
+		operations.put("collection.xml.of", () -> XMLCatalog.of(catalog));
+		operations.put("collection.pojo.to", pojoCatalog::to);
+		operations.put("collection.json.to", jsonCatalog::to);
+		operations.put("collection.xml.to", xmlCatalog::to);
+		operations.put("collection.json.toJSONString", jsonCatalog::toJSONString);
+		operations.put("collection.xml.toXMLString", xmlCatalog::toXMLString);
+
+		return operations;
+	}
+
+	private static Properties loadBudgets() throws IOException {
+		Properties budgets = new Properties();
+		try (InputStream in = AllocationBudgetCheck.class.getResourceAsStream(BUDGETS)) {
+			if (in != null) {
+				budgets.load(in);
+			}
+		}
+		return budgets;
+	}
+
+	/**
+	 * round up to the next multiple of 100 bytes
+	 */
+	private static long roundUp(long bytes) {
+		return (bytes + 99) / 100 * 100;
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: CollectionBenchmark.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.magiccode.kilauea.benchmarks.model.Catalog;
+import net.magiccode.kilauea.benchmarks.model.json.JSONCatalog;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOCatalog;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLCatalog;
+
+/**
+ * Mapping of {@code List} and {@code Map} fields with mapped element types,
+ * each containing {@value Corpus#CATALOG_SIZE} elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionBenchmark {
+
+	private Catalog source;
+	private POJOCatalog pojo;
+	private JSONCatalog json;
+	private XMLCatalog xml;
+
+	@Setup
+	public void setup() throws IllegalAccessException {
+		source = Corpus.catalog();
+		pojo = POJOCatalog.of(source);
+		json = JSONCatalog.of(source);
+		xml = XMLCatalog.of(source);
+	}
+
+	@Benchmark
+	public Catalog directCopy() {
+		return DirectCopy.copy(source);
+	}
+
+	@Benchmark
+	public POJOCatalog pojoOf() throws IllegalAccessException {
+		return POJOCatalog.of(source);
+	}
+
+	@Benchmark
+	public JSONCatalog jsonOf() throws IllegalAccessException {
+		return JSONCatalog.of(source);
+	}
+
+	@Benchmark
+	public XMLCatalog xmlOf() throws IllegalAccessException {
+		return XMLCatalog.of(source);
+	}
+
+	@Benchmark
+	public POJOCatalog pojoOfArgs() throws IllegalAccessException {
+		return POJOCatalog.of(source.getName(), source.getItems(), source.getItemsBySku());
+	}
+
+	@Benchmark
+	public JSONCatalog jsonOfArgs() throws IllegalAccessException {
+		return JSONCatalog.of(source.getName(), source.getItems(), source.getItemsBySku());
+	}
+
+	@Benchmark
+	public XMLCatalog xmlOfArgs() throws IllegalAccessException {
+		return XMLCatalog.of(source.getName(), source.getItems(), source.getItemsBySku());
+	}
+
+	@Benchmark
+	public Catalog pojoTo() throws IllegalAccessException {
+		return pojo.to();
+	}
+
+	@Benchmark
+	public Catalog jsonTo() throws IllegalAccessException {
+		return json.to();
+	}
+
+	@Benchmark
+	public Catalog xmlTo() throws IllegalAccessException {
+		return xml.to();
+	}
+
+	@Benchmark
+	public String toJSONString() {
+		return json.toJSONString();
+	}
+
+	@Benchmark
+	public String toXMLString() {
+		return xml.toXMLString();
+	}
+}
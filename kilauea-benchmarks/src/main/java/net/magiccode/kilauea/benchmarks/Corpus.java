@@ -0,0 +1,136 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Corpus.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.magiccode.kilauea.benchmarks.model.Catalog;
+import net.magiccode.kilauea.benchmarks.model.Company;
+import net.magiccode.kilauea.benchmarks.model.Department;
+import net.magiccode.kilauea.benchmarks.model.Employee;
+import net.magiccode.kilauea.benchmarks.model.Flat;
+import net.magiccode.kilauea.benchmarks.model.Item;
+import net.magiccode.kilauea.benchmarks.model.Team;
+import net.magiccode.kilauea.benchmarks.model.Wide;
+
+/**
+ * Populated instances of the corpus classes. All values are fixed, so every run
+ * maps exactly the same data.
+ */
+public final class Corpus {
+
+	/** number of elements in the collections of a {@code Catalog} */
+	public static final int CATALOG_SIZE = 20;
+
+	private Corpus() {
+	}
+
+	public static Flat flat() {
+		Flat flat = new Flat();
+		flat.setId(4711L);
+		flat.setName("flat");
+		flat.setDescription("a flat class with a handful of fields");
+		flat.setQuantity(42);
+		flat.setWeight(12.5d);
+		flat.setActive(true);
+		flat.setPrice(new BigDecimal("19.99"));
+		flat.setCreated(LocalDate.of(2023, 11, 1));
+		return flat;
+	}
+
+	/**
+	 * The fields of {@code Wide} are set by reflection, this is only done once
+	 * during the setup of the benchmark.
+	 * 
+	 * @return a {@code Wide} instance with all fields set
+	 */
+	public static Wide wide() {
+		Wide wide = new Wide();
+		try {
+			for (Field field : Wide.class.getDeclaredFields()) {
+				field.setAccessible(true);
+				field.set(wide, valueFor(field.getType(), field.getName()));
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Could not populate " + Wide.class.getName(), e);
+		}
+		return wide;
+	}
+
+	public static Company company() {
+		Employee lead = new Employee();
+		lead.setId(4L);
+		lead.setName("lead");
+		lead.setCode("E-4");
+		Team team = new Team();
+		team.setId(3L);
+		team.setName("team");
+		team.setCode("T-3");
+		team.setLead(lead);
+		Department department = new Department();
+		department.setId(2L);
+		department.setName("department");
+		department.setCode("D-2");
+		department.setTeam(team);
+		Company company = new Company();
+		company.setId(1L);
+		company.setName("company");
+		company.setCode("C-1");
+		company.setDepartment(department);
+		return company;
+	}
+
+	public static Catalog catalog() {
+		List<Item> items = new ArrayList<>(CATALOG_SIZE);
+		Map<String, Item> itemsBySku = new LinkedHashMap<>();
+		for (int index = 0; index < CATALOG_SIZE; index++) {
+			Item item = new Item();
+			item.setSku("SKU-" + index);
+			item.setLabel("item " + index);
+			item.setStock(index * 3);
+			item.setPrice(BigDecimal.valueOf(index * 100 + 99, 2));
+			items.add(item);
+			itemsBySku.put(item.getSku(), item);
+		}
+		Catalog catalog = new Catalog();
+		catalog.setName("catalog");
+		catalog.setItems(items);
+		catalog.setItemsBySku(itemsBySku);
+		return catalog;
+	}
+
+	private static Object valueFor(final Class<?> type, final String name) {
+		int index = Integer.parseInt(name.replaceAll("\\D", ""));
+		if (type == String.class) {
+			return name;
+		} else if (type == Integer.class || type == int.class) {
+			return index;
+		} else if (type == Long.class) {
+			return (long) index;
+		} else if (type == Double.class) {
+			return index / 4d;
+		} else if (type == Boolean.class) {
+			return index % 2 == 0;
+		} else if (type == BigDecimal.class) {
+			return BigDecimal.valueOf(index, 2);
+		} else if (type == LocalDate.class) {
+			return LocalDate.of(2023, 1, 1).plusDays(index);
+		}
+		throw new IllegalArgumentException("No sample value for " + type.getName());
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: DeepBenchmark.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.magiccode.kilauea.benchmarks.model.Company;
+import net.magiccode.kilauea.benchmarks.model.json.JSONCompany;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOCompany;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLCompany;
+
+/**
+ * Mapping of the nested chain {@code Company - Department - Team - Employee}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepBenchmark {
+
+	private Company source;
+	private POJOCompany pojo;
+	private JSONCompany json;
+	private XMLCompany xml;
+
+	@Setup
+	public void setup() throws IllegalAccessException {
+		source = Corpus.company();
+		pojo = POJOCompany.of(source);
+		json = JSONCompany.of(source);
+		xml = XMLCompany.of(source);
+	}
+
+	@Benchmark
+	public Company directCopy() {
+		return DirectCopy.copy(source);
+	}
+
+	@Benchmark
+	public POJOCompany pojoOf() throws IllegalAccessException {
+		return POJOCompany.of(source);
+	}
+
+	@Benchmark
+	public JSONCompany jsonOf() throws IllegalAccessException {
+		return JSONCompany.of(source);
+	}
+
+	@Benchmark
+	public XMLCompany xmlOf() throws IllegalAccessException {
+		return XMLCompany.of(source);
+	}
+
+	@Benchmark
+	public POJOCompany pojoOfArgs() throws IllegalAccessException {
+		return POJOCompany.of(source.getId(), source.getName(), source.getCode(), source.getDepartment());
+	}
+
+	@Benchmark
+	public JSONCompany jsonOfArgs() throws IllegalAccessException {
+		return JSONCompany.of(source.getId(), source.getName(), source.getCode(), source.getDepartment());
+	}
+
+	@Benchmark
+	public XMLCompany xmlOfArgs() throws IllegalAccessException {
+		return XMLCompany.of(source.getId(), source.getName(), source.getCode(), source.getDepartment());
+	}
+
+	@Benchmark
+	public Company pojoTo() throws IllegalAccessException {
+		return pojo.to();
+	}
+
+	@Benchmark
+	public Company jsonTo() throws IllegalAccessException {
+		return json.to();
+	}
+
+	@Benchmark
+	public Company xmlTo() throws IllegalAccessException {
+		return xml.to();
+	}
+
+	@Benchmark
+	public String toJSONString() {
+		return json.toJSONString();
+	}
+
+	@Benchmark
+	public String toXMLString() {
+		return xml.toXMLString();
+	}
+}
@@ -0,0 +1,314 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: DirectCopy.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.magiccode.kilauea.benchmarks.model.Catalog;
+import net.magiccode.kilauea.benchmarks.model.Company;
+import net.magiccode.kilauea.benchmarks.model.Department;
+import net.magiccode.kilauea.benchmarks.model.Employee;
+import net.magiccode.kilauea.benchmarks.model.Flat;
+import net.magiccode.kilauea.benchmarks.model.Item;
+import net.magiccode.kilauea.benchmarks.model.Team;
+import net.magiccode.kilauea.benchmarks.model.Wide;
+
+/**
+ * Hand-written copies of the corpus classes using plain getter and setter calls.
+ * This is the baseline the generated {@code of()} and {@code to()} methods are compared with.
+ */
+public final class DirectCopy {
+
+	private DirectCopy() {
+	}
+
+	public static Flat copy(final Flat source) {
+		Flat copy = new Flat();
+		copy.setId(source.getId());
+		copy.setName(source.getName());
+		copy.setDescription(source.getDescription());
+		copy.setQuantity(source.getQuantity());
+		copy.setWeight(source.getWeight());
+		copy.setActive(source.isActive());
+		copy.setPrice(source.getPrice());
+		copy.setCreated(source.getCreated());
+		return copy;
+	}
+
+	public static Company copy(final Company source) {
+		Company copy = new Company();
+		copy.setId(source.getId());
+		copy.setName(source.getName());
+		copy.setCode(source.getCode());
+		copy.setDepartment(source.getDepartment() != null ? copy(source.getDepartment()) : null);
+		return copy;
+	}
+
+	public static Department copy(final Department source) {
+		Department copy = new Department();
+		copy.setId(source.getId());
+		copy.setName(source.getName());
+		copy.setCode(source.getCode());
+		copy.setTeam(source.getTeam() != null ? copy(source.getTeam()) : null);
+		return copy;
+	}
+
+	public static Team copy(final Team source) {
+		Team copy = new Team();
+		copy.setId(source.getId());
+		copy.setName(source.getName());
+		copy.setCode(source.getCode());
+		copy.setLead(source.getLead() != null ? copy(source.getLead()) : null);
+		return copy;
+	}
+
+	public static Employee copy(final Employee source) {
+		Employee copy = new Employee();
+		copy.setId(source.getId());
+		copy.setName(source.getName());
+		copy.setCode(source.getCode());
+		return copy;
+	}
+
+	public static Item copy(final Item source) {
+		Item copy = new Item();
+		copy.setSku(source.getSku());
+		copy.setLabel(source.getLabel());
+		copy.setStock(source.getStock());
+		copy.setPrice(source.getPrice());
+		return copy;
+	}
+
+	public static Catalog copy(final Catalog source) {
+		Catalog copy = new Catalog();
+		copy.setName(source.getName());
+		List<Item> items = new ArrayList<>(source.getItems().size());
+		for (Item item : source.getItems()) {
+			items.add(copy(item));
+		}
+		copy.setItems(items);
+		Map<String, Item> itemsBySku = new HashMap<>(source.getItemsBySku().size() * 2);
+		for (Map.Entry<String, Item> entry : source.getItemsBySku().entrySet()) {
+			itemsBySku.put(entry.getKey(), copy(entry.getValue()));
+		}
+		copy.setItemsBySku(itemsBySku);
+		return copy;
+	}
+
+	public static Wide copy(final Wide source) {
+		Wide copy = new Wide();
+		copy.setField000(source.getField000());
+		copy.setField001(source.getField001());
+		copy.setField002(source.getField002());
+		copy.setField003(source.getField003());
+		copy.setField004(source.getField004());
+		copy.setField005(source.getField005());
+		copy.setField006(source.getField006());
+		copy.setField007(source.getField007());
+		copy.setField008(source.getField008());
+		copy.setField009(source.getField009());
+		copy.setField010(source.getField010());
+		copy.setField011(source.getField011());
+		copy.setField012(source.getField012());
+		copy.setField013(source.getField013());
+		copy.setField014(source.getField014());
+		copy.setField015(source.getField015());
+		copy.setField016(source.getField016());
+		copy.setField017(source.getField017());
+		copy.setField018(source.getField018());
+		copy.setField019(source.getField019());
+		copy.setField020(source.getField020());
+		copy.setField021(source.getField021());
+		copy.setField022(source.getField022());
+		copy.setField023(source.getField023());
+		copy.setField024(source.getField024());
+		copy.setField025(source.getField025());
+		copy.setField026(source.getField026());
+		copy.setField027(source.getField027());
+		copy.setField028(source.getField028());
+		copy.setField029(source.getField029());
+		copy.setField030(source.getField030());
+		copy.setField031(source.getField031());
+		copy.setField032(source.getField032());
+		copy.setField033(source.getField033());
+		copy.setField034(source.getField034());
+		copy.setField035(source.getField035());
+		copy.setField036(source.getField036());
+		copy.setField037(source.getField037());
+		copy.setField038(source.getField038());
+		copy.setField039(source.getField039());
+		copy.setField040(source.getField040());
+		copy.setField041(source.getField041());
+		copy.setField042(source.getField042());
+		copy.setField043(source.getField043());
+		copy.setField044(source.getField044());
+		copy.setField045(source.getField045());
+		copy.setField046(source.getField046());
+		copy.setField047(source.getField047());
+		copy.setField048(source.getField048());
+		copy.setField049(source.getField049());
+		copy.setField050(source.getField050());
+		copy.setField051(source.getField051());
+		copy.setField052(source.getField052());
+		copy.setField053(source.getField053());
+		copy.setField054(source.getField054());
+		copy.setField055(source.getField055());
+		copy.setField056(source.getField056());
+		copy.setField057(source.getField057());
+		copy.setField058(source.getField058());
+		copy.setField059(source.getField059());
+		copy.setField060(source.getField060());
+		copy.setField061(source.getField061());
+		copy.setField062(source.getField062());
+		copy.setField063(source.getField063());
+		copy.setField064(source.getField064());
+		copy.setField065(source.getField065());
+		copy.setField066(source.getField066());
+		copy.setField067(source.getField067());
+		copy.setField068(source.getField068());
+		copy.setField069(source.getField069());
+		copy.setField070(source.getField070());
+		copy.setField071(source.getField071());
+		copy.setField072(source.getField072());
+		copy.setField073(source.getField073());
+		copy.setField074(source.getField074());
+		copy.setField075(source.getField075());
+		copy.setField076(source.getField076());
+		copy.setField077(source.getField077());
+		copy.setField078(source.getField078());
+		copy.setField079(source.getField079());
+		copy.setField080(source.getField080());
+		copy.setField081(source.getField081());
+		copy.setField082(source.getField082());
+		copy.setField083(source.getField083());
+		copy.setField084(source.getField084());
+		copy.setField085(source.getField085());
+		copy.setField086(source.getField086());
+		copy.setField087(source.getField087());
+		copy.setField088(source.getField088());
+		copy.setField089(source.getField089());
+		copy.setField090(source.getField090());
+		copy.setField091(source.getField091());
+		copy.setField092(source.getField092());
+		copy.setField093(source.getField093());
+		copy.setField094(source.getField094());
+		copy.setField095(source.getField095());
+		copy.setField096(source.getField096());
+		copy.setField097(source.getField097());
+		copy.setField098(source.getField098());
+		copy.setField099(source.getField099());
+		copy.setField100(source.getField100());
+		copy.setField101(source.getField101());
+		copy.setField102(source.getField102());
+		copy.setField103(source.getField103());
+		copy.setField104(source.getField104());
+		copy.setField105(source.getField105());
+		copy.setField106(source.getField106());
+		copy.setField107(source.getField107());
+		copy.setField108(source.getField108());
+		copy.setField109(source.getField109());
+		copy.setField110(source.getField110());
+		copy.setField111(source.getField111());
+		copy.setField112(source.getField112());
+		copy.setField113(source.getField113());
+		copy.setField114(source.getField114());
+		copy.setField115(source.getField115());
+		copy.setField116(source.getField116());
+		copy.setField117(source.getField117());
+		copy.setField118(source.getField118());
+		copy.setField119(source.getField119());
+		copy.setField120(source.getField120());
+		copy.setField121(source.getField121());
+		copy.setField122(source.getField122());
+		copy.setField123(source.getField123());
+		copy.setField124(source.getField124());
+		copy.setField125(source.getField125());
+		copy.setField126(source.getField126());
+		copy.setField127(source.getField127());
+		copy.setField128(source.getField128());
+		copy.setField129(source.getField129());
+		copy.setField130(source.getField130());
+		copy.setField131(source.getField131());
+		copy.setField132(source.getField132());
+		copy.setField133(source.getField133());
+		copy.setField134(source.getField134());
+		copy.setField135(source.getField135());
+		copy.setField136(source.getField136());
+		copy.setField137(source.getField137());
+		copy.setField138(source.getField138());
+		copy.setField139(source.getField139());
+		copy.setField140(source.getField140());
+		copy.setField141(source.getField141());
+		copy.setField142(source.getField142());
+		copy.setField143(source.getField143());
+		copy.setField144(source.getField144());
+		copy.setField145(source.getField145());
+		copy.setField146(source.getField146());
+		copy.setField147(source.getField147());
+		copy.setField148(source.getField148());
+		copy.setField149(source.getField149());
+		copy.setField150(source.getField150());
+		copy.setField151(source.getField151());
+		copy.setField152(source.getField152());
+		copy.setField153(source.getField153());
+		copy.setField154(source.getField154());
+		copy.setField155(source.getField155());
+		copy.setField156(source.getField156());
+		copy.setField157(source.getField157());
+		copy.setField158(source.getField158());
+		copy.setField159(source.getField159());
+		copy.setField160(source.getField160());
+		copy.setField161(source.getField161());
+		copy.setField162(source.getField162());
+		copy.setField163(source.getField163());
+		copy.setField164(source.getField164());
+		copy.setField165(source.getField165());
+		copy.setField166(source.getField166());
+		copy.setField167(source.getField167());
+		copy.setField168(source.getField168());
+		copy.setField169(source.getField169());
+		copy.setField170(source.getField170());
+		copy.setField171(source.getField171());
+		copy.setField172(source.getField172());
+		copy.setField173(source.getField173());
+		copy.setField174(source.getField174());
+		copy.setField175(source.getField175());
+		copy.setField176(source.getField176());
+		copy.setField177(source.getField177());
+		copy.setField178(source.getField178());
+		copy.setField179(source.getField179());
+		copy.setField180(source.getField180());
+		copy.setField181(source.getField181());
+		copy.setField182(source.getField182());
+		copy.setField183(source.getField183());
+		copy.setField184(source.getField184());
+		copy.setField185(source.getField185());
+		copy.setField186(source.getField186());
+		copy.setField187(source.getField187());
+		copy.setField188(source.getField188());
+		copy.setField189(source.getField189());
+		copy.setField190(source.getField190());
+		copy.setField191(source.getField191());
+		copy.setField192(source.getField192());
+		copy.setField193(source.getField193());
+		copy.setField194(source.getField194());
+		copy.setField195(source.getField195());
+		copy.setField196(source.getField196());
+		copy.setField197(source.getField197());
+		copy.setField198(source.getField198());
+		copy.setField199(source.getField199());
+		return copy;
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: FlatBenchmark.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.magiccode.kilauea.benchmarks.model.Flat;
+import net.magiccode.kilauea.benchmarks.model.json.JSONFlat;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOFlat;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLFlat;
+
+/**
+ * Mapping of the flat class {@code Flat}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatBenchmark {
+
+	private Flat source;
+	private POJOFlat pojo;
+	private JSONFlat json;
+	private XMLFlat xml;
+
+	@Setup
+	public void setup() throws IllegalAccessException {
+		source = Corpus.flat();
+		pojo = POJOFlat.of(source);
+		json = JSONFlat.of(source);
+		xml = XMLFlat.of(source);
+	}
+
+	@Benchmark
+	public Flat directCopy() {
+		return DirectCopy.copy(source);
+	}
+
+	@Benchmark
+	public POJOFlat pojoOf() throws IllegalAccessException {
+		return POJOFlat.of(source);
+	}
+
+	@Benchmark
+	public JSONFlat jsonOf() throws IllegalAccessException {
+		return JSONFlat.of(source);
+	}
+
+	@Benchmark
+	public XMLFlat xmlOf() throws IllegalAccessException {
+		return XMLFlat.of(source);
+	}
+
+	@Benchmark
+	public POJOFlat pojoOfArgs() throws IllegalAccessException {
+		return POJOFlat.of(source.getId(), source.getName(), source.getDescription(), source.getQuantity(),
+				source.getWeight(), source.isActive(), source.getPrice(), source.getCreated());
+	}
+
+	@Benchmark
+	public JSONFlat jsonOfArgs() throws IllegalAccessException {
+		return JSONFlat.of(source.getId(), source.getName(), source.getDescription(), source.getQuantity(),
+				source.getWeight(), source.isActive(), source.getPrice(), source.getCreated());
+	}
+
+	@Benchmark
+	public XMLFlat xmlOfArgs() throws IllegalAccessException {
+		return XMLFlat.of(source.getId(), source.getName(), source.getDescription(), source.getQuantity(),
+				source.getWeight(), source.isActive(), source.getPrice(), source.getCreated());
+	}
+
+	@Benchmark
+	public Flat pojoTo() throws IllegalAccessException {
+		return pojo.to();
+	}
+
+	@Benchmark
+	public Flat jsonTo() throws IllegalAccessException {
+		return json.to();
+	}
+
+	@Benchmark
+	public Flat xmlTo() throws IllegalAccessException {
+		return xml.to();
+	}
+
+	@Benchmark
+	public String toJSONString() {
+		return json.toJSONString();
+	}
+
+	@Benchmark
+	public String toXMLString() {
+		return xml.toXMLString();
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: WideBenchmark.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.magiccode.kilauea.benchmarks.model.Wide;
+import net.magiccode.kilauea.benchmarks.model.json.JSONWide;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOWide;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLWide;
+
+/**
+ * Mapping of the wide class {@code Wide} with 200 fields.
+ * There is no {@code of(args)} benchmark, 200 arguments would only measure the call itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WideBenchmark {
+
+	private Wide source;
+	private POJOWide pojo;
+	private JSONWide json;
+	private XMLWide xml;
+
+	@Setup
+	public void setup() throws IllegalAccessException {
+		source = Corpus.wide();
+		pojo = POJOWide.of(source);
+		json = JSONWide.of(source);
+		xml = XMLWide.of(source);
+	}
+
+	@Benchmark
+	public Wide directCopy() {
+		return DirectCopy.copy(source);
+	}
+
+	@Benchmark
+	public POJOWide pojoOf() throws IllegalAccessException {
+		return POJOWide.of(source);
+	}
+
+	@Benchmark
+	public JSONWide jsonOf() throws IllegalAccessException {
+		return JSONWide.of(source);
+	}
+
+	@Benchmark
+	public XMLWide xmlOf() throws IllegalAccessException {
+		return XMLWide.of(source);
+	}
+
+	@Benchmark
+	public Wide pojoTo() throws IllegalAccessException {
+		return pojo.to();
+	}
+
+	@Benchmark
+	public Wide jsonTo() throws IllegalAccessException {
+		return json.to();
+	}
+
+	@Benchmark
+	public Wide xmlTo() throws IllegalAccessException {
+		return xml.to();
+	}
+
+	@Benchmark
+	public String toJSONString() {
+		return json.toJSONString();
+	}
+
+	@Benchmark
+	public String toXMLString() {
+		return xml.toXMLString();
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Catalog.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * {@code List} and {@code Map} of mapped types.
+ */
+@Getter
+@Setter
+@Mappers({ @Mapped(type = GeneratorType.POJO), 
+		   @Mapped(type = GeneratorType.JSON), 
+		   @Mapped(type = GeneratorType.XML) })
+public class Catalog {
+
+	private String name;
+	private List<Item> items;
+	private Map<String, Item> itemsBySku;
+
+}
@@ -0,0 +1,34 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Employee.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Leaf of the nested chain starting at {@code Company}.
+ */
+@Getter
+@Setter
+@Mappers({ @Mapped(type = GeneratorType.POJO), 
+		   @Mapped(type = GeneratorType.JSON), 
+		   @Mapped(type = GeneratorType.XML) })
+public class Employee {
+
+	private Long id;
+	private String name;
+	private String code;
+
+}
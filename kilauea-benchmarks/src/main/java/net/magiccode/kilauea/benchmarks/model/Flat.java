@@ -0,0 +1,42 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Flat.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Flat class with a handful of simple fields.
+ */
+@Getter
+@Setter
+@Mappers({ @Mapped(type = GeneratorType.POJO), 
+		   @Mapped(type = GeneratorType.JSON), 
+		   @Mapped(type = GeneratorType.XML) })
+public class Flat {
+
+	private Long id;
+	private String name;
+	private String description;
+	private int quantity;
+	private Double weight;
+	private boolean active;
+	private BigDecimal price;
+	private LocalDate created;
+
+}
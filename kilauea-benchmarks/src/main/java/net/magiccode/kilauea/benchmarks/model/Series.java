@@ -0,0 +1,37 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Series.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with a batch companion, covering columns of primitive, boxed and array types.
+ * It is compiled with the module, so the generated {@code POJOSeriesBatch} must compile.
+ * <i>size</i> and <i>rowCount</i> have the names of members of the batch itself.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.POJO, batch = true)
+public class Series {
+
+	private long id;
+	private Integer count;
+	private String sensor;
+	private double[] samples;
+	private String[] labels;
+	private int size;
+	private Integer rowCount;
+
+}
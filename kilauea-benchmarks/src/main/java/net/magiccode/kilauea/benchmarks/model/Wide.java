@@ -0,0 +1,235 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Wide.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Wide class with 200 fields. Only reference types and {@code int} are used, 
+ * so the generated {@code of(args)} stays within the limit of 255 parameter slots.
+ */
+@Getter
+@Setter
+@Mappers({ @Mapped(type = GeneratorType.POJO), 
+		   @Mapped(type = GeneratorType.JSON), 
+		   @Mapped(type = GeneratorType.XML) })
+public class Wide {
+
+	private String field000;
+	private Integer field001;
+	private Long field002;
+	private Double field003;
+	private Boolean field004;
+	private BigDecimal field005;
+	private LocalDate field006;
+	private int field007;
+	private String field008;
+	private Integer field009;
+	private Long field010;
+	private Double field011;
+	private Boolean field012;
+	private BigDecimal field013;
+	private LocalDate field014;
+	private int field015;
+	private String field016;
+	private Integer field017;
+	private Long field018;
+	private Double field019;
+	private Boolean field020;
+	private BigDecimal field021;
+	private LocalDate field022;
+	private int field023;
+	private String field024;
+	private Integer field025;
+	private Long field026;
+	private Double field027;
+	private Boolean field028;
+	private BigDecimal field029;
+	private LocalDate field030;
+	private int field031;
+	private String field032;
+	private Integer field033;
+	private Long field034;
+	private Double field035;
+	private Boolean field036;
+	private BigDecimal field037;
+	private LocalDate field038;
+	private int field039;
+	private String field040;
+	private Integer field041;
+	private Long field042;
+	private Double field043;
+	private Boolean field044;
+	private BigDecimal field045;
+	private LocalDate field046;
+	private int field047;
+	private String field048;
+	private Integer field049;
+	private Long field050;
+	private Double field051;
+	private Boolean field052;
+	private BigDecimal field053;
+	private LocalDate field054;
+	private int field055;
+	private String field056;
+	private Integer field057;
+	private Long field058;
+	private Double field059;
+	private Boolean field060;
+	private BigDecimal field061;
+	private LocalDate field062;
+	private int field063;
+	private String field064;
+	private Integer field065;
+	private Long field066;
+	private Double field067;
+	private Boolean field068;
+	private BigDecimal field069;
+	private LocalDate field070;
+	private int field071;
+	private String field072;
+	private Integer field073;
+	private Long field074;
+	private Double field075;
+	private Boolean field076;
+	private BigDecimal field077;
+	private LocalDate field078;
+	private int field079;
+	private String field080;
+	private Integer field081;
+	private Long field082;
+	private Double field083;
+	private Boolean field084;
+	private BigDecimal field085;
+	private LocalDate field086;
+	private int field087;
+	private String field088;
+	private Integer field089;
+	private Long field090;
+	private Double field091;
+	private Boolean field092;
+	private BigDecimal field093;
+	private LocalDate field094;
+	private int field095;
+	private String field096;
+	private Integer field097;
+	private Long field098;
+	private Double field099;
+	private Boolean field100;
+	private BigDecimal field101;
+	private LocalDate field102;
+	private int field103;
+	private String field104;
+	private Integer field105;
+	private Long field106;
+	private Double field107;
+	private Boolean field108;
+	private BigDecimal field109;
+	private LocalDate field110;
+	private int field111;
+	private String field112;
+	private Integer field113;
+	private Long field114;
+	private Double field115;
+	private Boolean field116;
+	private BigDecimal field117;
+	private LocalDate field118;
+	private int field119;
+	private String field120;
+	private Integer field121;
+	private Long field122;
+	private Double field123;
+	private Boolean field124;
+	private BigDecimal field125;
+	private LocalDate field126;
+	private int field127;
+	private String field128;
+	private Integer field129;
+	private Long field130;
+	private Double field131;
+	private Boolean field132;
+	private BigDecimal field133;
+	private LocalDate field134;
+	private int field135;
+	private String field136;
+	private Integer field137;
+	private Long field138;
+	private Double field139;
+	private Boolean field140;
+	private BigDecimal field141;
+	private LocalDate field142;
+	private int field143;
+	private String field144;
+	private Integer field145;
+	private Long field146;
+	private Double field147;
+	private Boolean field148;
+	private BigDecimal field149;
+	private LocalDate field150;
+	private int field151;
+	private String field152;
+	private Integer field153;
+	private Long field154;
+	private Double field155;
+	private Boolean field156;
+	private BigDecimal field157;
+	private LocalDate field158;
+	private int field159;
+	private String field160;
+	private Integer field161;
+	private Long field162;
+	private Double field163;
+	private Boolean field164;
+	private BigDecimal field165;
+	private LocalDate field166;
+	private int field167;
+	private String field168;
+	private Integer field169;
+	private Long field170;
+	private Double field171;
+	private Boolean field172;
+	private BigDecimal field173;
+	private LocalDate field174;
+	private int field175;
+	private String field176;
+	private Integer field177;
+	private Long field178;
+	private Double field179;
+	private Boolean field180;
+	private BigDecimal field181;
+	private LocalDate field182;
+	private int field183;
+	private String field184;
+	private Integer field185;
+	private Long field186;
+	private Double field187;
+	private Boolean field188;
+	private BigDecimal field189;
+	private LocalDate field190;
+	private int field191;
+	private String field192;
+	private Integer field193;
+	private Long field194;
+	private Double field195;
+	private Boolean field196;
+	private BigDecimal field197;
+	private LocalDate field198;
+	private int field199;
+
+}
@@ -0,0 +1,142 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: BatchTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.benchmarks.model.Tick;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOTickBatch;
+
+/**
+ * Tests the batch generated for {@code Tick}:
+ * <ul>
+ * <li><i>of(sources)</i>, <i>to(index)</i> and <i>toList()</i> round trip, with null values in
+ * every boxed column</li>
+ * <li>the null bitmaps tell null from zero, also past the first 64 rows</li>
+ * <li>the <i>xxxStream()</i> views return the values of every row, those of boxed columns skip
+ * the rows with null values</li>
+ * </ul>
+ */
+class BatchTest {
+
+	/** more than two words of each null bitmap */
+	private static final int ROWS = 150;
+
+	@Test
+	void roundTrip() throws IllegalAccessException {
+		List<Tick> ticks = ticks(ROWS);
+		POJOTickBatch batch = POJOTickBatch.of(ticks);
+		assertEquals(ROWS, batch.size());
+		for (int index = 0; index < ROWS; index++) {
+			assertEquals(describe(ticks.get(index)), describe(batch.to(index)), "row " + index);
+		}
+		assertEquals(describeAll(ticks), describeAll(batch.toList()));
+	}
+
+	@Test
+	void nullBitmapsTellNullFromZero() throws IllegalAccessException {
+		List<Tick> ticks = ticks(ROWS);
+		POJOTickBatch batch = POJOTickBatch.of(ticks);
+		for (int index = 0; index < ROWS; index++) {
+			Tick tick = ticks.get(index);
+			assertEquals(tick.getCount(), batch.getCount(index), "count of row " + index);
+			assertEquals(tick.getSequence(), batch.getSequence(index), "sequence of row " + index);
+			assertEquals(tick.getBid(), batch.getBid(index), "bid of row " + index);
+			assertEquals(tick.getHalted(), batch.isHalted(index), "halted of row " + index);
+		}
+	}
+
+	@Test
+	void streamsOfPrimitiveColumns() throws IllegalAccessException {
+		List<Tick> ticks = ticks(ROWS);
+		POJOTickBatch batch = POJOTickBatch.of(ticks);
+		assertArrayEquals(ticks.stream().mapToLong(Tick::getId).toArray(), batch.idStream().toArray());
+		assertArrayEquals(ticks.stream().mapToInt(Tick::getVolume).toArray(), batch.volumeStream().toArray());
+		assertArrayEquals(ticks.stream().mapToDouble(Tick::getPrice).toArray(), batch.priceStream().toArray());
+		assertArrayEquals(ticks.stream().mapToInt(Tick::getVenue).toArray(), batch.venueStream().toArray());
+		assertArrayEquals(ticks.stream().mapToDouble(Tick::getSpread).toArray(), batch.spreadStream().toArray());
+		assertArrayEquals(ticks.stream().mapToInt(Tick::getSide).toArray(), batch.sideStream().toArray());
+	}
+
+	@Test
+	void streamsOfBoxedColumnsSkipNulls() throws IllegalAccessException {
+		List<Tick> ticks = ticks(ROWS);
+		POJOTickBatch batch = POJOTickBatch.of(ticks);
+		assertArrayEquals(ticks.stream().map(Tick::getCount).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray(),
+				batch.countStream().toArray());
+		assertArrayEquals(ticks.stream().map(Tick::getSequence).filter(Objects::nonNull).mapToLong(Long::longValue).toArray(),
+				batch.sequenceStream().toArray());
+		assertArrayEquals(ticks.stream().map(Tick::getBid).filter(Objects::nonNull).mapToDouble(Double::doubleValue).toArray(),
+				batch.bidStream().toArray());
+	}
+
+	@Test
+	void emptyBatch() throws IllegalAccessException {
+		POJOTickBatch batch = POJOTickBatch.of(List.of());
+		assertEquals(0, batch.size());
+		assertEquals(0, batch.toList().size());
+		assertEquals(0L, batch.idStream().count());
+		assertEquals(0L, batch.countStream().count());
+	}
+
+	/**
+	 * each boxed column is null in another pattern of rows, zero in others
+	 */
+	private static List<Tick> ticks(int rows) {
+		List<Tick> ticks = new ArrayList<>(rows);
+		for (int index = 0; index < rows; index++) {
+			Tick tick = new Tick();
+			tick.setId(Long.MIN_VALUE + index);
+			tick.setVolume(-index);
+			tick.setPrice(index == 1 ? -0.0d : index * 0.5d);
+			tick.setVenue((short) (index - 100));
+			tick.setSpread(index / 8f);
+			tick.setSide(index % 2 == 0 ? 'B' : 'S');
+			tick.setCount(index % 3 == 0 ? null : index % 3 - 1);
+			tick.setSequence(index % 5 == 0 ? null : Long.valueOf(index));
+			tick.setBid(index % 7 == 0 ? null : Double.valueOf(index % 7 == 1 ? 0.0d : index));
+			tick.setHalted(index % 4 == 0 ? null : Boolean.valueOf(index % 4 == 1));
+			tick.setSymbol(index % 6 == 0 ? null : "T" + index);
+			tick.setLevels(index % 10 == 0 ? null : new int[] { index, -index });
+			ticks.add(tick);
+		}
+		return ticks;
+	}
+
+	private static String describeAll(final List<Tick> ticks) {
+		return ticks.stream().map(BatchTest::describe).collect(Collectors.joining("\n"));
+	}
+
+	private static String describe(final Tick tick) {
+		return "id=" + tick.getId()
+				+ ", volume=" + tick.getVolume()
+				+ ", price=" + tick.getPrice()
+				+ ", venue=" + tick.getVenue()
+				+ ", spread=" + tick.getSpread()
+				+ ", side=" + tick.getSide()
+				+ ", count=" + tick.getCount()
+				+ ", sequence=" + tick.getSequence()
+				+ ", bid=" + tick.getBid()
+				+ ", halted=" + tick.getHalted()
+				+ ", symbol=" + tick.getSymbol()
+				+ ", levels=" + Arrays.toString(tick.getLevels());
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: BinaryTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import net.magiccode.kilauea.benchmarks.model.Part;
+import net.magiccode.kilauea.benchmarks.model.Shipment;
+import net.magiccode.kilauea.benchmarks.model.Shipment.Priority;
+import net.magiccode.kilauea.benchmarks.model.binary.BINARYShipment;
+import net.magiccode.kilauea.runtime.binary.BinaryCodec;
+
+/**
+ * Tests the binary codec generated for {@code Shipment}:
+ * <ul>
+ * <li><i>writeTo</i> and <i>readFrom</i> round trip, with all values set and with all nullable values null</li>
+ * <li><i>serializedSize()</i> equals the number of bytes written and read</li>
+ * <li>negative or too large counts of arrays, collections and maps fail before anything is allocated for them</li>
+ * <li>enum ordinals which are no constant of the enum are rejected</li>
+ * </ul>
+ */
+class BinaryTest {
+
+	@Test
+	void roundTripWithAllValues() throws IllegalAccessException {
+		assertRoundTrip(BINARYShipment.of(shipment()));
+	}
+
+	@Test
+	void roundTripWithNullValues() throws IllegalAccessException {
+		assertRoundTrip(BINARYShipment.of(shipmentWithNulls()));
+	}
+
+	@Test
+	void roundTripOfEmptyInstance() {
+		assertRoundTrip(new BINARYShipment());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { -1, Integer.MAX_VALUE })
+	void rejectsMalformedArrayCount(int count) throws IllegalAccessException {
+		Shipment shipment = new Shipment();
+		shipment.setDimensions(new int[0]);
+		assertMalformedCount(shipment, count);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { -1, Integer.MAX_VALUE })
+	void rejectsMalformedCollectionCount(int count) throws IllegalAccessException {
+		Shipment shipment = new Shipment();
+		shipment.setStops(new ArrayList<>());
+		assertMalformedCount(shipment, count);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { -1, Integer.MAX_VALUE })
+	void rejectsMalformedMapCount(int count) throws IllegalAccessException {
+		Shipment shipment = new Shipment();
+		shipment.setCounts(new HashMap<>());
+		assertMalformedCount(shipment, count);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { -1, 2, Integer.MAX_VALUE })
+	void rejectsMalformedEnumOrdinal(int ordinal) throws IllegalAccessException {
+		Shipment shipment = new Shipment();
+		shipment.setPriority(Priority.HIGH);
+		ByteBuffer buffer = replaceLastByte(BINARYShipment.of(shipment), ordinal);
+		assertThrows(IllegalStateException.class, () -> BINARYShipment.readFrom(buffer));
+	}
+
+	private static void assertRoundTrip(final BINARYShipment written) {
+		int size = written.serializedSize();
+		ByteBuffer buffer = ByteBuffer.allocate(size + 16);
+		written.writeTo(buffer);
+		assertEquals(size, buffer.position(), "bytes written");
+		buffer.flip();
+		BINARYShipment read = BINARYShipment.readFrom(buffer);
+		assertEquals(size, buffer.position(), "bytes read");
+		assertEquals(describe(written), describe(read));
+	}
+
+	/**
+	 * the count is written as the last byte, if the field holding it is the only one set and empty
+	 */
+	private static void assertMalformedCount(final Shipment shipment, int count) throws IllegalAccessException {
+		ByteBuffer buffer = replaceLastByte(BINARYShipment.of(shipment), count);
+		RuntimeException failure = assertThrows(RuntimeException.class, () -> BINARYShipment.readFrom(buffer));
+		assertTrue(failure instanceof BufferUnderflowException || failure instanceof IllegalStateException,
+				() -> "unexpected " + failure);
+	}
+
+	/**
+	 * write the given instance and replace its last byte by the given value as varint
+	 */
+	private static ByteBuffer replaceLastByte(final BINARYShipment written, int value) {
+		ByteBuffer buffer = ByteBuffer.allocate(written.serializedSize() + 4);
+		written.writeTo(buffer);
+		buffer.position(buffer.position() - 1);
+		BinaryCodec.writeVarInt(buffer, value);
+		buffer.flip();
+		return buffer;
+	}
+
+	private static Shipment shipment() {
+		Shipment shipment = shipmentWithNulls();
+		shipment.setPieces(3);
+		shipment.setCarrier("süd & co");
+		shipment.setPriority(Priority.HIGH);
+		shipment.setCharge(new BigDecimal("-12.050"));
+		shipment.setShipped(LocalDate.of(2024, 2, 29));
+		shipment.setTracking(new UUID(-1L, 42L));
+		shipment.setLabel(new byte[] { 0, -1, 127 });
+		shipment.setContents(part("A-1", 2));
+		return shipment;
+	}
+
+	/**
+	 * primitives and collections with null elements, all other nullable fields are null
+	 */
+	private static Shipment shipmentWithNulls() {
+		Shipment shipment = new Shipment();
+		shipment.setId(Long.MIN_VALUE);
+		shipment.setFragile(true);
+		shipment.setWeight(-0.5d);
+		shipment.setNotes(new String[] { "", null, "fragile" });
+		shipment.setEscalations(new Priority[] { Priority.LOW, null });
+		shipment.setStops(new ArrayList<>(Arrays.asList("north", null)));
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		counts.put("boxes", 0);
+		counts.put("missing", null);
+		shipment.setCounts(counts);
+		shipment.setItems(new ArrayList<>(Arrays.asList(part("B-2", 0), null)));
+		shipment.setDimensions(new int[] { 0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE });
+		return shipment;
+	}
+
+	private static Part part(final String sku, int stock) {
+		Part part = new Part();
+		part.setSku(sku);
+		part.setLabel("part " + sku);
+		part.setStock(stock);
+		part.setPrice(new BigDecimal("9.95"));
+		return part;
+	}
+
+	private static String describe(final BINARYShipment shipment) {
+		return "id=" + shipment.getId()
+				+ ", fragile=" + shipment.getFragile()
+				+ ", weight=" + shipment.getWeight()
+				+ ", pieces=" + shipment.getPieces()
+				+ ", carrier=" + shipment.getCarrier()
+				+ ", priority=" + shipment.getPriority()
+				+ ", charge=" + shipment.getCharge()
+				+ ", shipped=" + shipment.getShipped()
+				+ ", tracking=" + shipment.getTracking()
+				+ ", label=" + Arrays.toString(shipment.getLabel())
+				+ ", notes=" + Arrays.toString(shipment.getNotes())
+				+ ", escalations=" + Arrays.toString(shipment.getEscalations())
+				+ ", stops=" + shipment.getStops()
+				// maps are read as HashMap
+				+ ", counts=" + (shipment.getCounts() == null ? null : new TreeMap<>(shipment.getCounts()))
+				+ ", contents=" + shipment.getContents()
+				+ ", items=" + shipment.getItems()
+				+ ", dimensions=" + Arrays.toString(shipment.getDimensions());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ConstructorTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.benchmarks.model.Ledger;
+import net.magiccode.kilauea.benchmarks.model.Money;
+import net.magiccode.kilauea.benchmarks.model.json.JSONMoney;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOLedger;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOMoney;
+import net.magiccode.kilauea.runtime.Mapper;
+
+/**
+ * Tests <i>to()</i> by constructor: the canonical constructor of the record {@code Money} and the
+ * all-args constructor of {@code Ledger}, which has no no-args constructor.
+ * <ul>
+ * <li><i>of()</i> and <i>to()</i> round trip, with all values set and with all values null</li>
+ * <li>values of mapped types are mapped back, collections are copied and sets are {@code HashSet}s again</li>
+ * <li>the <i>MAPPER</i> maps in both directions, which only compiles if <i>to()</i> is generated</li>
+ * </ul>
+ */
+class ConstructorTest {
+
+	@Test
+	void recordByCanonicalConstructor() throws IllegalAccessException {
+		Mapper<Money, POJOMoney> mapper = POJOMoney.MAPPER;
+		for (Money money : List.of(money("EUR", "5.00"), new Money(null, null))) {
+			assertEquals(money, POJOMoney.of(money).to(), "POJO of(record).to()");
+			assertEquals(money, JSONMoney.of(money).to(), "JSON of(record).to()");
+			assertEquals(money, mapper.unmap(mapper.map(money)), "POJO MAPPER.unmap(MAPPER.map(record))");
+		}
+	}
+
+	@Test
+	void classByAllArgsConstructor() throws IllegalAccessException {
+		List<Money> entries = new ArrayList<>(List.of(money("EUR", "1.50"), money("USD", "-2")));
+		Ledger ledger = new Ledger("owner", money("EUR", "-0.50"), entries, new LinkedHashSet<>(List.of("b", "a")),
+				new int[] { 1, -1 });
+		Ledger copy = POJOLedger.of(ledger).to();
+		assertEquals(describe(ledger), describe(copy));
+		assertNotSame(entries, copy.getEntries(), "to() shares the entries of the mapped instance");
+		assertTrue(copy.getLabels() instanceof HashSet,
+				() -> "to() creates labels as " + copy.getLabels().getClass().getName());
+		assertNotSame(ledger.getLimits(), copy.getLimits(), "to() shares the limits of the mapped instance");
+		Mapper<Ledger, POJOLedger> mapper = POJOLedger.MAPPER;
+		assertEquals(describe(ledger), describe(mapper.unmap(mapper.map(ledger))), "MAPPER.unmap(MAPPER.map(ledger))");
+	}
+
+	@Test
+	void classByAllArgsConstructorWithNullValues() throws IllegalAccessException {
+		Ledger empty = new Ledger(null, null, null, null, null);
+		assertEquals(describe(empty), describe(POJOLedger.of(empty).to()));
+	}
+
+	private static Money money(final String currency, final String amount) {
+		return new Money(currency, new BigDecimal(amount));
+	}
+
+	private static String describe(final Ledger ledger) {
+		Set<String> labels = ledger.getLabels() == null ? null : new TreeSet<>(ledger.getLabels());
+		return "owner=" + ledger.getOwner()
+				+ ", balance=" + ledger.getBalance()
+				+ ", entries=" + ledger.getEntries()
+				+ ", labels=" + labels
+				+ ", limits=" + Arrays.toString(ledger.getLimits());
+	}
+}
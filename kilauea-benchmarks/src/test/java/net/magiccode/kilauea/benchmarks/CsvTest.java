@@ -0,0 +1,178 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: CsvTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import net.magiccode.kilauea.benchmarks.model.Trade;
+import net.magiccode.kilauea.benchmarks.model.Trade.Side;
+import net.magiccode.kilauea.benchmarks.model.csv.CSVTrade;
+import net.magiccode.kilauea.runtime.csv.CsvReader;
+
+/**
+ * Tests the CSV rows generated for {@code Trade} and the {@code CsvReader}:
+ * <ul>
+ * <li><i>writeCSV</i> and <i>csvReader</i> round trip, including separators, quotes, line breaks,
+ * blanks, empty strings and null values</li>
+ * <li>line breaks in quoted values, doubled quotes, rows ending with CRLF, LF or nothing at all,
+ * blank lines and a byte order mark are read as expected</li>
+ * <li>columns are matched by name: reordered, unknown and missing columns</li>
+ * <li>an empty column is null, a quoted empty column an empty string</li>
+ * <li>unterminated quotes and values which cannot be parsed fail with an {@code IOException}</li>
+ * </ul>
+ */
+class CsvTest {
+
+	@Test
+	void roundTrip() throws Exception {
+		List<Trade> trades = List.of(trade("A", "plain"), trade("B", "a, b"), trade("C", "say \"hi\""),
+				trade("D", "first\r\nsecond\nthird"), trade("E", " blanks "), trade("F", ""), trade("G", null),
+				new Trade());
+		List<CSVTrade> rows = new ArrayList<>();
+		for (Trade trade : trades) {
+			rows.add(CSVTrade.of(trade));
+		}
+		StringBuilder csv = new StringBuilder();
+		CSVTrade.writeCSV(csv, rows);
+		List<CSVTrade> read = read(csv.toString());
+		assertEquals(trades.size(), read.size(), "rows read");
+		for (int i = 0; i < trades.size(); i++) {
+			assertEquals(describe(trades.get(i)), describe(read.get(i).to()), "row " + i);
+		}
+	}
+
+	@Test
+	void quotedLineBreakAndDoubledQuotes() throws Exception {
+		assertRows("id,comment\r\nA,\"first\nsecond\"\r\nB,\"say \"\"hi\"\"\"\r\n", "A|first\nsecond", "B|say \"hi\"");
+	}
+
+	@Test
+	void lfRowsWithQuotedCrlf() throws Exception {
+		assertRows("id,comment\nA,\"first\r\nsecond\"\nB,x\n", "A|first\r\nsecond", "B|x");
+	}
+
+	@Test
+	void blankLinesAndLastRowWithoutLineEnd() throws Exception {
+		assertRows("id,comment\r\n\r\nA,x\r\n\nB,y", "A|x", "B|y");
+	}
+
+	@Test
+	void byteOrderMark() throws Exception {
+		assertRows("\uFEFFid,comment\r\nA,x\r\n", "A|x");
+	}
+
+	@Test
+	void reorderedAndUnknownColumns() throws Exception {
+		assertRows("comment,unknown,id\r\nx,skipped,A\r\n", "A|x");
+	}
+
+	@Test
+	void missingColumn() throws Exception {
+		assertRows("id\r\nA\r\n", "A|null");
+	}
+
+	@Test
+	void emptyAndQuotedEmptyColumn() throws Exception {
+		assertRows("id,comment\r\nA,\r\nB,\"\"\r\n", "A|null", "B|");
+	}
+
+	/**
+	 * the line breaks of quoted values are counted as well
+	 */
+	@Test
+	void lineNumbers() throws IOException {
+		try (CsvReader<CSVTrade> reader = CSVTrade.csvReader(new StringReader("id,comment\nA,\"1\n2\"\nB,x\n"))) {
+			reader.read();
+			assertEquals(2, reader.lineNumber(), "line of the first row");
+			reader.read();
+			assertEquals(4, reader.lineNumber(), "line of the second row");
+		}
+	}
+
+	/**
+	 * an unterminated quote, a quantity which is not a number and text after a closing quote
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "id,comment\r\nA,\"open\r\n", "id,quantity\r\nA,many\r\n",
+			"id,comment\r\nA,\"quoted\"trailing\r\n" })
+	void rejectsMalformedRows(final String csv) {
+		assertThrows(IOException.class, () -> read(csv));
+	}
+
+	/**
+	 * @param expected - <i>id|comment</i> of each row
+	 */
+	private static void assertRows(final String csv, final String... expected) throws Exception {
+		List<String> actual = new ArrayList<>();
+		for (CSVTrade row : read(csv)) {
+			Trade trade = row.to();
+			actual.add(trade.getId() + "|" + trade.getComment());
+		}
+		assertEquals(List.of(expected), actual);
+	}
+
+	private static List<CSVTrade> read(final String csv) throws IOException {
+		List<CSVTrade> rows = new ArrayList<>();
+		try (CsvReader<CSVTrade> reader = CSVTrade.csvReader(new StringReader(csv))) {
+			for (CSVTrade row = reader.read(); row != null; row = reader.read()) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	private static Trade trade(final String id, final String comment) {
+		Trade trade = new Trade();
+		trade.setId(id);
+		trade.setComment(comment);
+		trade.setQuantity(-42);
+		trade.setVolume(Long.MIN_VALUE);
+		trade.setPrice(-0.125d);
+		trade.setSettled(true);
+		trade.setFlag(',');
+		trade.setSide(Side.SELL);
+		trade.setTraded(LocalDate.of(2024, 2, 29));
+		trade.setBooked(Instant.ofEpochSecond(1_700_000_000L, 123_000_000L));
+		trade.setFee(new BigDecimal("-0.50"));
+		trade.setReference(new UUID(-1L, 42L));
+		return trade;
+	}
+
+	private static String describe(final Trade trade) {
+		return "id=" + trade.getId()
+				+ ", comment=" + (trade.getComment() == null ? null : "[" + trade.getComment() + "]")
+				+ ", quantity=" + trade.getQuantity()
+				+ ", volume=" + trade.getVolume()
+				+ ", price=" + trade.getPrice()
+				+ ", settled=" + trade.isSettled()
+				+ ", flag=" + (int) trade.getFlag()
+				+ ", side=" + trade.getSide()
+				+ ", traded=" + trade.getTraded()
+				+ ", booked=" + trade.getBooked()
+				+ ", fee=" + trade.getFee()
+				+ ", reference=" + trade.getReference();
+	}
+}
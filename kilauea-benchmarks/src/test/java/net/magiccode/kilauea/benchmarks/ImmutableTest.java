@@ -0,0 +1,128 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ImmutableTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.benchmarks.model.Quote;
+import net.magiccode.kilauea.benchmarks.model.json.JSONQuote;
+import net.magiccode.kilauea.runtime.json.JacksonSupport;
+
+/**
+ * Tests the immutable class generated for {@code Quote}:
+ * <ul>
+ * <li>the builder copies collections, maps and arrays once on <i>build()</i>, the instance hands
+ * out unmodifiable collections and copies of its arrays</li>
+ * <li><i>toBuilder()</i> and <i>of()</i> and <i>to()</i> round trip</li>
+ * <li><i>equals()</i> agrees with <i>hashCode()</i> for NaN and tells -0.0 from 0.0, like records</li>
+ * <li>Jackson creates instances through the builder</li>
+ * </ul>
+ */
+class ImmutableTest {
+
+	@Test
+	void builderCopiesOnBuild() {
+		List<String> venues = new ArrayList<>(List.of("north", "south"));
+		Map<String, Integer> depth = new LinkedHashMap<>(Map.of("bid", 3));
+		int[] levels = { 1, 2 };
+		JSONQuote quote = JSONQuote.builder().symbol("ABC").venues(venues).depth(depth).levels(levels).build();
+		venues.add("east");
+		depth.put("ask", 4);
+		levels[0] = -1;
+		assertEquals(List.of("north", "south"), quote.getVenues());
+		assertEquals(Map.of("bid", 3), quote.getDepth());
+		assertArrayEquals(new int[] { 1, 2 }, quote.getLevels());
+		assertThrows(UnsupportedOperationException.class, () -> quote.getVenues().add("west"));
+		assertThrows(UnsupportedOperationException.class, () -> quote.getDepth().put("ask", 4));
+		quote.getLevels()[1] = -2;
+		assertArrayEquals(new int[] { 1, 2 }, quote.getLevels(), "getLevels() hands out the array of the instance");
+	}
+
+	@Test
+	void toBuilderRoundTrip() {
+		JSONQuote quote = quote();
+		assertEquals(quote, quote.toBuilder().build());
+		JSONQuote changed = quote.toBuilder().price(2.5d).build();
+		assertEquals(2.5d, changed.getPrice());
+		assertEquals(quote().getPrice(), quote.getPrice(), "toBuilder() changes the instance");
+		assertEquals(quote.toBuilder().price(2.5d).build(), changed);
+	}
+
+	@Test
+	void ofAndToRoundTrip() throws IllegalAccessException {
+		Quote source = new Quote();
+		source.setSymbol("XYZ");
+		source.setPrice(-1.25d);
+		source.setSpread(0.5f);
+		source.setVenues(new ArrayList<>(List.of("north")));
+		source.setDepth(new LinkedHashMap<>(Map.of("bid", 1)));
+		source.setLevels(new int[] { 7 });
+		assertEquals(describe(source), describe(JSONQuote.of(source).to()));
+		Quote empty = new Quote();
+		assertEquals(describe(empty), describe(JSONQuote.of(empty).to()));
+	}
+
+	@Test
+	void equalsAndHashCodeWithNaN() {
+		JSONQuote first = quote().toBuilder().price(Double.NaN).spread(Float.NaN).last(Double.NaN).build();
+		JSONQuote second = quote().toBuilder().price(Double.NaN).spread(Float.NaN).last(Double.NaN).build();
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+	}
+
+	@Test
+	void equalsTellsNegativeZero() {
+		assertNotEquals(quote().toBuilder().price(-0.0d).build(), quote().toBuilder().price(0.0d).build());
+		assertNotEquals(quote().toBuilder().spread(-0.0f).build(), quote().toBuilder().spread(0.0f).build());
+		assertNotEquals(quote().toBuilder().last(-0.0d).build(), quote().toBuilder().last(0.0d).build());
+		JSONQuote negative = quote().toBuilder().price(-0.0d).build();
+		assertEquals(negative.hashCode(), quote().toBuilder().price(-0.0d).build().hashCode());
+	}
+
+	@Test
+	void jacksonBuildsThroughBuilder() throws Exception {
+		JSONQuote quote = quote();
+		String json = JacksonSupport.jsonMapper().writeValueAsString(quote);
+		JSONQuote read = JacksonSupport.jsonMapper().readValue(json, JSONQuote.class);
+		assertEquals(quote, read, json);
+		assertThrows(UnsupportedOperationException.class, () -> read.getVenues().add("west"),
+				"Jackson bypasses the builder");
+	}
+
+	private static JSONQuote quote() {
+		return JSONQuote.builder().symbol("ABC").price(101.5d).spread(0.25f).last(101.25d)
+				.venues(List.of("north", "south")).depth(Map.of("bid", 3, "ask", 0)).levels(new int[] { 1, 0, -1 })
+				.build();
+	}
+
+	private static String describe(final Quote quote) {
+		return "symbol=" + quote.getSymbol()
+				+ ", price=" + quote.getPrice()
+				+ ", spread=" + quote.getSpread()
+				+ ", last=" + quote.getLast()
+				+ ", venues=" + quote.getVenues()
+				+ ", depth=" + (quote.getDepth() == null ? null : new TreeMap<>(quote.getDepth()))
+				+ ", levels=" + Arrays.toString(quote.getLevels());
+	}
+}
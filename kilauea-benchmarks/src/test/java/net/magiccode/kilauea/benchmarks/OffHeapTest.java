@@ -0,0 +1,202 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: OffHeapTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.benchmarks.model.Position;
+import net.magiccode.kilauea.benchmarks.model.Position.Side;
+import net.magiccode.kilauea.benchmarks.model.offheap.OFFHEAPPosition;
+import net.magiccode.kilauea.benchmarks.model.offheap.OFFHEAPPositionStore;
+
+/**
+ * Tests the off-heap flyweight and store generated for {@code Position}:
+ * <ul>
+ * <li>a store filled far past its initial capacity returns all records, with <i>get(index, flyweight)</i>,
+ * <i>to(index)</i> and <i>forEach</i></li>
+ * <li><i>add()</i> appends a record with all fields null or zero</li>
+ * <li>setting a field to null clears only its own bit of the presence bitmap</li>
+ * <li><i>of(source)</i> and <i>to()</i> of the flyweight round trip, including the field read and written by reflection</li>
+ * <li>a string exceeding its slot is rejected and leaves the store unchanged</li>
+ * </ul>
+ */
+class OffHeapTest {
+
+	private static final int INITIAL_CAPACITY = 2;
+
+	private static final int RECORDS = 100;
+
+	@Test
+	void storeGrowsPastInitialCapacity() throws IllegalAccessException {
+		OFFHEAPPositionStore store = new OFFHEAPPositionStore(INITIAL_CAPACITY);
+		List<Position> sources = fill(store);
+		assertEquals(RECORDS, store.size());
+		assertTrue(store.capacity() >= RECORDS && store.capacity() > INITIAL_CAPACITY,
+				() -> "capacity " + store.capacity() + " of a store holding " + RECORDS + " records");
+		assertRecords(store, sources);
+	}
+
+	/**
+	 * <i>add()</i> has to clear the record, even if the buffer has been used before
+	 */
+	@Test
+	void addAppendsEmptyRecord() throws IllegalAccessException {
+		OFFHEAPPositionStore store = new OFFHEAPPositionStore(INITIAL_CAPACITY);
+		List<Position> sources = fill(store);
+		store.clear();
+		assertEquals(0, store.size());
+		int capacity = store.capacity();
+		OFFHEAPPosition record = store.add();
+		assertEquals(capacity, store.capacity(), "add() after clear() grows the store");
+		assertEquals(describe(new Position()), describe(record.to()));
+		assertTrue(record.getLots() == null && record.getAccount() == null && record.getId() == 0L,
+				() -> "record appended with add() is not empty: " + record);
+		for (Position source : sources.subList(1, sources.size())) {
+			store.of(source);
+		}
+		store.get(0).copyFrom(sources.get(0));
+		assertRecords(store, sources);
+	}
+
+	/**
+	 * <i>lots</i> has the first bit of the presence bitmap, <i>serial</i> a bit of the second byte
+	 */
+	@Test
+	void presenceBitsAreIndependent() throws IllegalAccessException {
+		OFFHEAPPosition flyweight = OFFHEAPPosition.of(position(7));
+		String before = describe(flyweight.to());
+		flyweight.setLots(null);
+		assertNull(flyweight.getLots());
+		assertNotNull(flyweight.getPrice(), "setLots(null) clears price");
+		assertNotNull(flyweight.getSerial(), "setLots(null) clears serial");
+		flyweight.setSerial(null);
+		assertNull(flyweight.getSerial());
+		assertNotNull(flyweight.getAccount(), "setSerial(null) clears account");
+		flyweight.setLots(7).setSerial(7L);
+		assertEquals(before, describe(flyweight.to()));
+	}
+
+	@Test
+	void ofAndToRoundTrip() throws IllegalAccessException {
+		assertNull(OFFHEAPPosition.of(null));
+		assertEquals(describe(position(3)), describe(OFFHEAPPosition.of(position(3)).to()));
+		assertEquals(describe(positionWithNulls(4)), describe(OFFHEAPPosition.of(positionWithNulls(4)).to()));
+		assertEquals(5L, OFFHEAPPosition.of(position(5)).getSerial(), "serial copied by reflection");
+	}
+
+	/**
+	 * the symbol has a slot of 12 bytes, a record which cannot be written completely is removed again
+	 */
+	@Test
+	void rejectsStringExceedingItsSlot() throws IllegalAccessException {
+		OFFHEAPPositionStore store = new OFFHEAPPositionStore(INITIAL_CAPACITY);
+		store.of(position(0));
+		Position position = position(1);
+		// 14 UTF-8 bytes
+		position.setSymbol("ÄÄÄÄÄÄÄ");
+		assertThrows(IllegalArgumentException.class, () -> store.of(position));
+		assertEquals(1, store.size());
+	}
+
+	/**
+	 * half of the records are appended one by one, the other half with <i>addAll</i>
+	 */
+	private static List<Position> fill(final OFFHEAPPositionStore store) throws IllegalAccessException {
+		List<Position> sources = new ArrayList<>();
+		for (int index = 0; index < RECORDS; index++) {
+			sources.add(index % 2 == 0 ? position(index) : positionWithNulls(index));
+		}
+		for (Position source : sources.subList(0, RECORDS / 2)) {
+			store.of(source);
+		}
+		store.addAll(sources.subList(RECORDS / 2, RECORDS));
+		return sources;
+	}
+
+	private static void assertRecords(final OFFHEAPPositionStore store, final List<Position> sources)
+			throws IllegalAccessException {
+		OFFHEAPPosition flyweight = new OFFHEAPPosition();
+		for (int index = 0; index < sources.size(); index++) {
+			assertSame(flyweight, store.get(index, flyweight));
+			assertEquals(describe(sources.get(index)), describe(flyweight.to()), "record " + index + " read with get(index, flyweight)");
+			assertEquals(describe(sources.get(index)), describe(store.to(index)), "record " + index + " read with to(index)");
+		}
+		List<Long> visited = new ArrayList<>();
+		store.forEach(record -> visited.add(record.getId()));
+		assertEquals(sources.size(), visited.size(), "records visited by forEach");
+	}
+
+	private static Position position(int index) {
+		Position position = new Position();
+		position.setId(index);
+		position.setOpen(index % 3 == 0);
+		position.setQuantity(index - 0.25d);
+		position.setVenue((short) -index);
+		position.setLots(index);
+		position.setPrice(index * 1.5d);
+		position.setFlagged(index % 4 == 0);
+		position.setSymbol("SYM-" + index + "-ü");
+		position.setSide(index % 2 == 0 ? Side.BUY : Side.SELL);
+		position.setSettled(LocalDate.of(2024, 2, 29).plusDays(index));
+		position.setCutoff(LocalTime.of(17, 30, 0, 999_999_999));
+		position.setPlaced(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_456_789).plusMinutes(index));
+		position.setUpdated(Instant.ofEpochSecond(-1L, 1L).plusSeconds(index));
+		position.setAccount(new UUID(-1L, index));
+		position.setSerial(index);
+		return position;
+	}
+
+	/**
+	 * primitives only, all nullable fields besides <i>serial</i> are null
+	 */
+	private static Position positionWithNulls(int index) {
+		Position position = new Position();
+		position.setId(-index);
+		position.setOpen(true);
+		position.setQuantity(-0.0d);
+		position.setSerial(index);
+		return position;
+	}
+
+	private static String describe(final Position position) {
+		return "id=" + position.getId()
+				+ ", open=" + position.isOpen()
+				+ ", quantity=" + position.getQuantity()
+				+ ", venue=" + position.getVenue()
+				+ ", lots=" + position.getLots()
+				+ ", price=" + position.getPrice()
+				+ ", flagged=" + position.getFlagged()
+				+ ", symbol=" + position.getSymbol()
+				+ ", side=" + position.getSide()
+				+ ", settled=" + position.getSettled()
+				+ ", cutoff=" + position.getCutoff()
+				+ ", placed=" + position.getPlaced()
+				+ ", updated=" + position.getUpdated()
+				+ ", account=" + position.getAccount()
+				+ ", serial=" + position.getSerial();
+	}
+}
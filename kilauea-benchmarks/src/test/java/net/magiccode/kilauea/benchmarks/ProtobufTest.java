@@ -0,0 +1,209 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ProtobufTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.benchmarks.model.Reading;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOReading;
+import net.magiccode.kilauea.runtime.MappingException;
+import net.magiccode.kilauea.runtime.protobuf.ProtoReader;
+import net.magiccode.kilauea.runtime.protobuf.ProtoWriter;
+
+/**
+ * Tests the protobuf codec generated for {@code Reading}:
+ * <ul>
+ * <li>arrays of primitives are written as one packed field each and read back unchanged</li>
+ * <li>unpacked elements of an array field, as other writers may send them, are read as well</li>
+ * <li>null elements of collections and null keys or values of maps fail with a {@code MappingException}</li>
+ * <li>deeply nested messages, in fields, collections and maps, are written with the sizes computed before
+ * and read back unchanged, also when one writer writes several messages</li>
+ * </ul>
+ */
+class ProtobufTest {
+
+	/** numbers of the array fields of {@code Reading}, by position */
+	private static final int[] ARRAY_FIELDS = { 2, 3, 4, 5, 6, 7, 8 };
+
+	/** number of messages nested into each other by <i>previous</i> */
+	private static final int NESTING_DEPTH = 100;
+
+	@Test
+	void roundTrip() throws Exception {
+		POJOReading written = POJOReading.of(reading());
+		POJOReading read = POJOReading.parseProto(new ByteArrayInputStream(write(written)));
+		assertEquals(written.getId(), read.getId(), "id");
+		assertArrayEquals(written.getCounts(), read.getCounts(), "counts");
+		assertArrayEquals(written.getOffsets(), read.getOffsets(), "offsets");
+		assertArrayEquals(written.getLevels(), read.getLevels(), "levels");
+		assertArrayEquals(written.getCodes(), read.getCodes(), "codes");
+		assertArrayEquals(written.getFlags(), read.getFlags(), "flags");
+		assertArrayEquals(written.getWeights(), read.getWeights(), "weights");
+		assertArrayEquals(written.getSamples(), read.getSamples(), "samples");
+		assertEquals(written.getLabels(), read.getLabels(), "labels");
+		assertEquals(written.getTotals(), read.getTotals(), "totals");
+	}
+
+	/**
+	 * every array field is written once with wire type LEN
+	 */
+	@Test
+	void arraysArePacked() throws Exception {
+		byte[] message = write(POJOReading.of(reading()));
+		assertEquals(POJOReading.of(reading()).protoSize(), message.length, "protoSize() and the bytes written");
+		Map<Integer, Integer> occurrences = new HashMap<>();
+		ProtoReader reader = new ProtoReader(new ByteArrayInputStream(message));
+		int tag;
+		while ((tag = reader.readTag()) != 0) {
+			int number = tag >>> 3;
+			if (Arrays.stream(ARRAY_FIELDS).anyMatch(field -> field == number)) {
+				assertEquals(ProtoWriter.LEN, tag & 7, "wire type of array field " + number);
+				occurrences.merge(number, 1, Integer::sum);
+			}
+			reader.skipField(tag);
+		}
+		for (int field : ARRAY_FIELDS) {
+			assertEquals(Integer.valueOf(1), occurrences.get(field), "occurrences of array field " + field);
+		}
+	}
+
+	/**
+	 * elements of field <i>counts</i> with a tag each
+	 */
+	@Test
+	void readsUnpackedArray() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ProtoWriter writer = new ProtoWriter(out);
+		for (int count : new int[] { 3, -1, 300 }) {
+			writer.writeTag(2, ProtoWriter.VARINT);
+			writer.writeInt32(count);
+		}
+		writer.flush();
+		POJOReading read = POJOReading.parseProto(new ByteArrayInputStream(out.toByteArray()));
+		assertArrayEquals(new int[] { 3, -1, 300 }, read.getCounts());
+	}
+
+	@Test
+	void rejectsNullElement() throws Exception {
+		Reading reading = reading();
+		reading.setLabels(Arrays.asList("a", null));
+		assertRejected(POJOReading.of(reading));
+	}
+
+	@Test
+	void rejectsNullMapValue() throws Exception {
+		Reading reading = reading();
+		reading.getTotals().put("missing", null);
+		assertRejected(POJOReading.of(reading));
+	}
+
+	/**
+	 * a chain of readings linked by <i>previous</i>, some of them with history and related readings
+	 */
+	@Test
+	void nestedMessages() throws Exception {
+		Reading reading = reading();
+		Reading level = reading;
+		for (int depth = 1; depth <= NESTING_DEPTH; depth++) {
+			Reading nested = new Reading();
+			nested.setId(depth);
+			nested.setLabels(List.of("level " + depth));
+			if (depth % 10 == 0) {
+				nested.setHistory(List.of(leaf(depth * 100L), leaf(depth * 100L + 1)));
+				nested.setRelated(Map.of("leaf", leaf(depth * 100L + 2)));
+			}
+			level.setPrevious(nested);
+			level = nested;
+		}
+		POJOReading written = POJOReading.of(reading);
+		byte[] message = write(written);
+		assertEquals(written.protoSize(), message.length, "protoSize() of nested messages and the bytes written");
+		POJOReading read = POJOReading.parseProto(new ByteArrayInputStream(message));
+		assertEquals(describeNested(written), describeNested(read));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ProtoWriter writer = new ProtoWriter(out);
+		written.writeProto(writer);
+		written.writeProto(writer);
+		writer.flush();
+		assertEquals(2 * message.length, out.size(), "bytes of two messages written with one writer");
+	}
+
+	private static Reading leaf(long id) {
+		Reading leaf = new Reading();
+		leaf.setId(id);
+		leaf.setCounts(new int[] { (int) id });
+		return leaf;
+	}
+
+	/**
+	 * ids and labels along <i>previous</i>, with the ids of history and related readings
+	 */
+	private static String describeNested(final POJOReading reading) {
+		StringBuilder description = new StringBuilder();
+		for (POJOReading level = reading; level != null; level = level.getPrevious()) {
+			description.append(level.getId()).append(level.getLabels());
+			if (level.getHistory() != null) {
+				level.getHistory().forEach(entry -> description.append(" history ").append(entry.getId())
+						.append(Arrays.toString(entry.getCounts())));
+			}
+			if (level.getRelated() != null) {
+				level.getRelated().forEach((key, value) -> description.append(" related ").append(key).append('=')
+						.append(value.getId()).append(Arrays.toString(value.getCounts())));
+			}
+			description.append(" / ");
+		}
+		return description.toString();
+	}
+
+	private static void assertRejected(final POJOReading dto) {
+		assertThrows(MappingException.class, dto::protoSize, "protoSize()");
+		assertThrows(MappingException.class, () -> write(dto), "writeProto()");
+	}
+
+	private static Reading reading() {
+		Reading reading = new Reading();
+		reading.setId(42L);
+		reading.setCounts(new int[] { 0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 300 });
+		reading.setOffsets(new long[] { 0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE });
+		reading.setLevels(new short[] { 0, -7, Short.MAX_VALUE, Short.MIN_VALUE });
+		reading.setCodes(new char[] { 'a', 'ß', '€', Character.MAX_VALUE });
+		reading.setFlags(new boolean[] { true, false, true });
+		reading.setWeights(new float[] { 0f, -0f, 1.5f, Float.NaN, Float.MAX_VALUE });
+		reading.setSamples(new double[] { 0d, -2.25d, Double.MIN_VALUE, Double.NEGATIVE_INFINITY });
+		reading.setLabels(List.of("north", "", "süd"));
+		Map<String, Integer> totals = new LinkedHashMap<>();
+		totals.put("north", 3);
+		totals.put("south", 0);
+		reading.setTotals(totals);
+		return reading;
+	}
+
+	private static byte[] write(final POJOReading dto) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		dto.writeProto(out);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: RecordTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.benchmarks.model.Invoice;
+import net.magiccode.kilauea.benchmarks.model.Part;
+import net.magiccode.kilauea.benchmarks.model.json.JSONInvoice;
+import net.magiccode.kilauea.benchmarks.model.pojo.POJOInvoice;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLInvoice;
+import net.magiccode.kilauea.runtime.Mapper;
+
+/**
+ * Tests the records generated for {@code Invoice} with POJO, JSON and XML:
+ * <ul>
+ * <li><i>of()</i> and <i>to()</i> round trip, with all values set and with all nullable values null</li>
+ * <li>the <i>MAPPER</i> maps the same way</li>
+ * <li>collections of the record cannot be modified</li>
+ * </ul>
+ * <i>of()</i> and <i>to()</i> are passed as functions, which only compiles as long as they do not
+ * declare {@code IllegalAccessException}.
+ */
+class RecordTest {
+
+	@Test
+	void pojoRecord() {
+		assertRecord(POJOInvoice::of, POJOInvoice::to, POJOInvoice.MAPPER, POJOInvoice::items);
+	}
+
+	@Test
+	void jsonRecord() {
+		assertRecord(JSONInvoice::of, JSONInvoice::to, JSONInvoice.MAPPER, JSONInvoice::items);
+	}
+
+	@Test
+	void xmlRecord() {
+		assertRecord(XMLInvoice::of, XMLInvoice::to, XMLInvoice.MAPPER, XMLInvoice::items);
+	}
+
+	private static <R> void assertRecord(final Function<Invoice, R> of, final Function<R, Invoice> to,
+			final Mapper<Invoice, R> mapper, final Function<R, List<?>> items) {
+		assertNull(of.apply(null));
+		for (Invoice invoice : List.of(invoice(), new Invoice())) {
+			String expected = describe(invoice);
+			assertEquals(expected, describe(to.apply(of.apply(invoice))), "of(source).to()");
+			assertEquals(expected, describe(mapper.unmap(mapper.map(invoice))), "MAPPER.unmap(MAPPER.map(source))");
+		}
+		List<?> recordItems = items.apply(of.apply(invoice()));
+		assertThrows(UnsupportedOperationException.class, () -> recordItems.add(null),
+				"the items of the record can be modified");
+	}
+
+	private static Invoice invoice() {
+		Invoice invoice = new Invoice();
+		invoice.setNumber("2024-0042");
+		invoice.setPaid(true);
+		invoice.setAmount(new BigDecimal("1234.50"));
+		invoice.setIssued(LocalDate.of(2024, 2, 29));
+		invoice.setNotes(new String[] { "first", "" });
+		invoice.setItems(new ArrayList<>(List.of(part("A-1", 2), part("B-2", 0))));
+		Map<String, Integer> quantities = new LinkedHashMap<>();
+		quantities.put("A-1", 2);
+		quantities.put("B-2", 0);
+		invoice.setQuantities(quantities);
+		return invoice;
+	}
+
+	private static Part part(final String sku, int stock) {
+		Part part = new Part();
+		part.setSku(sku);
+		part.setLabel("part " + sku);
+		part.setStock(stock);
+		part.setPrice(new BigDecimal("9.95"));
+		return part;
+	}
+
+	private static String describe(final Invoice invoice) {
+		return "number=" + invoice.getNumber()
+				+ ", paid=" + invoice.isPaid()
+				+ ", amount=" + invoice.getAmount()
+				+ ", issued=" + invoice.getIssued()
+				+ ", notes=" + Arrays.toString(invoice.getNotes())
+				+ ", items=" + (invoice.getItems() == null ? null : invoice.getItems().stream()
+						.map(part -> part.getSku() + "/" + part.getLabel() + "/" + part.getStock() + "/" + part.getPrice())
+						.collect(Collectors.toList()))
+				+ ", quantities=" + (invoice.getQuantities() == null ? null : new TreeMap<>(invoice.getQuantities()));
+	}
+}
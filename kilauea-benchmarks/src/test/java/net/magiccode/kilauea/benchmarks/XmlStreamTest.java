@@ -0,0 +1,202 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: XmlStreamTest.java
+ */
+package net.magiccode.kilauea.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
+
+import net.magiccode.kilauea.benchmarks.model.Inventory.Status;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLInventory;
+import net.magiccode.kilauea.benchmarks.model.xml.XMLPart;
+
+/**
+ * Tests that <i>writeXML</i> and <i>readXML</i> generated for {@code Inventory} use the layout of
+ * <i>toXMLString()</i>:
+ * <ul>
+ * <li>the output of <i>writeXML</i> is read by Jackson, configured like <i>toXMLString()</i></li>
+ * <li>the output of <i>toXMLString()</i> is read by <i>readXML</i>, including null values and null elements</li>
+ * <li><i>writeXML</i> and <i>readXML</i> round trip, including null values and null elements</li>
+ * <li><i>readXML</i> reads an {@code Instant} written as decimal seconds, as Jackson does by default</li>
+ * </ul>
+ * Like with Jackson, null maps are read back as empty maps.
+ * Jackson reads empty elements of mapped types as instances and of strings in collections as
+ * empty strings, so the first test uses values which are not affected by this.
+ */
+class XmlStreamTest {
+
+	@Test
+	void jacksonReadsWriteXML() throws Exception {
+		XMLInventory written = inventory();
+		written.getDates().add(null);
+		written.getStock().put("missing", null);
+		written.setAudited(null);
+		XMLInventory read = jacksonMapper().readValue(writeXML(written), XMLInventory.class);
+		assertEquals(describe(written), describe(read));
+	}
+
+	@Test
+	void readXMLReadsToXMLString() throws Exception {
+		XMLInventory written = inventoryWithNulls();
+		String xml = written.toXMLString();
+		// toXMLString() starts with the name of the class
+		XMLInventory read = readXML(xml.substring(xml.indexOf('\n') + 1));
+		assertEquals(describe(written), describe(read));
+	}
+
+	@Test
+	void roundTripWithNullValues() throws Exception {
+		assertEquals(describe(inventoryWithNulls()), describe(readXML(writeXML(inventoryWithNulls()))));
+	}
+
+	@Test
+	void roundTripOfEmptyInstance() throws Exception {
+		assertEquals(describe(emptyMaps()), describe(readXML(writeXML(new XMLInventory()))));
+	}
+
+	/**
+	 * Jackson without <i>xmlTimeAsText</i> writes <i>received</i> as decimal seconds
+	 */
+	@Test
+	void readXMLReadsTimestamps() throws Exception {
+		ObjectMapper mapper = new XmlMapper();
+		mapper.registerModule(new JaxbAnnotationModule());
+		mapper.findAndRegisterModules();
+		for (Instant received : List.of(Instant.ofEpochSecond(1_700_000_000L, 123_000_000L), Instant.ofEpochSecond(42L))) {
+			XMLInventory written = new XMLInventory();
+			written.setReceived(received);
+			String xml = mapper.writeValueAsString(written);
+			assertEquals(received, readXML(xml).getReceived(), xml);
+		}
+	}
+
+	private static XMLInventory inventory() {
+		XMLInventory inventory = new XMLInventory();
+		inventory.setName("north");
+		inventory.setRevision(7);
+		inventory.setStatus(Status.OPEN);
+		inventory.setAudited(LocalDate.of(2024, 2, 29));
+		inventory.setReceived(Instant.ofEpochSecond(1_700_000_000L, 123_456_789L));
+		inventory.setValue(new BigDecimal("1250.50"));
+		inventory.setChecksum(new byte[] { 1, -2, 3 });
+		inventory.setCounts(new int[] { 3, 0, -1 });
+		inventory.setCodes(new String[] { "a", "b & c" });
+		inventory.setTags(new ArrayList<>(List.of("red", " spaced ")));
+		inventory.setDates(new ArrayList<>(List.of(LocalDate.of(2023, 12, 31))));
+		inventory.setFeatured(part("A-1", 2));
+		inventory.setItems(new ArrayList<>(List.of(part("B-2", 0), part("C-3", 5))));
+		Map<String, Integer> stock = new LinkedHashMap<>();
+		stock.put("shelf", 4);
+		stock.put("store", 0);
+		inventory.setStock(stock);
+		Map<Status, XMLPart> itemsByStatus = new LinkedHashMap<>();
+		itemsByStatus.put(Status.CLOSED, part("D-4", 1));
+		inventory.setItemsByStatus(itemsByStatus);
+		return inventory;
+	}
+
+	private static XMLInventory inventoryWithNulls() {
+		XMLInventory inventory = inventory();
+		inventory.setStatus(null);
+		inventory.setAudited(null);
+		inventory.setFeatured(null);
+		inventory.setCodes(new String[] { "a", null });
+		inventory.getTags().add(null);
+		inventory.getDates().add(null);
+		inventory.getItems().add(1, null);
+		inventory.getStock().put("missing", null);
+		inventory.getItemsByStatus().put(Status.OPEN, null);
+		return inventory;
+	}
+
+	/**
+	 * null maps are written as empty elements, which are read as empty maps like Jackson does
+	 */
+	private static XMLInventory emptyMaps() {
+		XMLInventory inventory = new XMLInventory();
+		inventory.setStock(new LinkedHashMap<>());
+		inventory.setItemsByStatus(new LinkedHashMap<>());
+		return inventory;
+	}
+
+	private static XMLPart part(final String sku, int stock) {
+		XMLPart part = new XMLPart();
+		part.setSku(sku);
+		part.setLabel("part " + sku);
+		part.setStock(stock);
+		part.setPrice(new BigDecimal("9.95"));
+		return part;
+	}
+
+	/**
+	 * configured like the generated <i>toXMLString()</i>
+	 */
+	private static ObjectMapper jacksonMapper() {
+		ObjectMapper mapper = new XmlMapper();
+		mapper.registerModule(new JaxbAnnotationModule());
+		mapper.findAndRegisterModules();
+		mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		return mapper;
+	}
+
+	private static String writeXML(final XMLInventory inventory) throws XMLStreamException {
+		StringWriter out = new StringWriter();
+		XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out);
+		inventory.writeXML(writer);
+		writer.close();
+		return out.toString();
+	}
+
+	private static XMLInventory readXML(final String xml) throws XMLStreamException {
+		return XMLInventory.readXML(XMLInputFactory.newFactory().createXMLStreamReader(new StringReader(xml)));
+	}
+
+	private static String describe(final XMLInventory inventory) {
+		return "name=" + inventory.getName()
+				+ ", revision=" + inventory.getRevision()
+				+ ", status=" + inventory.getStatus()
+				+ ", audited=" + inventory.getAudited()
+				+ ", received=" + inventory.getReceived()
+				+ ", value=" + inventory.getValue()
+				+ ", checksum=" + (inventory.getChecksum() == null ? null : Base64.getEncoder().encodeToString(inventory.getChecksum()))
+				+ ", counts=" + Arrays.toString(inventory.getCounts())
+				+ ", codes=" + Arrays.toString(inventory.getCodes())
+				+ ", tags=" + inventory.getTags()
+				+ ", dates=" + inventory.getDates()
+				+ ", featured=" + inventory.getFeatured()
+				+ ", items=" + inventory.getItems()
+				+ ", stock=" + inventory.getStock()
+				+ ", itemsByStatus=" + inventory.getItemsByStatus();
+	}
+}
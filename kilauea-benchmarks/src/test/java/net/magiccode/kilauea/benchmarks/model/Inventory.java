@@ -0,0 +1,55 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Inventory.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with every field layout of <i>writeXML</i> and <i>readXML</i>: attributes, single
+ * elements, arrays, collections and maps of text and of mapped types. Used by {@code XmlStreamTest}.
+ * <i>toXMLString()</i> writes the dates as text, so <i>readXML</i> can read all of its output.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.XML, xmlns = "urn:kilauea:inventory", xmlTimeAsText = true)
+public class Inventory {
+
+	public enum Status {
+		OPEN, CLOSED
+	}
+
+	private String name;
+	private int revision;
+	private Status status;
+	private LocalDate audited;
+	private Instant received;
+	private BigDecimal value;
+	private byte[] checksum;
+	private int[] counts;
+	private String[] codes;
+	private List<String> tags;
+	private List<LocalDate> dates;
+	private Part featured;
+	private List<Part> items;
+	private Map<String, Integer> stock;
+	private Map<Status, Part> itemsByStatus;
+
+}
@@ -0,0 +1,45 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Invoice.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class generated as record for POJO, JSON and XML, with an array, a collection of a mapped
+ * type and a map. All fields have public getters and setters, so neither <i>of()</i> nor
+ * <i>to()</i> of the records declares {@code IllegalAccessException}. Used by {@code RecordTest}.
+ */
+@Getter
+@Setter
+@Mappers({ @Mapped(type = GeneratorType.POJO, record = true),
+		   @Mapped(type = GeneratorType.JSON, record = true),
+		   @Mapped(type = GeneratorType.XML, record = true) })
+public class Invoice {
+
+	private String number;
+	private boolean paid;
+	private BigDecimal amount;
+	private LocalDate issued;
+	private String[] notes;
+	private List<Part> items;
+	private Map<String, Integer> quantities;
+
+}
@@ -0,0 +1,44 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Ledger.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.util.List;
+import java.util.Set;
+
+import lombok.Getter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Immutable class without a no-args constructor, <i>to()</i> calls its all-args constructor. Covers
+ * a mapped value, a collection of a mapped type, a set and an array. Used by {@code ConstructorTest}.
+ */
+@Getter
+@Mapped(type = GeneratorType.POJO)
+public final class Ledger {
+
+	private final String owner;
+	private final Money balance;
+	private final List<Money> entries;
+	private final Set<String> labels;
+	private final int[] limits;
+
+	public Ledger(final String owner, final Money balance, final List<Money> entries, final Set<String> labels,
+			final int[] limits) {
+		this.owner = owner;
+		this.balance = balance;
+		this.entries = entries;
+		this.labels = labels;
+		this.limits = limits;
+	}
+
+}
@@ -0,0 +1,26 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Money.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Record as annotated class, <i>to()</i> calls its canonical constructor. Used by {@code ConstructorTest}.
+ */
+@Mappers({ @Mapped(type = GeneratorType.POJO),
+		   @Mapped(type = GeneratorType.JSON) })
+public record Money(String currency, BigDecimal amount) {
+}
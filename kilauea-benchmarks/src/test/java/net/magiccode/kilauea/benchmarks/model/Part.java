@@ -0,0 +1,40 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Part.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Mapped type within the sample classes of the tests. The processor resolves mapped
+ * field types among the classes of the same compilation, so the tests cannot use
+ * {@code Item} of the benchmark corpus.
+ */
+@Getter
+@Setter
+@Mappers({ @Mapped(type = GeneratorType.POJO),
+		   @Mapped(type = GeneratorType.JSON),
+		   @Mapped(type = GeneratorType.XML),
+		   @Mapped(type = GeneratorType.BINARY) })
+public class Part {
+
+	private String sku;
+	private String label;
+	private int stock;
+	private BigDecimal price;
+
+}
@@ -0,0 +1,68 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Position.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.OFFHEAPLength;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with an off-heap flyweight and store, covering primitives and more nullable values than
+ * fit into one byte of the presence bitmap. Used by {@code OffHeapTest}. The accessors of
+ * <i>serial</i> take and return {@code long}, so the generated code has to use reflection for it.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.OFFHEAP)
+public class Position {
+
+	public enum Side {
+		BUY, SELL
+	}
+
+	private long id;
+	private boolean open;
+	private double quantity;
+	private short venue;
+	private Integer lots;
+	private Double price;
+	private Boolean flagged;
+	@OFFHEAPLength(12)
+	private String symbol;
+	private Side side;
+	private LocalDate settled;
+	private LocalTime cutoff;
+	private LocalDateTime placed;
+	private Instant updated;
+	private UUID account;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private Long serial;
+
+	public long getSerial() {
+		return serial == null ? 0L : serial;
+	}
+
+	public void setSerial(long serial) {
+		this.serial = serial;
+	}
+
+}
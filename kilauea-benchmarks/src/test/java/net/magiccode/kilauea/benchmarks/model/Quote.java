@@ -0,0 +1,39 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Quote.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class generated as immutable class for JSON, covering primitive and boxed floating point
+ * values, a collection, a map and an array. Used by {@code ImmutableTest}.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.JSON, immutable = true)
+public class Quote {
+
+	private String symbol;
+	private double price;
+	private float spread;
+	private Double last;
+	private List<String> venues;
+	private Map<String, Integer> depth;
+	private int[] levels;
+
+}
@@ -0,0 +1,59 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Reading.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.PROTOField;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with a protobuf codec, covering packed arrays of every primitive type but {@code byte},
+ * a collection, a map and nested messages, which may be nested again. Used by {@code ProtobufTest}.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.POJO, protobuf = true)
+public class Reading {
+
+	@PROTOField(1)
+	private long id;
+	@PROTOField(2)
+	private int[] counts;
+	@PROTOField(3)
+	private long[] offsets;
+	@PROTOField(4)
+	private short[] levels;
+	@PROTOField(5)
+	private char[] codes;
+	@PROTOField(6)
+	private boolean[] flags;
+	@PROTOField(7)
+	private float[] weights;
+	@PROTOField(8)
+	private double[] samples;
+	@PROTOField(9)
+	private List<String> labels;
+	@PROTOField(10)
+	private Map<String, Integer> totals;
+	@PROTOField(11)
+	private Reading previous;
+	@PROTOField(12)
+	private List<Reading> history;
+	@PROTOField(13)
+	private Map<String, Reading> related;
+
+}
@@ -0,0 +1,57 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Shipment.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with a binary codec, covering primitives, nullable values, enums, arrays, a collection,
+ * a map and mapped types. Used by {@code BinaryTest}, which rewrites the count of <i>dimensions</i>,
+ * so it has to stay the last field.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.BINARY)
+public class Shipment {
+
+	public enum Priority {
+		LOW, HIGH
+	}
+
+	private long id;
+	private boolean fragile;
+	private double weight;
+	private Integer pieces;
+	private String carrier;
+	private Priority priority;
+	private BigDecimal charge;
+	private LocalDate shipped;
+	private UUID tracking;
+	private byte[] label;
+	private String[] notes;
+	private Priority[] escalations;
+	private List<String> stops;
+	private Map<String, Integer> counts;
+	private Part contents;
+	private List<Part> items;
+	private int[] dimensions;
+
+}
@@ -0,0 +1,41 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Tick.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with a batch companion, covering a column of every numeric type, boxed columns with a
+ * null bitmap, a text column and an array column. Used by {@code BatchTest}.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.POJO, batch = true)
+public class Tick {
+
+	private long id;
+	private int volume;
+	private double price;
+	private short venue;
+	private float spread;
+	private char side;
+	private Integer count;
+	private Long sequence;
+	private Double bid;
+	private Boolean halted;
+	private String symbol;
+	private int[] levels;
+
+}
@@ -0,0 +1,50 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Trade.java
+ */
+package net.magiccode.kilauea.benchmarks.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Class with CSV rows, covering text, primitives, boxed values, an enum and values parsed
+ * from their string representation. Used by {@code CsvTest}.
+ */
+@Getter
+@Setter
+@Mapped(type = GeneratorType.CSV)
+public class Trade {
+
+	public enum Side {
+		BUY, SELL
+	}
+
+	private String id;
+	private String comment;
+	private int quantity;
+	private Long volume;
+	private double price;
+	private boolean settled;
+	private char flag;
+	private Side side;
+	private LocalDate traded;
+	private Instant booked;
+	private BigDecimal fee;
+	private UUID reference;
+
+}
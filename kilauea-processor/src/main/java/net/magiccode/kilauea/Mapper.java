@@ -0,0 +1,819 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: JsonMapper.java
+ */
+package net.magiccode.kilauea;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.google.auto.service.AutoService;
+import com.squareup.javapoet.ClassName;
+
+import net.magiccode.kilauea.annotation.Field;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.ClassGenerator;
+import net.magiccode.kilauea.generator.ClassGeneratorFactory;
+import net.magiccode.kilauea.generator.ElementInfo;
+import net.magiccode.kilauea.generator.ElementInfo.ElementInfoBuilder;
+import net.magiccode.kilauea.generator.GeneratorType;
+import net.magiccode.kilauea.util.StringUtil;
+
+/**
+ * Annotation processor with the purpose to generate Jackson annotated Java code for JSON DTOs.
+ * 
+ *  Supports use of the {@code JSONMapped} annotation to create a copy of the annotated class.
+ *  This provides methods (of/to) to map between populated instances of the annotated and the 
+ *  generated class.
+ */
+@SupportedAnnotationTypes("net.magiccode.kilauea.annotation.*")
+@SupportedOptions({Mapper.OPTION_PROFILE, Mapper.OPTION_VERBOSE, Mapper.OPTION_JFR, Mapper.OPTION_NATIVE_IMAGE})
+@AutoService(Processor.class)
+public class Mapper extends MapperBase {
+
+	/**
+	 * processor option to write a profiling report (-Akilauea.profile=true)
+	 */
+	public static final String OPTION_PROFILE = "kilauea.profile";
+	/**
+	 * processor option to enable detailed NOTE messages (-Akilauea.verbose=true)
+	 */
+	public static final String OPTION_VERBOSE = "kilauea.verbose";
+	/**
+	 * processor option to let all generated classes emit JFR events (-Akilauea.jfr=true)
+	 */
+	public static final String OPTION_JFR = "kilauea.jfr";
+	/**
+	 * processor option to write GraalVM native-image metadata for the generated classes 
+	 * (-Akilauea.nativeImage=&lt;group&gt;/&lt;artifact&gt;)
+	 */
+	public static final String OPTION_NATIVE_IMAGE = "kilauea.nativeImage";
+
+	/**
+	 * supports the creation of new files.
+	 */
+	private Filer filer;
+	/**
+	 * messager instance allows to report errors and warnings.
+	 */
+	private Messager messager;
+	/**
+	 * The process environment
+	 */
+	private ProcessingEnvironment procEnv;
+	/**
+	 * collects timings if the option kilauea.profile is set, null otherwise
+	 */
+	private ProcessorProfile profile;
+	/**
+	 * collects reflection metadata if the option kilauea.nativeImage is set, null otherwise
+	 */
+	private NativeImageMetadata nativeImage;
+	/**
+	 * the generated classes of all rounds, written to META-INF/kilauea/mappers.idx
+	 */
+	private final MapperIndexFile mapperIndex = new MapperIndexFile();
+	/**
+	 * set by option kilauea.verbose
+	 */
+	private boolean verbose;
+	/**
+	 * set by option kilauea.jfr
+	 */
+	private boolean jfrEvents;
+	/**
+	 * qualified names of annotated classes which reference types that could not
+	 * be resolved yet. These are retried in the next round.
+	 */
+	private final Set<String> deferredElementNames = new LinkedHashSet<>();
+	/**
+	 * information about all classes generated in previous rounds, so mapped types
+	 * can be resolved for classes generated later on.
+	 */
+	private final Map<ClassName, List<ElementInfo>> processedClasses = new HashMap<>();
+	/**
+	 * fields of each superclass hierarchy by qualified name, shared by all 
+	 * annotated subclasses processed in the current round.
+	 */
+	private final Map<String, List<VariableElement>> superclassFieldCache = new HashMap<>();
+
+	/**
+	 * hollow constructor
+	 */
+	public Mapper() {
+	}
+
+	/**
+	 * records are supported as annotated classes, so any source version the compiler
+	 * supports is accepted instead of a fixed release
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		filer = processingEnv.getFiler();
+		messager = processingEnv.getMessager();
+		this.procEnv = processingEnv;
+		this.verbose = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_VERBOSE));
+		this.jfrEvents = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_JFR));
+		if (Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_PROFILE))) {
+			profile = new ProcessorProfile();
+		}
+		String nativeImageOption = processingEnv.getOptions().get(OPTION_NATIVE_IMAGE);
+		if (nativeImageOption != null && !nativeImageOption.isBlank() && !"false".equalsIgnoreCase(nativeImageOption)) {
+			nativeImage = new NativeImageMetadata(nativeImageOption);
+		}
+		mapperIndex.readPrevious(filer);
+	}
+
+	/**
+	 * Overriding @see AbstractProcessor.process() allows us to inspect the
+	 * code to start the generation
+	 *
+	 * @param annotations
+	 * @param roundEnv - contains the environment of the compiler round.
+	 */
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+
+		if (roundEnv.processingOver()) {
+			reportDeferredElements();
+			writeProfile();
+			writeMapperIndex();
+			writeNativeImageMetadata();
+			return true;
+		}
+		if (profile != null) {
+			profile.startRound();
+		}
+		// elements must not be reused across rounds
+		superclassFieldCache.clear();
+
+		final Map<ClassName, List<ElementInfo>> result = new HashMap<>();
+
+		// collect annotation information
+		processMappedClasses(roundEnv, result, Mapped.class);
+
+		// classes of previous rounds are needed to resolve mapped field types
+		final Map<ClassName, List<ElementInfo>> input = new HashMap<>(processedClasses);
+		input.putAll(result);
+
+		// generate code with collected results
+
+		for (ClassName key : result.keySet()) {
+			result.get(key).stream().forEach(annotationInfo -> {
+					GeneratorType type = annotationInfo.type();
+					if (type == null) {
+						type = GeneratorType.POJO;
+					}
+					// generate class for each given type
+					try {
+						ClassGenerator generator = ClassGeneratorFactory.getClassGenerator(type, procEnv, filer, messager, annotationInfo, key, input);
+						generator.generate();
+						if (profile != null) {
+							profile.recordGeneration(key, type, generator.statistics());
+						}
+						if (generator.generatedType() != null) {
+							mapperIndex.add(type, key, generator.generatedClass());
+						}
+						if (nativeImage != null && generator.generatedType() != null) {
+							nativeImage.registerGeneratedClass(generator.generatedClass(), generator.generatedType(), annotationInfo.useLombok());
+							nativeImage.registerAnnotatedClass(annotationInfo, procEnv.getElementUtils(), procEnv.getTypeUtils());
+						}
+					} catch (IOException e) {
+						messager.printMessage(Diagnostic.Kind.ERROR, "IOException during class generation. ("+e.getLocalizedMessage()+")");
+					}
+			});
+		}
+		processedClasses.putAll(result);
+		return true;
+	}
+
+	/**
+	 * Report annotated classes which could still not be generated in the last round,
+	 * because they reference types that could not be resolved.
+	 */
+	private void reportDeferredElements() {
+		for (String elementName : deferredElementNames) {
+			TypeElement typeElement = procEnv.getElementUtils().getTypeElement(elementName);
+			Set<String> unresolvedTypes = new TreeSet<>();
+			if (typeElement != null) {
+				collectReferencedTypes(typeElement, new LinkedHashSet<>(), unresolvedTypes);
+			}
+			messager.printMessage(Diagnostic.Kind.ERROR, "No mapping class generated for " + elementName
+					+ (unresolvedTypes.isEmpty() ? ", because it references a class which could not be generated."
+												 : ", because the following types could not be resolved: " + unresolvedTypes),
+					typeElement);
+		}
+		deferredElementNames.clear();
+	}
+
+	/**
+	 * write the collected profile as JSON into the class output and
+	 * print a short summary.
+	 */
+	private void writeProfile() {
+		if (profile == null) {
+			return;
+		}
+		try {
+			FileObject report = filer.createResource(StandardLocation.CLASS_OUTPUT, "", ProcessorProfile.REPORT_LOCATION);
+			try (Writer writer = report.openWriter()) {
+				writer.write(profile.toJSON());
+			}
+			messager.printMessage(Diagnostic.Kind.NOTE, profile.summary());
+		} catch (IOException e) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Profile could not be written. ("+e.getLocalizedMessage()+")");
+		}
+	}
+
+	/**
+	 * write the index of all generated classes into the class output.
+	 */
+	private void writeMapperIndex() {
+		if (mapperIndex.isEmpty()) {
+			return;
+		}
+		try {
+			mapperIndex.write(filer, procEnv.getElementUtils());
+		} catch (IOException e) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Mapper index could not be written. ("+e.getLocalizedMessage()+")");
+		}
+	}
+
+	/**
+	 * write the collected GraalVM reflection metadata and the resource configuration 
+	 * for the mapper index into the class output.
+	 */
+	private void writeNativeImageMetadata() {
+		if (nativeImage == null || nativeImage.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject config = filer.createResource(StandardLocation.CLASS_OUTPUT, "", nativeImage.reflectConfigLocation());
+			try (Writer writer = config.openWriter()) {
+				writer.write(nativeImage.toJSON());
+			}
+			FileObject resources = filer.createResource(StandardLocation.CLASS_OUTPUT, "", nativeImage.resourceConfigLocation());
+			try (Writer writer = resources.openWriter()) {
+				writer.write(nativeImage.resourceConfigJSON());
+			}
+		} catch (IOException e) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Native image metadata could not be written. ("+e.getLocalizedMessage()+")");
+		}
+	}
+	
+	/**
+ 	 * process @Mapped annotation
+ 	 * 
+	 * @param roundEnv - The environment for this round
+	 * @param result - Map containing the generated information from the annotated {@code TypeElement}
+	 */
+	private void processMappedClasses(final RoundEnvironment roundEnv, final Map<ClassName, List<ElementInfo>> result, final Class<? extends Annotation> annotationClass) {
+		
+		// elements deferred in previous rounds are looked up again by name, 
+		// since elements must not be reused across rounds
+		final Map<String, TypeElement> candidates = new LinkedHashMap<>();
+		for (String elementName : deferredElementNames) {
+			TypeElement deferredElement = procEnv.getElementUtils().getTypeElement(elementName);
+			if (deferredElement != null)
+				candidates.put(elementName, deferredElement);
+		}
+		deferredElementNames.clear();
+		
+		// retrieve elements annotated with JSONMapped
+		for (Element annotatedElement : roundEnv.getElementsAnnotatedWithAny( procEnv.getElementUtils().getTypeElement(annotationClass.getCanonicalName()), 
+																			  procEnv.getElementUtils().getTypeElement(Mappers.class.getCanonicalName())))  {
+			// if the annotation is not on a class or record, report an error !
+			if (annotatedElement.getKind() != ElementKind.CLASS && annotatedElement.getKind() != ElementKind.RECORD) {
+				messager.printMessage(Diagnostic.Kind.WARNING, "Only classes and records can be annotated with "+annotatedElement.getSimpleName(), annotatedElement);
+				continue;
+			}
+			TypeElement typeElement = (TypeElement) annotatedElement;
+			candidates.put(typeElement.getQualifiedName().toString(), typeElement);
+		}
+
+		deferUnresolvedElements(candidates);
+
+		for (TypeElement typeElement : candidates.values()) {
+			long extractionStart = System.nanoTime();
+		    Arrays.asList(typeElement.getAnnotationsByType(Mapped.class)).stream()
+				  .forEach(annotation -> {
+					  generateClassInformation (result, typeElement, annotation);												  
+				  });
+		    if (profile != null) {
+		    	profile.recordExtraction(ClassName.get(typeElement), System.nanoTime() - extractionStart);
+		    }
+		}
+	}
+
+//	/**
+//	 * @param result
+//	 * @param annotatedElement
+//	 * @param typeElement
+//	 */
+//	private void generateClassInformation(final Map<ClassName, List<ElementInfo>> result,
+//		Element annotatedElement, TypeElement typeElement) {
+//		// only execute the following code when the given element has is @Mapped
+//		Mapped mapped = annotatedElement.getAnnotation(Mapped.class);
+//		if (mapped != null) {
+//			generateClassInformation (result, typeElement, mapped);
+//		}
+//	}
+
+	
+	/**
+	 * Remove all candidates referencing types which are not resolved yet (e.g. because
+	 * they are generated by another processor in this round) and remember their names
+	 * for the next round. Candidates referencing a deferred class are deferred as well,
+	 * otherwise their mapped field types would not be known.
+	 * 
+	 * @param candidates - the annotated classes of this round by qualified name
+	 */
+	private void deferUnresolvedElements(final Map<String, TypeElement> candidates) {
+		final Map<String, Set<String>> referencedTypes = new HashMap<>();
+		candidates.forEach((name, typeElement) -> {
+			Set<String> declaredTypes = new LinkedHashSet<>();
+			Set<String> unresolvedTypes = new LinkedHashSet<>();
+			collectReferencedTypes(typeElement, declaredTypes, unresolvedTypes);
+			if (unresolvedTypes.isEmpty()) {
+				referencedTypes.put(name, declaredTypes);
+			} else {
+				deferredElementNames.add(name);
+				if (verbose)
+					messager.printMessage(Diagnostic.Kind.NOTE, "Deferring " + name + ", unresolved types " + unresolvedTypes);
+			}
+		});
+		boolean changed = !deferredElementNames.isEmpty();
+		while (changed) {
+			changed = false;
+			for (Map.Entry<String, Set<String>> entry : referencedTypes.entrySet()) {
+				if (!deferredElementNames.contains(entry.getKey()) 
+						&& entry.getValue().stream().anyMatch(deferredElementNames::contains)) {
+					deferredElementNames.add(entry.getKey());
+					changed = true;
+				}
+			}
+		}
+		candidates.keySet().removeAll(deferredElementNames);
+	}
+
+	/**
+	 * collect the qualified names of all types referenced by the fields of the given class
+	 * and its superclasses. Types which are not resolved ({@code TypeKind.ERROR}) are collected
+	 * separately.
+	 * 
+	 * @param typeElement     - the class to inspect
+	 * @param declaredTypes   - receives the names of resolved declared types
+	 * @param unresolvedTypes - receives the names of unresolved types
+	 */
+	private void collectReferencedTypes(final TypeElement typeElement, final Set<String> declaredTypes,
+										final Set<String> unresolvedTypes) {
+		TypeElement currentElement = typeElement;
+		while (currentElement != null) {
+			for (VariableElement field : ElementFilter.fieldsIn(currentElement.getEnclosedElements())) {
+				collectReferencedTypes(field.asType(), declaredTypes, unresolvedTypes);
+			}
+			TypeMirror superclass = currentElement.getSuperclass();
+			if (superclass.getKind() == TypeKind.ERROR) {
+				unresolvedTypes.add(superclass.toString());
+			}
+			currentElement = getTypeElement(superclass);
+		}
+	}
+
+	/**
+	 * collect the given type and all of it's type arguments
+	 * 
+	 * @param type            - the {@code TypeMirror} to inspect
+	 * @param declaredTypes   - receives the names of resolved declared types
+	 * @param unresolvedTypes - receives the names of unresolved types
+	 */
+	private void collectReferencedTypes(final TypeMirror type, final Set<String> declaredTypes,
+										final Set<String> unresolvedTypes) {
+		switch (type.getKind()) {
+			case ERROR:
+				unresolvedTypes.add(type.toString());
+				break;
+			case DECLARED:
+				declaredTypes.add(((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString());
+				((DeclaredType) type).getTypeArguments().forEach(argument -> collectReferencedTypes(argument, declaredTypes, unresolvedTypes));
+				break;
+			case ARRAY:
+				collectReferencedTypes(((ArrayType) type).getComponentType(), declaredTypes, unresolvedTypes);
+				break;
+			case WILDCARD:
+				WildcardType wildcard = (WildcardType) type;
+				if (wildcard.getExtendsBound() != null)
+					collectReferencedTypes(wildcard.getExtendsBound(), declaredTypes, unresolvedTypes);
+				if (wildcard.getSuperBound() != null)
+					collectReferencedTypes(wildcard.getSuperBound(), declaredTypes, unresolvedTypes);
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * collect class information for later generation
+	 * 
+	 * @param result - Map containing the generated information from the annotated {@code TypeElement}
+	 * @param annotatedElement - The annotated {@code TypeElement}
+	 * @param mapped - The {@code @Mapped} annotation
+	 */
+	private void generateClassInformation (final Map<ClassName, List<ElementInfo>> result,
+										  TypeElement annotatedElement,
+										  Mapped mapped) {
+					
+			/* check for superclass
+			 * 
+			 */
+			ClassName superClassElement = null;			
+			// deriving the name of the class containing the annotation
+			ClassName className = ClassName.get(annotatedElement);	
+			if (verbose)
+				messager.printMessage(Diagnostic.Kind.NOTE, "Class " + className.canonicalName());
+	
+			if (!result.containsKey(className))
+				result.put(className, new ArrayList<ElementInfo>());
+	
+			if (result.containsKey(className)) {
+				
+				/** find fields */
+				List<VariableElement> fields = ElementFilter.fieldsIn(annotatedElement.getEnclosedElements());				
+				/** types of inherited fields as members of the annotated class */
+				final Map<VariableElement, TypeMirror> memberTypes = new HashMap<>();
+				/** find typeElement for specified super-classs */				
+				
+				if (superClassElement == null) {
+					TypeElement superClassTypeElement = procEnv.getElementUtils().getTypeElement(mapped.superclass());
+					if (superClassTypeElement!= null)
+						superClassElement = ClassName.get((TypeElement)superClassTypeElement);
+				}
+				
+				if (superClassElement == null && StringUtil.isNotBlank(mapped.superclass())) {
+					int lastDotIndex = mapped.superclass().lastIndexOf('.');
+					String pack = mapped.superclass().substring(0, lastDotIndex);
+					String clazz = mapped.superclass().substring(lastDotIndex+1);
+					superClassElement = ClassName.get(pack, clazz);
+				}
+				
+				if (mapped.inheritFields())
+					addSuperclassFields(annotatedElement, fields, memberTypes);
+				
+				/**
+				 * we have to remember, which interface exists and what needs to be created.
+				 * We use a map for this purpose. Key is the class-name, value the found TypeElement
+				 */
+				final Map<String, TypeElement> interfaces = new HashMap<>();
+				if (mapped.interfaces() != null) {
+					Arrays.asList(mapped.interfaces()).stream().forEach(intf -> {
+						TypeElement interfaceElement = procEnv.getElementUtils().getTypeElement(intf);
+						interfaces.put(intf, interfaceElement);
+					});
+				}
+				ElementInfo elementInfo = createElementInfo(mapped, annotatedElement, className, fields, memberTypes, superClassElement, interfaces);
+				result.get(className).add(elementInfo);				
+			}
+			
+	}
+	
+	
+	/**
+	 * add the fields of all superclasses which are not hidden by a field of the same
+	 * name further down the hierarchy. Fields declared with a type variable of a
+	 * parameterized superclass are kept as declared, the type they have as member of the
+	 * given class is put into <i>memberTypes</i>.
+	 * 
+	 * @param classElement - the annotated class
+	 * @param fields       - the fields of the annotated class, inherited fields are added
+	 * @param memberTypes  - receives the member types of inherited fields declared with a type variable
+	 */
+	private void addSuperclassFields(TypeElement classElement, 
+									 List<VariableElement> fields,
+									 Map<VariableElement, TypeMirror> memberTypes) {
+		
+		TypeElement superClassElement = getTypeElement(classElement.getSuperclass());
+		if (superClassElement == null) { // no declared supertype, return
+			return;
+		}
+		final Set<String> fieldNames = new HashSet<>();
+		fields.forEach(field -> fieldNames.add(field.getSimpleName().toString()));
+		
+		final DeclaredType classType = (DeclaredType) classElement.asType();
+		for (VariableElement field : collectHierarchyFields(superClassElement)) {
+			if (fieldNames.add(field.getSimpleName().toString())) {
+				fields.add(field);
+				if (containsTypeVariable(field.asType())) {
+					memberTypes.put(field, procEnv.getTypeUtils().asMemberOf(classType, field));
+				}
+			}
+		}
+	}
+
+	/**
+	 * collect the fields of the given class and all of it's superclasses, fields of 
+	 * subclasses hide those of the same name in superclasses. The result is cached
+	 * for all annotated subclasses processed in this round.
+	 * 
+	 * @param classElement - the class to collect the fields for
+	 * @return the fields declared in the hierarchy of the given class
+	 */
+	private List<VariableElement> collectHierarchyFields(final TypeElement classElement) {
+		String key = classElement.getQualifiedName().toString();
+		List<VariableElement> hierarchyFields = superclassFieldCache.get(key);
+		if (hierarchyFields == null) {
+			hierarchyFields = ElementFilter.fieldsIn(classElement.getEnclosedElements());
+			TypeElement superClassElement = getTypeElement(classElement.getSuperclass());
+			if (superClassElement != null) {
+				final Set<String> fieldNames = new HashSet<>();
+				hierarchyFields.forEach(field -> fieldNames.add(field.getSimpleName().toString()));
+				for (VariableElement field : collectHierarchyFields(superClassElement)) {
+					if (fieldNames.add(field.getSimpleName().toString()))
+						hierarchyFields.add(field);
+				}
+			}
+			superclassFieldCache.put(key, hierarchyFields);
+		}
+		return hierarchyFields;
+	}
+
+	/**
+	 * check whether the given type is or contains a type variable
+	 * 
+	 * @param type - the {@code TypeMirror} to check
+	 * @return true if a type variable is found
+	 */
+	private static boolean containsTypeVariable(final TypeMirror type) {
+		switch (type.getKind()) {
+			case TYPEVAR:
+				return true;
+			case DECLARED:
+				return ((DeclaredType) type).getTypeArguments().stream().anyMatch(Mapper::containsTypeVariable);
+			case ARRAY:
+				return containsTypeVariable(((ArrayType) type).getComponentType());
+			case WILDCARD:
+				WildcardType wildcard = (WildcardType) type;
+				return (wildcard.getExtendsBound() != null && containsTypeVariable(wildcard.getExtendsBound()))
+						|| (wildcard.getSuperBound() != null && containsTypeVariable(wildcard.getSuperBound()));
+			default:
+				return false;
+		}
+	}
+	
+
+	/**
+	 * create ElementInfo object out of given JSONMapped information, extended by 
+	 * information about the environment like the fields of the annotated class.
+	 * 
+	 * @param mapped - The {@code @Mapped} annotation
+	 * @param typeElement - the annotated {@code TypeElement}
+	 * @param className {@code ClassName} instance of the class containing the{@code @Mapped} annotaton
+	 * @param fields - {@code VariableElement} representation of the fields of the annotated class
+	 * @param memberTypes - types of inherited fields which differ from the declared type as member of the annotated class
+	 * @param superClassElement - {@code TypeElement} of (an existing) class to be extended by every generated class
+	 * @param interfaces - {@code java.util.Map} containing all interfaces the generated classes are to implement.
+	 * @return an instance of the class {@code ElementInfo} containing all information from the annotation (or defaults), that are going to be used for the code generation. 
+	 */
+	private ElementInfo createElementInfo(final Mapped mapped, 
+										  final TypeElement typeElement, 
+										  final ClassName className,
+										  final List<VariableElement> fields, 
+										  final Map<VariableElement, TypeMirror> memberTypes, 
+										  final ClassName superClassElement, 
+										  final Map<String, TypeElement> interfaces) {
+		
+		// handle default subpackage name
+		String subpackageName = mapped.subpackageName();
+		if (StringUtil.isBlank(subpackageName)) {
+			subpackageName=mapped.type().name().toLowerCase();
+		}
+
+		// handle default class prefix
+		String prefix = mapped.prefix();
+		if (StringUtil.isBlank(prefix)) {
+			prefix=mapped.type().name().toUpperCase();
+		}
+
+		// additional fields to be created that are not available in the 
+		// annotated class
+		final Field[] additionalFields = mapped.additionalFields().value();		
+		final Map<String, TypeMirror> additionalFieldMap = new HashMap<>();
+		if (additionalFields != null && additionalFields.length > 0) {
+			Arrays.asList(additionalFields).stream().forEach(field -> {
+				TypeMirror fieldClass = null;
+				if( field != null ) {
+				    try  {
+				        field.fieldClass();
+				    }
+				    catch( MirroredTypeException mte ) {
+				    	fieldClass = mte.getTypeMirror();
+				    }
+				}
+				additionalFieldMap.put(field.name(), fieldClass);
+			});			
+		}
+		
+		// records are generated for the types with fields, getters and setters only
+		boolean record = mapped.record();
+		if (record && mapped.type() != GeneratorType.POJO && mapped.type() != GeneratorType.JSON
+				&& mapped.type() != GeneratorType.XML) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "record = true is not supported for type " + mapped.type()
+					+ ", a class is generated for " + className.canonicalName() + ".", typeElement);
+			record = false;
+		}
+		// immutable classes likewise, records are immutable anyway
+		boolean immutable = mapped.immutable() && !record;
+		if (immutable && mapped.type() != GeneratorType.POJO && mapped.type() != GeneratorType.JSON
+				&& mapped.type() != GeneratorType.XML) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "immutable = true is not supported for type " + mapped.type()
+					+ ", a mutable class is generated for " + className.canonicalName() + ".", typeElement);
+			immutable = false;
+		}
+		// the protobuf codec assigns the fields of a generated class
+		boolean protobuf = mapped.protobuf();
+		if (protobuf && (record || immutable || mapped.type() == GeneratorType.OFFHEAP)) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "protobuf = true is not supported for "
+					+ (mapped.type() == GeneratorType.OFFHEAP ? "type OFFHEAP" : "records and immutable classes")
+					+ ", no protobuf codec is generated for " + className.canonicalName() + ".", typeElement);
+			protobuf = false;
+		}
+
+		// build the annotation information object for the generator
+		ElementInfoBuilder elementInfoBuiler = ElementInfo.builder().className(className.simpleName()) // the name of the class
+																										// containing the
+																										// annotation
+																	.type(mapped.type())
+																	.packageName(mapped.packageName()) // package name of the generated class (optional), default is
+																	// package of annotated class
+																	.subpackageName(subpackageName) // subpackage name added to annotated class package if
+																	// package name is not given
+																	.prefix(prefix) // prefix for generated class, defaults to JSON
+																	.chainedSetters(mapped.chainedSetters()) // true generates "return this" for setters.
+																	.fluentAccessors(mapped.fluentAccessors())
+																	.jsonInclude(mapped.jsonInclude()) // type=JSON only. Defines the generated value for @JsonInclude generated.
+																	.element(typeElement) // the current element
+																	.fields(fields) // field descriptions of the annotated class
+																	.memberTypes(memberTypes) // types of inherited generic fields
+																	.inheritFields(mapped.inheritFields()) // inherit fields from superclasses
+																	.datePattern(mapped.datePattern())
+																	.dateTimePattern(mapped.dateTimePattern())
+																	.useLombok(mapped.useLombok())
+																	.additionalFields(additionalFieldMap)
+																	.annotatedClassHasPublicConstructor(typeHasNonArgsConstructor(typeElement))
+																	.sourceConstructorParameters(findAllArgsConstructor(typeElement, fields, memberTypes))
+																	.jfrEvents(jfrEvents || mapped.jfrEvents())
+																	.batch(mapped.batch())
+																	.record(record)
+																	.immutable(immutable)
+																	.protobuf(protobuf)
+																	// xml only
+																	.xmlns(mapped.xmlns())
+																	.xmlTimeAsText(mapped.xmlTimeAsText());
+		// add superclass
+		if (superClassElement != null) {
+			elementInfoBuiler.superclass(superClassElement);
+		}
+		// add interfaces
+		ElementInfo elementInfo = elementInfoBuiler.build();
+		if (interfaces != null && interfaces.size()>0) {
+			interfaces.entrySet().stream()
+								 // add only existing interfaces
+								 .filter(entry -> entry.getValue() != null)
+								 // use only the TypeElement
+								 .map(entry -> entry.getValue())
+								 .forEach(intf-> {
+									 elementInfo.addInterface(ClassName.get(intf));
+			});
+		}
+		return elementInfo;
+	}
+
+	
+   /**
+    * Return the qualified name of a type (those that contain a $ sign for
+    * nested classes).
+    * 
+    * @param tm Represent the class
+    * @return The class name
+    */
+   public static String getClassName(TypeMirror tm) {
+       if (tm.getKind().equals(TypeKind.DECLARED)) {
+           TypeElement el = (TypeElement) ((DeclaredType) tm).asElement();
+           return getClassName(el);
+       } else {
+           return tm.toString();
+       }
+   }
+
+   
+   /**
+    * check typeElement for the existance of a non-args constructor
+    * 
+    * @param typeElement the {@code TypeElement} to check
+	* @return indication whether or not the given element has a non-args-construcdtor
+	*/
+	private static boolean typeHasNonArgsConstructor (TypeElement typeElement) {
+		return typeElement.getEnclosedElements().stream()
+					// get all public constructors
+					.filter(encElem->encElem.getKind()==ElementKind.CONSTRUCTOR &&
+									 encElem.getModifiers().contains(Modifier.PUBLIC))
+					.map(encElem -> ((ExecutableElement) encElem) )
+					// filter only those with 0 arguments -> empty.list
+					.filter(execEncElem->execEncElem.getParameters().size()==0)
+					.count() > 0; 
+
+   }
+
+	/**
+	 * find the public constructor with one parameter for each non-static field of the given
+	 * list, matched by name and type. This is the canonical constructor for a record.
+	 * 
+	 * @param typeElement - the {@code TypeElement} to check
+	 * @param fields      - the fields of the annotated class
+	 * @param memberTypes - types of inherited fields as members of the annotated class
+	 * @return names of the fields in the order of the constructor parameters, null if there
+	 *         is no such constructor
+	 */
+	private List<String> findAllArgsConstructor(final TypeElement typeElement, final List<VariableElement> fields,
+												final Map<VariableElement, TypeMirror> memberTypes) {
+		final Types typeUtils = procEnv.getTypeUtils();
+		final Map<String, TypeMirror> fieldTypes = new HashMap<>();
+		fields.stream()
+			  .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+			  .forEach(field -> fieldTypes.put(field.getSimpleName().toString(),
+													 memberTypes.getOrDefault(field, field.asType())));
+		if (fieldTypes.isEmpty()) {
+			return null;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+			if (!constructor.getModifiers().contains(Modifier.PUBLIC)
+					|| constructor.getParameters().size() != fieldTypes.size()) {
+				continue;
+			}
+			List<String> parameterNames = new ArrayList<>();
+			for (VariableElement parameter : constructor.getParameters()) {
+				TypeMirror fieldType = fieldTypes.get(parameter.getSimpleName().toString());
+				if (fieldType == null || parameterNames.contains(parameter.getSimpleName().toString())
+						|| !typeUtils.isSameType(typeUtils.erasure(fieldType), typeUtils.erasure(parameter.asType()))) {
+					break;
+				}
+				parameterNames.add(parameter.getSimpleName().toString());
+			}
+			if (parameterNames.size() == fieldTypes.size()) {
+				return parameterNames;
+			}
+		}
+		return null;
+	}
+   
+
+}
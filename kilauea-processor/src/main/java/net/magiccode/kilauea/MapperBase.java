@@ -36,28 +36,35 @@ public abstract class MapperBase extends AbstractProcessor {
 	public MapperBase() {
 	}
 	
+	/**
+	 * get the {@code ClassName} of the given type. This is derived from the
+	 * language model only, the class is never loaded, so this also works for
+	 * classes of the current compilation.
+	 * 
+	 * @param typeMirror the type to inspect
+	 * @return the {@code ClassName} of the declared type, else null
+	 */
 	public static ClassName getName(TypeMirror typeMirror) {
+		TypeElement typeElement = getTypeElement(typeMirror);
+		return typeElement != null ? ClassName.get(typeElement) : null;
+	}
+	
+	/**
+	 * get the {@code TypeElement} declaring the given type. Unlike a lookup by
+	 * name this also works for parameterized types.
+	 * 
+	 * @param typeMirror the type to inspect
+	 * @return the {@code TypeElement} of the declared type, else null
+	 */
+	public static TypeElement getTypeElement(TypeMirror typeMirror) {
 		if (typeMirror instanceof DeclaredType) {
-			if (((DeclaredType) typeMirror).asElement() instanceof TypeElement) {
-				return ClassName.get(getClass((TypeElement) ((DeclaredType) typeMirror).asElement()));
+			Element element = ((DeclaredType) typeMirror).asElement();
+			if (element instanceof TypeElement) {
+				return (TypeElement) element;
 			}
 		}
 		return null;
 	}
-	
-	/**
-	 * get the class represented by the given TypeElement
-	 * @param element the TypeElement to inspect
-	 * @return the class object for the TypeElement if available, else null
-	 */
-	public static Class<?> getClass(Element element) {
-        try {
-            return Class.forName(getClassName(element));
-        } catch (Exception e) {
-            System.out.println(e);
-        }
-        return null;
-    }
 
 	/**
 	 * return class name including inner classes
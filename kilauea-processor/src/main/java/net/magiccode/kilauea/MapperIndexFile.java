@@ -0,0 +1,144 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: MapperIndexFile.java
+ */
+package net.magiccode.kilauea;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.squareup.javapoet.ClassName;
+
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.Mappers;
+import net.magiccode.kilauea.generator.GeneratorType;
+import net.magiccode.kilauea.runtime.MapperIndex;
+
+/**
+ * Collects the classes generated in all rounds and writes them to {@value MapperIndex#LOCATION}
+ * once processing is over, so the index is written exactly once per compilation.
+ * <p>
+ * On incremental builds only the changed classes are processed. The index of the previous
+ * build is therefore read first, and its entries are kept as long as the annotated class
+ * still carries a kilauea annotation and the generated class still exists. Entries of
+ * classes processed again are replaced.
+ */
+public class MapperIndexFile {
+
+	private static final Set<String> MAPPED_ANNOTATIONS = Set.of(Mapped.class.getCanonicalName(),
+			Mappers.class.getCanonicalName());
+
+	/**
+	 * entries of the current compilation, by generated class
+	 */
+	private final Map<String, MapperIndex.Entry> entries = new LinkedHashMap<>();
+
+	/**
+	 * entries of the previous build, by generated class
+	 */
+	private final Map<String, MapperIndex.Entry> previousEntries = new LinkedHashMap<>();
+
+	/**
+	 * read the index of a previous build from the class output, if there is one.
+	 *
+	 * @param filer - the filer
+	 */
+	public void readPrevious(final Filer filer) {
+		try {
+			FileObject previous = filer.getResource(StandardLocation.CLASS_OUTPUT, "", MapperIndex.LOCATION);
+			try (Reader reader = previous.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+				String line;
+				while ((line = lines.readLine()) != null) {
+					MapperIndex.Entry entry = MapperIndex.Entry.parse(line);
+					if (entry != null) {
+						previousEntries.put(entry.generatedClassName(), entry);
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// no previous build, or the build tool does not allow reading the class output
+		}
+	}
+
+	/**
+	 * record one generated class
+	 *
+	 * @param type           - the {@code GeneratorType} used
+	 * @param annotatedClass - the annotated class
+	 * @param generatedClass - the generated class
+	 */
+	public void add(final GeneratorType type, final ClassName annotatedClass, final ClassName generatedClass) {
+		MapperIndex.Entry entry = new MapperIndex.Entry(type, annotatedClass.reflectionName(),
+				generatedClass.reflectionName());
+		entries.put(entry.generatedClassName(), entry);
+	}
+
+	/**
+	 * @return {@code true} if there is nothing to write
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty() && previousEntries.isEmpty();
+	}
+
+	/**
+	 * write the merged index into the class output
+	 *
+	 * @param filer        - the filer
+	 * @param elementUtils - used to check whether entries of the previous build are still valid
+	 * @throws IOException if the index cannot be written
+	 */
+	public void write(final Filer filer, final Elements elementUtils) throws IOException {
+		Map<String, MapperIndex.Entry> merged = new LinkedHashMap<>();
+		Set<String> regenerated = new HashSet<>();
+		entries.values().forEach(entry -> regenerated.add(entry.type() + entry.sourceClassName()));
+		for (MapperIndex.Entry entry : previousEntries.values()) {
+			if (!regenerated.contains(entry.type() + entry.sourceClassName()) && isValid(entry, elementUtils)) {
+				merged.put(entry.generatedClassName(), entry);
+			}
+		}
+		merged.putAll(entries);
+
+		FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", MapperIndex.LOCATION);
+		try (Writer writer = index.openWriter()) {
+			writer.write("# kilauea mapper index: generator type, annotated class, generated class\n");
+			for (MapperIndex.Entry entry : merged.values()) {
+				writer.write(entry.format());
+				writer.write('\n');
+			}
+		}
+	}
+
+	private static boolean isValid(final MapperIndex.Entry entry, final Elements elementUtils) {
+		TypeElement annotatedElement = elementUtils.getTypeElement(entry.sourceClassName().replace('$', '.'));
+		if (annotatedElement == null
+				|| elementUtils.getTypeElement(entry.generatedClassName().replace('$', '.')) == null) {
+			return false;
+		}
+		for (AnnotationMirror annotation : annotatedElement.getAnnotationMirrors()) {
+			if (MAPPED_ANNOTATIONS.contains(annotation.getAnnotationType().toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,343 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: NativeImageMetadata.java
+ */
+package net.magiccode.kilauea;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import net.magiccode.kilauea.generator.ElementInfo;
+import net.magiccode.kilauea.runtime.MapperIndex;
+import net.magiccode.kilauea.util.StringUtil;
+
+/**
+ * Collects the GraalVM native-image reachability metadata of all generated classes.
+ * Enabled by the processor option <i>-Akilauea.nativeImage=&lt;group&gt;/&lt;artifact&gt;</i>,
+ * the result is written to {@code META-INF/native-image/<group>/<artifact>/reflect-config.json}
+ * in the class output, where native-image picks it up automatically.
+ * <p>
+ * Registered are the generated classes with their fields, constructor and accessors (used by
+ * Jackson), and the members of the annotated classes which the generated {@code of} and
+ * {@code to} methods access through {@code ReflectionUtil}. Nothing is registered by package.
+ * The resource configuration written next to it includes the mapper index.
+ */
+public class NativeImageMetadata {
+
+	/**
+	 * directory used if the option is just set to <i>true</i>
+	 */
+	public static final String DEFAULT_DIRECTORY = "net.magiccode.kilauea/generated";
+
+	private final String directory;
+
+	private final Map<String, ReflectEntry> entries = new LinkedHashMap<>();
+
+	/**
+	 * @param option - value of the processor option, either <i>true</i> or
+	 *               <i>&lt;group&gt;/&lt;artifact&gt;</i>
+	 */
+	public NativeImageMetadata(final String option) {
+		this.directory = Boolean.parseBoolean(option) ? DEFAULT_DIRECTORY : option.replace('\\', '/');
+	}
+
+	/**
+	 * @return location of the reflection configuration relative to {@code StandardLocation.CLASS_OUTPUT}
+	 */
+	public String reflectConfigLocation() {
+		return "META-INF/native-image/" + directory + "/reflect-config.json";
+	}
+
+	/**
+	 * @return location of the resource configuration relative to {@code StandardLocation.CLASS_OUTPUT}
+	 */
+	public String resourceConfigLocation() {
+		return "META-INF/native-image/" + directory + "/resource-config.json";
+	}
+
+	/**
+	 * register a generated class, its instance fields, the no-args constructor and
+	 * the accessors of its fields. Records have the canonical constructor instead,
+	 * nested types such as builders are registered with all their public methods.
+	 *
+	 * @param generatedClass - name of the generated class
+	 * @param generatedType  - the generated {@code TypeSpec}
+	 * @param useLombok      - accessors are generated by lombok and thus not part of
+	 *                       the {@code TypeSpec}
+	 */
+	public void registerGeneratedClass(final ClassName generatedClass, final TypeSpec generatedType,
+			boolean useLombok) {
+		ReflectEntry entry = entry(generatedClass.reflectionName());
+		entry.queryAllDeclaredConstructors = true;
+		entry.queryAllDeclaredMethods = true;
+		// nested builders of immutable classes are instantiated and called by Jackson
+		for (TypeSpec nestedType : generatedType.typeSpecs) {
+			ClassName nestedClass = generatedClass.nestedClass(nestedType.name);
+			registerGeneratedClass(nestedClass, nestedType, false);
+			entry(nestedClass.reflectionName()).allPublicMethods = true;
+		}
+		List<MethodSpec> constructors = generatedType.methodSpecs.stream()
+				.filter(method -> method.isConstructor() && !method.parameters.isEmpty()).collect(Collectors.toList());
+		if (constructors.isEmpty()) {
+			entry.methods.add(new ReflectMethod("<init>", List.of()));
+		}
+		for (MethodSpec constructor : constructors) {
+			entry.methods.add(new ReflectMethod("<init>", constructor.parameters.stream()
+					.map(parameter -> reflectionName(parameter.type)).collect(Collectors.toList())));
+		}
+
+		Set<String> fieldNames = new LinkedHashSet<>();
+		for (FieldSpec field : generatedType.fieldSpecs) {
+			if (!field.hasModifier(Modifier.STATIC)) {
+				fieldNames.add(field.name);
+				entry.fields.add(field.name);
+			}
+		}
+		if (useLombok) {
+			entry.allPublicMethods = true;
+			return;
+		}
+		for (MethodSpec method : generatedType.methodSpecs) {
+			if (!method.isConstructor() && !method.hasModifier(Modifier.STATIC)
+					&& method.hasModifier(Modifier.PUBLIC) && isAccessor(method.name, fieldNames)) {
+				entry.methods.add(new ReflectMethod(method.name, method.parameters.stream()
+						.map(parameter -> reflectionName(parameter.type)).collect(Collectors.toList())));
+			}
+		}
+	}
+
+	/**
+	 * register the fields of the annotated class and the accessors
+	 * {@code ReflectionUtil.invokeGetterMethod} and {@code invokeSetterMethod} look up for them.
+	 * Members are registered on the class declaring them.
+	 *
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 * @param elementUtils   - the element utilities
+	 * @param typeUtils      - the type utilities
+	 */
+	public void registerAnnotatedClass(final ElementInfo annotationInfo, final Elements elementUtils,
+			final Types typeUtils) {
+		TypeElement annotatedElement = annotationInfo.element();
+		// PropertyDescriptor looks the accessors up via Class.getMethods()
+		entry(binaryName(annotatedElement, elementUtils)).queryAllPublicMethods = true;
+
+		List<? extends Element> members = elementUtils.getAllMembers(annotatedElement);
+		for (VariableElement field : annotationInfo.fields()) {
+			String fieldName = field.getSimpleName().toString();
+			entry(binaryName((TypeElement) field.getEnclosingElement(), elementUtils)).fields.add(fieldName);
+
+			String capitalised = StringUtil.capitalise(fieldName);
+			Set<String> getterNames = Set.of("is" + capitalised, "get" + capitalised, fieldName);
+			Set<String> setterNames = Set.of("set" + capitalised, fieldName);
+			for (Element member : members) {
+				if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)
+						|| member.getModifiers().contains(Modifier.STATIC)) {
+					continue;
+				}
+				ExecutableElement method = (ExecutableElement) member;
+				String name = method.getSimpleName().toString();
+				int parameterCount = method.getParameters().size();
+				if ((parameterCount == 0 && getterNames.contains(name))
+						|| (parameterCount == 1 && setterNames.contains(name))) {
+					TypeElement declaringClass = (TypeElement) method.getEnclosingElement();
+					entry(binaryName(declaringClass, elementUtils)).methods.add(new ReflectMethod(name,
+							method.getParameters().stream()
+								.map(parameter -> erasedName(parameter.asType(), elementUtils, typeUtils))
+								.collect(Collectors.toList())));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} if nothing has been registered
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @return the reflection configuration as JSON document
+	 */
+	public String toJSON() {
+		StringBuilder json = new StringBuilder("[");
+		int e = 0;
+		for (ReflectEntry entry : entries.values()) {
+			json.append(e++ > 0 ? ",\n" : "\n").append("  {\n    \"name\" : \"").append(entry.name).append("\"");
+			if (entry.queryAllDeclaredConstructors) {
+				json.append(",\n    \"queryAllDeclaredConstructors\" : true");
+			}
+			if (entry.queryAllDeclaredMethods) {
+				json.append(",\n    \"queryAllDeclaredMethods\" : true");
+			}
+			if (entry.queryAllPublicMethods) {
+				json.append(",\n    \"queryAllPublicMethods\" : true");
+			}
+			if (entry.allPublicMethods) {
+				json.append(",\n    \"allPublicMethods\" : true");
+			}
+			if (!entry.fields.isEmpty()) {
+				json.append(",\n    \"fields\" : [");
+				int f = 0;
+				for (String field : entry.fields) {
+					json.append(f++ > 0 ? ", " : " ").append("{ \"name\" : \"").append(field).append("\" }");
+				}
+				json.append(" ]");
+			}
+			if (!entry.methods.isEmpty()) {
+				json.append(",\n    \"methods\" : [");
+				int m = 0;
+				for (ReflectMethod method : entry.methods) {
+					json.append(m++ > 0 ? ",\n" : "\n").append("      { \"name\" : \"").append(method.name)
+						.append("\", \"parameterTypes\" : [")
+						.append(method.parameterTypes.stream().map(type -> " \"" + type + "\"")
+								.collect(Collectors.joining(",")))
+						.append(method.parameterTypes.isEmpty() ? "] }" : " ] }");
+				}
+				json.append("\n    ]");
+			}
+			json.append("\n  }");
+		}
+		json.append(entries.isEmpty() ? "]\n" : "\n]\n");
+		return json.toString();
+	}
+
+	/**
+	 * @return the resource configuration as JSON document, including the mapper index
+	 *         read by {@code MapperIndex}
+	 */
+	public String resourceConfigJSON() {
+		return "{\n  \"resources\" : {\n    \"includes\" : [\n      { \"pattern\" : \"\\\\Q"
+				+ MapperIndex.LOCATION + "\\\\E\" }\n    ]\n  }\n}\n";
+	}
+
+	private ReflectEntry entry(final String name) {
+		return entries.computeIfAbsent(name, ReflectEntry::new);
+	}
+
+	/**
+	 * Accessors of a field named <i>name</i> are <i>getName</i>, <i>isName</i>,
+	 * <i>setName</i> or, with fluent accessors, <i>name</i>.
+	 */
+	private static boolean isAccessor(final String methodName, final Set<String> fieldNames) {
+		if (fieldNames.contains(methodName)) {
+			return true;
+		}
+		for (String prefix : List.of("get", "set", "is")) {
+			if (methodName.startsWith(prefix) && methodName.length() > prefix.length()
+					&& fieldNames.contains(StringUtil.uncapitalise(methodName.substring(prefix.length())))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * name of the erasure of a JavaPoet type as used by {@code Class.getName()},
+	 * except for arrays, which native-image expects as <i>component[]</i>.
+	 */
+	private static String reflectionName(final TypeName type) {
+		if (type instanceof ParameterizedTypeName) {
+			return ((ParameterizedTypeName) type).rawType.reflectionName();
+		}
+		if (type instanceof ArrayTypeName) {
+			return reflectionName(((ArrayTypeName) type).componentType) + "[]";
+		}
+		if (type instanceof ClassName) {
+			return ((ClassName) type).reflectionName();
+		}
+		if (type.isPrimitive()) {
+			return type.toString();
+		}
+		// type variables and wildcards are erased to their bound, Object is a safe approximation
+		return Object.class.getName();
+	}
+
+	private static String erasedName(final TypeMirror type, final Elements elementUtils, final Types typeUtils) {
+		TypeMirror erasure = typeUtils.erasure(type);
+		switch (erasure.getKind()) {
+			case ARRAY:
+				return erasedName(((ArrayType) erasure).getComponentType(), elementUtils,
+						typeUtils) + "[]";
+			case DECLARED:
+				return binaryName((TypeElement) typeUtils.asElement(erasure), elementUtils);
+			default:
+				return erasure.toString();
+		}
+	}
+
+	private static String binaryName(final TypeElement element, final Elements elementUtils) {
+		return elementUtils.getBinaryName(element).toString();
+	}
+
+	/**
+	 * one class in reflect-config.json
+	 */
+	private static class ReflectEntry {
+		private final String name;
+		private boolean queryAllDeclaredConstructors;
+		private boolean queryAllDeclaredMethods;
+		private boolean queryAllPublicMethods;
+		private boolean allPublicMethods;
+		private final Set<String> fields = new LinkedHashSet<>();
+		private final Set<ReflectMethod> methods = new LinkedHashSet<>();
+
+		private ReflectEntry(final String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * one method in reflect-config.json
+	 */
+	private static class ReflectMethod {
+		private final String name;
+		private final List<String> parameterTypes;
+
+		private ReflectMethod(final String name, final List<String> parameterTypes) {
+			this.name = name;
+			this.parameterTypes = parameterTypes;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof ReflectMethod && name.equals(((ReflectMethod) other).name)
+					&& parameterTypes.equals(((ReflectMethod) other).parameterTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode() * 31 + parameterTypes.hashCode();
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ProcessorProfile.java
+ */
+package net.magiccode.kilauea;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.squareup.javapoet.ClassName;
+
+import net.magiccode.kilauea.generator.GenerationStatistics;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Collects the timings of the annotation processor, per round and per annotated class.
+ * Enabled by the processor option <i>-Akilauea.profile=true</i>, the result is written
+ * as JSON to {@value #REPORT_LOCATION} in the class output.
+ */
+public class ProcessorProfile {
+
+	/**
+	 * location of the report relative to {@code StandardLocation.CLASS_OUTPUT}
+	 */
+	public static final String REPORT_LOCATION = "META-INF/kilauea/profile.json";
+
+	private final List<RoundProfile> rounds = new ArrayList<>();
+
+	private RoundProfile currentRound;
+
+	/**
+	 * start recording a new compiler round
+	 */
+	public void startRound() {
+		currentRound = new RoundProfile(rounds.size() + 1);
+		rounds.add(currentRound);
+	}
+
+	/**
+	 * record the time spent extracting the model of an annotated class
+	 *
+	 * @param annotatedClass - the annotated class
+	 * @param nanos          - time spent in nanoseconds
+	 */
+	public void recordExtraction(final ClassName annotatedClass, long nanos) {
+		classProfile(annotatedClass).extractionNanos += nanos;
+	}
+
+	/**
+	 * record the figures of one {@code ClassGenerator} run
+	 *
+	 * @param annotatedClass - the annotated class
+	 * @param type           - the {@code GeneratorType} used
+	 * @param statistics     - the statistics provided by the generator
+	 */
+	public void recordGeneration(final ClassName annotatedClass, final GeneratorType type,
+			final GenerationStatistics statistics) {
+		classProfile(annotatedClass).generators.add(new GeneratorProfile(type, statistics));
+	}
+
+	/**
+	 * @return short one-line summary of all rounds
+	 */
+	public String summary() {
+		long classes = rounds.stream().mapToLong(round -> round.classes.size()).sum();
+		long generated = allGenerators().count();
+		long extraction = rounds.stream().flatMap(round -> round.classes.values().stream())
+				.mapToLong(classProfile -> classProfile.extractionNanos).sum();
+		long generation = allGenerators().mapToLong(generator -> generator.generationNanos).sum();
+		long writing = allGenerators().mapToLong(generator -> generator.writeNanos).sum();
+		long methods = allGenerators().mapToLong(generator -> generator.methodCount).sum();
+		long bytes = allGenerators().mapToLong(generator -> generator.sourceBytes).sum();
+		return "kilauea: " + classes + " annotated classes, " + generated + " generated classes in " + rounds.size()
+				+ " rounds. extraction " + millis(extraction) + " ms, generation " + millis(generation)
+				+ " ms, writing " + millis(writing) + " ms; " + methods + " methods, " + bytes
+				+ " bytes of source. See " + REPORT_LOCATION;
+	}
+
+	/**
+	 * @return the collected information as a JSON document
+	 */
+	public String toJSON() {
+		StringBuilder json = new StringBuilder("{\n  \"rounds\" : [");
+		for (int r = 0; r < rounds.size(); r++) {
+			RoundProfile round = rounds.get(r);
+			json.append(r > 0 ? ",\n" : "\n").append("    { \"round\" : ").append(round.number)
+				.append(", \"classes\" : [");
+			int c = 0;
+			for (ClassProfile classProfile : round.classes.values()) {
+				json.append(c++ > 0 ? ",\n" : "\n").append("      { \"class\" : \"")
+					.append(classProfile.annotatedClass.canonicalName()).append("\", \"extractionNanos\" : ")
+					.append(classProfile.extractionNanos).append(", \"generators\" : [");
+				for (int g = 0; g < classProfile.generators.size(); g++) {
+					GeneratorProfile generator = classProfile.generators.get(g);
+					json.append(g > 0 ? ", " : " ").append("{ \"type\" : \"").append(generator.type)
+						.append("\", \"generatedClass\" : \"").append(generator.generatedClassName)
+						.append("\", \"generationNanos\" : ").append(generator.generationNanos)
+						.append(", \"writeNanos\" : ").append(generator.writeNanos)
+						.append(", \"methods\" : ").append(generator.methodCount)
+						.append(", \"sourceBytes\" : ").append(generator.sourceBytes).append(" }");
+				}
+				json.append(" ] }");
+			}
+			json.append(c > 0 ? "\n    " : " ").append("] }");
+		}
+		json.append(rounds.isEmpty() ? "" : "\n  ").append("]\n}\n");
+		return json.toString();
+	}
+
+	private Stream<GeneratorProfile> allGenerators() {
+		return rounds.stream().flatMap(round -> round.classes.values().stream())
+				.flatMap(classProfile -> classProfile.generators.stream());
+	}
+
+	private ClassProfile classProfile(final ClassName annotatedClass) {
+		if (currentRound == null) {
+			startRound();
+		}
+		return currentRound.classes.computeIfAbsent(annotatedClass, ClassProfile::new);
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * information for one compiler round
+	 */
+	private static class RoundProfile {
+		private final int number;
+		private final Map<ClassName, ClassProfile> classes = new LinkedHashMap<>();
+
+		RoundProfile(int number) {
+			this.number = number;
+		}
+	}
+
+	/**
+	 * information for one annotated class
+	 */
+	private static class ClassProfile {
+		private final ClassName annotatedClass;
+		private long extractionNanos;
+		private final List<GeneratorProfile> generators = new ArrayList<>();
+
+		ClassProfile(final ClassName annotatedClass) {
+			this.annotatedClass = annotatedClass;
+		}
+	}
+
+	/**
+	 * information for one generated class. The values are copied, since
+	 * the statistics belong to the generator instance.
+	 */
+	private static class GeneratorProfile {
+		private final GeneratorType type;
+		private final String generatedClassName;
+		private final long generationNanos;
+		private final long writeNanos;
+		private final int methodCount;
+		private final long sourceBytes;
+
+		GeneratorProfile(final GeneratorType type, final GenerationStatistics statistics) {
+			this.type = type;
+			this.generatedClassName = statistics.generatedClassName();
+			this.generationNanos = statistics.generationNanos();
+			this.writeNanos = statistics.writeNanos();
+			this.methodCount = statistics.methodCount();
+			this.sourceBytes = statistics.sourceBytes();
+		}
+	}
+}
@@ -13,15 +13,19 @@ package net.magiccode.kilauea.generator;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.processing.Filer;
@@ -36,6 +40,9 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
@@ -43,6 +50,7 @@ import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
@@ -52,6 +60,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import net.magiccode.kilauea.Mapper;
+import net.magiccode.kilauea.runtime.Immutables;
+import net.magiccode.kilauea.runtime.MappingException;
+import net.magiccode.kilauea.runtime.OneWayMapper;
+import net.magiccode.kilauea.runtime.jfr.MappingEvent;
+import net.magiccode.kilauea.runtime.metrics.MappingMetrics;
 import net.magiccode.kilauea.util.ReflectionUtil;
 import net.magiccode.kilauea.util.StringUtil;
 
@@ -61,15 +75,54 @@ import net.magiccode.kilauea.util.StringUtil;
  */
 public abstract class AbstractClassGenerator implements ClassGenerator {
 
+	/**
+	 * name of the local variable holding the JFR event in generated methods
+	 */
+	private static final String MAPPING_EVENT = "kilaueaMappingEvent";
+	/**
+	 * name of the local variable holding the number of mapped elements
+	 */
+	private static final String MAPPING_ELEMENTS = "kilaueaMappingElements";
+	/**
+	 * names of the local variables holding start time and failure for {@code MappingMetrics}
+	 */
+	private static final String METRICS_START = "kilaueaMetricsStart";
+	private static final String MAPPING_FAILURE = "kilaueaMappingFailure";
+	/**
+	 * interface of the generated mapper singletons, not to be confused with the processor class
+	 */
+	private static final ClassName RUNTIME_MAPPER = ClassName.get(net.magiccode.kilauea.runtime.Mapper.class);
+	private static final ClassName ONE_WAY_MAPPER = ClassName.get(OneWayMapper.class);
+
 	protected ElementInfo annotationInfo;
 	protected ClassName annotatedClass;
 	protected Filer filer;
 	protected Messager messager;
 	protected ProcessingEnvironment procEnv;
 	protected final Types typeUtils;
+	/**
+	 * set by the processor option <i>kilauea.verbose</i>, enables the detailed NOTE messages
+	 */
+	protected final boolean verbose;
+	/**
+	 * classifies field types, e.g. to share collections of immutable values
+	 */
+	protected final ImmutabilityAnalyzer immutabilityAnalyzer;
 
 	protected final Map<ClassName, List<ElementInfo>> classMap = new HashMap<>();
 
+	protected final GenerationStatistics statistics = new GenerationStatistics();
+
+	/**
+	 * name of the class being generated, set when the generation starts
+	 */
+	protected ClassName generatedClass;
+
+	/**
+	 * the class created by {@code generate()}
+	 */
+	protected TypeSpec generatedType;
+
 	/**
 	 * The purpose of this class is to generate Java code using the JavaPoet
 	 * framework. See documentation for more details about <i>JSONMapped</i>
@@ -88,6 +141,8 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 		this.messager = messager;
 		this.procEnv = procEnv;
 		this.typeUtils = procEnv.getTypeUtils();
+		this.verbose = Boolean.parseBoolean(procEnv.getOptions().get(Mapper.OPTION_VERBOSE));
+		this.immutabilityAnalyzer = new ImmutabilityAnalyzer(typeUtils, procEnv.getElementUtils());
 		this.classMap.putAll(input);
 	}
 
@@ -98,14 +153,28 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 */
 	public void generate() throws IOException {
 
+		long generationStart = System.nanoTime();
 		try {
 			String className = annotationInfo.prefix() + annotationInfo.className();
-			messager.printMessage(Diagnostic.Kind.NOTE, "Generating " + className);
+			note("Generating " + className);
 			ClassName key = ClassName.get(annotationInfo.element());
 			String packageName = generatePackageName(key, annotationInfo);
+			generatedClass = ClassName.get(packageName, className);
+
+			note("annotated class " + key.canonicalName() + ", generated class " + packageName + "." + className);
 
-			messager.printMessage(Diagnostic.Kind.NOTE,
-					"annotated class " + key.canonicalName() + ", generated class " + packageName + "." + className);
+			if (generatesRecord()) {
+				RecordClassGenerator recordGenerator = new RecordClassGenerator(this, annotationInfo);
+				generatedType = recordGenerator.generate(generatedClass);
+				writeGeneratedSource(packageName, className, recordGenerator.render(packageName), generationStart);
+				return;
+			}
+			if (generatesImmutableClass()) {
+				ImmutableClassGenerator immutableGenerator = new ImmutableClassGenerator(this, annotationInfo);
+				generatedType = immutableGenerator.generate(generatedClass);
+				writeGeneratedSource(packageName, className, immutableGenerator.render(packageName), generationStart);
+				return;
+			}
 
 			List<FieldSpec> fields = new ArrayList<>();
 			Map<String, MethodSpec> methods = new HashMap<>();
@@ -125,36 +194,282 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 				createOfWithClass(key, packageName, className, annotationInfo, methods);
 			}
 			createSpecificFieldsAndMethods(key, packageName, className, annotationInfo, fields, methods);
+			ProtobufGenerator protobufGenerator = null;
+			if (annotationInfo.protobuf()) {
+				protobufGenerator = new ProtobufGenerator(this, annotationInfo);
+				protobufGenerator.createMethods(generatedClass, fields, methods);
+			}
 			
 			String sourcePackageName = ClassName.get(annotationInfo.element()).packageName();
 			String sourceClassName = ClassName.get(annotationInfo.element()).simpleName();
+			List<FieldConversion> constructorArguments = sourceConstructorArguments(annotationInfo);
 			// no <i>to</> method for abstract classes! 
 			if (! annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT) &&
-				annotationInfo.annotatedClassHasPublicConstructor()) {
-				// create to method
-				createToWithArgument(sourcePackageName, sourceClassName, annotationInfo, methods);
-				createTo(sourcePackageName, sourceClassName, annotationInfo, methods);
-				createIncomingClassInstantiationMethod(sourcePackageName, sourceClassName, methods);
+				(annotationInfo.annotatedClassHasPublicConstructor() || constructorArguments != null)) {
+				if (annotationInfo.annotatedClassHasPublicConstructor()) {
+					createToWithArgument(sourcePackageName, sourceClassName, annotationInfo, methods);
+				}
+				// create to method, by the all-args constructor if there is one
+				if (constructorArguments != null) {
+					createToWithConstructor(key, constructorArguments, methods);
+				} else {
+					createTo(sourcePackageName, sourceClassName, annotationInfo, methods);
+					createIncomingClassInstantiationMethod(sourcePackageName, sourceClassName, methods);
+				}
 			} else {
 				messager.printMessage(Diagnostic.Kind.WARNING,
 						"no to() method generated for class " + packageName + "." + className+ ". "+
 						(annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)
 						 ? key.canonicalName() + " is abstract." 
-						 : key.canonicalName() + " does not have a non-args constructor."));
+						 : key.canonicalName() + " has neither a non-args nor an all-args constructor."));
 			}
 			// generate and write class
-			TypeSpec generatedClass = generateClass(annotationInfo, className, packageName, fields, methods);
-			JavaFile javaFile = JavaFile.builder(packageName, generatedClass).indent("    ").build();
+			generatedType = generateClass(annotationInfo, className, packageName, fields, methods);
+			JavaFile javaFile = JavaFile.builder(packageName, generatedType).indent("    ").build();
 			if (javaFile.toJavaFileObject().delete()) {
 				messager.printMessage(Diagnostic.Kind.WARNING, "Duplicate @Mapped annotation on class "+sourceClassName+"\n. Previously generated file has been deleted. Please check your source code.");
 			}
-			javaFile.writeTo(filer);
+			// render once, the same source is measured and written
+			writeGeneratedSource(packageName, className, javaFile.toString(), generationStart);
+			if (protobufGenerator != null) {
+				writeProtoSchema(packageName, className, protobufGenerator.schema(generatedClass));
+			}
 		} catch (IOException e) {
 			messager.printMessage(Diagnostic.Kind.ERROR, "Error occured while generating class "
 					+ annotationInfo.element() + ". " + e.getLocalizedMessage());
 		}
 	}
 
+	/**
+	 * record the statistics of the generated source and write it, together with the
+	 * batch class if requested.
+	 * 
+	 * @param packageName     - package of the generated class
+	 * @param className       - name of the generated class
+	 * @param source          - the generated source code
+	 * @param generationStart - start of the generation in nanoseconds
+	 * @throws IOException if file cannot be written
+	 */
+	private void writeGeneratedSource(final String packageName, final String className, final String source,
+			long generationStart) throws IOException {
+		statistics.generationNanos(System.nanoTime() - generationStart)
+				  .methodCount(generatedType.methodSpecs.size())
+				  .sourceBytes(source.getBytes(StandardCharsets.UTF_8).length)
+				  .generatedClassName(packageName + "." + className);
+
+		long writeStart = System.nanoTime();
+		writeSourceFile(packageName + "." + className, source);
+		writeBatchClass(packageName, className);
+		statistics.writeNanos(System.nanoTime() - writeStart);
+	}
+
+	/**
+	 * whether a record is generated instead of a class. Abstract classes are generated
+	 * as classes, since records cannot be extended.
+	 * 
+	 * @return true if {@code @Mapped(record = true)} and the annotated class is not abstract
+	 */
+	protected boolean generatesRecord() {
+		if (!annotationInfo.record()) {
+			return false;
+		}
+		if (annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "record = true is ignored for abstract class "
+					+ annotationInfo.element() + ", a class is generated.", annotationInfo.element());
+			return false;
+		}
+		if (annotationInfo.superclass() != null) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Records cannot extend " + annotationInfo.superclass()
+					+ ", the superclass is ignored for " + annotationInfo.element() + ".", annotationInfo.element());
+		}
+		return true;
+	}
+
+	/**
+	 * whether an immutable class is generated. Abstract classes are generated as mutable
+	 * classes, since they cannot be instantiated by <i>of()</i> or a builder.
+	 * 
+	 * @return true if {@code @Mapped(immutable = true)} and the annotated class is not abstract
+	 */
+	protected boolean generatesImmutableClass() {
+		if (!annotationInfo.immutable()) {
+			return false;
+		}
+		if (annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "immutable = true is ignored for abstract class "
+					+ annotationInfo.element() + ", a mutable class is generated.", annotationInfo.element());
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * write the generated source into a new source file. The annotated class is
+	 * registered as originating element.
+	 * 
+	 * @param qualifiedName - fully qualified name of the generated class
+	 * @param source        - the generated source code
+	 * @throws IOException if file cannot be written
+	 */
+	protected void writeSourceFile(final String qualifiedName, final String source) throws IOException {
+		JavaFileObject sourceFile = filer.createSourceFile(qualifiedName, annotationInfo.element());
+		try (Writer writer = sourceFile.openWriter()) {
+			writer.write(source);
+		}
+	}
+
+	/**
+	 * write the protobuf schema <i>XXX.proto</i> next to the generated class, it is
+	 * packaged with the classes.
+	 * 
+	 * @param packageName - package of the generated class
+	 * @param className   - name of the generated class
+	 * @param schema      - content of the schema
+	 * @throws IOException if file cannot be written
+	 */
+	protected void writeProtoSchema(final String packageName, final String className, final String schema)
+			throws IOException {
+		FileObject resource = filer.createResource(StandardLocation.CLASS_OUTPUT, packageName, className + ".proto",
+				annotationInfo.element());
+		try (Writer writer = resource.openWriter()) {
+			writer.write(schema);
+		}
+	}
+
+	/**
+	 * write the columnar companion class <i>XXXBatch</i> if {@code @Mapped(batch = true)}
+	 * 
+	 * @param packageName - package of the generated class
+	 * @param className   - name of the generated class
+	 * @throws IOException if file cannot be written
+	 */
+	protected void writeBatchClass(final String packageName, final String className) throws IOException {
+		if (annotationInfo.batch()) {
+			ClassName batchClass = ClassName.get(packageName, className + "Batch");
+			TypeSpec batchType = new BatchClassGenerator(this, annotationInfo).generate(batchClass);
+			writeSourceFile(batchClass.canonicalName(),
+					JavaFile.builder(packageName, batchType).indent("    ").build().toString());
+		}
+	}
+
+	/**
+	 * figures collected during the last call of {@code generate()}
+	 * 
+	 * @return the {@code GenerationStatistics} of this generator
+	 */
+	@Override
+	public GenerationStatistics statistics() {
+		return statistics;
+	}
+
+	/**
+	 * @return name of the class created by the last call of {@code generate()}
+	 */
+	@Override
+	public ClassName generatedClass() {
+		return generatedClass;
+	}
+
+	/**
+	 * @return the {@code TypeSpec} created by the last call of {@code generate()}
+	 */
+	@Override
+	public TypeSpec generatedType() {
+		return generatedType;
+	}
+
+	/**
+	 * print a NOTE message, but only if the processor option <i>kilauea.verbose</i>
+	 * is set.
+	 * 
+	 * @param message - the message to print
+	 */
+	protected void note(final String message) {
+		if (verbose) {
+			messager.printMessage(Diagnostic.Kind.NOTE, message);
+		}
+	}
+
+	/**
+	 * start measuring the given method: begins the JFR event <i>kilauea.Mapping</i>, if 
+	 * the generated class emits JFR events, takes the start time for {@code MappingMetrics}
+	 * and opens the {@code try} block closed by {@link #endMeasurement}.
+	 * 
+	 * @param method - builder of the method to be measured
+	 */
+	protected void beginMeasurement(final MethodSpec.Builder method) {
+		if (annotationInfo.jfrEvents()) {
+			method.addStatement("$T $L = new $T()", MappingEvent.class, MAPPING_EVENT, MappingEvent.class)
+				  .addStatement("$L.begin()", MAPPING_EVENT);
+		}
+		method.addStatement("long $L = $T.ENABLED ? System.nanoTime() : 0L", METRICS_START, MappingMetrics.class)
+			  .beginControlFlow("try");
+	}
+
+	/**
+	 * complete the measurement started by {@link #beginMeasurement} and return the given value.
+	 * Failures are passed to {@code MappingMetrics} and rethrown.
+	 * 
+	 * @param method      - builder of the method to be measured
+	 * @param sourceClass - the class mapped from
+	 * @param targetClass - the class mapped to
+	 * @param operation   - name of the generated method
+	 * @param returnValue - name of the variable to return
+	 * @param instance    - expression of the instance of the generated class whose elements are counted
+	 */
+	protected void endMeasurement(final MethodSpec.Builder method, 
+								  final TypeName sourceClass,
+								  final TypeName targetClass, 
+								  final String operation,
+								  final String returnValue,
+								  final String instance) {
+		CodeBlock elements = elementCount(instance);
+		if (annotationInfo.jfrEvents()) {
+			// counted once for the event and the metrics
+			method.addStatement("long $L = $L", MAPPING_ELEMENTS, elements);
+			elements = CodeBlock.of("$L", MAPPING_ELEMENTS);
+			method.addStatement("$L.complete($T.class, $T.class, $S, $L)", MAPPING_EVENT, 
+								sourceClass, targetClass, operation, elements);
+		}
+		method.beginControlFlow("if ($T.ENABLED)", MappingMetrics.class)
+			  .addStatement("$T.record($T.class, $S, $L, $L)", MappingMetrics.class, generatedClass, 
+					  		operation, elements, METRICS_START)
+			  .endControlFlow()
+			  .addStatement("return $L", returnValue)
+			  // rethrows exactly the checked exceptions of the try block
+			  .nextControlFlow("catch ($T $L)", Throwable.class, MAPPING_FAILURE)
+			  .beginControlFlow("if ($T.ENABLED)", MappingMetrics.class)
+			  .addStatement("$T.failure($T.class, $S, $L)", MappingMetrics.class, generatedClass, operation, MAPPING_FAILURE)
+			  .endControlFlow()
+			  .addStatement("throw $L", MAPPING_FAILURE)
+			  .endControlFlow();
+	}
+
+	/**
+	 * the number of elements mapped with the given instance: 1 for the instance itself plus
+	 * the size of each collection, map and array field.
+	 * 
+	 * @param instance - expression of an instance of the generated class
+	 * @return expression of type {@code long} counting the elements
+	 */
+	protected CodeBlock elementCount(final String instance) {
+		TypeMirror collectionType = getTypeUtils().erasure(getElementUtils().getTypeElement("java.util.Collection").asType());
+		TypeMirror mapType = getTypeUtils().erasure(getElementUtils().getTypeElement("java.util.Map").asType());
+		CodeBlock.Builder count = CodeBlock.builder().add("1L");
+		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field)).forEach(field -> {
+			TypeMirror fieldType = annotationInfo.fieldType(field);
+			String fieldName = field.getSimpleName().toString();
+			if (fieldType.getKind() == TypeKind.ARRAY) {
+				count.add(" + ($L.$L == null ? 0 : $L.$L.length)", instance, fieldName, instance, fieldName);
+			} else if (fieldType.getKind() == TypeKind.DECLARED
+					&& (getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType), collectionType)
+						|| getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType), mapType))) {
+				count.add(" + ($L.$L == null ? 0 : $L.$L.size())", instance, fieldName, instance, fieldName);
+			}
+		});
+		return count.build();
+	}
+
 	/**
 	 * to be implemented by extending classes to add fields and methods specific to
 	 * the type of mapper being created
@@ -208,11 +523,11 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 		// Generate fields, getters and setters
 		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field)).forEach(field -> {
 
-			TypeMirror fieldType = field.asType();
+			TypeMirror fieldType = annotationInfo.fieldType(field);
 			TypeName fieldTypeName = TypeName.get(fieldType);
 			boolean fieldIsMapped = fieldIsMapped(field);
 			if (fieldIsMapped) {
-				TypeMirror fieldTypeMirror = field.asType();
+				TypeMirror fieldTypeMirror = annotationInfo.fieldType(field);
 				Element fieldElement = typeUtils.asElement(fieldTypeMirror);
 				if (fieldElement instanceof TypeElement) {
 					ClassName fieldClassName = ClassName.get((TypeElement) fieldElement);
@@ -234,10 +549,10 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	protected void createFields(ElementInfo annotationInfo, List<FieldSpec> fields) {
 		// Generate fields
 		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field)).forEach(field -> {
-			TypeMirror fieldType = field.asType();
+			TypeMirror fieldType = annotationInfo.fieldType(field);
 			TypeName fieldClass = TypeName.get(fieldType);
 			boolean fieldIsMapped = fieldIsMapped(field);
-			messager.printMessage(Diagnostic.Kind.NOTE, "Generating field " + field.getSimpleName().toString());
+			note("Generating field " + field.getSimpleName().toString());
 			fields.add(createFieldSpec(field, annotationInfo, fieldClass, fieldIsMapped));
 		});
 	}
@@ -303,13 +618,107 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 						generateClassBuilder.addSuperinterface(intf);
 					});
 		}
+		// abstract classes have no of() method, hence no mapper
+		if (methods.containsKey("of")) {
+			createMapperSingleton(annotationInfo, className, packageName, methods.containsKey("to"), generateClassBuilder);
+		}
 		TypeSpec generatedClassType = generateClassBuilder.build();
 
-		messager.printMessage(Diagnostic.Kind.NOTE, "Generated " + className);
+		note("Generated " + className);
 
 		return generatedClassType;
 	}
 
+	/**
+	 * generates the nested class <i>XXXMapper</i> implementing {@code net.magiccode.kilauea.runtime.Mapper}
+	 * and its singleton instance in the static field <i>MAPPER</i>. The mapper delegates to
+	 * <i>of</i> and <i>to</i>, wrapping their checked exceptions in a {@code MappingException}.
+	 * Without <i>to</i>, the mapper implements {@code OneWayMapper} and has no <i>unmap</i>, so
+	 * mapping back does not compile.
+	 * 
+	 * @param annotationInfo        - {@code ElementInfo} instance of the annotated class
+	 * @param className             - name of the generated class
+	 * @param packageName           - package of the generated class
+	 * @param hasTo                 - whether a <i>to()</i> method is generated
+	 * @param generateClassBuilder  - builder of the generated class
+	 */
+	protected void createMapperSingleton(final ElementInfo annotationInfo, final String className, 
+			final String packageName, boolean hasTo, final TypeSpec.Builder generateClassBuilder) {
+		createMapperSingleton(annotationInfo, className, packageName, hasTo, true, true, generateClassBuilder);
+	}
+
+	/**
+	 * generates the mapper singleton for <i>of</i> and <i>to</i> methods which only declare
+	 * {@code IllegalAccessException} if they use reflection, see
+	 * {@link #createMapperSingleton(ElementInfo, String, String, boolean, TypeSpec.Builder)}.
+	 * 
+	 * @param annotationInfo        - {@code ElementInfo} instance of the annotated class
+	 * @param className             - name of the generated class
+	 * @param packageName           - package of the generated class
+	 * @param hasTo                 - whether a <i>to()</i> method is generated
+	 * @param ofThrows              - whether <i>of()</i> declares {@code IllegalAccessException}
+	 * @param toThrows              - whether <i>to()</i> declares {@code IllegalAccessException}
+	 * @param generateClassBuilder  - builder of the generated class
+	 */
+	protected void createMapperSingleton(final ElementInfo annotationInfo, final String className, 
+			final String packageName, boolean hasTo, boolean ofThrows, boolean toThrows,
+			final TypeSpec.Builder generateClassBuilder) {
+		ClassName mappedClass = ClassName.get(packageName, className);
+		ClassName sourceClass = ClassName.get(annotationInfo.element());
+		ClassName mapperClass = mappedClass.nestedClass(className + "Mapper");
+
+		MethodSpec.Builder map = MethodSpec.methodBuilder("map").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).addParameter(sourceClass, "source").returns(mappedClass)
+				.beginControlFlow("if (source == null)")
+				.addStatement("return null")
+				.endControlFlow();
+		if (ofThrows) {
+			map.beginControlFlow("try")
+			   .addStatement("return $T.of(source)", mappedClass)
+			   .nextControlFlow("catch ($T e)", IllegalAccessException.class)
+			   .addStatement("throw new $T($S, e)", MappingException.class, "Mapping " + sourceClass.canonicalName() + " failed")
+			   .endControlFlow();
+		} else {
+			map.addStatement("return $T.of(source)", mappedClass);
+		}
+
+		TypeSpec.Builder mapper = TypeSpec.classBuilder(mapperClass).addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+				.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+				.addMethod(map.build());
+		if (hasTo) {
+			MethodSpec.Builder unmap = MethodSpec.methodBuilder("unmap").addAnnotation(Override.class)
+					.addModifiers(Modifier.PUBLIC).addParameter(mappedClass, "dto").returns(sourceClass)
+					.beginControlFlow("if (dto == null)")
+					.addStatement("return null")
+					.endControlFlow();
+			if (toThrows) {
+				unmap.beginControlFlow("try")
+					 .addStatement("return dto.to()")
+					 .nextControlFlow("catch ($T e)", IllegalAccessException.class)
+					 .addStatement("throw new $T($S, e)", MappingException.class, "Mapping " + mappedClass.canonicalName() + " failed")
+					 .endControlFlow();
+			} else {
+				unmap.addStatement("return dto.to()");
+			}
+			mapper.addSuperinterface(ParameterizedTypeName.get(RUNTIME_MAPPER, sourceClass, mappedClass))
+				  .addJavadoc("Stateless mapper between {@code $T} and {@code $T}, use the instance in {@code MAPPER}.\n", 
+						sourceClass, mappedClass)
+				  .addMethod(unmap.build());
+		} else {
+			// without to() there is nothing to map back with
+			note(sourceClass.canonicalName() + " has neither a public no-args nor an all-args constructor, "
+					+ mapperClass.canonicalName() + " only maps to " + mappedClass.canonicalName());
+			mapper.addSuperinterface(ParameterizedTypeName.get(ONE_WAY_MAPPER, sourceClass, mappedClass))
+				  .addJavadoc("Stateless mapper from {@code $T} to {@code $T}, use the instance in {@code MAPPER}.\n"
+						+ "{@code $T} has neither a public no-args nor an all-args constructor, so there is no mapping back.\n", 
+						sourceClass, mappedClass, sourceClass);
+		}
+		generateClassBuilder.addType(mapper.build())
+				.addField(FieldSpec.builder(mapperClass, "MAPPER", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+						.addJavadoc("stateless mapper singleton\n")
+						.initializer("new $T()", mapperClass).build());
+	}
+
 	/**
 	 * generates an <i>of</i>-method with all fields as arguments. Acts basically
 	 * like an
@@ -335,10 +744,11 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 				.addJavadoc(CodeBlock.builder()
 						.add("Creates object with all given values, acts basically as a AllArgsConstructor.\n")
 						.build());
+		beginMeasurement(of);
 
 		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field)).forEach(field -> {
 
-			TypeMirror fieldType = field.asType();
+			TypeMirror fieldType = annotationInfo.fieldType(field);
 			String fieldName = field.getSimpleName().toString();
 			TypeName fieldClass = TypeName.get(fieldType);
 			of.addParameter(fieldClass, field.getSimpleName().toString(), new Modifier[0]);
@@ -349,18 +759,17 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 
 				if (fieldType.getKind() == TypeKind.DECLARED) {
 					List<TypeName> typeArguments = obtainTypeArguments(fieldType);
-					List<TypeName> types = collectTypes(annotationInfo, typeArguments);
+					List<TypeName> types = collectTypes(annotationInfo, fieldType);
 
 					TypeMirror collectionType = getElementUtils().getTypeElement("java.util.Collection").asType();
 					TypeMirror mapType = getElementUtils().getTypeElement("java.util.Map").asType();
 					TypeMirror setType = getElementUtils().getTypeElement("java.util.Set").asType();
 
 					if (typeArguments != null && typeArguments.size() > 0) {
-						Element[] argumentElement = new Element[typeArguments.size()];
+						Element[] argumentElement = obtainTypeArgumentElements(fieldType);
 						boolean[] argumentIsMapped = new boolean[typeArguments.size()];
 
 						for (int i = 0; i < typeArguments.size(); i++) {
-							argumentElement[i] = getElementUtils().getTypeElement(typeArguments.get(i).toString());
 							argumentIsMapped[i] = fieldIsMapped(argumentElement[i]);
 						}
 						// List & Set
@@ -370,13 +779,13 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 										|| getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType),
 												getTypeUtils().erasure(setType)))) {
 							generateMappingStatementForCollectionForOfWithArguments(methods, of, fieldName, setterName,
-									typeArguments, types);
+									typeArguments, types, argumentElement);
 							// Maps
 						} else if (argumentElement.length > 1 && (argumentIsMapped[0] || argumentIsMapped[1])
 								&& fieldType != null && getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType),
 										getTypeUtils().erasure(mapType))) {
 							generateMappingStatementForMapForOfWithArguments(methods, of, fieldName, setterName,
-									typeArguments, types);
+									typeArguments, types, argumentElement);
 
 						}
 					} else {
@@ -386,7 +795,7 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 					of.addStatement("newMappedObject.$L($L)", setterName, field.getSimpleName().toString());
 				}
 			} else {
-				TypeMirror fieldTypeMirror = field.asType();
+				TypeMirror fieldTypeMirror = annotationInfo.fieldType(field);
 				Element fieldElement = typeUtils.asElement(fieldTypeMirror);
 				if (fieldElement instanceof TypeElement) {
 					ClassName fieldClassName = ClassName.get((TypeElement) fieldElement);
@@ -396,9 +805,9 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 				}
 			}
 		});
-		of.addStatement("return newMappedObject")
-
-				.returns(ClassName.get(packageName, className));
+		endMeasurement(of, ClassName.get(annotationInfo.element()), ClassName.get(packageName, className), "of",
+				"newMappedObject", "newMappedObject");
+		of.returns(ClassName.get(packageName, className));
 		methods.put("ofWithArguments", of.build());
 	}
 
@@ -436,11 +845,12 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 						.add("@return populated instance of {@code $L}.\n", ClassName.get(packageName, className))
 						.build());
 
+		beginMeasurement(of);
 		AtomicInteger fieldCount = new AtomicInteger(0);
 		AtomicBoolean needsSuppressWarnings = new AtomicBoolean(false);
 		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field)).forEach(field -> {
 
-			TypeMirror fieldType = field.asType();
+			TypeMirror fieldType = annotationInfo.fieldType(field);
 
 			TypeName fieldClass = TypeName.get(fieldType);
 
@@ -448,16 +858,21 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 			String setterName = generateSetterName(annotationInfo, field.getSimpleName().toString());
 			String localFieldName = "field" + fieldCount.getAndIncrement();
 			boolean fieldIsMapped = fieldIsMapped(field);
+			// public getters (and the accessors of records) are called directly
+			String getter = new SourceAccessors(getElementUtils(), getTypeUtils(), annotationInfo.element(), field)
+					.getter();
 
 			if (!fieldIsMapped) {
 				createStatementForMappedFieldOf(incomingObjectClass, annotationInfo, methods, incomingObjectName, of,
-						needsSuppressWarnings, fieldType, fieldClass, fieldName, setterName, localFieldName);
+						needsSuppressWarnings, fieldType, fieldClass, fieldName, setterName, localFieldName, getter);
 			} else {
 				createStatementForUnmappedFieldOf(incomingObjectClass, annotationInfo, incomingObjectName, of, field,
-						fieldClass, fieldName, setterName, localFieldName);
+						fieldClass, fieldName, setterName, localFieldName, getter);
 			}
 		});
-		of.addStatement("return newMappedObject").returns(ClassName.get(packageName, className));
+		endMeasurement(of, incomingObjectClass, ClassName.get(packageName, className), "of", "newMappedObject",
+				"newMappedObject");
+		of.returns(ClassName.get(packageName, className));
 		if (needsSuppressWarnings.get() == true) {
 			// create @SuppressWarning("unchecked") annotation
 			AnnotationSpec suppressWarningsAnnotation = AnnotationSpec.builder(SuppressWarnings.class)
@@ -486,17 +901,23 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 *                            statement
 	 * @param localFieldName      - generated name of the {@code Field} of the
 	 *                            'incoming' class
+	 * @param getter              - name of the public getter of the field, null if
+	 *                            it has to be read by reflection
 	 */
 	private void createStatementForUnmappedFieldOf(final ClassName incomingObjectClass,
 			final ElementInfo annotationInfo, String incomingObjectName, final MethodSpec.Builder of,
 			final VariableElement field, final TypeName fieldClass, String fieldName, String setterName,
-			String localFieldName) {
-		TypeMirror fieldTypeMirror = field.asType();
+			String localFieldName, String getter) {
+		TypeMirror fieldTypeMirror = annotationInfo.fieldType(field);
 		Element fieldElement = typeUtils.asElement(fieldTypeMirror);
 		if (fieldElement instanceof TypeElement) {
 			ClassName fieldClassName = ClassName.get((TypeElement) fieldElement);
 			TypeName mappedFieldClassName = getMappedTypeForClassName(fieldClassName);
-			
+			if (getter != null) {
+				of.addStatement("newMappedObject.$L($T.of($L.$L()))", setterName, mappedFieldClassName,
+						incomingObjectName, getter);
+				return;
+			}
 			of.addStatement("$T $L = $T.deepGetField($T.class, $S, true)", Field.class, localFieldName,
 					ReflectionUtil.class, incomingObjectClass, fieldName)
 
@@ -534,29 +955,37 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 *                              statement
 	 * @param localFieldName        - generated name of the {@code Field} of the
 	 *                              'incoming' class
+	 * @param getter                - name of the public getter of the field, null
+	 *                              if it has to be read by reflection
 	 */
 	private void createStatementForMappedFieldOf(final ClassName incomingObjectClass, final ElementInfo annotationInfo,
 			final Map<String, MethodSpec> methods, String incomingObjectName, final MethodSpec.Builder of,
 			AtomicBoolean needsSuppressWarnings, final TypeMirror fieldType, final TypeName fieldClass,
-			String fieldName, String setterName, String localFieldName) {
-		of.addStatement("$T $L = $T.deepGetField($T.class, $S, true)", Field.class, localFieldName,
-				ReflectionUtil.class, incomingObjectClass, fieldName)
-				.beginControlFlow("if ($L != null)", localFieldName);
+			String fieldName, String setterName, String localFieldName, String getter) {
+		CodeBlock value;
+		if (getter != null) {
+			value = CodeBlock.of("$L.$L()", incomingObjectName, getter);
+		} else {
+			value = CodeBlock.of("($L)$T.invokeGetterMethod($L, $L)", fieldClass, ReflectionUtil.class,
+					incomingObjectName, localFieldName);
+			of.addStatement("$T $L = $T.deepGetField($T.class, $S, true)", Field.class, localFieldName,
+					ReflectionUtil.class, incomingObjectClass, fieldName)
+					.beginControlFlow("if ($L != null)", localFieldName);
+		}
 		// add suppresswarnings if necessary
 		if (fieldType.getKind() == TypeKind.DECLARED) {
 			List<TypeName> sourceTypeArguments = obtainTypeArguments(fieldType);
-			List<TypeName> destinationTypeArguments = collectTypes(annotationInfo, sourceTypeArguments);
+			List<TypeName> destinationTypeArguments = collectTypes(annotationInfo, fieldType);
 
 			TypeMirror collectionType = getElementUtils().getTypeElement("java.util.Collection").asType();
 			TypeMirror mapType = getElementUtils().getTypeElement("java.util.Map").asType();
 			TypeMirror setType = getElementUtils().getTypeElement("java.util.Set").asType();
 
 			if (sourceTypeArguments != null && sourceTypeArguments.size() > 0) {
-				Element[] argumentElement = new Element[sourceTypeArguments.size()];
+				Element[] argumentElement = obtainTypeArgumentElements(fieldType);
 				boolean[] argumentIsMapped = new boolean[sourceTypeArguments.size()];
 
 				for (int i = 0; i < sourceTypeArguments.size(); i++) {
-					argumentElement[i] = getElementUtils().getTypeElement(sourceTypeArguments.get(i).toString());
 					argumentIsMapped[i] = fieldIsMapped(argumentElement[i]);
 					needsSuppressWarnings.set(true);
 				}
@@ -566,28 +995,34 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 								getTypeUtils().erasure(collectionType))
 								|| getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType),
 										getTypeUtils().erasure(setType)))) {
-					generateMappingStatementForCollectionForOf(methods, incomingObjectName, of, fieldClass, fieldName,
-							setterName, localFieldName, sourceTypeArguments, destinationTypeArguments);
+					generateMappingStatementForCollectionForOf(methods, of, setterName, value, sourceTypeArguments,
+							destinationTypeArguments, argumentElement);
 				} else if (argumentElement.length > 1 && (argumentIsMapped[0] || argumentIsMapped[1])
 						&& fieldType != null && getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType),
 								getTypeUtils().erasure(mapType))) {
 
-					generateMappingStatementForMapForOf(methods, incomingObjectName, of, fieldClass, fieldName,
-							setterName, localFieldName, sourceTypeArguments, destinationTypeArguments);
+					generateMappingStatementForMapForOf(methods, of, setterName, value, sourceTypeArguments,
+							destinationTypeArguments, argumentElement);
 
+				} else if (getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType),
+								getTypeUtils().erasure(collectionType))
+						&& !getTypeUtils().isAssignable(getTypeUtils().erasure(fieldType),
+								getTypeUtils().erasure(getElementUtils().getTypeElement("java.util.List").asType()))) {
+					// the generated field is a List
+					of.addStatement("newMappedObject.$L($T.copyOf($L, $T.identity()))", setterName, Immutables.class,
+							value, Function.class);
 				} else { // typeArguments present but not mapped
-					of.addStatement("newMappedObject.$L(($L)$T.invokeGetterMethod($L, $L))", setterName, fieldClass,
-							ReflectionUtil.class, incomingObjectName, localFieldName);
+					of.addStatement("newMappedObject.$L($L)", setterName, value);
 				}
 			} else {
-				of.addStatement("newMappedObject.$L(($L)$T.invokeGetterMethod($L, $L))", setterName, fieldClass,
-						ReflectionUtil.class, incomingObjectName, localFieldName);
+				of.addStatement("newMappedObject.$L($L)", setterName, value);
 			}
 		} else {
-			of.addStatement("newMappedObject.$L(($L)$T.invokeGetterMethod($L, $L))", setterName, fieldClass,
-					ReflectionUtil.class, incomingObjectName, localFieldName);
+			of.addStatement("newMappedObject.$L($L)", setterName, value);
+		}
+		if (getter == null) {
+			of.endControlFlow();
 		}
-		of.endControlFlow();
 	}
 
 	/**
@@ -597,33 +1032,27 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 * 
 	 * @param methods                  - {@code Map} of methods to be generated for
 	 *                                 the class which is being processed
-	 * @param incomingObjectName       - name of the object which is provided to the
-	 *                                 method to which the statement is to be added
-	 *                                 to
 	 * @param of                       - {@code MethodSpec} instance of the method
 	 *                                 the created statement is to be added to
-	 * @param fieldClass               - {@code TypeName} of the field to be
-	 *                                 processed
-	 * @param fieldName                - name of the field to be processed
 	 * @param setterName               - name of the setter method to be called in
 	 *                                 the statement
-	 * @param localFieldName           - generated name of the {@code Field} of the
-	 *                                 'incoming' class
+	 * @param value                    - expression reading the field of the
+	 *                                 'incoming' object
 	 * @param sourceTypeArguments      - list of {@code TypeName} entries
 	 *                                 representing the 'incoming' argument types
 	 * @param destinationTypeArguments - list of {@code TypeName} entries
 	 *                                 representing the mapped argument types
+	 * @param argumentElement          - array of Element types of the
+	 *                                 sourceTypeArguments
 	 */
 	private void generateMappingStatementForCollectionForOf(final Map<String, MethodSpec> methods,
-			String incomingObjectName, final MethodSpec.Builder of, final TypeName fieldClass, String fieldName,
-			String setterName, String localFieldName, final List<TypeName> sourceTypeArguments,
-			final List<TypeName> destinationTypeArguments) {
-		String methodName = createTypeElementMappingsOf(methods, sourceTypeArguments, destinationTypeArguments)
-				.get(sourceTypeArguments.get(0));
-		of.addStatement(
-				"newMappedObject.$L((($L)$T.invokeGetterMethod($L, $L)).stream().map(e -> $L(e)).collect($T.toList()))",
-				setterName, fieldClass, ReflectionUtil.class, incomingObjectName, localFieldName, methodName,
-				Collectors.class);
+			final MethodSpec.Builder of, String setterName, final CodeBlock value,
+			final List<TypeName> sourceTypeArguments, final List<TypeName> destinationTypeArguments,
+			Element[] argumentElement) {
+		String methodName = createTypeElementMappingsOf(methods, sourceTypeArguments, destinationTypeArguments,
+				argumentElement).get(sourceTypeArguments.get(0));
+		of.addStatement("newMappedObject.$L(($L).stream().map(e -> $L(e)).collect($T.toList()))", setterName, value,
+				methodName, Collectors.class);
 	}
 
 	/**
@@ -633,30 +1062,26 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 * 
 	 * @param methods                  - {@code Map} of methods to be generated for
 	 *                                 the class which is being processed
-	 * @param incomingObjectName       - name of the object which is provided to the
-	 *                                 method to which the statement is to be added
-	 *                                 to
 	 * @param of                       - {@code MethodSpec} instance of the method
 	 *                                 the created statement is to be added to
-	 * @param fieldClass               - {@code TypeName} of the field to be
-	 *                                 processed
-	 * @param fieldName                - name of the field to be processed
 	 * @param setterName               - name of the setter method to be called in
 	 *                                 the statement
-	 * @param localFieldName           - generated name of the {@code Field} of the
-	 *                                 'incoming' class
+	 * @param value                    - expression reading the field of the
+	 *                                 'incoming' object
 	 * @param sourceTypeArguments      - list of {@code TypeName} entries
 	 *                                 representing the 'incoming' argument types
 	 * @param destinationTypeArguments - list of {@code TypeName} entries
 	 *                                 representing the mapped argument types
+	 * @param argumentElement          - array of Element types of the
+	 *                                 sourceTypeArguments
 	 */
-	private void generateMappingStatementForMapForOf(final Map<String, MethodSpec> methods, String incomingObjectName,
-			final MethodSpec.Builder of, final TypeName fieldClass, String fieldName, String setterName,
-			String localFieldName, final List<TypeName> sourceTypeArguments,
-			final List<TypeName> destinationTypeArguments) {
+	private void generateMappingStatementForMapForOf(final Map<String, MethodSpec> methods,
+			final MethodSpec.Builder of, String setterName, final CodeBlock value,
+			final List<TypeName> sourceTypeArguments, final List<TypeName> destinationTypeArguments,
+			Element[] argumentElement) {
 
 		Map<TypeName, String> methodNames = createTypeElementMappingsOf(methods, sourceTypeArguments,
-				destinationTypeArguments);
+				destinationTypeArguments, argumentElement);
 
 		String[] statements = new String[2];
 		if (methodNames.containsKey(sourceTypeArguments.get(0))) {
@@ -670,10 +1095,8 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 			statements[1] = "e -> e.getValue()";
 		}
 
-		of.addStatement(
-				"newMappedObject.$L((($L)$T.invokeGetterMethod($L, $L)).entrySet().stream().collect($T.toMap($L,$L)))",
-				setterName, fieldClass, ReflectionUtil.class, incomingObjectName, localFieldName, Collectors.class,
-				statements[0], statements[1]);
+		of.addStatement("newMappedObject.$L(($L).entrySet().stream().collect($T.toMap($L,$L)))", setterName, value,
+				Collectors.class, statements[0], statements[1]);
 	}
 
 	/**
@@ -692,12 +1115,14 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 *                                 representing the 'incoming' argument types
 	 * @param destinationTypeArguments - list of {@code TypeName} entries
 	 *                                 representing the mapped argument types
+	 * @param argumentElement          - array of Element types of the
+	 *                                 sourceTypeArguments
 	 */
 	private void generateMappingStatementForCollectionForOfWithArguments(final Map<String, MethodSpec> methods,
 			final MethodSpec.Builder of, String fieldName, String setterName, final List<TypeName> sourceTypeArguments,
-			final List<TypeName> destinationTypeArguments) {
-		String methodName = createTypeElementMappingsOf(methods, sourceTypeArguments, destinationTypeArguments)
-				.get(sourceTypeArguments.get(0));
+			final List<TypeName> destinationTypeArguments, Element[] argumentElement) {
+		String methodName = createTypeElementMappingsOf(methods, sourceTypeArguments, destinationTypeArguments,
+				argumentElement).get(sourceTypeArguments.get(0));
 		of.addStatement("newMappedObject.$L($L.stream().map(e -> $L(e)).collect($T.toList()))", setterName, fieldName,
 				methodName, Collectors.class);
 	}
@@ -718,12 +1143,14 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 *                                 representing the 'incoming' argument types
 	 * @param destinationTypeArguments - list of {@code TypeName} entries
 	 *                                 representing the mapped argument types
+	 * @param argumentElement          - array of Element types of the
+	 *                                 sourceTypeArguments
 	 */
 	private void generateMappingStatementForMapForOfWithArguments(final Map<String, MethodSpec> methods,
 			final MethodSpec.Builder of, String fieldName, String setterName, final List<TypeName> sourceTypeArguments,
-			final List<TypeName> destinationTypeArguments) {
+			final List<TypeName> destinationTypeArguments, Element[] argumentElement) {
 		Map<TypeName, String> methodNames = createTypeElementMappingsOf(methods, sourceTypeArguments,
-				destinationTypeArguments);
+				destinationTypeArguments, argumentElement);
 
 		String[] statements = new String[2];
 		if (methodNames.containsKey(sourceTypeArguments.get(0))) {
@@ -751,44 +1178,52 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 *                                 field to be processed' argument types
 	 * @param destinationTypeArguments - list of {@code TypeName} entries
 	 *                                 representing the mapped argument types
+	 * @param argumentElement          - array of Element types of the
+	 *                                 sourceTypeArguments
 	 * @return map of method names for each {@code TypeName} that is actually mapped
 	 *         with XXXMapped
 	 */
 	private Map<TypeName, String> createTypeElementMappingsOf(final Map<String, MethodSpec> methods,
-			final List<TypeName> sourceTypeArguments, final List<TypeName> destinationTypeArguments) {
+			final List<TypeName> sourceTypeArguments, final List<TypeName> destinationTypeArguments,
+			Element[] argumentElement) {
 
 		Map<TypeName, String> methodNames = new HashMap<>();
 		for (int typeIndex = 0; typeIndex < sourceTypeArguments.size(); typeIndex++) {
 
-			TypeElement argumentElement = getElementUtils()
-					.getTypeElement(sourceTypeArguments.get(typeIndex).toString());
-			if (typeIsMapped(argumentElement)) {
+			TypeElement argElement = (TypeElement) argumentElement[typeIndex];
+			if (typeIsMapped(argElement)) {
 
+				// type arguments may be parameterized themselves, the names are those of the classes
+				ClassName sourceClass = ClassName.get(argElement);
+				ClassName destinationClass = getMappedTypeForClassName(sourceClass);
 				String methodName = "map"
-						+ StringUtil.capitalise(((ClassName) sourceTypeArguments.get(typeIndex)).simpleName()) + "To"
-						+ (((ClassName) destinationTypeArguments.get(typeIndex)).simpleName());
+						+ StringUtil.capitalise(sourceClass.simpleName()) + "To"
+						+ destinationClass.simpleName();
 				methodNames.put(sourceTypeArguments.get(typeIndex), methodName);
 				if (!methods.containsKey(methodName)) {
 					MethodSpec.Builder mapMethodBuilder = MethodSpec.methodBuilder(methodName).addJavadoc(CodeBlock
 							.builder()
 							.add("Method to map an instance of {@code $L} into instance of a generated class {@code $L}.\n",
-									((ClassName) sourceTypeArguments.get(typeIndex)).simpleName(),
-									((ClassName) destinationTypeArguments.get(typeIndex)).simpleName())
+									sourceClass.simpleName(), destinationClass.simpleName())
 							.add("@param methods - List of methods to be created\n")
 							.add("@param typeArguments - {@code TypeMirror}s of the arguments of the field to be mapped.\n")
 							.add("@param typeArguments - {@code TypeName}s of the arguments of the field to be mapped.\n")
-							.add("@return populated instance of {@code $L}.\n",
-									((ClassName) destinationTypeArguments.get(typeIndex)).simpleName())
+							.add("@return populated instance of {@code $L}.\n", destinationClass.simpleName())
 							.build()).addModifiers(Modifier.PRIVATE, Modifier.STATIC);
 
 					mapMethodBuilder.addParameter(sourceTypeArguments.get(typeIndex), "e", Modifier.FINAL);
 
 					mapMethodBuilder.returns(destinationTypeArguments.get(typeIndex))
 							.addStatement("$T result = null", destinationTypeArguments.get(typeIndex))
-							.beginControlFlow("try")
-							.addStatement("result = $T.of(e)", destinationTypeArguments.get(typeIndex)).endControlFlow()
-							.beginControlFlow("catch($T eIllAcc)", IllegalAccessException.class)
-							.addStatement("eIllAcc.printStackTrace()").endControlFlow().addStatement("return result");
+							.beginControlFlow("try");
+					if (generatesRecordOrImmutable(argElement)) {
+						mapMethodBuilder.addStatement("result = $T.MAPPER.map(e)", destinationTypeArguments.get(typeIndex)).endControlFlow()
+								.beginControlFlow("catch($T eIllAcc)", MappingException.class);
+					} else {
+						mapMethodBuilder.addStatement("result = $T.of(e)", destinationTypeArguments.get(typeIndex)).endControlFlow()
+								.beginControlFlow("catch($T eIllAcc)", IllegalAccessException.class);
+					}
+					mapMethodBuilder.addStatement("eIllAcc.printStackTrace()").endControlFlow().addStatement("return result");
 					MethodSpec mapMethod = mapMethodBuilder.build();
 					methods.put(methodName, mapMethod);
 				}
@@ -821,29 +1256,35 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 			TypeElement argElement = (TypeElement) argumentElement[typeIndex];
 			if (typeIsMapped(argElement)) {
 
+				// type arguments may be parameterized themselves, the names are those of the classes
+				ClassName destinationClass = ClassName.get(argElement);
+				ClassName sourceClass = getMappedTypeForClassName(destinationClass);
 				String methodName = "map"
-						+ StringUtil.capitalise(((ClassName) sourceTypeArguments.get(typeIndex)).simpleName()) + "To"
-						+ (((ClassName) destinationTypeArguments.get(typeIndex)).simpleName());
+						+ StringUtil.capitalise(sourceClass.simpleName()) + "To"
+						+ destinationClass.simpleName();
 
 				methodNames.put(sourceTypeArguments.get(typeIndex), methodName);
 
 				if (!methods.containsKey(methodName)) {
-					MethodSpec mapMethod = MethodSpec.methodBuilder(methodName).addJavadoc(CodeBlock.builder().add(
+					MethodSpec.Builder mapMethodBuilder = MethodSpec.methodBuilder(methodName).addJavadoc(CodeBlock.builder().add(
 							"Method to map an instance of {@code $L} back into an instance of the annotated class {@code $L}.\n",
-							((ClassName) sourceTypeArguments.get(typeIndex)).simpleName(),
-							((ClassName) destinationTypeArguments.get(typeIndex)).simpleName())
-							.add("@param e - {@code $T} instance of the type to be mapped.\n", 
-									((ClassName) sourceTypeArguments.get(typeIndex)))
-							.add("@return populated instance of  {@code $L}.\n",
-									((ClassName) destinationTypeArguments.get(typeIndex)).simpleName())
+							sourceClass.simpleName(), destinationClass.simpleName())
+							.add("@param e - {@code $T} instance of the type to be mapped.\n", sourceClass)
+							.add("@return populated instance of  {@code $L}.\n", destinationClass.simpleName())
 							.build()).addModifiers(Modifier.PRIVATE, Modifier.STATIC)
 							.addParameter(sourceTypeArguments.get(typeIndex), "e", Modifier.FINAL)
 							.returns(destinationTypeArguments.get(typeIndex))
 							.addStatement("$T result = null", destinationTypeArguments.get(typeIndex))
-							.beginControlFlow("try").addStatement("result = e.to()").endControlFlow()
-							.beginControlFlow("catch($T eIllAcc)", IllegalAccessException.class)
-							.addStatement("eIllAcc.printStackTrace()").endControlFlow().addStatement("return result")
-							.build();
+							.beginControlFlow("try");
+					if (generatesRecordOrImmutable(argElement)) {
+						mapMethodBuilder.addStatement("result = $T.MAPPER.unmap(e)", sourceTypeArguments.get(typeIndex)).endControlFlow()
+								.beginControlFlow("catch($T eIllAcc)", MappingException.class);
+					} else {
+						mapMethodBuilder.addStatement("result = e.to()").endControlFlow()
+								.beginControlFlow("catch($T eIllAcc)", IllegalAccessException.class);
+					}
+					MethodSpec mapMethod = mapMethodBuilder.addStatement("eIllAcc.printStackTrace()").endControlFlow()
+							.addStatement("return result").build();
 
 					methods.put(methodName, mapMethod);
 				}
@@ -882,7 +1323,11 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 						.add("@return the recreated object instance of $L", externalClass).build())
 				.addStatement("$T $L = $L", externalClass, objectName, parameterName);
 
+		beginMeasurement(to);
 		AtomicInteger fieldCount = new AtomicInteger(0);
+		Set<String> fieldNames = annotationInfo.fields().stream()
+				.map(field -> field.getSimpleName().toString())
+				.collect(Collectors.toSet());
 		annotationInfo.fields().stream()
 				.filter(field -> 
 						!isFieldFinalStatic(field) && 
@@ -890,15 +1335,19 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 				.forEach(field -> {
 					boolean fieldIsMapped = fieldIsMapped(field);
 					String fieldName = field.getSimpleName().toString();
+					// the fields of the mapper class are accessed unqualified, they must not be hidden
 					String localFieldName = "field" + fieldCount.getAndIncrement();
+					while (fieldNames.contains(localFieldName)) {
+						localFieldName = "_" + localFieldName;
+					}
 
-					TypeMirror fieldType = field.asType();
+					TypeMirror fieldType = annotationInfo.fieldType(field);
 					TypeName fieldClass = TypeName.get(fieldType);
 
 					to.addStatement("$T $L = $T.deepGetField($L, $S, true)", Field.class, localFieldName,
 							ReflectionUtil.class, className + ".class", fieldName);
 
-					if (field.asType().getKind().isPrimitive()) {
+					if (annotationInfo.fieldType(field).getKind().isPrimitive()) {
 						to.beginControlFlow("if ($L != null)", localFieldName);
 
 					} else {
@@ -907,14 +1356,13 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 
 					if (fieldType.getKind() == TypeKind.DECLARED) {
 						List<TypeName> typeArguments = obtainTypeArguments(fieldType);
-						List<TypeName> types = collectTypes(annotationInfo, typeArguments);
+						List<TypeName> types = collectTypes(annotationInfo, fieldType);
 
 						if (typeArguments != null && typeArguments.size() > 0) {
-							Element[] argumentElement = new Element[typeArguments.size()];
+							Element[] argumentElement = obtainTypeArgumentElements(fieldType);
 							boolean[] argumentIsMapped = new boolean[typeArguments.size()];
 
 							for (int i = 0; i < typeArguments.size(); i++) {
-								argumentElement[i] = getElementUtils().getTypeElement(typeArguments.get(i).toString());
 								argumentIsMapped[i] = fieldIsMapped(argumentElement[i]);
 							}
 
@@ -953,7 +1401,8 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 					}
 					to.endControlFlow();
 				});
-		to.addStatement("return $L", objectName).returns(ClassName.get(packageName, className));
+		endMeasurement(to, generatedClass, externalClass, "to", objectName, "this");
+		to.returns(ClassName.get(packageName, className));
 		methods.put("toWithArguments", to.build());
 	}
 
@@ -1016,6 +1465,60 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 		methods.put("to", to.build());
 	}
 	
+	/**
+	 * generates a <i>to</i>-method which returns a new instance of the annotated class,
+	 * created in one step by its all-args constructor (the canonical constructor of a record).
+	 * 
+	 * @param sourceClass          - {@code ClassName} of the annotated class
+	 * @param constructorArguments - the fields in the order of the constructor parameters
+	 * @param methods              - {@code Map} of methods to be generated for the class
+	 *                             which is being processed
+	 */
+	private void createToWithConstructor(final ClassName sourceClass, final List<FieldConversion> constructorArguments,
+			final Map<String, MethodSpec> methods) {
+		final String objectName = StringUtil.uncapitalise(sourceClass.simpleName());
+		MethodSpec.Builder to = MethodSpec.methodBuilder("to").addModifiers(Modifier.PUBLIC)
+				.addException(IllegalAccessException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates an instance of {@code $L} with the field values of the mapper class,\n", sourceClass)
+						.add("calling its all-args constructor.\n\n")
+						.add("@return the recreated object instance of $L", sourceClass).build());
+		beginMeasurement(to);
+		to.addStatement("$T $L = new $T($L)", sourceClass, objectName, sourceClass,
+				CodeBlock.join(constructorArguments.stream()
+						.map(argument -> argument.toSource("this." + argument.name()))
+						.collect(Collectors.toList()), ", "));
+		endMeasurement(to, generatedClass, sourceClass, "to", objectName, "this");
+		to.returns(sourceClass);
+		methods.put("to", to.build());
+	}
+
+	/**
+	 * the fields of the annotated class in the order of the parameters of its all-args 
+	 * constructor, if every parameter accepts the value converted from the generated type.
+	 * 
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 * @return the conversions of the constructor arguments, null if <i>to()</i> cannot use the constructor
+	 */
+	protected List<FieldConversion> sourceConstructorArguments(final ElementInfo annotationInfo) {
+		if (annotationInfo.sourceConstructorParameters() == null) {
+			return null;
+		}
+		Map<String, VariableElement> fieldsByName = new HashMap<>();
+		annotationInfo.fields().forEach(field -> fieldsByName.put(field.getSimpleName().toString(), field));
+		List<FieldConversion> arguments = new ArrayList<>();
+		for (String parameter : annotationInfo.sourceConstructorParameters()) {
+			FieldConversion conversion = new FieldConversion(this, annotationInfo, fieldsByName.get(parameter));
+			if (!conversion.sourceAcceptsConverted()) {
+				note("all-args constructor of " + annotationInfo.element() + " is not used, the type of "
+						+ parameter + " is not supported");
+				return null;
+			}
+			arguments.add(conversion);
+		}
+		return arguments;
+	}
+
 	/**
 	 * generate a mapping statement and method for the {@code JASONMapped} argument
 	 * type fo a liset, used in the to() method
@@ -1127,20 +1630,25 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	 * if any of them is annotated with with the mapping annotation itself.
 	 * 
 	 * @param annotationInfo - information about the annotation arguments
-	 * @param typeArguments  - {@code List} of {@code TypeName} instances containing the (source) type arguments 
+	 * @param type           - {@code TypeMirror} of the parametrized field
 	 * @return List of collected {@code TypeName} instances containing the (possibly mapped) types.
 	 */
 	public List<TypeName> collectTypes(ElementInfo annotationInfo, 
-			 List<TypeName> typeArguments) { 
+			 TypeMirror type) { 
 			 List<TypeName> types = new ArrayList<>();
+		List<TypeName> typeArguments = obtainTypeArguments(type);
+		TypeElement[] argumentElements = obtainTypeArgumentElements(type);
 		if (typeArguments != null && typeArguments.size()>0) {
-			typeArguments.stream().forEach(argument -> {
-				String argString = argument.toString();
-				Element argumentElement = getElementUtils().getTypeElement(argString);
+			for (int i = 0; i < typeArguments.size(); i++) {
+				TypeName argument = typeArguments.get(i);
+				TypeElement argumentElement = argumentElements[i];
 				boolean argumentIsMapped = fieldIsMapped(argumentElement);                    
-				if (argumentElement instanceof TypeElement) {
+				if (argumentElement == null) {
+					// wildcards and type variables are kept as they are
+					types.add(argument);
+				} else {
 					// class of the argument
-					ClassName argumentClassName = ClassName.get((TypeElement) argumentElement);
+					ClassName argumentClassName = ClassName.get(argumentElement);
 					
 					// obtain the annotationInfo of the mapped class
 					List<ElementInfo> infoListForClass = classMap.get(argumentClassName);
@@ -1152,13 +1660,13 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 							TypeName mappedFieldClassName = getMappedTypeForClassName(argumentClassName);
 							types.add(mappedFieldClassName);
 						} else {
-							types.add(argumentClassName);
+							types.add(argument);
 						}
 					} else {
-						types.add(argumentClassName);
+						types.add(argument);
 					}
 				}
-			});
+			}
 		}
 		return types;
 	}
@@ -1178,6 +1686,11 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 	abstract public FieldSpec createFieldSpec(final VariableElement field, final ElementInfo annotationInfo,
 			final TypeName fieldClass, boolean fieldIsMapped);
 
+	@Override
+	public ImmutabilityAnalyzer getImmutabilityAnalyzer() {
+		return immutabilityAnalyzer;
+	}
+
 	@Override
 	public Types getTypeUtils() {
 		return procEnv.getTypeUtils();
@@ -1188,12 +1701,31 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 		return procEnv.getElementUtils();
 	}
 
+	@Override
+	public TypeMirror fieldType(final VariableElement field) {
+		return annotationInfo.fieldType(field);
+	}
+
 	
+	/**
+	 * records and immutable classes declare {@code IllegalAccessException} on <i>of</i> and
+	 * <i>to</i> only if they use reflection, so they are called through their {@code MAPPER}
+	 *
+	 * @param typeElement - the annotated class of a mapped type argument
+	 * @return whether a record or an immutable class is generated for the given class
+	 */
+	protected boolean generatesRecordOrImmutable(final TypeElement typeElement) {
+		List<ElementInfo> infoListForClass = classMap.get(ClassName.get(typeElement));
+		return infoListForClass != null && !typeElement.getModifiers().contains(Modifier.ABSTRACT)
+				&& infoListForClass.stream().filter(info -> info.type().equals(annotationInfo.type()))
+						.anyMatch(info -> info.record() || info.immutable());
+	}
+
 	/**
 	 * @param argumentClassName
 	 * @return mapped typename if types matches
 	 */
-	protected TypeName getMappedTypeForClassName(final ClassName argumentClassName) {
+	protected ClassName getMappedTypeForClassName(final ClassName argumentClassName) {
 		// obtain the annotationInfo of the mapped class
 		List<ElementInfo> infoListForClass = classMap.get(argumentClassName);
 		if (infoListForClass!=null) {
@@ -1202,7 +1734,7 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
 														.findFirst().orElse(null);
 			if (mappedClassAnnotationInfo != null) {
 				String fcName = mappedClassAnnotationInfo.prefix()+argumentClassName.simpleName();
-				TypeName mappedFieldClassName = ClassName.get(generatePackageName(argumentClassName, mappedClassAnnotationInfo), fcName);
+				ClassName mappedFieldClassName = ClassName.get(generatePackageName(argumentClassName, mappedClassAnnotationInfo), fcName);
 				return mappedFieldClassName;
 				
 			}
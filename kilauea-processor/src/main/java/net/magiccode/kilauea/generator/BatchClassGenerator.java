@@ -0,0 +1,314 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: BatchClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import net.magiccode.kilauea.util.ReflectionUtil;
+
+/**
+ * Generates the columnar companion class <i>XXXBatch</i> for {@code @Mapped(batch = true)}.
+ *
+ * The batch holds the values of many instances of the annotated class in one array per
+ * field: primitives and boxed primitives in primitive arrays, with a null bitmap for the boxed
+ * ones, all other types in arrays of references. Iterating over a few fields of many instances
+ * then reads consecutive memory instead of following a reference per instance.
+ */
+public class BatchClassGenerator {
+
+	private final ClassGenerator generator;
+	private final ElementInfo annotationInfo;
+	private final Types typeUtils;
+
+	/**
+	 * @param generator      - the generator of the mapped class, provides the naming conventions
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 */
+	public BatchClassGenerator(final ClassGenerator generator, final ElementInfo annotationInfo) {
+		this.generator = generator;
+		this.annotationInfo = annotationInfo;
+		this.typeUtils = generator.getTypeUtils();
+	}
+
+	/**
+	 * @param batchClass - name of the class to generate
+	 * @return the batch class
+	 */
+	public TypeSpec generate(final ClassName batchClass) {
+		ClassName sourceClass = ClassName.get(annotationInfo.element());
+		List<Column> columns = new ArrayList<>();
+		annotationInfo.fields().stream().filter(field -> !generator.isFieldFinalStatic(field))
+				.forEach(field -> columns.add(new Column(field)));
+		boolean reflective = columns.stream().anyMatch(column -> column.accessors.getter() == null);
+		boolean hasTo = !annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)
+				&& annotationInfo.annotatedClassHasPublicConstructor();
+		boolean reflectiveTo = columns.stream().anyMatch(column -> column.accessors.setter() == null);
+		String rowCount = freeName("rowCount", columns);
+
+		TypeSpec.Builder batch = TypeSpec.classBuilder(batchClass).addModifiers(Modifier.PUBLIC)
+				.addJavadoc(CodeBlock.builder()
+						.add(batchClass.canonicalName() + " generated by Kilauea. (@Mapped)\n")
+						.add("from " + sourceClass.canonicalName() + "\n")
+						.add("See https://github.com/CodeWeazle/kilauea\n\n")
+						.add("Columnar batch of {@code $T} instances with one array per field.\n", sourceClass).build())
+				.addField(FieldSpec.builder(TypeName.INT, rowCount, Modifier.PRIVATE, Modifier.FINAL).build());
+
+		MethodSpec.Builder constructor = MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE)
+				.addParameter(TypeName.INT, rowCount)
+				.addStatement("this.$L = $L", rowCount, rowCount);
+		for (Column column : columns) {
+			batch.addField(FieldSpec.builder(ArrayTypeName.of(column.arrayType), column.name, Modifier.PRIVATE, Modifier.FINAL).build());
+			// new T[rowCount] for plain types, new T[rowCount][] for arrays
+			TypeName elementType = column.arrayType;
+			StringBuilder dimensions = new StringBuilder();
+			while (elementType instanceof ArrayTypeName) {
+				elementType = ((ArrayTypeName) elementType).componentType;
+				dimensions.append("[]");
+			}
+			constructor.addStatement("this.$L = new $T[$L]$L", column.name, elementType, rowCount, dimensions);
+			if (column.boxed) {
+				batch.addField(FieldSpec.builder(long[].class, column.nulls(), Modifier.PRIVATE, Modifier.FINAL)
+						.addJavadoc("null bitmap of {@code $L}, a set bit marks null\n", column.name).build());
+				constructor.addStatement("this.$L = new long[($L + 63) >>> 6]", column.nulls(), rowCount);
+			}
+			if (column.accessors.getter() == null || (hasTo && column.accessors.setter() == null)) {
+				batch.addField(FieldSpec.builder(Field.class, column.name + "Field", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						.initializer("$T.deepGetField($T.class, $S, true)", ReflectionUtil.class, sourceClass, column.name).build());
+			}
+		}
+		batch.addMethod(constructor.build())
+			 .addMethod(createOf(batchClass, sourceClass, columns, reflective))
+			 .addMethod(MethodSpec.methodBuilder("size").addModifiers(Modifier.PUBLIC).returns(TypeName.INT)
+					 .addJavadoc("@return number of instances in this batch\n")
+					 .addStatement("return this.$L", rowCount).build());
+		for (Column column : columns) {
+			batch.addMethod(createGetter(column));
+			MethodSpec stream = createStream(column, rowCount);
+			if (stream != null) {
+				batch.addMethod(stream);
+			}
+		}
+		if (hasTo) {
+			batch.addMethod(createTo(sourceClass, columns, reflectiveTo))
+				 .addMethod(MethodSpec.methodBuilder("toList").addModifiers(Modifier.PUBLIC)
+						 .returns(ParameterizedTypeName.get(ClassName.get(List.class), sourceClass))
+						 .addExceptions(exceptions(reflectiveTo))
+						 .addJavadoc("@return a new instance of {@code $T} for each row, in the order of the batch\n", sourceClass)
+						 .addStatement("$T<$T> rows = new $T<>(this.$L)", List.class, sourceClass, ArrayList.class, rowCount)
+						 .beginControlFlow("for (int index = 0; index < this.$L; index++)", rowCount)
+						 .addStatement("rows.add(to(index))")
+						 .endControlFlow()
+						 .addStatement("return rows").build());
+		}
+		return batch.build();
+	}
+
+	/**
+	 * static <i>of(Collection)</i> fills all columns in one pass over the sources
+	 */
+	private MethodSpec createOf(final ClassName batchClass, final ClassName sourceClass, final List<Column> columns,
+			boolean reflective) {
+		MethodSpec.Builder of = MethodSpec.methodBuilder("of").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Collection.class), WildcardTypeName.subtypeOf(sourceClass)), "sources")
+				.returns(batchClass).addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("Creates a batch with the values of the given instances.\n")
+						.add("@param sources - the instances, not containing null\n")
+						.add("@return the new batch\n").build())
+				.addStatement("$T batch = new $T(sources.size())", batchClass, batchClass)
+				.addStatement("int index = 0")
+				.beginControlFlow("for ($T source : sources)", sourceClass);
+		for (Column column : columns) {
+			CodeBlock value = column.accessors.getter() != null
+					? CodeBlock.of("source.$L()", column.accessors.getter())
+					: CodeBlock.of("($T) $T.invokeGetterMethod(source, $L)", column.type, ReflectionUtil.class, column.name + "Field");
+			if (column.boxed) {
+				of.addStatement("$T $L = $L", column.type, column.name + "Value", value)
+				  .beginControlFlow("if ($L == null)", column.name + "Value")
+				  .addStatement("batch.$L[index >>> 6] |= 1L << index", column.nulls())
+				  .nextControlFlow("else")
+				  .addStatement("batch.$L[index] = $L", column.name, column.name + "Value")
+				  .endControlFlow();
+			} else {
+				of.addStatement("batch.$L[index] = $L", column.name, value);
+			}
+		}
+		return of.addStatement("index++")
+				 .endControlFlow()
+				 .addStatement("return batch").build();
+	}
+
+	private MethodSpec createGetter(final Column column) {
+		MethodSpec.Builder getter = MethodSpec.methodBuilder(column.getter()).addModifiers(Modifier.PUBLIC)
+				.addParameter(TypeName.INT, "index").returns(column.type)
+				.addJavadoc(CodeBlock.builder().add("@param index - index of the row\n")
+						.add("@return value of {@code $L} in the given row\n", column.name).build());
+		if (column.boxed) {
+			getter.beginControlFlow("if ((this.$L[index >>> 6] & (1L << index)) != 0)", column.nulls())
+				  .addStatement("return null")
+				  .endControlFlow();
+		}
+		if (column.arrayType.equals(TypeName.OBJECT) && !column.type.equals(TypeName.OBJECT)) {
+			getter.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+				  .addStatement("return ($T) this.$L[index]", column.type, column.name);
+		} else {
+			getter.addStatement("return this.$L[index]", column.name);
+		}
+		return getter.build();
+	}
+
+	/**
+	 * stream over a numeric column, rows with null values are skipped
+	 *
+	 * @return the stream method or null if the column is not numeric
+	 */
+	private MethodSpec createStream(final Column column, final String rowCount) {
+		TypeName primitive = column.arrayType;
+		Class<?> streamClass;
+		String mapping;
+		if (primitive.equals(TypeName.INT) || primitive.equals(TypeName.SHORT) || primitive.equals(TypeName.BYTE)
+				|| primitive.equals(TypeName.CHAR)) {
+			streamClass = IntStream.class;
+			mapping = "map";
+		} else if (primitive.equals(TypeName.LONG)) {
+			streamClass = LongStream.class;
+			mapping = "mapToLong";
+		} else if (primitive.equals(TypeName.DOUBLE) || primitive.equals(TypeName.FLOAT)) {
+			streamClass = DoubleStream.class;
+			mapping = "mapToDouble";
+		} else {
+			return null;
+		}
+		MethodSpec.Builder stream = MethodSpec.methodBuilder(column.name + "Stream").addModifiers(Modifier.PUBLIC)
+				.returns(streamClass)
+				.addJavadoc("@return the values of {@code $L}$L\n", column.name, column.boxed ? " which are not null" : "");
+		boolean arrayStream = primitive.equals(TypeName.INT) || primitive.equals(TypeName.LONG) || primitive.equals(TypeName.DOUBLE);
+		if (column.boxed) {
+			stream.addStatement("return $T.range(0, this.$L).filter(index -> (this.$L[index >>> 6] & (1L << index)) == 0).$L(index -> this.$L[index])",
+					IntStream.class, rowCount, column.nulls(), mapping, column.name);
+		} else if (arrayStream) {
+			stream.addStatement("return $T.stream(this.$L)", Arrays.class, column.name);
+		} else {
+			stream.addStatement("return $T.range(0, this.$L).$L(index -> this.$L[index])", IntStream.class, rowCount, mapping, column.name);
+		}
+		return stream.build();
+	}
+
+	private MethodSpec createTo(final ClassName sourceClass, final List<Column> columns, boolean reflective) {
+		MethodSpec.Builder to = MethodSpec.methodBuilder("to").addModifiers(Modifier.PUBLIC)
+				.addParameter(TypeName.INT, "index").returns(sourceClass).addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("@param index - index of the row\n")
+						.add("@return a new instance of {@code $T} with the values of the given row\n", sourceClass).build())
+				.addStatement("$T row = new $T()", sourceClass, sourceClass);
+		for (Column column : columns) {
+			if (column.accessors.setter() != null) {
+				to.addStatement("row.$L($L(index))", column.accessors.setter(), column.getter());
+			} else {
+				to.addStatement("$T.invokeSetterMethod(row, $L, $L(index))", ReflectionUtil.class, column.name + "Field", column.getter());
+			}
+		}
+		return to.addStatement("return row").build();
+	}
+
+	/**
+	 * the batch has a field of its own for the number of rows, which must not collide with a column
+	 *
+	 * @return the given name, extended by underscores until no column has that name
+	 */
+	private static String freeName(final String name, final List<Column> columns) {
+		String free = name;
+		while (columnNamed(free, columns)) {
+			free += "_";
+		}
+		return free;
+	}
+
+	private static boolean columnNamed(final String name, final List<Column> columns) {
+		return columns.stream().anyMatch(column -> column.name.equals(name));
+	}
+
+	private static List<TypeName> exceptions(boolean reflective) {
+		return reflective ? List.of(TypeName.get(IllegalAccessException.class)) : List.of();
+	}
+
+	/**
+	 * one field of the annotated class
+	 */
+	private final class Column {
+		private final String name;
+		/** type of the values */
+		private final TypeName type;
+		/** component type of the array holding the values */
+		private final TypeName arrayType;
+		/** boxed primitive, stored in a primitive array with null bitmap */
+		private final boolean boxed;
+		private final SourceAccessors accessors;
+
+		private Column(final VariableElement field) {
+			this.name = field.getSimpleName().toString();
+			TypeMirror fieldType = resolve(field);
+			this.type = TypeName.get(fieldType);
+			this.boxed = type.isBoxedPrimitive();
+			if (type.isPrimitive() || boxed) {
+				this.arrayType = type.unbox();
+			} else if (fieldType.getKind() == TypeKind.DECLARED && ((DeclaredType) fieldType).getTypeArguments().isEmpty()
+					|| fieldType.getKind() == TypeKind.ARRAY && !(type instanceof ArrayTypeName && ((ArrayTypeName) type).componentType instanceof ParameterizedTypeName)) {
+				this.arrayType = type;
+			} else {
+				// arrays of parameterized types cannot be created
+				this.arrayType = TypeName.OBJECT;
+			}
+			this.accessors = new SourceAccessors(generator.getElementUtils(), typeUtils, annotationInfo.element(), field);
+		}
+
+		/**
+		 * fields are passed as members of the annotated class, type variables remaining
+		 * in the annotated class itself are erased
+		 */
+		private TypeMirror resolve(final VariableElement field) {
+			TypeMirror fieldType = annotationInfo.fieldType(field);
+			return fieldType.getKind() == TypeKind.TYPEVAR ? typeUtils.erasure(fieldType) : fieldType;
+		}
+
+		private String getter() {
+			return generator.generateGetterName(annotationInfo, name, type.equals(ClassName.get(Boolean.class)));
+		}
+
+		private String nulls() {
+			return name + "Nulls";
+		}
+	}
+}
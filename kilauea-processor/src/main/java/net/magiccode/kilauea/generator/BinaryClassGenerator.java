@@ -0,0 +1,623 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: BinaryClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+import net.magiccode.kilauea.annotation.BINARYMappedBy;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.runtime.binary.BinaryCodec;
+
+/**
+ * Generates a mapping class with a compact binary codec for a given java class.
+ *
+ * Besides the fields and of/to methods of the plain mapping class, the generated class provides
+ * <i>writeTo(ByteBuffer)</i>, <i>readFrom(ByteBuffer)</i> and <i>serializedSize()</i>. The code
+ * accesses the fields directly and uses {@code BinaryCodec} for the wire format, no reflection
+ * is involved. Nullable fields are covered by a presence bitmap written in front of the fields,
+ * mapped fields and collections are written recursively. Fields of unsupported types are
+ * reported with a warning and not serialized.
+ */
+public class BinaryClassGenerator extends AbstractClassGenerator {
+
+	/**
+	 * value types supported by {@code BinaryCodec}, mapped to the suffix of its methods
+	 */
+	private static final Map<String, String> VALUE_TYPES = Map.ofEntries(
+			Map.entry("boolean", "Boolean"), Map.entry("java.lang.Boolean", "Boolean"),
+			Map.entry("byte", "Byte"), Map.entry("java.lang.Byte", "Byte"),
+			Map.entry("short", "Short"), Map.entry("java.lang.Short", "Short"),
+			Map.entry("int", "Int"), Map.entry("java.lang.Integer", "Int"),
+			Map.entry("long", "Long"), Map.entry("java.lang.Long", "Long"),
+			Map.entry("char", "Char"), Map.entry("java.lang.Character", "Char"),
+			Map.entry("float", "Float"), Map.entry("java.lang.Float", "Float"),
+			Map.entry("double", "Double"), Map.entry("java.lang.Double", "Double"),
+			Map.entry("java.lang.String", "String"),
+			Map.entry("java.math.BigDecimal", "BigDecimal"), Map.entry("java.math.BigInteger", "BigInteger"),
+			Map.entry("java.util.UUID", "UUID"),
+			Map.entry("java.time.LocalDate", "LocalDate"), Map.entry("java.time.LocalTime", "LocalTime"),
+			Map.entry("java.time.LocalDateTime", "LocalDateTime"), Map.entry("java.time.Instant", "Instant"));
+
+	/**
+	 * names of the static fields caching the values of enums, by enum type
+	 */
+	private final Map<TypeName, String> enumValueFields = new LinkedHashMap<>();
+
+	/**
+	 * counter for unique local variable names within one generated method
+	 */
+	private int variableCount;
+
+	/**
+	 * The purpose of this class is to generate Java code with a binary codec using the
+	 * JavaPoet framework.
+	 *
+	 * @param procEnv  - the processing environment
+	 * @param filer    - the filer
+	 * @param messager - used to output messages
+  	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 */
+	public BinaryClassGenerator(final ProcessingEnvironment procEnv,
+								final Filer filer,
+								final Messager messager,
+								final ElementInfo annotationInfo,
+								final ClassName annotatedClass,
+								final Map<ClassName, List<ElementInfo>> input) {
+		super(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+	}
+
+	/**
+	 * create the binary codec methods
+	 */
+	@Override
+	public void createSpecificFieldsAndMethods(ClassName incomingObjectClass, String packageName, String className,
+			ElementInfo annotationInfo, List<FieldSpec> fields, Map<String, MethodSpec> methods) {
+
+		Map<String, TypeMirror> sourceTypes = new HashMap<>();
+		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field))
+				.forEach(field -> sourceTypes.put(field.getSimpleName().toString(), annotationInfo.fieldType(field)));
+		if (annotationInfo.additionalFields() != null) {
+			sourceTypes.putAll(annotationInfo.additionalFields());
+		}
+
+		// the fields which are serialized, in declaration order
+		Map<String, Codec> codecs = new LinkedHashMap<>();
+		for (FieldSpec field : fields) {
+			if (field.hasModifier(Modifier.STATIC) || field.hasModifier(Modifier.FINAL)
+					|| !sourceTypes.containsKey(field.name)) {
+				continue;
+			}
+			Codec codec = codecFor(sourceTypes.get(field.name), true);
+			if (codec == null) {
+				messager.printMessage(Diagnostic.Kind.WARNING, "Field " + field.name + " of type " + field.type
+						+ " is not supported by the BINARY generator and will not be serialized.", annotationInfo.element());
+			} else {
+				codecs.put(field.name, codec);
+			}
+		}
+
+		ClassName mappedClass = ClassName.get(packageName, className);
+		createWriteTo(mappedClass, codecs, methods);
+		createReadFields(codecs, methods);
+		createSerializedSize(codecs, methods);
+		if (!annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)) {
+			createReadFrom(mappedClass, methods);
+		}
+		enumValueFields.forEach((enumType, fieldName) -> fields.add(
+				FieldSpec.builder(ArrayTypeName.of(enumType), fieldName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						 .initializer("$T.values()", enumType).build()));
+	}
+
+	/**
+	 * generate <i>writeTo(ByteBuffer)</i>: presence bitmap followed by the present fields
+	 */
+	private void createWriteTo(final ClassName mappedClass, final Map<String, Codec> codecs,
+			final Map<String, MethodSpec> methods) {
+		variableCount = 0;
+		MethodSpec.Builder writeTo = MethodSpec.methodBuilder("writeTo").addModifiers(Modifier.PUBLIC)
+				.addParameter(ByteBuffer.class, "buffer").returns(ByteBuffer.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes all fields to the given buffer, starting at its current position.\n")
+						.add("@param buffer - the target buffer, at least {@code serializedSize()} bytes must remain\n")
+						.add("@return the buffer\n").build());
+		beginMeasurement(writeTo);
+		CodeBlock.Builder code = CodeBlock.builder();
+		List<String> nullable = nullableFields(codecs);
+		for (int word = 0; word * 64 < nullable.size(); word++) {
+			code.addStatement("long presence$L = 0L", word);
+			for (int bit = 0; bit < 64 && word * 64 + bit < nullable.size(); bit++) {
+				code.beginControlFlow("if (this.$L != null)", nullable.get(word * 64 + bit))
+					.addStatement("presence$L |= 1L << $L", word, bit)
+					.endControlFlow();
+			}
+			code.addStatement("$T.writeBits(buffer, presence$L, $L)", BinaryCodec.class, word, bitmapBytes(nullable.size(), word));
+		}
+		codecs.forEach((fieldName, codec) -> {
+			if (codec.nullable) {
+				code.beginControlFlow("if (this.$L != null)", fieldName);
+				write(code, codec, "this." + fieldName);
+				code.endControlFlow();
+			} else {
+				write(code, codec, "this." + fieldName);
+			}
+		});
+		writeTo.addCode(code.build());
+		endMeasurement(writeTo, mappedClass, ClassName.get(ByteBuffer.class), "writeTo", "buffer", "this");
+		methods.put("writeTo", writeTo.build());
+	}
+
+	/**
+	 * generate <i>readFields(ByteBuffer)</i>, which populates this instance
+	 */
+	private void createReadFields(final Map<String, Codec> codecs, final Map<String, MethodSpec> methods) {
+		variableCount = 0;
+		MethodSpec.Builder readFields = MethodSpec.methodBuilder("readFields").addModifiers(Modifier.PROTECTED)
+				.addParameter(ByteBuffer.class, "buffer")
+				.addJavadoc(CodeBlock.builder()
+						.add("Reads all fields from the given buffer, starting at its current position.\n")
+						.add("@param buffer - the source buffer, written by {@code writeTo}\n").build());
+		CodeBlock.Builder code = CodeBlock.builder();
+		List<String> nullable = nullableFields(codecs);
+		for (int word = 0; word * 64 < nullable.size(); word++) {
+			code.addStatement("long presence$L = $T.readBits(buffer, $L)", word, BinaryCodec.class, bitmapBytes(nullable.size(), word));
+		}
+		codecs.forEach((fieldName, codec) -> {
+			if (codec.nullable) {
+				int index = nullable.indexOf(fieldName);
+				code.beginControlFlow("if ((presence$L & (1L << $L)) != 0)", index / 64, index % 64);
+				read(code, codec, "this." + fieldName);
+				code.nextControlFlow("else")
+					.addStatement("this.$L = null", fieldName)
+					.endControlFlow();
+			} else {
+				read(code, codec, "this." + fieldName);
+			}
+		});
+		methods.put("readFields", readFields.addCode(code.build()).build());
+	}
+
+	/**
+	 * generate the static <i>readFrom(ByteBuffer)</i>
+	 */
+	private void createReadFrom(final ClassName mappedClass, final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder readFrom = MethodSpec.methodBuilder("readFrom").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(ByteBuffer.class, "buffer").returns(mappedClass)
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates a new instance of {@code $T} from the given buffer, written by {@code writeTo}.\n", mappedClass)
+						.add("@param buffer - the source buffer, read from its current position\n")
+						.add("@return the new instance\n").build());
+		beginMeasurement(readFrom);
+		readFrom.addStatement("$T dto = new $T()", mappedClass, mappedClass)
+				.addStatement("dto.readFields(buffer)");
+		endMeasurement(readFrom, ClassName.get(ByteBuffer.class), mappedClass, "readFrom", "dto", "dto");
+		methods.put("readFrom", readFrom.build());
+	}
+
+	/**
+	 * generate <i>serializedSize()</i>
+	 */
+	private void createSerializedSize(final Map<String, Codec> codecs, final Map<String, MethodSpec> methods) {
+		variableCount = 0;
+		MethodSpec.Builder serializedSize = MethodSpec.methodBuilder("serializedSize").addModifiers(Modifier.PUBLIC)
+				.returns(TypeName.INT)
+				.addJavadoc(CodeBlock.builder()
+						.add("@return the number of bytes {@code writeTo} writes for the current values\n").build());
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.addStatement("int size = $L", (nullableFields(codecs).size() + 7) / 8);
+		codecs.forEach((fieldName, codec) -> {
+			if (codec.nullable) {
+				code.beginControlFlow("if (this.$L != null)", fieldName);
+				size(code, codec, "this." + fieldName);
+				code.endControlFlow();
+			} else {
+				size(code, codec, "this." + fieldName);
+			}
+		});
+		code.addStatement("return size");
+		methods.put("serializedSize", serializedSize.addCode(code.build()).build());
+	}
+
+	/**
+	 * statements writing a non-null value
+	 */
+	private void write(final CodeBlock.Builder code, final Codec codec, final String value) {
+		switch (codec.kind) {
+			case VALUE:
+				code.addStatement("$T.write$L(buffer, $L)", BinaryCodec.class, codec.valueType, value);
+				break;
+			case ENUM:
+				code.addStatement("$T.writeVarInt(buffer, $L.ordinal())", BinaryCodec.class, value);
+				break;
+			case MAPPED:
+				code.addStatement("$L.writeTo(buffer)", value);
+				break;
+			case LIST:
+			case ARRAY: {
+				String element = "e" + variableCount++;
+				code.addStatement("$T.writeVarInt(buffer, $L.$L)", BinaryCodec.class, value, codec.kind == Kind.LIST ? "size()" : "length")
+					.beginControlFlow("for ($T $L : $L)", codec.element.type, element, value);
+				writeElement(code, codec.element, element);
+				code.endControlFlow();
+				break;
+			}
+			case MAP: {
+				String entry = "e" + variableCount++;
+				String key = "k" + variableCount++;
+				String mapValue = "v" + variableCount++;
+				code.addStatement("$T.writeVarInt(buffer, $L.size())", BinaryCodec.class, value)
+					.beginControlFlow("for ($T.Entry<$T, $T> $L : $L.entrySet())", Map.class, codec.key.type, codec.element.type, entry, value)
+					.addStatement("$T $L = $L.getKey()", codec.key.type, key, entry)
+					.addStatement("$T $L = $L.getValue()", codec.element.type, mapValue, entry);
+				writeElement(code, codec.key, key);
+				writeElement(code, codec.element, mapValue);
+				code.endControlFlow();
+				break;
+			}
+		}
+	}
+
+	private void writeElement(final CodeBlock.Builder code, final Codec codec, final String value) {
+		if (codec.nullable) {
+			code.addStatement("$T.writePresence(buffer, $L != null)", BinaryCodec.class, value)
+				.beginControlFlow("if ($L != null)", value);
+			write(code, codec, value);
+			code.endControlFlow();
+		} else {
+			write(code, codec, value);
+		}
+	}
+
+	/**
+	 * statements reading a non-null value into the given target
+	 */
+	private void read(final CodeBlock.Builder code, final Codec codec, final String target) {
+		switch (codec.kind) {
+			case VALUE:
+				code.addStatement("$L = $T.read$L(buffer)", target, BinaryCodec.class, codec.valueType);
+				break;
+			case ENUM:
+				code.addStatement("$L = $L[$T.readOrdinal(buffer, $L.length)]", target, enumValuesField(codec.type),
+						BinaryCodec.class, enumValuesField(codec.type));
+				break;
+			case MAPPED:
+				code.addStatement("$L = $T.readFrom(buffer)", target, codec.type);
+				break;
+			case LIST: {
+				String count = "n" + variableCount++;
+				String index = "i" + variableCount++;
+				String list = "l" + variableCount++;
+				String element = "e" + variableCount++;
+				// elements start with their presence, so each takes at least one byte
+				code.addStatement("int $L = $T.readCount(buffer)", count, BinaryCodec.class)
+					.addStatement("$T $L = new $T<>($L)", codec.type, list, ArrayList.class, count)
+					.beginControlFlow("for (int $L = 0; $L < $L; $L++)", index, index, count, index);
+				readElement(code, codec.element, element);
+				code.addStatement("$L.add($L)", list, element)
+					.endControlFlow()
+					.addStatement("$L = $L", target, list);
+				break;
+			}
+			case ARRAY: {
+				String count = "n" + variableCount++;
+				String index = "i" + variableCount++;
+				String array = "a" + variableCount++;
+				String element = "e" + variableCount++;
+				// elements of arrays are values, which take at least one byte each
+				code.addStatement("int $L = $T.readCount(buffer)", count, BinaryCodec.class)
+					.addStatement("$T $L = new $T[$L]", codec.type, array, codec.element.type, count)
+					.beginControlFlow("for (int $L = 0; $L < $L; $L++)", index, index, count, index);
+				readElement(code, codec.element, element);
+				code.addStatement("$L[$L] = $L", array, index, element)
+					.endControlFlow()
+					.addStatement("$L = $L", target, array);
+				break;
+			}
+			case MAP: {
+				String count = "n" + variableCount++;
+				String index = "i" + variableCount++;
+				String map = "m" + variableCount++;
+				String key = "k" + variableCount++;
+				String mapValue = "v" + variableCount++;
+				// keys and values start with their presence, so each entry takes at least two bytes
+				code.addStatement("int $L = $T.readCount(buffer)", count, BinaryCodec.class)
+					.addStatement("$T $L = new $T<>($L)", codec.type, map, HashMap.class, count)
+					.beginControlFlow("for (int $L = 0; $L < $L; $L++)", index, index, count, index);
+				readElement(code, codec.key, key);
+				readElement(code, codec.element, mapValue);
+				code.addStatement("$L.put($L, $L)", map, key, mapValue)
+					.endControlFlow()
+					.addStatement("$L = $L", target, map);
+				break;
+			}
+		}
+	}
+
+	private void readElement(final CodeBlock.Builder code, final Codec codec, final String element) {
+		if (codec.nullable) {
+			code.addStatement("$T $L = null", codec.type, element)
+				.beginControlFlow("if ($T.readPresence(buffer))", BinaryCodec.class);
+			read(code, codec, element);
+			code.endControlFlow();
+		} else {
+			code.addStatement("$T $L", codec.type, element);
+			read(code, codec, element);
+		}
+	}
+
+	/**
+	 * statements adding the size of a non-null value to <i>size</i>
+	 */
+	private void size(final CodeBlock.Builder code, final Codec codec, final String value) {
+		switch (codec.kind) {
+			case VALUE:
+				code.addStatement("size += $T.sizeOf$L($L)", BinaryCodec.class, codec.valueType, value);
+				break;
+			case ENUM:
+				code.addStatement("size += $T.sizeOfVarInt($L.ordinal())", BinaryCodec.class, value);
+				break;
+			case MAPPED:
+				code.addStatement("size += $L.serializedSize()", value);
+				break;
+			case LIST:
+			case ARRAY: {
+				String element = "e" + variableCount++;
+				code.addStatement("size += $T.sizeOfVarInt($L.$L)", BinaryCodec.class, value, codec.kind == Kind.LIST ? "size()" : "length")
+					.beginControlFlow("for ($T $L : $L)", codec.element.type, element, value);
+				sizeElement(code, codec.element, element);
+				code.endControlFlow();
+				break;
+			}
+			case MAP: {
+				String entry = "e" + variableCount++;
+				code.addStatement("size += $T.sizeOfVarInt($L.size())", BinaryCodec.class, value)
+					.beginControlFlow("for ($T.Entry<$T, $T> $L : $L.entrySet())", Map.class, codec.key.type, codec.element.type, entry, value);
+				sizeElement(code, codec.key, entry + ".getKey()");
+				sizeElement(code, codec.element, entry + ".getValue()");
+				code.endControlFlow();
+				break;
+			}
+		}
+	}
+
+	private void sizeElement(final CodeBlock.Builder code, final Codec codec, final String value) {
+		if (codec.nullable) {
+			code.addStatement("size++")
+				.beginControlFlow("if ($L != null)", value);
+			size(code, codec, value);
+			code.endControlFlow();
+		} else {
+			size(code, codec, value);
+		}
+	}
+
+	/**
+	 * @param sourceType    - type of the field in the annotated class
+	 * @param allowMapped   - whether types annotated for BINARY are supported
+	 * @return the {@code Codec} for the type or {@code null} if it is not supported
+	 */
+	private Codec codecFor(final TypeMirror sourceType, boolean allowMapped) {
+		TypeName typeName = TypeName.get(sourceType);
+		if (sourceType.getKind().isPrimitive()) {
+			return new Codec(Kind.VALUE, typeName, VALUE_TYPES.get(typeName.toString()), false);
+		}
+		if (sourceType.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) sourceType).getComponentType();
+			if (componentType.getKind() == TypeKind.BYTE) {
+				return new Codec(Kind.VALUE, typeName, "Bytes", true);
+			}
+			Codec element = codecFor(componentType, false);
+			if (element == null || (element.kind != Kind.VALUE && element.kind != Kind.ENUM)
+					|| componentType.getKind() == TypeKind.ARRAY) {
+				return null;
+			}
+			return new Codec(Kind.ARRAY, typeName, null, true).element(element);
+		}
+		if (sourceType.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement typeElement = (TypeElement) typeUtils.asElement(sourceType);
+		String qualifiedName = typeElement.getQualifiedName().toString();
+		if (VALUE_TYPES.containsKey(qualifiedName)) {
+			return new Codec(Kind.VALUE, typeName, VALUE_TYPES.get(qualifiedName), true);
+		}
+		if (typeElement.getKind() == ElementKind.ENUM) {
+			return new Codec(Kind.ENUM, typeName, null, true);
+		}
+		if (typeIsMapped(typeElement)) {
+			return allowMapped && !typeElement.getModifiers().contains(Modifier.ABSTRACT)
+					? new Codec(Kind.MAPPED, getMappedTypeForClassName(ClassName.get(typeElement)), null, true)
+					: null;
+		}
+		List<? extends TypeMirror> typeArguments = ((DeclaredType) sourceType).getTypeArguments();
+		TypeMirror erasure = typeUtils.erasure(sourceType);
+		if (typeArguments.size() == 1 && typeUtils.isAssignable(erasure,
+				typeUtils.erasure(getElementUtils().getTypeElement("java.util.Collection").asType()))) {
+			Codec element = codecFor(typeArguments.get(0), allowMapped);
+			return element == null ? null
+					: new Codec(Kind.LIST, ParameterizedTypeName.get(ClassName.get(List.class), element.type), null, true)
+							.element(element.boxed());
+		}
+		if (typeArguments.size() == 2 && typeUtils.isAssignable(erasure,
+				typeUtils.erasure(getElementUtils().getTypeElement("java.util.Map").asType()))) {
+			Codec key = codecFor(typeArguments.get(0), allowMapped);
+			Codec value = codecFor(typeArguments.get(1), allowMapped);
+			return key == null || value == null ? null
+					: new Codec(Kind.MAP, ParameterizedTypeName.get(ClassName.get(Map.class), key.type, value.type), null, true)
+							.key(key.boxed()).element(value.boxed());
+		}
+		return null;
+	}
+
+	private List<String> nullableFields(final Map<String, Codec> codecs) {
+		List<String> nullable = new ArrayList<>();
+		codecs.forEach((fieldName, codec) -> {
+			if (codec.nullable) {
+				nullable.add(fieldName);
+			}
+		});
+		return nullable;
+	}
+
+	/**
+	 * number of bitmap bytes of the given 64 bit word
+	 */
+	private static int bitmapBytes(int nullableCount, int word) {
+		return (Math.min(64, nullableCount - word * 64) + 7) / 8;
+	}
+
+	private String enumValuesField(final TypeName enumType) {
+		return enumValueFields.computeIfAbsent(enumType,
+				type -> type.toString().replace('.', '_').toUpperCase() + "_VALUES");
+	}
+
+	/**
+	 * mapped by annotation is specific to type of mapper
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return annotation {@code AnnotationSpec} instance of created mapped-by annotation
+	 */
+	public AnnotationSpec createMappedByAnnotation(final ElementInfo annotationInfo) {
+		return AnnotationSpec.builder(BINARYMappedBy.class)
+				.addMember("mappedClass", "$T.class", ClassName.get(annotationInfo.element())).build();
+	}
+
+	/**
+	 * no annotations necessary
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return List of annotations {@code AnnotationSpec} instances or null.
+	 */
+	public List<AnnotationSpec> getAdditionalAnnotationsForClass(final ElementInfo annotationInfo) {
+		return null;
+	}
+
+	/**
+	 * create field
+	 *
+	 * @param field         - VariableElement representation of field to be created
+	 * @param annotationInfo - {@code ElementInfo} instance containing information about the {@code @Mapped} annotation
+	 * @param fieldClass    - TypeName for class field shall be created in.
+	 * @param fieldIsMapped - indicates whether or not the given field is annotated  with {@code @Mapped}.
+	 * @return field specification for the create field.
+	 */
+	@Override
+	public FieldSpec createFieldSpec(final VariableElement field,
+									 final ElementInfo annotationInfo,
+									 final TypeName fieldClass,
+									 boolean fieldIsMapped) {
+		String fieldName = field.getSimpleName().toString();
+		TypeName fieldType = fieldClass;
+		if (fieldIsMapped) {
+			Element fieldElement = typeUtils.asElement(annotationInfo.fieldType(field));
+			if (fieldElement instanceof TypeElement) {
+				fieldType = getMappedTypeForClassName(ClassName.get((TypeElement) fieldElement));
+			}
+		}
+		fieldType = checkFieldTypeForCollections(annotationInfo, annotationInfo.fieldType(field), fieldType);
+		return FieldSpec.builder(fieldType, fieldName, Modifier.PRIVATE).build();
+	}
+
+	@Override
+	public Types getTypeUtils() {
+		return procEnv.getTypeUtils();
+	}
+
+	@Override
+	public Elements getElementUtils() {
+		return procEnv.getElementUtils();
+	}
+
+	public boolean fieldIsMapped(final Element field) {
+		return fieldIsAnnotedWith(field, Mapped.class, GeneratorType.BINARY);
+	}
+
+	public boolean typeIsMapped(final TypeElement typeElement) {
+		return typeIsAnnotatedWith(typeElement, Mapped.class, GeneratorType.BINARY);
+	}
+
+	/**
+	 * kind of value handled by a {@code Codec}
+	 */
+	private enum Kind {
+		VALUE, ENUM, MAPPED, LIST, ARRAY, MAP
+	}
+
+	/**
+	 * describes how one value is written, read and measured
+	 */
+	private static final class Codec {
+		private final Kind kind;
+		/** type of the value in the generated class */
+		private final TypeName type;
+		/** suffix of the {@code BinaryCodec} methods for {@code Kind.VALUE} */
+		private final String valueType;
+		private final boolean nullable;
+		/** element codec of lists and arrays, value codec of maps */
+		private Codec element;
+		/** key codec of maps */
+		private Codec key;
+
+		private Codec(final Kind kind, final TypeName type, final String valueType, boolean nullable) {
+			this.kind = kind;
+			this.type = type;
+			this.valueType = valueType;
+			this.nullable = nullable;
+		}
+
+		private Codec element(final Codec element) {
+			this.element = element;
+			return this;
+		}
+
+		private Codec key(final Codec key) {
+			this.key = key;
+			return this;
+		}
+
+		/**
+		 * type arguments are never primitive
+		 */
+		private Codec boxed() {
+			return type.isPrimitive() ? new Codec(kind, type.box(), valueType, true) : this;
+		}
+	}
+}
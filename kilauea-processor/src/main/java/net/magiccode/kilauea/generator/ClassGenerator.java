@@ -42,6 +42,8 @@ import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
 import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.generator.ImmutabilityAnalyzer.Mutability;
+import net.magiccode.kilauea.runtime.Immutables;
 import net.magiccode.kilauea.util.StringUtil;
 
 /**
@@ -57,6 +59,25 @@ public interface ClassGenerator {
 	 */
 	public void generate() throws IOException;
 
+	/**
+	 * figures collected during the last call of {@code generate()}, such as the time
+	 * spent and the size of the generated source.
+	 *
+	 * @return the {@code GenerationStatistics} of the last generation run
+	 */
+	public GenerationStatistics statistics();
+
+	/**
+	 * @return name of the class created by the last call of {@code generate()}
+	 */
+	public ClassName generatedClass();
+
+	/**
+	 * @return the {@code TypeSpec} created by the last call of {@code generate()},
+	 *         or {@code null} if the generation failed
+	 */
+	public TypeSpec generatedType();
+
 	/**
 	 * Generate the class code with given fields and methods
 	 * 
@@ -105,7 +126,7 @@ public interface ClassGenerator {
 		String className = annotationInfo.prefix() + annotationInfo.className();
 		String packageName = annotationInfo.packageName();
 		String setterName = generateSetterName(annotationInfo, field.getSimpleName().toString());
-		TypeMirror type = field.asType();
+		TypeMirror type = annotationInfo.fieldType(field);
 
 		TypeName fieldType = checkFieldTypeForCollections(annotationInfo, type, fieldTypeName);
 
@@ -116,22 +137,23 @@ public interface ClassGenerator {
 		if (type.getKind() == TypeKind.DECLARED) {
 
 			List<TypeName> typeArguments = obtainTypeArguments(type);
+			TypeElement[] argumentElements = obtainTypeArgumentElements(type);
 
 			// todo: add recursion
 			// obtain type arguments
 			if (typeArguments != null && typeArguments.size() > 0) {
 				final StringBuilder typeArgString = new StringBuilder();
-				typeArguments.stream().forEach(argument -> {
-					String argString = argument.toString();
+				for (int i = 0; i < typeArguments.size(); i++) {
+					String argString = typeArguments.get(i).toString();
 					if (typeArgString.length() > 0) {
 						typeArgString.append(",");
 					}
 
-					Element argumentElement = getElementUtils().getTypeElement(argString);
+					TypeElement argumentElement = argumentElements[i];
 					boolean argumentIsMapped = fieldIsMapped(argumentElement);
 					if (argumentIsMapped) {
-						if (argumentElement instanceof TypeElement) {
-							ClassName argumentClassName = ClassName.get((TypeElement) argumentElement);
+						if (argumentElement != null) {
+							ClassName argumentClassName = ClassName.get(argumentElement);
 							String fcName = annotationInfo.prefix() + argumentClassName.simpleName();
 							ClassName mappedFieldClassName = ClassName
 									.get(generatePackageName(argumentClassName, annotationInfo), fcName);
@@ -139,14 +161,18 @@ public interface ClassGenerator {
 						}
 					}
 					typeArgString.append(argString);
-				});
+				}
 				String typeArgs = "<" + typeArgString.toString() + ">";
 
 				TypeMirror collectionType = getElementUtils().getTypeElement("java.util.Collection").asType();
 				TypeMirror mapType = getElementUtils().getTypeElement("java.util.Map").asType();
 				TypeMirror setType = getElementUtils().getTypeElement("java.util.Set").asType();
-				// List
-				if (type != null && getTypeUtils().isAssignable(getTypeUtils().erasure(type),
+				if (canShareImmutableCollection(type)) {
+					// values are immutable, immutable collections are shared, others are copied
+					setterBuilder.addStatement("this.$L = $T.copyOf($L)", field.getSimpleName().toString(),
+							Immutables.class, field.getSimpleName().toString());
+					// List
+				} else if (type != null && getTypeUtils().isAssignable(getTypeUtils().erasure(type),
 						getTypeUtils().erasure(collectionType))) {
 					setterBuilder.addStatement("this.$L = new $T" + typeArgs + "()", field.getSimpleName().toString(),
 							ArrayList.class).addStatement("this.$L.addAll($L)", field.getSimpleName().toString(),
@@ -213,22 +239,23 @@ public interface ClassGenerator {
 		if (fieldTypeMirror.getKind() == TypeKind.DECLARED) {
 
 			List<TypeName> typeArguments = obtainTypeArguments(fieldTypeMirror);
+			TypeElement[] argumentElements = obtainTypeArgumentElements(fieldTypeMirror);
 
 			// todo: add recursion
 			// obtain type arguments
 			if (typeArguments != null && typeArguments.size() > 0) {
 				final StringBuilder typeArgString = new StringBuilder();
-				typeArguments.stream().forEach(argument -> {
-					String argString = argument.toString();
+				for (int i = 0; i < typeArguments.size(); i++) {
+					String argString = typeArguments.get(i).toString();
 					if (typeArgString.length() > 0) {
 						typeArgString.append(",");
 					}
 
-					Element argumentElement = getElementUtils().getTypeElement(argString);
+					TypeElement argumentElement = argumentElements[i];
 					boolean argumentIsMapped = fieldIsMapped(argumentElement);
 					if (argumentIsMapped) {
-						if (argumentElement instanceof TypeElement) {
-							ClassName argumentClassName = ClassName.get((TypeElement) argumentElement);
+						if (argumentElement != null) {
+							ClassName argumentClassName = ClassName.get(argumentElement);
 							String fcName = annotationInfo.prefix() + argumentClassName.simpleName();
 							ClassName mappedFieldClassName = ClassName
 									.get(generatePackageName(argumentClassName, annotationInfo), fcName);
@@ -236,14 +263,17 @@ public interface ClassGenerator {
 						}
 					}
 					typeArgString.append(argString);
-				});
+				}
 				String typeArgs = "<" + typeArgString.toString() + ">";
 
 				TypeMirror collectionType = getElementUtils().getTypeElement("java.util.Collection").asType();
 				TypeMirror mapType = getElementUtils().getTypeElement("java.util.Map").asType();
 				TypeMirror setType = getElementUtils().getTypeElement("java.util.Set").asType();
-				// List
-				if (fieldTypeMirror != null && getTypeUtils().isAssignable(getTypeUtils().erasure(fieldTypeMirror),
+				if (canShareImmutableCollection(fieldTypeMirror)) {
+					// values are immutable, immutable collections are shared, others are copied
+					setterBuilder.addStatement("this.$L = $T.copyOf($L)", fieldName, Immutables.class, fieldName);
+					// List
+				} else if (fieldTypeMirror != null && getTypeUtils().isAssignable(getTypeUtils().erasure(fieldTypeMirror),
 						getTypeUtils().erasure(collectionType))) {
 					setterBuilder.addStatement("this.$L = new $T" + typeArgs + "()", fieldName,
 							ArrayList.class).addStatement("this.$L.addAll($L)", fieldName,
@@ -297,7 +327,7 @@ public interface ClassGenerator {
 				fieldTypeName.toString().equals(Boolean.class.getName()));
 		String fieldName = field.getSimpleName().toString();
 
-		TypeMirror type = field.asType();
+		TypeMirror type = annotationInfo.fieldType(field);
 		TypeName fieldType = checkFieldTypeForCollections(annotationInfo, type, fieldTypeName);
 
 		MethodSpec getter = MethodSpec.methodBuilder(getterName).addModifiers(Modifier.PUBLIC)
@@ -481,9 +511,14 @@ public interface ClassGenerator {
 	 * @return true if present
 	 */
 	default boolean fieldIsAnnotedWith(final Element field, Class<?> annotationClazz, GeneratorType type) {
-		TypeMirror fieldType = field.asType();
-		TypeElement typeElement = getElementUtils().getTypeElement(ClassName.get(fieldType).toString());
-		return typeIsAnnotatedWith(typeElement, annotationClazz, type);
+		if (field == null) {
+			return false;
+		}
+		// resolve through the language model, the class itself is never loaded
+		Element typeElement = getTypeUtils().asElement(field instanceof VariableElement 
+				? fieldType((VariableElement) field) : field.asType());
+		return typeElement instanceof TypeElement 
+				&& typeIsAnnotatedWith((TypeElement) typeElement, annotationClazz, type);
 	}
 
 	/**
@@ -525,7 +560,7 @@ public interface ClassGenerator {
 		if (type.getKind() == TypeKind.DECLARED) {
 			List<TypeName> sourceTypeArguments = obtainTypeArguments(type);
 			// obtain type arguments
-			List<TypeName> destinationTypeArguments = collectTypes(annotationInfo, sourceTypeArguments);
+			List<TypeName> destinationTypeArguments = collectTypes(annotationInfo, type);
 			// get {@codd TypeMirror} of types for comparison.
 			TypeMirror collectionType = getElementUtils().getTypeElement("java.util.Collection").asType();
 			TypeMirror mapType = getElementUtils().getTypeElement("java.util.Map").asType();
@@ -565,17 +600,34 @@ public interface ClassGenerator {
 		return typeArguments;
 	}
 
+	/**
+	 * get the elements of the type arguments of the given type, resolved through the
+	 * language model, so parameterized and nested type arguments are found as well.
+	 *
+	 * @param type the {@code TypeMirror} of a declared type
+	 * @return an array with the {@code TypeElement} of each type argument, null for
+	 *         wildcards and type variables
+	 */
+	default TypeElement[] obtainTypeArgumentElements(TypeMirror type) {
+		List<? extends TypeMirror> typeArgumentMirrors = ((DeclaredType) type).getTypeArguments();
+		TypeElement[] argumentElements = new TypeElement[typeArgumentMirrors.size()];
+		for (int i = 0; i < argumentElements.length; i++) {
+			Element argumentElement = getTypeUtils().asElement(typeArgumentMirrors.get(i));
+			argumentElements[i] = argumentElement instanceof TypeElement ? (TypeElement) argumentElement : null;
+		}
+		return argumentElements;
+	}
+
 	/**
 	 * Collect types of a parametrized field and return mapped type if any of them
 	 * is annotated with with the mapping annotation itself.
-	 * 
+	 *
 	 * @param annotationInfo - information about the annotation arguments
-	 * @param typeArguments  - {@code List} of {@code TypeName} instances containing
-	 *                       the (source) type arguments
+	 * @param type           - {@code TypeMirror} of the parametrized field
 	 * @return List of collected {@code TypeName} instances containing the (possibly
 	 *         mapped) types.
 	 */
-	public List<TypeName> collectTypes(ElementInfo annotationInfo, List<TypeName> typeArguments);
+	public List<TypeName> collectTypes(ElementInfo annotationInfo, TypeMirror type);
 
 	/**
 	 * generates the package name base on the given annotation arguments
@@ -598,6 +650,41 @@ public interface ClassGenerator {
 		return packageName;
 	}
 
+	/**
+	 * Collections of immutable values need not be copied if they are immutable themselves,
+	 * which is decided at runtime by {@code Immutables.copyOf}. Only the interfaces {@code List},
+	 * {@code Collection}, {@code Set} and {@code Map} are supported, since the copies are of the
+	 * default implementations. Mapped type arguments are replaced by generated classes, which are
+	 * mutable.
+	 * 
+	 * @param type - type of the field
+	 * @return whether the field can be assigned using {@code Immutables.copyOf}
+	 */
+	default boolean canShareImmutableCollection(final TypeMirror type) {
+		if (type == null || type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		String typeName = ((TypeElement) getTypeUtils().asElement(type)).getQualifiedName().toString();
+		if (!Set.of("java.util.List", "java.util.Collection", "java.util.Set", "java.util.Map").contains(typeName)
+				|| getImmutabilityAnalyzer().classify(type) != Mutability.SHALLOW_MUTABLE) {
+			return false;
+		}
+		for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+			Element argumentElement = getTypeUtils().asElement(typeArgument);
+			if (argumentElement instanceof TypeElement && typeIsMapped((TypeElement) argumentElement)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * allow access to the {@code ImmutabilityAnalyzer} of the {@code ClassGenerator}
+	 * 
+	 * @return the {@code ImmutabilityAnalyzer} used to classify field types
+	 */
+	public ImmutabilityAnalyzer getImmutabilityAnalyzer();
+
 	/**
 	 * allow access to the {@code Types} provided to the {@code ClassGenerator}
 	 * sub-classes constructor
@@ -616,6 +703,15 @@ public interface ClassGenerator {
 	 */
 	public Elements getElementUtils();
 
+	/**
+	 * type of a field of the annotated class as member of that class
+	 * 
+	 * @param field - a field of the annotated class or one of its superclasses
+	 * @return the declared type, or the substituted type for a field inherited from a
+	 *         parameterized superclass
+	 */
+	public TypeMirror fieldType(final VariableElement field);
+
 	/**
 	 * return flag to indicate whether current field is mapped or not.
 	 * 
@@ -42,6 +42,15 @@ public class ClassGeneratorFactory {
 				
 			case XML:
 				return new XMLClassGenerator(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+
+			case BINARY:
+				return new BinaryClassGenerator(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+
+			case OFFHEAP:
+				return new OffHeapClassGenerator(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+
+			case CSV:
+				return new CsvClassGenerator(procEnv, filer, messager, annotationInfo, annotatedClass, input);
 	
 			default:
 				return new PlainClassGenerator(procEnv, filer, messager, annotationInfo, annotatedClass, input);
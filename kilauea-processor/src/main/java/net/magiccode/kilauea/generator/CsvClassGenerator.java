@@ -0,0 +1,402 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: CsvClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.WildcardTypeName;
+
+import net.magiccode.kilauea.annotation.CSVMappedBy;
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.runtime.csv.CsvCodec;
+import net.magiccode.kilauea.runtime.csv.CsvReader;
+
+/**
+ * Generates a mapping class which can be written to and read from CSV for a given java class.
+ *
+ * Besides the fields and of/to methods of the plain mapping class, the generated class provides
+ * the column names in <i>CSV_HEADER</i>, <i>writeHeader(Appendable)</i>, <i>writeRow(Appendable)</i>,
+ * <i>readRow(CsvReader)</i> and <i>csvReader(Reader)</i>. One column is written per field, in
+ * declaration order. The code accesses the fields directly and uses {@code CsvCodec} and
+ * {@code CsvReader} for quoting and parsing, no reflection is involved. Fields of types without
+ * a single value representation, like collections or mapped types, are reported with a warning
+ * and not written.
+ */
+public class CsvClassGenerator extends AbstractClassGenerator {
+
+	/**
+	 * primitive and boxed types, mapped to the suffix of the {@code CsvCodec} and {@code CsvReader}
+	 * methods. Bytes and shorts are written as int.
+	 */
+	private static final Map<String, String> PRIMITIVE_TYPES = Map.ofEntries(
+			Map.entry("boolean", "Boolean"), Map.entry("java.lang.Boolean", "Boolean"),
+			Map.entry("byte", "Int"), Map.entry("java.lang.Byte", "Int"),
+			Map.entry("short", "Int"), Map.entry("java.lang.Short", "Int"),
+			Map.entry("int", "Int"), Map.entry("java.lang.Integer", "Int"),
+			Map.entry("long", "Long"), Map.entry("java.lang.Long", "Long"),
+			Map.entry("char", "Char"), Map.entry("java.lang.Character", "Char"),
+			Map.entry("float", "Float"), Map.entry("java.lang.Float", "Float"),
+			Map.entry("double", "Double"), Map.entry("java.lang.Double", "Double"));
+
+	/**
+	 * types written with {@code toString()} and parsed with their static <i>parse(CharSequence)</i>
+	 */
+	private static final Set<String> TEMPORAL_TYPES = Set.of("java.time.LocalDate", "java.time.LocalTime",
+			"java.time.LocalDateTime", "java.time.Instant", "java.time.OffsetDateTime",
+			"java.time.ZonedDateTime", "java.time.Duration");
+
+	/**
+	 * names of the static fields caching the values of enums, by enum type
+	 */
+	private final Map<TypeName, String> enumValueFields = new LinkedHashMap<>();
+
+	/**
+	 * The purpose of this class is to generate Java code with a CSV writer and reader using the
+	 * JavaPoet framework.
+	 *
+	 * @param procEnv  - the processing environment
+	 * @param filer    - the filer
+	 * @param messager - used to output messages
+  	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 */
+	public CsvClassGenerator(final ProcessingEnvironment procEnv,
+							 final Filer filer,
+							 final Messager messager,
+							 final ElementInfo annotationInfo,
+							 final ClassName annotatedClass,
+							 final Map<ClassName, List<ElementInfo>> input) {
+		super(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+	}
+
+	/**
+	 * create the header and the methods writing and reading rows
+	 */
+	@Override
+	public void createSpecificFieldsAndMethods(ClassName incomingObjectClass, String packageName, String className,
+			ElementInfo annotationInfo, List<FieldSpec> fields, Map<String, MethodSpec> methods) {
+
+		Map<String, TypeMirror> sourceTypes = new HashMap<>();
+		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field))
+				.forEach(field -> sourceTypes.put(field.getSimpleName().toString(), annotationInfo.fieldType(field)));
+		if (annotationInfo.additionalFields() != null) {
+			sourceTypes.putAll(annotationInfo.additionalFields());
+		}
+
+		// the fields which are written, in declaration order
+		List<Column> columns = new ArrayList<>();
+		for (FieldSpec field : fields) {
+			if (field.hasModifier(Modifier.STATIC) || field.hasModifier(Modifier.FINAL)
+					|| !sourceTypes.containsKey(field.name)) {
+				continue;
+			}
+			Column column = columnFor(field.name, sourceTypes.get(field.name));
+			if (column == null) {
+				messager.printMessage(Diagnostic.Kind.WARNING, "Field " + field.name + " of type " + field.type
+						+ " is not supported by the CSV generator and will not be written.", annotationInfo.element());
+			} else {
+				columns.add(column);
+			}
+		}
+
+		ClassName mappedClass = ClassName.get(packageName, className);
+		TypeName headerType = ParameterizedTypeName.get(List.class, String.class);
+		fields.add(FieldSpec.builder(headerType, "CSV_HEADER", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+				.addJavadoc("names of the CSV columns, in the order they are written\n")
+				.initializer("$T.of($L)", List.class, CodeBlock.join(columns.stream()
+						.map(column -> CodeBlock.of("$S", column.name)).collect(Collectors.toList()), ", "))
+				.build());
+		createWriteHeader(methods);
+		createWriteRow(mappedClass, columns, methods);
+		if (!annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)) {
+			createReadRow(mappedClass, columns, methods);
+			createCsvReader(mappedClass, methods);
+		}
+		enumValueFields.forEach((enumType, fieldName) -> fields.add(
+				FieldSpec.builder(ArrayTypeName.of(enumType), fieldName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						 .initializer("$T.values()", enumType).build()));
+	}
+
+	/**
+	 * generate the static <i>writeHeader(Appendable)</i>
+	 */
+	private void createWriteHeader(final Map<String, MethodSpec> methods) {
+		methods.put("writeHeader", MethodSpec.methodBuilder("writeHeader").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(Appendable.class, "out").addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes the names of the columns as first row.\n")
+						.add("@param out - the target, e.g. a {@code Writer} or {@code StringBuilder}\n")
+						.add("@throws IOException if the target cannot be written\n").build())
+				.addStatement("$T.writeHeader(out, CSV_HEADER)", CsvCodec.class).build());
+	}
+
+	/**
+	 * generate <i>writeRow(Appendable)</i>, one column per field
+	 */
+	private void createWriteRow(final ClassName mappedClass, final List<Column> columns,
+			final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder writeRow = MethodSpec.methodBuilder("writeRow").addModifiers(Modifier.PUBLIC)
+				.addParameter(Appendable.class, "out").returns(Appendable.class).addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes the values of all fields as one row, in the order of {@code CSV_HEADER}.\n")
+						.add("@param out - the target, e.g. a {@code Writer} or {@code StringBuilder}\n")
+						.add("@return the target\n")
+						.add("@throws IOException if the target cannot be written\n").build());
+		beginMeasurement(writeRow);
+		for (int i = 0; i < columns.size(); i++) {
+			Column column = columns.get(i);
+			if (i > 0) {
+				writeRow.addStatement("out.append($T.SEPARATOR)", CsvCodec.class);
+			}
+			if (column.type.isBoxedPrimitive()) {
+				// boxed values are unboxed by the codec, null is written as empty column
+				writeRow.beginControlFlow("if (this.$L != null)", column.name)
+						.addStatement("$T.$L(out, this.$L)", CsvCodec.class, column.writer, column.name)
+						.endControlFlow();
+			} else {
+				writeRow.addStatement("$T.$L(out, this.$L)", CsvCodec.class, column.writer, column.name);
+			}
+		}
+		writeRow.addStatement("out.append($T.ROW_END)", CsvCodec.class);
+		endMeasurement(writeRow, mappedClass, ClassName.get(Appendable.class), "writeRow", "out", "this");
+		methods.put("writeRow", writeRow.build());
+
+		methods.put("writeCSV", MethodSpec.methodBuilder("writeCSV").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(Appendable.class, "out")
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Iterable.class), WildcardTypeName.subtypeOf(mappedClass)), "rows")
+				.addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes the header followed by one row per element.\n")
+						.add("@param out  - the target, e.g. a {@code Writer} or {@code StringBuilder}\n")
+						.add("@param rows - the elements to be written\n")
+						.add("@throws IOException if the target cannot be written\n").build())
+				.addStatement("writeHeader(out)")
+				.beginControlFlow("for ($T row : rows)", mappedClass)
+				.addStatement("row.writeRow(out)")
+				.endControlFlow().build());
+	}
+
+	/**
+	 * generate the static <i>readRow(CsvReader)</i>, which is the {@code RowMapper} of the class
+	 */
+	private void createReadRow(final ClassName mappedClass, final List<Column> columns,
+			final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder readRow = MethodSpec.methodBuilder("readRow").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(ParameterizedTypeName.get(ClassName.get(CsvReader.class), WildcardTypeName.subtypeOf(Object.class)), "row")
+				.returns(mappedClass).addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates a new instance of {@code $T} from the current row of the reader.\n", mappedClass)
+						.add("Empty columns leave the fields at their default value.\n")
+						.add("@param row - the reader, created with the columns of {@code CSV_HEADER}\n")
+						.add("@return the new instance\n")
+						.add("@throws IOException if a value cannot be parsed\n").build());
+		beginMeasurement(readRow);
+		readRow.addStatement("$T dto = new $T()", mappedClass, mappedClass);
+		for (int i = 0; i < columns.size(); i++) {
+			Column column = columns.get(i);
+			readRow.beginControlFlow("if (!row.isNull($L))", i)
+				   .addStatement("dto.$L = $L", column.name, column.reader.apply(i))
+				   .endControlFlow();
+		}
+		endMeasurement(readRow, ClassName.get(CsvReader.class), mappedClass, "readRow", "dto", "dto");
+		methods.put("readRow", readRow.build());
+	}
+
+	/**
+	 * generate the static <i>csvReader(Reader)</i>
+	 */
+	private void createCsvReader(final ClassName mappedClass, final Map<String, MethodSpec> methods) {
+		TypeName readerType = ParameterizedTypeName.get(ClassName.get(CsvReader.class), mappedClass);
+		methods.put("csvReader", MethodSpec.methodBuilder("csvReader").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(Reader.class, "reader").returns(readerType).addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates a streaming reader for input starting with a header. The columns may be\n")
+						.add("in any order, unknown columns are skipped and missing columns are read as empty.\n")
+						.add("@param reader - the input, which is buffered by the {@code CsvReader}\n")
+						.add("@return reader creating one instance of {@code $T} per row\n", mappedClass)
+						.add("@throws IOException if the header cannot be read\n").build())
+				.addStatement("return new $T<>(reader, CSV_HEADER, $T::readRow)", CsvReader.class, mappedClass).build());
+	}
+
+	/**
+	 * @param name       - name of the field
+	 * @param sourceType - type of the field in the annotated class
+	 * @return the {@code Column} for the type or {@code null} if it is not supported
+	 */
+	private Column columnFor(final String name, final TypeMirror sourceType) {
+		TypeName typeName = TypeName.get(sourceType);
+		String typeString = sourceType.getKind() == TypeKind.DECLARED
+				? ((TypeElement) typeUtils.asElement(sourceType)).getQualifiedName().toString()
+				: typeName.toString();
+		String primitive = PRIMITIVE_TYPES.get(typeString);
+		if (primitive != null) {
+			TypeName unboxed = typeName.isBoxedPrimitive() ? typeName.unbox() : typeName;
+			if (unboxed.equals(TypeName.BYTE) || unboxed.equals(TypeName.SHORT)) {
+				return new Column(name, typeName, "writeInt",
+						column -> CodeBlock.of("($T) row.getInt($L)", unboxed, column));
+			}
+			return new Column(name, typeName, "write" + primitive,
+					column -> CodeBlock.of("row.get$L($L)", primitive, column));
+		}
+		if (sourceType.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement typeElement = (TypeElement) typeUtils.asElement(sourceType);
+		if ("java.lang.String".equals(typeString)) {
+			return new Column(name, typeName, "writeString", column -> CodeBlock.of("row.getString($L)", column));
+		}
+		if ("java.math.BigDecimal".equals(typeString)) {
+			return new Column(name, typeName, "writeObject", column -> CodeBlock.of("row.getBigDecimal($L)", column));
+		}
+		if ("java.math.BigInteger".equals(typeString)) {
+			return new Column(name, typeName, "writeObject",
+					column -> CodeBlock.of("new $T(row.getString($L))", BigInteger.class, column));
+		}
+		if ("java.util.UUID".equals(typeString)) {
+			return new Column(name, typeName, "writeObject",
+					column -> CodeBlock.of("$T.fromString(row.getString($L))", UUID.class, column));
+		}
+		if (TEMPORAL_TYPES.contains(typeString)) {
+			return new Column(name, typeName, "writeObject",
+					column -> CodeBlock.of("$T.parse(row.getChars($L))", typeName, column));
+		}
+		if (typeElement.getKind() == ElementKind.ENUM) {
+			String valuesField = enumValuesField(typeName);
+			return new Column(name, typeName, "writeEnum",
+					column -> CodeBlock.of("row.getEnum($L, $L)", column, valuesField));
+		}
+		return null;
+	}
+
+	private String enumValuesField(final TypeName enumType) {
+		return enumValueFields.computeIfAbsent(enumType,
+				type -> type.toString().replace('.', '_').toUpperCase() + "_VALUES");
+	}
+
+	/**
+	 * mapped by annotation is specific to type of mapper
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return annotation {@code AnnotationSpec} instance of created mapped-by annotation
+	 */
+	public AnnotationSpec createMappedByAnnotation(final ElementInfo annotationInfo) {
+		return AnnotationSpec.builder(CSVMappedBy.class)
+				.addMember("mappedClass", "$T.class", ClassName.get(annotationInfo.element())).build();
+	}
+
+	/**
+	 * no annotations necessary
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return List of annotations {@code AnnotationSpec} instances or null.
+	 */
+	public List<AnnotationSpec> getAdditionalAnnotationsForClass(final ElementInfo annotationInfo) {
+		return null;
+	}
+
+	/**
+	 * create field
+	 *
+	 * @param field         - VariableElement representation of field to be created
+	 * @param annotationInfo - {@code ElementInfo} instance containing information about the {@code @Mapped} annotation
+	 * @param fieldClass    - TypeName for class field shall be created in.
+	 * @param fieldIsMapped - indicates whether or not the given field is annotated  with {@code @Mapped}.
+	 * @return field specification for the create field.
+	 */
+	@Override
+	public FieldSpec createFieldSpec(final VariableElement field,
+									 final ElementInfo annotationInfo,
+									 final TypeName fieldClass,
+									 boolean fieldIsMapped) {
+		String fieldName = field.getSimpleName().toString();
+		TypeName fieldType = fieldClass;
+		if (fieldIsMapped) {
+			Element fieldElement = typeUtils.asElement(annotationInfo.fieldType(field));
+			if (fieldElement instanceof TypeElement) {
+				fieldType = getMappedTypeForClassName(ClassName.get((TypeElement) fieldElement));
+			}
+		}
+		fieldType = checkFieldTypeForCollections(annotationInfo, annotationInfo.fieldType(field), fieldType);
+		return FieldSpec.builder(fieldType, fieldName, Modifier.PRIVATE).build();
+	}
+
+	@Override
+	public Types getTypeUtils() {
+		return procEnv.getTypeUtils();
+	}
+
+	@Override
+	public Elements getElementUtils() {
+		return procEnv.getElementUtils();
+	}
+
+	public boolean fieldIsMapped(final Element field) {
+		return fieldIsAnnotedWith(field, Mapped.class, GeneratorType.CSV);
+	}
+
+	public boolean typeIsMapped(final TypeElement typeElement) {
+		return typeIsAnnotatedWith(typeElement, Mapped.class, GeneratorType.CSV);
+	}
+
+	/**
+	 * describes how the value of one field is written and read
+	 */
+	private static final class Column {
+		private final String name;
+		/** type of the field in the generated class */
+		private final TypeName type;
+		/** name of the {@code CsvCodec} method writing the value */
+		private final String writer;
+		/** expression reading the value from the column with the given index of <i>row</i> */
+		private final IntFunction<CodeBlock> reader;
+
+		private Column(final String name, final TypeName type, final String writer,
+				final IntFunction<CodeBlock> reader) {
+			this.name = name;
+			this.type = type;
+			this.writer = writer;
+			this.reader = reader;
+		}
+	}
+}
@@ -102,6 +102,14 @@ public class ElementInfo {
 	 */
 	private List<VariableElement> fields;
 	
+	/**
+	 * types of inherited fields declared with a type variable of a parameterized
+	 * superclass, as members of the annotated class. For {@code class Person extends Base<String>}
+	 * the field {@code T payload} of {@code Base} has the type {@code String}.
+	 */
+	@Builder.Default
+	private Map<VariableElement, TypeMirror> memberTypes = new HashMap<>();
+	
 	/**
 	 * interfaces for generated classes
 	 */
@@ -127,7 +135,43 @@ public class ElementInfo {
 	
 	// xml namespace
 	private String xmlns;
+
+	/**
+	 * if true, <i>toXMLString()</i> writes {@code java.time} values as ISO text
+	 */
+	private boolean xmlTimeAsText;
 	
+	/**
+	 * if true, generated methods emit the JFR event <i>kilauea.Mapping</i>
+	 */
+	private boolean jfrEvents;
+
+	/**
+	 * if true, the columnar companion class <i>XXXBatch</i> is generated
+	 */
+	private boolean batch;
+
+	/**
+	 * if true, a record is generated instead of a class
+	 */
+	private boolean record;
+
+	/**
+	 * if true, an immutable class with a builder is generated
+	 */
+	private boolean immutable;
+
+	/**
+	 * if true, the protobuf codec and the .proto schema are generated
+	 */
+	private boolean protobuf;
+
+	/**
+	 * names of the fields in the order of the parameters of the public all-args constructor
+	 * (the canonical constructor of a record), null if the annotated class has none
+	 */
+	private List<String> sourceConstructorParameters;
+
 	/**
 	 * add an interface specification from a ClassName.
 	 * 
@@ -147,4 +191,16 @@ public class ElementInfo {
 	}
 
 	private boolean annotatedClassHasPublicConstructor;
+
+	/**
+	 * type of a field as member of the annotated class, which differs from the declared type
+	 * for fields inherited from a parameterized superclass.
+	 * 
+	 * @param field - a field of the annotated class or one of its superclasses
+	 * @return the type of the field
+	 */
+	public TypeMirror fieldType(final VariableElement field) {
+		TypeMirror memberType = memberTypes.get(field);
+		return memberType != null ? memberType : field.asType();
+	}
 }
@@ -0,0 +1,236 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: FieldConversion.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import net.magiccode.kilauea.runtime.Immutables;
+
+/**
+ * How the value of a field of the annotated class is converted into the value of the
+ * generated type and back, without reflection. Fields of a {@code @Mapped} type are converted
+ * with <i>of()</i> and <i>to()</i>, collections become a {@code List} and maps a {@code Map}
+ * of the mapped type arguments.
+ */
+@Getter
+@Accessors(fluent = true)
+public class FieldConversion {
+
+	/**
+	 * kind of conversion
+	 */
+	public enum Kind {
+		/** assigned as is */
+		PLAIN,
+		/** copied with {@code clone()} */
+		ARRAY,
+		/** field of a @Mapped type, converted with {@code of()} and {@code to()} */
+		MAPPED,
+		/** collection stored as {@code List} */
+		LIST,
+		/** map stored as {@code Map} */
+		MAP
+	}
+
+	private final String name;
+	private final VariableElement field;
+	/** type of the value in the generated type */
+	private final TypeName type;
+	/** type of the field in the annotated class */
+	private final TypeName sourceType;
+	private final Kind kind;
+	/** public getter and setter of the field in the annotated class */
+	private final SourceAccessors accessors;
+	/** mapped type of each type argument, null if it is not mapped */
+	private final List<TypeName> mappedArguments = new ArrayList<>();
+
+	/** type of the field as member of the annotated class */
+	@Getter(AccessLevel.NONE)
+	private final TypeMirror sourceTypeMirror;
+	@Getter(AccessLevel.NONE)
+	private final Types typeUtils;
+	@Getter(AccessLevel.NONE)
+	private final Elements elementUtils;
+
+	/**
+	 * @param generator      - the generator of the mapped type
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 * @param field          - a field of the annotated class
+	 */
+	public FieldConversion(final AbstractClassGenerator generator, final ElementInfo annotationInfo,
+			final VariableElement field) {
+		this.typeUtils = generator.getTypeUtils();
+		this.elementUtils = generator.getElementUtils();
+		this.name = field.getSimpleName().toString();
+		this.field = field;
+		TypeMirror fieldType = annotationInfo.fieldType(field);
+		this.sourceTypeMirror = fieldType;
+		this.sourceType = TypeName.get(fieldType);
+		if (generator.fieldIsMapped(field)) {
+			this.kind = Kind.MAPPED;
+			this.type = generator.getMappedTypeForClassName(ClassName.get((TypeElement) typeUtils.asElement(fieldType)));
+		} else if (fieldType.getKind() == TypeKind.ARRAY) {
+			this.kind = Kind.ARRAY;
+			this.type = sourceType;
+		} else if (fieldType.getKind() == TypeKind.DECLARED && isAssignable(fieldType, "java.util.Collection")
+				&& ((DeclaredType) fieldType).getTypeArguments().size() == 1) {
+			this.kind = Kind.LIST;
+			this.type = ParameterizedTypeName.get(ClassName.get(List.class), destinationArguments(generator, fieldType));
+		} else if (fieldType.getKind() == TypeKind.DECLARED && isAssignable(fieldType, "java.util.Map")
+				&& ((DeclaredType) fieldType).getTypeArguments().size() == 2) {
+			this.kind = Kind.MAP;
+			this.type = ParameterizedTypeName.get(ClassName.get(Map.class), destinationArguments(generator, fieldType));
+		} else {
+			this.kind = Kind.PLAIN;
+			this.type = sourceType;
+		}
+		this.accessors = new SourceAccessors(elementUtils, typeUtils, annotationInfo.element(), field);
+	}
+
+	private TypeName[] destinationArguments(final AbstractClassGenerator generator, final TypeMirror fieldType) {
+		List<? extends TypeMirror> typeArguments = ((DeclaredType) fieldType).getTypeArguments();
+		TypeName[] destinationArguments = new TypeName[typeArguments.size()];
+		for (int i = 0; i < typeArguments.size(); i++) {
+			Element argumentElement = typeUtils.asElement(typeArguments.get(i));
+			if (argumentElement instanceof TypeElement && generator.fieldIsMapped(argumentElement)) {
+				TypeName mappedType = generator.getMappedTypeForClassName(ClassName.get((TypeElement) argumentElement));
+				mappedArguments.add(mappedType);
+				destinationArguments[i] = mappedType;
+			} else {
+				mappedArguments.add(null);
+				destinationArguments[i] = TypeName.get(typeArguments.get(i));
+			}
+		}
+		return destinationArguments;
+	}
+
+	private boolean isAssignable(final TypeMirror type, final String targetType) {
+		return typeUtils.isAssignable(typeUtils.erasure(type),
+				typeUtils.erasure(elementUtils.getTypeElement(targetType).asType()));
+	}
+
+	/**
+	 * @return true if any type argument of a collection or map is mapped
+	 */
+	public boolean isMappedContainer() {
+		return mappedArguments.stream().anyMatch(argument -> argument != null);
+	}
+
+	/**
+	 * @return true if the field of the annotated class accepts the value created by
+	 *         {@link #toSource(String)}, which is not the case for implementations like
+	 *         {@code ArrayList}
+	 */
+	public boolean sourceAcceptsConverted() {
+		if (kind == Kind.LIST) {
+			return List.of("java.util.List", "java.util.Collection", "java.util.Set").contains(erasedSourceType());
+		}
+		if (kind == Kind.MAP) {
+			return "java.util.Map".equals(erasedSourceType());
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the setter of the annotated class accepts the value created by
+	 *         {@link #toSource(String)}
+	 */
+	public boolean hasDirectSetter() {
+		return accessors.setter() != null && sourceAcceptsConverted();
+	}
+
+	private String erasedSourceType() {
+		return ((TypeElement) typeUtils.asElement(sourceTypeMirror)).getQualifiedName().toString();
+	}
+
+	/**
+	 * mapper for the type argument with the given index, {@code MAPPER} of the generated type
+	 * or its inverse
+	 */
+	private CodeBlock mapper(final int index, boolean inverse) {
+		TypeName mappedType = mappedArguments.get(index);
+		if (mappedType == null) {
+			return CodeBlock.of("$T.identity()", Function.class);
+		}
+		return inverse ? CodeBlock.of("$T.MAPPER::unmap", mappedType) : CodeBlock.of("$T.MAPPER", mappedType);
+	}
+
+	/**
+	 * @param value - expression of the value of the annotated class
+	 * @return expression converting the value into an immutable value of the generated type
+	 */
+	public CodeBlock toMapped(final String value) {
+		switch (kind) {
+			case ARRAY:
+				return CodeBlock.of("$L == null ? null : $L.clone()", value, value);
+			case MAPPED:
+				return CodeBlock.of("$T.of($L)", type, value);
+			case LIST:
+				return isMappedContainer()
+						? CodeBlock.of("$T.unmodifiableList($L, $L)", Immutables.class, value, mapper(0, false))
+						: CodeBlock.of("$T.unmodifiableList($L)", Immutables.class, value);
+			case MAP:
+				return isMappedContainer()
+						? CodeBlock.of("$T.unmodifiableMap($L, $L, $L)", Immutables.class, value, mapper(0, false), mapper(1, false))
+						: CodeBlock.of("$T.unmodifiableMap($L)", Immutables.class, value);
+			default:
+				return CodeBlock.of("$L", value);
+		}
+	}
+
+	/**
+	 * @param value - expression of the value of the generated type
+	 * @return expression converting the value into a value for the annotated class
+	 */
+	public CodeBlock toSource(final String value) {
+		switch (kind) {
+			case ARRAY:
+				return CodeBlock.of("$L == null ? null : $L.clone()", value, value);
+			case MAPPED:
+				return CodeBlock.of("$L == null ? null : $L.to()", value, value);
+			case LIST:
+				CodeBlock list = isMappedContainer()
+						? CodeBlock.of("$T.copyOf($L, $L)", Immutables.class, value, mapper(0, true))
+						: CodeBlock.of("$T.copyOf($L)", Immutables.class, value);
+				return "java.util.Set".equals(erasedSourceType())
+						? CodeBlock.of("$L == null ? null : new $T<>($L)", value, HashSet.class, list)
+						: list;
+			case MAP:
+				return isMappedContainer()
+						? CodeBlock.of("$T.copyOf($L, $L, $L)", Immutables.class, value, mapper(0, true), mapper(1, true))
+						: CodeBlock.of("$T.copyOf($L)", Immutables.class, value);
+			default:
+				return CodeBlock.of("$L", value);
+		}
+	}
+}
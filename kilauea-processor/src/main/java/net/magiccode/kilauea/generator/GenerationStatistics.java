@@ -0,0 +1,52 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: GenerationStatistics.java
+ */
+package net.magiccode.kilauea.generator;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * GenerationStatistics keeps the figures a {@code ClassGenerator} collects while
+ * generating one class. They are picked up by the processor to create the
+ * profiling report (option <i>kilauea.profile</i>).
+ */
+@Getter @Accessors(fluent = true)
+@Setter
+public class GenerationStatistics {
+
+	/**
+	 * time spent building the class model (fields, methods and annotations) in nanoseconds
+	 */
+	private long generationNanos;
+
+	/**
+	 * time spent writing the generated source file in nanoseconds
+	 */
+	private long writeNanos;
+
+	/**
+	 * number of methods (including constructors) in the generated class
+	 */
+	private int methodCount;
+
+	/**
+	 * size of the generated source file in bytes (UTF-8)
+	 */
+	private long sourceBytes;
+
+	/**
+	 * fully qualified name of the generated class
+	 */
+	private String generatedClassName;
+
+}
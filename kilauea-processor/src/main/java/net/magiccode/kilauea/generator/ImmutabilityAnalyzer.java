@@ -0,0 +1,152 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ImmutabilityAnalyzer.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Classifies field types at compile time, so generated code can share values which
+ * cannot change instead of copying them.
+ * <ul>
+ * <li>{@code IMMUTABLE}: primitives, {@code String}, boxed primitives, {@code java.time},
+ * enums, records and final classes whose fields are all final and immutable, as well as
+ * classes annotated with an annotation named {@code Immutable}.</li>
+ * <li>{@code SHALLOW_MUTABLE}: collections, maps and arrays of immutable values. Copying the
+ * container is sufficient, its elements can be shared.</li>
+ * <li>{@code UNKNOWN}: everything else.</li>
+ * </ul>
+ * Results are cached per type for the lifetime of the analyzer.
+ */
+public class ImmutabilityAnalyzer {
+
+	/**
+	 * result of the analysis
+	 */
+	public enum Mutability {
+		IMMUTABLE, SHALLOW_MUTABLE, UNKNOWN
+	}
+
+	private static final Set<String> IMMUTABLE_TYPES = Set.of("java.lang.String", "java.lang.Boolean",
+			"java.lang.Byte", "java.lang.Character", "java.lang.Short", "java.lang.Integer", "java.lang.Long",
+			"java.lang.Float", "java.lang.Double", "java.lang.Class", "java.math.BigDecimal", "java.math.BigInteger",
+			"java.util.UUID", "java.util.Locale", "java.util.Currency", "java.net.URI", "java.util.regex.Pattern");
+
+	private static final String IMMUTABLE_PACKAGE = "java.time";
+
+	private final Types typeUtils;
+	private final Elements elementUtils;
+	private final Map<String, Mutability> cache = new HashMap<>();
+
+	/**
+	 * @param typeUtils    - the type utilities
+	 * @param elementUtils - the element utilities
+	 */
+	public ImmutabilityAnalyzer(final Types typeUtils, final Elements elementUtils) {
+		this.typeUtils = typeUtils;
+		this.elementUtils = elementUtils;
+	}
+
+	/**
+	 * @param type - type of a field
+	 * @return the {@code Mutability} of the type
+	 */
+	public Mutability classify(final TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return Mutability.IMMUTABLE;
+		}
+		if (type.getKind() == TypeKind.ARRAY) {
+			return classify(((ArrayType) type).getComponentType()) == Mutability.IMMUTABLE
+					? Mutability.SHALLOW_MUTABLE : Mutability.UNKNOWN;
+		}
+		if (type.getKind() != TypeKind.DECLARED) {
+			return Mutability.UNKNOWN;
+		}
+		if (isContainer(type)) {
+			List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+			return !typeArguments.isEmpty() && typeArguments.stream()
+					.allMatch(argument -> classify(argument) == Mutability.IMMUTABLE)
+					? Mutability.SHALLOW_MUTABLE : Mutability.UNKNOWN;
+		}
+		TypeElement element = (TypeElement) typeUtils.asElement(type);
+		String name = element.getQualifiedName().toString();
+		Mutability mutability = cache.get(name);
+		if (mutability == null) {
+			// guards against cycles, a type referencing itself is not known to be immutable
+			cache.put(name, Mutability.UNKNOWN);
+			mutability = classifyClass(element, name);
+			cache.put(name, mutability);
+		}
+		return mutability;
+	}
+
+	private Mutability classifyClass(final TypeElement element, final String name) {
+		if (element.getKind() == ElementKind.ENUM || IMMUTABLE_TYPES.contains(name)
+				|| name.startsWith(IMMUTABLE_PACKAGE + ".") || hasImmutableAnnotation(element)) {
+			return Mutability.IMMUTABLE;
+		}
+		// records are final and have final fields only, they are covered by the general rule
+		if (element.getKind() == ElementKind.INTERFACE || !element.getModifiers().contains(Modifier.FINAL)) {
+			return Mutability.UNKNOWN;
+		}
+		TypeMirror superclass = element.getSuperclass();
+		if (superclass.getKind() == TypeKind.DECLARED
+				&& !Object.class.getName().equals(((TypeElement) typeUtils.asElement(superclass)).getQualifiedName().toString())
+				&& !Record.class.getName().equals(((TypeElement) typeUtils.asElement(superclass)).getQualifiedName().toString())
+				&& classify(superclass) != Mutability.IMMUTABLE) {
+			return Mutability.UNKNOWN;
+		}
+		for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+			if (field.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			if (!field.getModifiers().contains(Modifier.FINAL) || classify(field.asType()) != Mutability.IMMUTABLE) {
+				return Mutability.UNKNOWN;
+			}
+		}
+		return Mutability.IMMUTABLE;
+	}
+
+	/**
+	 * {@code net.magiccode.kilauea.annotation.Immutable} or any other annotation with that simple name
+	 */
+	private static boolean hasImmutableAnnotation(final Element element) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if ("Immutable".contentEquals(annotation.getAnnotationType().asElement().getSimpleName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isContainer(final TypeMirror type) {
+		TypeMirror erasure = typeUtils.erasure(type);
+		return typeUtils.isAssignable(erasure, typeUtils.erasure(elementUtils.getTypeElement("java.util.Collection").asType()))
+				|| typeUtils.isAssignable(erasure, typeUtils.erasure(elementUtils.getTypeElement("java.util.Map").asType()));
+	}
+}
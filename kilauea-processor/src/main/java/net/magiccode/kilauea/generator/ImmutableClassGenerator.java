@@ -0,0 +1,231 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ImmutableClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.lang.model.element.Modifier;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import net.magiccode.kilauea.runtime.Immutables;
+
+/**
+ * Generates an immutable class for {@code @Mapped(immutable = true)}.
+ *
+ * The fields are final and have getters only, they are set by a private constructor which is
+ * called by <i>of()</i> and by the nested <i>Builder</i>. Collections and maps are wrapped
+ * unmodifiable once, when an instance is created, arrays are copied when they are passed in and
+ * handed out. Instances can be published to other threads and cached without defensive copies.
+ * For JSON and XML, Jackson creates instances through the builder.
+ */
+public class ImmutableClassGenerator extends RecordClassGenerator {
+
+	/**
+	 * @param generator      - the generator of the mapped type, provides the type specific parts
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 */
+	public ImmutableClassGenerator(final AbstractClassGenerator generator, final ElementInfo annotationInfo) {
+		super(generator, annotationInfo);
+	}
+
+	/**
+	 * final fields with getters, the private constructor, <i>equals()</i>, <i>hashCode()</i>,
+	 * <i>toString()</i> and the builder
+	 */
+	@Override
+	protected void addComponents(final TypeSpec.Builder type, final ClassName typeClass,
+			final List<Component> components) {
+		type.addModifiers(Modifier.FINAL)
+			.addField(FieldSpec.builder(TypeName.LONG, "serialVersionUID", Modifier.PRIVATE, Modifier.FINAL, Modifier.STATIC)
+					.initializer("$LL", serialVersionUID(typeClass, components)).build());
+		if (annotationInfo.superclass() != null) {
+			type.superclass(annotationInfo.superclass());
+		}
+
+		MethodSpec.Builder constructor = MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE);
+		for (Component component : components) {
+			type.addField(FieldSpec.builder(component.type, component.name, Modifier.PRIVATE, Modifier.FINAL)
+					.addAnnotations(component.annotations).build());
+			constructor.addParameter(component.type, component.name)
+					   .addStatement("this.$L = $L", component.name, component.name);
+			String getterName = generator.generateGetterName(annotationInfo, component.name,
+					component.type.toString().equals(Boolean.class.getName()));
+			MethodSpec.Builder getter = MethodSpec.methodBuilder(getterName).addModifiers(Modifier.PUBLIC)
+					.returns(component.type);
+			if (component.type instanceof ArrayTypeName) {
+				getter.addStatement("return $L == null ? null : $L.clone()", component.name, component.name);
+			} else {
+				getter.addStatement("return $L", component.name);
+			}
+			type.addMethod(getter.build());
+		}
+		type.addMethod(constructor.build())
+			.addMethod(createEquals(typeClass, components))
+			.addMethod(createHashCode(components));
+		Map<String, MethodSpec> methods = new HashMap<>();
+		generator.createToString(annotationInfo, methods);
+		type.addMethods(methods.values());
+
+		ClassName builderClass = typeClass.nestedClass("Builder");
+		type.addType(createBuilder(typeClass, builderClass, components))
+			.addMethod(MethodSpec.methodBuilder("builder").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+					.returns(builderClass)
+					.addJavadoc("@return a new, empty {@code $T}\n", builderClass)
+					.addStatement("return new $T()", builderClass).build());
+		MethodSpec.Builder toBuilder = MethodSpec.methodBuilder("toBuilder").addModifiers(Modifier.PUBLIC)
+				.returns(builderClass)
+				.addJavadoc("@return a new {@code $T} initialised with the values of this instance\n", builderClass)
+				.addCode("return new $T()", builderClass);
+		components.forEach(component -> toBuilder.addCode("\n$>$>.$L(this.$L)$<$<", component.name, component.name));
+		type.addMethod(toBuilder.addCode(";\n").build());
+		if (annotationInfo.type() == GeneratorType.JSON || annotationInfo.type() == GeneratorType.XML) {
+			type.addAnnotation(AnnotationSpec.builder(JsonDeserialize.class)
+					.addMember("builder", "$T.class", builderClass).build());
+		}
+	}
+
+	/**
+	 * derived from the name and the fields of the class, so it changes with the serialized form,
+	 * but not with the compiler like the computed default
+	 */
+	private static long serialVersionUID(final ClassName typeClass, final List<Component> components) {
+		StringBuilder form = new StringBuilder(typeClass.canonicalName());
+		components.forEach(component -> form.append(';').append(component.name).append(':').append(component.type));
+		return UUID.nameUUIDFromBytes(form.toString().getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+	}
+
+	/**
+	 * @return the generated class itself, it has no implicit members
+	 */
+	@Override
+	protected TypeSpec describe(final List<Component> components) {
+		return generatedType;
+	}
+
+	/**
+	 * render the class generated by {@link #generate(ClassName)}
+	 *
+	 * @param packageName - package of the class
+	 * @return source code of the class
+	 */
+	@Override
+	public String render(final String packageName) {
+		return JavaFile.builder(packageName, generatedType).indent("    ").build().toString();
+	}
+
+	/**
+	 * static nested builder, collecting the values without copying them. Collections, maps and
+	 * arrays are copied once by <i>build()</i>.
+	 */
+	private TypeSpec createBuilder(final ClassName typeClass, final ClassName builderClass,
+			final List<Component> components) {
+		TypeSpec.Builder builder = TypeSpec.classBuilder(builderClass)
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+				.addJavadoc("Builder for {@code $T}, which is not thread-safe.\n", typeClass);
+		if (annotationInfo.type() == GeneratorType.JSON || annotationInfo.type() == GeneratorType.XML) {
+			builder.addAnnotation(AnnotationSpec.builder(JsonPOJOBuilder.class)
+					.addMember("withPrefix", "$S", "").build());
+		}
+		builder.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+		for (Component component : components) {
+			// same annotations as the fields of the built class, e.g. names and date formats
+			builder.addField(FieldSpec.builder(component.type, component.name, Modifier.PRIVATE)
+					.addAnnotations(component.annotations).build())
+				   .addMethod(MethodSpec.methodBuilder(component.name).addModifiers(Modifier.PUBLIC)
+						   .addParameter(component.type, component.name).returns(builderClass)
+						   .addStatement("this.$L = $L", component.name, component.name)
+						   .addStatement("return this").build());
+		}
+		List<CodeBlock> arguments = components.stream().map(this::immutableValue).collect(Collectors.toList());
+		builder.addMethod(MethodSpec.methodBuilder("build").addModifiers(Modifier.PUBLIC).returns(typeClass)
+				.addJavadoc("@return a new instance of {@code $T} with the values of this builder\n", typeClass)
+				.addStatement("return new $T($L)", typeClass, CodeBlock.join(arguments, ", ")).build());
+		return builder.build();
+	}
+
+	/**
+	 * @return expression creating an immutable copy of the value of the component in the builder
+	 */
+	private CodeBlock immutableValue(final Component component) {
+		if (component.type instanceof ArrayTypeName) {
+			return CodeBlock.of("this.$L == null ? null : this.$L.clone()", component.name, component.name);
+		}
+		if (component.conversion != null && component.conversion.kind() == FieldConversion.Kind.LIST) {
+			return CodeBlock.of("$T.unmodifiableList(this.$L)", Immutables.class, component.name);
+		}
+		if (component.conversion != null && component.conversion.kind() == FieldConversion.Kind.MAP) {
+			return CodeBlock.of("$T.unmodifiableMap(this.$L)", Immutables.class, component.name);
+		}
+		return CodeBlock.of("this.$L", component.name);
+	}
+
+	private MethodSpec createEquals(final ClassName typeClass, final List<Component> components) {
+		MethodSpec.Builder equals = MethodSpec.methodBuilder("equals").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).addParameter(Object.class, "other").returns(TypeName.BOOLEAN)
+				.beginControlFlow("if (this == other)")
+				.addStatement("return true")
+				.endControlFlow()
+				.beginControlFlow("if (other == null || getClass() != other.getClass())")
+				.addStatement("return false")
+				.endControlFlow();
+		if (components.isEmpty()) {
+			return equals.addStatement("return true").build();
+		}
+		equals.addStatement("$T that = ($T) other", typeClass, typeClass);
+		List<CodeBlock> comparisons = components.stream().map(component -> {
+			if (component.type instanceof ArrayTypeName) {
+				return CodeBlock.of("$T.equals(this.$L, that.$L)", Arrays.class, component.name, component.name);
+			}
+			// like records, so equals() agrees with hashCode() for NaN and -0.0
+			if (component.type.equals(TypeName.DOUBLE)) {
+				return CodeBlock.of("$T.compare(this.$L, that.$L) == 0", Double.class, component.name, component.name);
+			}
+			if (component.type.equals(TypeName.FLOAT)) {
+				return CodeBlock.of("$T.compare(this.$L, that.$L) == 0", Float.class, component.name, component.name);
+			}
+			if (component.type.isPrimitive()) {
+				return CodeBlock.of("this.$L == that.$L", component.name, component.name);
+			}
+			return CodeBlock.of("$T.equals(this.$L, that.$L)", Objects.class, component.name, component.name);
+		}).collect(Collectors.toList());
+		return equals.addStatement("return $L", CodeBlock.join(comparisons, "$W&& ")).build();
+	}
+
+	private MethodSpec createHashCode(final List<Component> components) {
+		List<CodeBlock> values = components.stream()
+				.map(component -> component.type instanceof ArrayTypeName
+						? CodeBlock.of("$T.hashCode($L)", Arrays.class, component.name)
+						: CodeBlock.of("$L", component.name))
+				.collect(Collectors.toList());
+		return MethodSpec.methodBuilder("hashCode").addAnnotation(Override.class).addModifiers(Modifier.PUBLIC)
+				.returns(TypeName.INT)
+				.addStatement("return $T.hash($L)", Objects.class, CodeBlock.join(values, ", ")).build();
+	}
+}
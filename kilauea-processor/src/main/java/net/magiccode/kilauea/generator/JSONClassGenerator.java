@@ -35,7 +35,6 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
@@ -47,6 +46,7 @@ import net.magiccode.kilauea.annotation.JSONMappedBy;
 import net.magiccode.kilauea.annotation.JSONRequired;
 import net.magiccode.kilauea.annotation.JSONTransient;
 import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.runtime.json.JacksonSupport;
 import net.magiccode.kilauea.util.StringUtil;
 
 // 
@@ -86,7 +86,10 @@ public class JSONClassGenerator extends AbstractClassGenerator {
 	public
 	void createSpecificFieldsAndMethods(ClassName incomingObjectClass, String packageName, String className,
 			ElementInfo annotationInfo, List<FieldSpec> fields, Map<String, MethodSpec> methods) {
-		createToJSONString(methods);		
+		createToJSONString(methods);
+		ClassName mappedClass = ClassName.get(packageName, className);
+		createBinaryFormat("CBOR", mappedClass, annotationInfo, methods);
+		createBinaryFormat("Smile", mappedClass, annotationInfo, methods);
 	}
 	
 	/**
@@ -125,17 +128,55 @@ public class JSONClassGenerator extends AbstractClassGenerator {
 		// create toJSONString method
 		MethodSpec.Builder toStringBuilder = MethodSpec.methodBuilder("toJSONString").addModifiers(Modifier.PUBLIC)
 				.addJavadoc(CodeBlock.builder().add("provides a formatted JSON string with all fields\n")
-						.add("and their current values.\n").build())
-				.addStatement("$T mapper = new $T()", ObjectMapper.class, ObjectMapper.class)
-				.addStatement("mapper.findAndRegisterModules()")
-				.addStatement("String value = this.getClass().getName()").beginControlFlow("try")
-				.addStatement("value += mapper.writerWithDefaultPrettyPrinter().writeValueAsString(this)")
+						.add("and their current values.\n").build());
+		beginMeasurement(toStringBuilder);
+		toStringBuilder.addStatement("String value = this.getClass().getName()").beginControlFlow("try")
+				.addStatement("value += $T.prettyJSONWriter().writeValueAsString(this)", JacksonSupport.class)
 				.endControlFlow().beginControlFlow("catch ($T e)", JsonProcessingException.class)
-				.addStatement("e.printStackTrace()").endControlFlow().addStatement("return value")
-				.returns(ClassName.get(String.class));
+				.addStatement("e.printStackTrace()").endControlFlow();
+		endMeasurement(toStringBuilder, generatedClass, ClassName.get(String.class), "toJSONString", "value", "this");
+		toStringBuilder.returns(ClassName.get(String.class));
 		methods.put("toJSONString",  toStringBuilder.build());
 	}
 
+	/**
+	 * generate <i>toCBOR()</i>/<i>toSmile()</i> and the static readers <i>fromCBOR(byte[])</i>/<i>fromSmile(byte[])</i>.
+	 * Both use the configuration cached by {@code JacksonSupport}, the data format is only
+	 * needed on the classpath when the methods are called.
+	 * 
+	 * @param format      - name of the format as used in the method names of {@code JacksonSupport}
+	 * @param mappedClass - the generated class
+	 * @param annotationInfo - {@code ElementInfo} instance describing the annotation options
+	 * @param methods - Map containing the methods to be created. Key is the name of the method, value a MethodSpec instance
+	 */
+	private void createBinaryFormat(final String format, final ClassName mappedClass,
+			final ElementInfo annotationInfo, final Map<String, MethodSpec> methods) {
+		String writeMethod = "to" + format;
+		MethodSpec.Builder writeBuilder = MethodSpec.methodBuilder(writeMethod).addModifiers(Modifier.PUBLIC)
+				.returns(byte[].class)
+				.addJavadoc(CodeBlock.builder().add("provides all fields and their current values as $L.\n", format)
+						.add("@return the encoded bytes\n").build());
+		beginMeasurement(writeBuilder);
+		writeBuilder.addStatement("byte[] value = $T.$L(this)", JacksonSupport.class, writeMethod);
+		endMeasurement(writeBuilder, generatedClass, TypeName.get(byte[].class), writeMethod, "value", "this");
+		methods.put(writeMethod, writeBuilder.build());
+
+		if (annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)) {
+			return;
+		}
+		String readMethod = "from" + format;
+		MethodSpec.Builder readBuilder = MethodSpec.methodBuilder(readMethod).addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(byte[].class, "bytes").returns(mappedClass)
+				.addJavadoc(CodeBlock.builder().add("creates a new instance of {@code $T} from $L\n", mappedClass, format)
+						.add("as written by {@code $L()}.\n", writeMethod)
+						.add("@param bytes - the encoded bytes\n")
+						.add("@return the new instance\n").build());
+		beginMeasurement(readBuilder);
+		readBuilder.addStatement("$T value = $T.$L(bytes, $T.class)", mappedClass, JacksonSupport.class, readMethod, mappedClass);
+		endMeasurement(readBuilder, TypeName.get(byte[].class), mappedClass, readMethod, "value", "value");
+		methods.put(readMethod, readBuilder.build());
+	}
+
 	/**
 	 * create field
 	 * 
@@ -172,11 +213,11 @@ public class JSONClassGenerator extends AbstractClassGenerator {
 			}
 			annotations.add(jsonPropertyAnnotationBuilder.build());
 			
-			TypeMirror type = field.asType();
+			TypeMirror type = annotationInfo.fieldType(field);
 
 			TypeName fieldType = fieldClass;
 			if (fieldIsMapped) {
-				TypeMirror fieldTypeMirror = field.asType();
+				TypeMirror fieldTypeMirror = annotationInfo.fieldType(field);
 				Element fieldElement = typeUtils.asElement(fieldTypeMirror);
 				if (fieldElement instanceof TypeElement) {
 					ClassName fieldClassName = ClassName.get((TypeElement) fieldElement);
@@ -0,0 +1,732 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: OffHeapClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.OFFHEAPLength;
+import net.magiccode.kilauea.annotation.OFFHEAPMappedBy;
+import net.magiccode.kilauea.runtime.offheap.OffHeap;
+import net.magiccode.kilauea.util.ReflectionUtil;
+import net.magiccode.kilauea.util.StringUtil;
+
+/**
+ * Generates a flyweight for records of a fixed layout in a direct {@code ByteBuffer} and a
+ * growable store of such records for a given java class.
+ *
+ * The flyweight <i>XXX</i> has no fields of its own besides buffer and offset. Its getters and
+ * setters read and write the fields of the annotated class at offsets computed at compile time,
+ * so the data lives outside of the garbage collected heap. <i>of(source)</i> copies an instance of
+ * the annotated class into a record, <i>to()</i> copies it back. The store <i>XXXStore</i> keeps
+ * any number of records in one buffer, which grows as needed.
+ *
+ * Supported are primitives and their boxed types, {@code String} (in slots of a fixed size, see
+ * {@code @OFFHEAPLength}), enums, {@code LocalDate}, {@code LocalTime}, {@code LocalDateTime},
+ * {@code Instant} and {@code UUID}. Fields of other types are reported with a warning and not stored.
+ */
+public class OffHeapClassGenerator extends AbstractClassGenerator {
+
+	/**
+	 * number of UTF-8 bytes reserved for {@code String} fields without {@code @OFFHEAPLength}
+	 */
+	public static final int DEFAULT_STRING_LENGTH = 32;
+
+	/**
+	 * initial number of records of a store created without capacity
+	 */
+	private static final int DEFAULT_STORE_CAPACITY = 16;
+
+	/**
+	 * The purpose of this class is to generate an off-heap flyweight and its store using
+	 * the JavaPoet framework.
+	 *
+	 * @param procEnv  - the processing environment
+	 * @param filer    - the filer
+	 * @param messager - used to output messages
+  	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 */
+	public OffHeapClassGenerator(final ProcessingEnvironment procEnv,
+								 final Filer filer,
+								 final Messager messager,
+								 final ElementInfo annotationInfo,
+								 final ClassName annotatedClass,
+								 final Map<ClassName, List<ElementInfo>> input) {
+		super(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+	}
+
+	/**
+	 * generates flyweight and store instead of a class with fields
+	 */
+	@Override
+	public void generate() throws IOException {
+
+		long generationStart = System.nanoTime();
+		try {
+			String className = annotationInfo.prefix() + annotationInfo.className();
+			ClassName key = ClassName.get(annotationInfo.element());
+			String packageName = generatePackageName(key, annotationInfo);
+			generatedClass = ClassName.get(packageName, className);
+			ClassName storeClass = ClassName.get(packageName, className + "Store");
+
+			note("annotated class " + key.canonicalName() + ", generated classes " + generatedClass.canonicalName()
+					+ " and " + storeClass.canonicalName());
+
+			List<Slot> slots = layout();
+			int recordSize = recordSize(slots);
+			boolean reflective = slots.stream().anyMatch(slot -> slot.sourceGetter == null || slot.sourceSetter == null);
+			boolean hasTo = !annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)
+					&& annotationInfo.annotatedClassHasPublicConstructor();
+			if (!hasTo) {
+				messager.printMessage(Diagnostic.Kind.WARNING,
+						"no to() method generated for class " + generatedClass.canonicalName() + ". " + key.canonicalName()
+								+ (annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)
+										? " is abstract." : " does not have a non-args constructor."));
+			}
+
+			generatedType = createFlyweight(key, slots, recordSize, reflective, hasTo);
+			TypeSpec storeType = createStore(key, storeClass, reflective, hasTo);
+
+			String source = JavaFile.builder(packageName, generatedType).indent("    ").build().toString();
+			String storeSource = JavaFile.builder(packageName, storeType).indent("    ").build().toString();
+			statistics.generationNanos(System.nanoTime() - generationStart)
+					  .methodCount(generatedType.methodSpecs.size() + storeType.methodSpecs.size())
+					  .sourceBytes(source.getBytes(StandardCharsets.UTF_8).length
+							  	   + storeSource.getBytes(StandardCharsets.UTF_8).length)
+					  .generatedClassName(generatedClass.canonicalName());
+
+			long writeStart = System.nanoTime();
+			writeSourceFile(generatedClass.canonicalName(), source);
+			writeSourceFile(storeClass.canonicalName(), storeSource);
+			writeBatchClass(generatedClass.packageName(), generatedClass.simpleName());
+			statistics.writeNanos(System.nanoTime() - writeStart);
+		} catch (IOException e) {
+			messager.printMessage(Diagnostic.Kind.ERROR, "Error occured while generating class "
+					+ annotationInfo.element() + ". " + e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * create the slots of all supported fields and compute their offsets. The presence bitmap
+	 * comes first, then the slots ordered by alignment, so every value is naturally aligned.
+	 */
+	private List<Slot> layout() {
+		List<Slot> slots = new ArrayList<>();
+		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field)).forEach(field -> {
+			Slot slot = slotFor(field);
+			if (slot == null) {
+				messager.printMessage(Diagnostic.Kind.WARNING, "Field " + field.getSimpleName() + " of type "
+						+ annotationInfo.fieldType(field) + " is not supported by the OFFHEAP generator and will not be stored.", field);
+			} else {
+				slots.add(slot);
+			}
+		});
+		int bit = 0;
+		for (Slot slot : slots) {
+			if (slot.nullable) {
+				slot.bit = bit++;
+			}
+		}
+		List<Slot> ordered = new ArrayList<>(slots);
+		ordered.sort(Comparator.comparingInt((Slot slot) -> slot.kind.alignment).reversed());
+		int offset = (bit + 7) / 8;
+		for (Slot slot : ordered) {
+			offset = align(offset, slot.kind.alignment);
+			slot.offset = offset;
+			offset += slot.size();
+		}
+		return slots;
+	}
+
+	private static int recordSize(final List<Slot> slots) {
+		int end = 1;
+		for (Slot slot : slots) {
+			end = Math.max(end, slot.offset + slot.size());
+		}
+		return align(end, Long.BYTES);
+	}
+
+	private static int align(int offset, int alignment) {
+		return (offset + alignment - 1) / alignment * alignment;
+	}
+
+	/**
+	 * @return the slot for the field or {@code null} if its type is not supported
+	 */
+	private Slot slotFor(final VariableElement field) {
+		TypeMirror type = annotationInfo.fieldType(field);
+		Kind kind = null;
+		boolean nullable = true;
+		if (type.getKind().isPrimitive()) {
+			kind = Kind.valueOf(type.getKind().name());
+			nullable = false;
+		} else if (type.getKind() == TypeKind.DECLARED) {
+			TypeElement typeElement = (TypeElement) typeUtils.asElement(type);
+			if (typeElement.getKind() == ElementKind.ENUM) {
+				kind = Kind.ENUM;
+			} else {
+				kind = Kind.forClass(typeElement.getQualifiedName().toString());
+			}
+		}
+		if (kind == null) {
+			return null;
+		}
+		Slot slot = new Slot(field, type, kind, nullable);
+		if (kind == Kind.STRING) {
+			OFFHEAPLength length = field.getAnnotation(OFFHEAPLength.class);
+			slot.maxBytes = length == null ? DEFAULT_STRING_LENGTH : length.value();
+			if (slot.maxBytes < 0 || slot.maxBytes > 0xFFFF) {
+				messager.printMessage(Diagnostic.Kind.ERROR, "@OFFHEAPLength must be between 0 and 65535.", field);
+				slot.maxBytes = DEFAULT_STRING_LENGTH;
+			}
+		}
+		SourceAccessors accessors = new SourceAccessors(getElementUtils(), typeUtils, annotationInfo.element(), field);
+		slot.sourceGetter = accessors.getter();
+		slot.sourceSetter = accessors.setter();
+		return slot;
+	}
+
+	/**
+	 * generate the flyweight class
+	 */
+	private TypeSpec createFlyweight(final ClassName sourceClass, final List<Slot> slots, int recordSize,
+			boolean reflective, boolean hasTo) {
+		TypeSpec.Builder flyweight = TypeSpec.classBuilder(generatedClass).addModifiers(Modifier.PUBLIC)
+				.addJavadoc(CodeBlock.builder()
+						.add(generatedClass.canonicalName() + " generated by Kilauea. (@Mapped)\n")
+						.add("from " + sourceClass.canonicalName() + "\n")
+						.add("See https://github.com/CodeWeazle/kilauea\n\n")
+						.add("Flyweight for a record of $L bytes in a direct {@code ByteBuffer}. Use {@code wrap} to\n", recordSize)
+						.add("position it on a record, instances can be reused for any number of records.\n").build())
+				.addAnnotation(createMappedByAnnotation(annotationInfo))
+				.addField(FieldSpec.builder(TypeName.INT, "RECORD_SIZE", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+						.addJavadoc("number of bytes of one record\n").initializer("$L", recordSize).build());
+		for (Slot slot : slots) {
+			flyweight.addField(FieldSpec.builder(TypeName.INT, slot.constant("OFFSET"), Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+					.initializer("$L", slot.offset).build());
+			if (slot.kind == Kind.STRING) {
+				flyweight.addField(FieldSpec.builder(TypeName.INT, slot.constant("LENGTH"), Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+						.initializer("$L", slot.maxBytes).build());
+			}
+			if (slot.kind == Kind.ENUM) {
+				flyweight.addField(FieldSpec.builder(ArrayTypeName.of(slot.type), slot.constant("VALUES"), Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						.initializer("$T.values()", slot.type).build());
+			}
+			if (slot.sourceGetter == null || (hasTo && slot.sourceSetter == null)) {
+				flyweight.addField(FieldSpec.builder(Field.class, slot.constant("FIELD"), Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						.initializer("$T.deepGetField($T.class, $S, true)", ReflectionUtil.class, sourceClass, slot.name).build());
+			}
+		}
+		flyweight.addField(ByteBuffer.class, "buffer", Modifier.PRIVATE)
+				 .addField(TypeName.INT, "offset", Modifier.PRIVATE);
+
+		flyweight.addMethod(MethodSpec.methodBuilder("wrap").addModifiers(Modifier.PUBLIC)
+				.addParameter(ByteBuffer.class, "buffer").addParameter(TypeName.INT, "offset").returns(generatedClass)
+				.addJavadoc(CodeBlock.builder().add("position this flyweight on the record at the given offset.\n")
+						.add("@param buffer - buffer containing the record\n")
+						.add("@param offset - offset of the record in bytes\n")
+						.add("@return this flyweight\n").build())
+				.addStatement("$T.checkFromIndexSize(offset, RECORD_SIZE, buffer.capacity())", Objects.class)
+				.addStatement("this.buffer = buffer")
+				.addStatement("this.offset = offset")
+				.addStatement("return this").build());
+		flyweight.addMethod(MethodSpec.methodBuilder("recordBuffer").addModifiers(Modifier.PUBLIC).returns(ByteBuffer.class)
+				.addJavadoc("@return the buffer containing the current record\n")
+				.addStatement("return this.buffer").build());
+		flyweight.addMethod(MethodSpec.methodBuilder("recordOffset").addModifiers(Modifier.PUBLIC).returns(TypeName.INT)
+				.addJavadoc("@return the offset of the current record in bytes\n")
+				.addStatement("return this.offset").build());
+
+		for (Slot slot : slots) {
+			flyweight.addMethod(createGetter(slot)).addMethod(createSetter(slot));
+		}
+		flyweight.addMethod(createCopyFrom(sourceClass, slots, reflective))
+				 .addMethod(createOf(sourceClass, reflective));
+		if (hasTo) {
+			flyweight.addMethod(createToWithArgument(sourceClass, slots, reflective))
+					 .addMethod(MethodSpec.methodBuilder("to").addModifiers(Modifier.PUBLIC).returns(sourceClass)
+							 .addExceptions(exceptions(reflective))
+							 .addJavadoc("@return a new instance of {@code $T} with the values of the current record\n", sourceClass)
+							 .addStatement("return to(new $T())", sourceClass).build());
+		}
+		return flyweight.addMethod(createToString(slots)).build();
+	}
+
+	private MethodSpec createGetter(final Slot slot) {
+		MethodSpec.Builder getter = MethodSpec.methodBuilder(generateGetterName(annotationInfo, slot.name,
+				slot.type.toString().equals(Boolean.class.getName())))
+				.addModifiers(Modifier.PUBLIC).returns(slot.type);
+		if (slot.nullable) {
+			getter.beginControlFlow("if (!$T.isPresent(this.buffer, this.offset, $L))", OffHeap.class, slot.bit)
+				  .addStatement("return null")
+				  .endControlFlow();
+		}
+		String at = "this.offset + " + slot.constant("OFFSET");
+		switch (slot.kind) {
+			case BOOLEAN:
+				getter.addStatement("return this.buffer.get($L) != 0", at);
+				break;
+			case ENUM:
+				getter.addStatement("return $L[this.buffer.getInt($L)]", slot.constant("VALUES"), at);
+				break;
+			case STRING:
+				getter.addStatement("return $T.getString(this.buffer, $L)", OffHeap.class, at);
+				break;
+			case LOCAL_DATE:
+				getter.addStatement("return $T.ofEpochDay(this.buffer.getLong($L))", LocalDate.class, at);
+				break;
+			case LOCAL_TIME:
+				getter.addStatement("return $T.ofNanoOfDay(this.buffer.getLong($L))", LocalTime.class, at);
+				break;
+			case LOCAL_DATE_TIME:
+				getter.addStatement("return $T.ofEpochSecond(this.buffer.getLong($L), this.buffer.getInt($L + 8), $T.UTC)",
+						LocalDateTime.class, at, at, ZoneOffset.class);
+				break;
+			case INSTANT:
+				getter.addStatement("return $T.ofEpochSecond(this.buffer.getLong($L), this.buffer.getInt($L + 8))",
+						Instant.class, at, at);
+				break;
+			case UUID:
+				getter.addStatement("return new $T(this.buffer.getLong($L), this.buffer.getLong($L + 8))", UUID.class, at, at);
+				break;
+			default:
+				getter.addStatement("return this.buffer.$L($L)", slot.kind.bufferMethod("get"), at);
+		}
+		return getter.build();
+	}
+
+	private MethodSpec createSetter(final Slot slot) {
+		MethodSpec.Builder setter = MethodSpec.methodBuilder(generateSetterName(annotationInfo, slot.name))
+				.addModifiers(Modifier.PUBLIC).addParameter(slot.type, slot.name);
+		if (slot.nullable) {
+			setter.beginControlFlow("if ($L == null)", slot.name)
+				  .addStatement("$T.setPresent(this.buffer, this.offset, $L, false)", OffHeap.class, slot.bit)
+				  .nextControlFlow("else");
+		}
+		String at = "this.offset + " + slot.constant("OFFSET");
+		switch (slot.kind) {
+			case BOOLEAN:
+				setter.addStatement("this.buffer.put($L, (byte) ($L ? 1 : 0))", at, slot.name);
+				break;
+			case ENUM:
+				setter.addStatement("this.buffer.putInt($L, $L.ordinal())", at, slot.name);
+				break;
+			case STRING:
+				setter.addStatement("$T.putString(this.buffer, $L, $L, $L)", OffHeap.class, at, slot.constant("LENGTH"), slot.name);
+				break;
+			case LOCAL_DATE:
+				setter.addStatement("this.buffer.putLong($L, $L.toEpochDay())", at, slot.name);
+				break;
+			case LOCAL_TIME:
+				setter.addStatement("this.buffer.putLong($L, $L.toNanoOfDay())", at, slot.name);
+				break;
+			case LOCAL_DATE_TIME:
+				setter.addStatement("this.buffer.putLong($L, $L.toEpochSecond($T.UTC))", at, slot.name, ZoneOffset.class)
+					  .addStatement("this.buffer.putInt($L + 8, $L.getNano())", at, slot.name);
+				break;
+			case INSTANT:
+				setter.addStatement("this.buffer.putLong($L, $L.getEpochSecond())", at, slot.name)
+					  .addStatement("this.buffer.putInt($L + 8, $L.getNano())", at, slot.name);
+				break;
+			case UUID:
+				setter.addStatement("this.buffer.putLong($L, $L.getMostSignificantBits())", at, slot.name)
+					  .addStatement("this.buffer.putLong($L + 8, $L.getLeastSignificantBits())", at, slot.name);
+				break;
+			default:
+				setter.addStatement("this.buffer.$L($L, $L)", slot.kind.bufferMethod("put"), at, slot.name);
+		}
+		if (slot.nullable) {
+			setter.addStatement("$T.setPresent(this.buffer, this.offset, $L, true)", OffHeap.class, slot.bit)
+				  .endControlFlow();
+		}
+		if (annotationInfo.chainedSetters()) {
+			setter.addStatement("return this").returns(generatedClass);
+		}
+		return setter.build();
+	}
+
+	/**
+	 * <i>copyFrom(source)</i> writes all fields of the source into the current record
+	 */
+	private MethodSpec createCopyFrom(final ClassName sourceClass, final List<Slot> slots, boolean reflective) {
+		MethodSpec.Builder copyFrom = MethodSpec.methodBuilder("copyFrom").addModifiers(Modifier.PUBLIC)
+				.addParameter(sourceClass, "source").returns(generatedClass).addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("write all fields of the given {@code $T} into the current record.\n", sourceClass)
+						.add("@param source - the object to copy\n")
+						.add("@return this flyweight\n").build());
+		for (Slot slot : slots) {
+			String setter = generateSetterName(annotationInfo, slot.name);
+			if (slot.sourceGetter != null) {
+				copyFrom.addStatement("$L(source.$L())", setter, slot.sourceGetter);
+			} else {
+				copyFrom.addStatement("$L(($T) $T.invokeGetterMethod(source, $L))", setter, slot.type,
+						ReflectionUtil.class, slot.constant("FIELD"));
+			}
+		}
+		return copyFrom.addStatement("return this").build();
+	}
+
+	/**
+	 * static <i>of(source)</i> copies the source into a record in a buffer of its own
+	 */
+	private MethodSpec createOf(final ClassName sourceClass, boolean reflective) {
+		ClassName sourceName = ClassName.get(annotationInfo.element());
+		String parameterName = "incoming" + sourceName.simpleName();
+		MethodSpec.Builder of = MethodSpec.methodBuilder("of").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(sourceClass, parameterName).returns(generatedClass).addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("Creates a record in a direct buffer of its own, use {@code $LStore}\n", generatedClass.simpleName())
+						.add("to store many records.\n")
+						.add("@param $L - the object to copy\n", parameterName)
+						.add("@return flyweight positioned on the new record or {@code null} if {@code $L} is null\n", parameterName).build())
+				.addStatement("if ($L == null) return null", parameterName);
+		beginMeasurement(of);
+		of.addStatement("$T newMappedObject = new $T().wrap($T.allocate(RECORD_SIZE), 0).copyFrom($L)",
+				generatedClass, generatedClass, OffHeap.class, parameterName);
+		endMeasurement(of, sourceClass, generatedClass, "of", "newMappedObject", "newMappedObject");
+		return of.build();
+	}
+
+	/**
+	 * <i>to(target)</i> writes the current record into the target
+	 */
+	private MethodSpec createToWithArgument(final ClassName sourceClass, final List<Slot> slots, boolean reflective) {
+		MethodSpec.Builder to = MethodSpec.methodBuilder("to").addModifiers(Modifier.PUBLIC)
+				.addParameter(sourceClass, "target").returns(sourceClass).addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("copy the values of the current record into the given object.\n")
+						.add("@param target - the object to be populated\n")
+						.add("@return the populated object\n").build());
+		beginMeasurement(to);
+		for (Slot slot : slots) {
+			String getter = generateGetterName(annotationInfo, slot.name, slot.type.toString().equals(Boolean.class.getName()));
+			if (slot.sourceSetter != null) {
+				to.addStatement("target.$L($L())", slot.sourceSetter, getter);
+			} else {
+				to.addStatement("$T.invokeSetterMethod(target, $L, $L())", ReflectionUtil.class, slot.constant("FIELD"), getter);
+			}
+		}
+		endMeasurement(to, generatedClass, sourceClass, "to", "target", "this");
+		return to.build();
+	}
+
+	private MethodSpec createToString(final List<Slot> slots) {
+		MethodSpec.Builder toString = MethodSpec.methodBuilder("toString").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(Override.class).returns(String.class)
+				.addJavadoc("All fields of the current record as a comma-separated list.\n")
+				.addStatement("$T stringRep = this.getClass().getName() + \"(\"", String.class);
+		for (int i = 0; i < slots.size(); i++) {
+			Slot slot = slots.get(i);
+			String getter = generateGetterName(annotationInfo, slot.name, slot.type.toString().equals(Boolean.class.getName()));
+			toString.addStatement("stringRep += \"$L=\" + $L()" + (i < slots.size() - 1 ? " + \", \"" : ""), slot.name, getter);
+		}
+		return toString.addStatement("return stringRep + \")\"").build();
+	}
+
+	/**
+	 * generate the store class
+	 */
+	private TypeSpec createStore(final ClassName sourceClass, final ClassName storeClass, boolean reflective, boolean hasTo) {
+		TypeSpec.Builder store = TypeSpec.classBuilder(storeClass).addModifiers(Modifier.PUBLIC)
+				.addJavadoc(CodeBlock.builder()
+						.add(storeClass.canonicalName() + " generated by Kilauea. (@Mapped)\n")
+						.add("from " + sourceClass.canonicalName() + "\n")
+						.add("See https://github.com/CodeWeazle/kilauea\n\n")
+						.add("Growable store of {@code $T} records in one direct {@code ByteBuffer}. Growing replaces\n", generatedClass)
+						.add("the buffer, flyweights positioned before remain on the old buffer. Use {@code ensureCapacity}\n")
+						.add("to grow in advance. Not thread-safe.\n").build())
+				.addField(ByteBuffer.class, "buffer", Modifier.PRIVATE)
+				.addField(TypeName.INT, "size", Modifier.PRIVATE);
+
+		store.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
+				.addJavadoc("Creates a store with an initial capacity of $L records.\n", DEFAULT_STORE_CAPACITY)
+				.addStatement("this($L)", DEFAULT_STORE_CAPACITY).build());
+		store.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
+				.addParameter(TypeName.INT, "initialCapacity")
+				.addJavadoc(CodeBlock.builder().add("Creates a store for the given number of records.\n")
+						.add("@param initialCapacity - number of records before the store has to grow\n").build())
+				.beginControlFlow("if (initialCapacity < 0)")
+				.addStatement("throw new $T($S + initialCapacity)", IllegalArgumentException.class, "negative capacity: ")
+				.endControlFlow()
+				.addStatement("this.buffer = $T.allocate($T.toIntExact((long) Math.max(1, initialCapacity) * $T.RECORD_SIZE))",
+						OffHeap.class, Math.class, generatedClass).build());
+
+		store.addMethod(MethodSpec.methodBuilder("size").addModifiers(Modifier.PUBLIC).returns(TypeName.INT)
+				.addJavadoc("@return number of records in this store\n")
+				.addStatement("return this.size").build());
+		store.addMethod(MethodSpec.methodBuilder("capacity").addModifiers(Modifier.PUBLIC).returns(TypeName.INT)
+				.addJavadoc("@return number of records this store can hold before it grows\n")
+				.addStatement("return this.buffer.capacity() / $T.RECORD_SIZE", generatedClass).build());
+		store.addMethod(MethodSpec.methodBuilder("ensureCapacity").addModifiers(Modifier.PUBLIC)
+				.addParameter(TypeName.INT, "capacity")
+				.addJavadoc(CodeBlock.builder().add("grow the store to hold at least the given number of records.\n")
+						.add("@param capacity - required number of records\n").build())
+				.addStatement("this.buffer = $T.grow(this.buffer, this.size * $T.RECORD_SIZE, (long) capacity * $T.RECORD_SIZE)",
+						OffHeap.class, generatedClass, generatedClass).build());
+		store.addMethod(MethodSpec.methodBuilder("add").addModifiers(Modifier.PUBLIC).returns(generatedClass)
+				.addJavadoc(CodeBlock.builder().add("append a record with all fields null or zero.\n")
+						.add("@return flyweight positioned on the new record\n").build())
+				.addStatement("ensureCapacity(this.size + 1)")
+				.addStatement("int offset = this.size * $T.RECORD_SIZE", generatedClass)
+				.addStatement("$T.clear(this.buffer, offset, $T.RECORD_SIZE)", OffHeap.class, generatedClass)
+				.addStatement("this.size++")
+				.addStatement("return new $T().wrap(this.buffer, offset)", generatedClass).build());
+		store.addMethod(MethodSpec.methodBuilder("of").addModifiers(Modifier.PUBLIC).returns(generatedClass)
+				.addParameter(sourceClass, "source").addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("append a record with the values of the given object.\n")
+						.add("@param source - the object to copy\n")
+						.add("@return flyweight positioned on the new record\n").build())
+				.addStatement("$T.requireNonNull(source, $S)", Objects.class, "source")
+				.addStatement("$T record = add()", generatedClass)
+				.beginControlFlow("try")
+				.addStatement("return record.copyFrom(source)")
+				// a record which could not be written completely is removed again
+				.nextControlFlow("catch ($T failure)", Throwable.class)
+				.addStatement("this.size--")
+				.addStatement("throw failure")
+				.endControlFlow().build());
+		store.addMethod(MethodSpec.methodBuilder("addAll").addModifiers(Modifier.PUBLIC)
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Collection.class), WildcardTypeName.subtypeOf(sourceClass)), "sources")
+				.addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder().add("append a record for each of the given objects.\n")
+						.add("@param sources - the objects to copy\n").build())
+				.addStatement("ensureCapacity(this.size + sources.size())")
+				.beginControlFlow("for ($T source : sources)", sourceClass)
+				.addStatement("of(source)")
+				.endControlFlow().build());
+		store.addMethod(MethodSpec.methodBuilder("get").addModifiers(Modifier.PUBLIC).returns(generatedClass)
+				.addParameter(TypeName.INT, "index")
+				.addJavadoc(CodeBlock.builder().add("@param index - index of the record\n")
+						.add("@return a new flyweight positioned on the record\n").build())
+				.addStatement("return get(index, new $T())", generatedClass).build());
+		store.addMethod(MethodSpec.methodBuilder("get").addModifiers(Modifier.PUBLIC).returns(generatedClass)
+				.addParameter(TypeName.INT, "index").addParameter(generatedClass, "flyweight")
+				.addJavadoc(CodeBlock.builder().add("position the given flyweight on a record, without creating any object.\n")
+						.add("@param index - index of the record\n")
+						.add("@param flyweight - the flyweight to reuse\n")
+						.add("@return the flyweight\n").build())
+				.addStatement("$T.checkIndex(index, this.size)", Objects.class)
+				.addStatement("return flyweight.wrap(this.buffer, index * $T.RECORD_SIZE)", generatedClass).build());
+		if (hasTo) {
+			store.addMethod(MethodSpec.methodBuilder("to").addModifiers(Modifier.PUBLIC).returns(sourceClass)
+					.addParameter(TypeName.INT, "index").addExceptions(exceptions(reflective))
+					.addJavadoc(CodeBlock.builder().add("@param index - index of the record\n")
+							.add("@return a new instance of {@code $T} with the values of the record\n", sourceClass).build())
+					.addStatement("return get(index).to()").build());
+		}
+		store.addMethod(MethodSpec.methodBuilder("forEach").addModifiers(Modifier.PUBLIC)
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.supertypeOf(generatedClass)), "action")
+				.addJavadoc(CodeBlock.builder().add("pass each record to the given action, using one flyweight for all records.\n")
+						.add("@param action - the action, must not keep the flyweight\n").build())
+				.addStatement("$T flyweight = new $T()", generatedClass, generatedClass)
+				.beginControlFlow("for (int index = 0; index < this.size; index++)")
+				.addStatement("action.accept(flyweight.wrap(this.buffer, index * $T.RECORD_SIZE))", generatedClass)
+				.endControlFlow().build());
+		store.addMethod(MethodSpec.methodBuilder("clear").addModifiers(Modifier.PUBLIC)
+				.addJavadoc("remove all records, the capacity remains\n")
+				.addStatement("this.size = 0").build());
+		return store.build();
+	}
+
+	private static List<TypeName> exceptions(boolean reflective) {
+		return reflective ? List.of(TypeName.get(IllegalAccessException.class)) : List.of();
+	}
+
+	/**
+	 * not used, flyweight and store are created by {@code generate()}
+	 */
+	@Override
+	public void createSpecificFieldsAndMethods(ClassName incomingObjectClass, String packageName, String className,
+			ElementInfo annotationInfo, List<FieldSpec> fields, Map<String, MethodSpec> methods) {
+	}
+
+	/**
+	 * mapped by annotation is specific to type of mapper
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return annotation {@code AnnotationSpec} instance of created mapped-by annotation
+	 */
+	public AnnotationSpec createMappedByAnnotation(final ElementInfo annotationInfo) {
+		return AnnotationSpec.builder(OFFHEAPMappedBy.class)
+				.addMember("mappedClass", "$T.class", ClassName.get(annotationInfo.element())).build();
+	}
+
+	/**
+	 * no annotations necessary
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return List of annotations {@code AnnotationSpec} instances or null.
+	 */
+	public List<AnnotationSpec> getAdditionalAnnotationsForClass(final ElementInfo annotationInfo) {
+		return null;
+	}
+
+	/**
+	 * not used, the flyweight has no fields for the values
+	 */
+	@Override
+	public FieldSpec createFieldSpec(final VariableElement field,
+									 final ElementInfo annotationInfo,
+									 final TypeName fieldClass,
+									 boolean fieldIsMapped) {
+		return FieldSpec.builder(fieldClass, field.getSimpleName().toString(), Modifier.PRIVATE).build();
+	}
+
+	/**
+	 * a record holds scalar slots only, collections, maps and arrays are not stored
+	 */
+	@Override
+	protected CodeBlock elementCount(final String instance) {
+		return CodeBlock.of("1L");
+	}
+
+	@Override
+	public Types getTypeUtils() {
+		return procEnv.getTypeUtils();
+	}
+
+	@Override
+	public Elements getElementUtils() {
+		return procEnv.getElementUtils();
+	}
+
+	public boolean fieldIsMapped(final Element field) {
+		return fieldIsAnnotedWith(field, Mapped.class, GeneratorType.OFFHEAP);
+	}
+
+	public boolean typeIsMapped(final TypeElement typeElement) {
+		return typeIsAnnotatedWith(typeElement, Mapped.class, GeneratorType.OFFHEAP);
+	}
+
+	/**
+	 * kind of value stored in a slot, with its size and alignment in bytes
+	 */
+	private enum Kind {
+		BOOLEAN(1, null), BYTE(1, "java.lang.Byte"), SHORT(2, "java.lang.Short"), CHAR(2, "java.lang.Character"),
+		INT(4, "java.lang.Integer"), FLOAT(4, "java.lang.Float"), LONG(8, "java.lang.Long"), DOUBLE(8, "java.lang.Double"),
+		STRING(2, "java.lang.String"), ENUM(4, null), LOCAL_DATE(8, "java.time.LocalDate"),
+		LOCAL_TIME(8, "java.time.LocalTime"), LOCAL_DATE_TIME(8, "java.time.LocalDateTime"),
+		INSTANT(8, "java.time.Instant"), UUID(8, "java.util.UUID");
+
+		private final int alignment;
+		private final String className;
+
+		Kind(int alignment, String className) {
+			this.alignment = alignment;
+			this.className = className;
+		}
+
+		static Kind forClass(final String qualifiedName) {
+			if (Boolean.class.getName().equals(qualifiedName)) {
+				return BOOLEAN;
+			}
+			for (Kind kind : values()) {
+				if (qualifiedName.equals(kind.className)) {
+					return kind;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * name of the {@code ByteBuffer} method for primitive values, e.g. <i>getInt</i>
+		 */
+		String bufferMethod(final String prefix) {
+			return this == BYTE ? prefix : prefix + StringUtil.capitalise(name().toLowerCase());
+		}
+	}
+
+	/**
+	 * one field of the record
+	 */
+	private static final class Slot {
+		private final String name;
+		private final TypeName type;
+		private final Kind kind;
+		private final boolean nullable;
+		/** index in the presence bitmap, -1 for primitives */
+		private int bit = -1;
+		private int offset;
+		/** number of bytes for the UTF-8 encoded value of strings */
+		private int maxBytes;
+		/** accessors of the annotated class, null if reflection is needed */
+		private String sourceGetter;
+		private String sourceSetter;
+
+		private Slot(final VariableElement field, final TypeMirror type, final Kind kind, boolean nullable) {
+			this.name = field.getSimpleName().toString();
+			this.type = TypeName.get(type);
+			this.kind = kind;
+			this.nullable = nullable;
+		}
+
+		private int size() {
+			switch (kind) {
+				case STRING:
+					return Short.BYTES + maxBytes;
+				case LOCAL_DATE_TIME:
+				case INSTANT:
+				case UUID:
+					return 16;
+				default:
+					return kind.alignment;
+			}
+		}
+
+		/**
+		 * name of a constant for this slot, e.g. <i>FIRST_NAME_OFFSET</i>
+		 */
+		private String constant(final String suffix) {
+			return StringUtil.camelToSnake(name).toUpperCase() + "_" + suffix;
+		}
+	}
+}
@@ -119,11 +119,11 @@ public class PlainClassGenerator extends AbstractClassGenerator {
 		String fieldName = field.getSimpleName().toString();
 		if (field.getAnnotation(POJOTransient.class) == null) {
 			
-			TypeMirror type = field.asType();
+			TypeMirror type = annotationInfo.fieldType(field);
 
 			TypeName fieldType = fieldClass;
 			if (fieldIsMapped) {
-				TypeMirror fieldTypeMirror = field.asType();
+				TypeMirror fieldTypeMirror = annotationInfo.fieldType(field);
 				Element fieldElement = typeUtils.asElement(fieldTypeMirror);
 				if (fieldElement instanceof TypeElement) {
 					ClassName fieldClassName = ClassName.get((TypeElement) fieldElement);
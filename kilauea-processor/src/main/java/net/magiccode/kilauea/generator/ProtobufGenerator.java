@@ -0,0 +1,1005 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ProtobufGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+import net.magiccode.kilauea.annotation.PROTOField;
+import net.magiccode.kilauea.runtime.protobuf.ProtoReader;
+import net.magiccode.kilauea.runtime.protobuf.ProtoWriter;
+
+/**
+ * Generates the protobuf codec for {@code @Mapped(protobuf = true)}: <i>writeProto()</i>,
+ * <i>protoSize()</i> and <i>parseProto()</i> in the generated class and the matching schema
+ * <i>XXX.proto</i>.
+ *
+ * Each field is a protobuf field, numbered by {@code @PROTOField} or by its position in the
+ * annotated class. Numbers by position change when fields are reordered, inserted or removed, so
+ * fields without {@code @PROTOField} are reported with a warning. Enums are written by ordinal,
+ * their constants must only be appended. Primitives are written unless they have their default
+ * value, all other types are {@code optional} and written unless they are null. Collections and arrays of primitives
+ * become {@code repeated} fields, packed for numbers, booleans and enums, maps become {@code map}
+ * fields and fields of a {@code @Mapped} type with protobuf become nested messages. Protobuf cannot
+ * represent null elements, keys or values, writing them fails with a {@code MappingException}. The code
+ * accesses the fields directly and uses {@code ProtoWriter} and {@code ProtoReader} for the wire
+ * format. Fields of unsupported types are reported with a warning and not written. The sizes of
+ * nested messages are computed once, before a message is written, and kept in the {@code ProtoWriter}.
+ */
+public class ProtobufGenerator {
+
+	/**
+	 * reserved for the protobuf implementation
+	 */
+	private static final int FIRST_RESERVED_NUMBER = 19000;
+	private static final int LAST_RESERVED_NUMBER = 19999;
+	private static final int MAX_NUMBER = (1 << 29) - 1;
+
+	/**
+	 * types written as {@code string} with {@code toString()}, mapped to the expression parsing them
+	 */
+	private static final Map<String, String> STRING_TYPES = Map.of(
+			"java.math.BigDecimal", "new $T($L)",
+			"java.math.BigInteger", "new $T($L)",
+			"java.util.UUID", "$T.fromString($L)",
+			"java.time.LocalDate", "$T.parse($L)",
+			"java.time.LocalTime", "$T.parse($L)",
+			"java.time.LocalDateTime", "$T.parse($L)",
+			"java.time.OffsetDateTime", "$T.parse($L)",
+			"java.time.ZonedDateTime", "$T.parse($L)",
+			"java.time.Duration", "$T.parse($L)");
+
+	/**
+	 * types allowed as keys of maps
+	 */
+	private static final Set<String> MAP_KEY_TYPES = Set.of("string", "int32", "int64", "uint32", "bool");
+
+	private final AbstractClassGenerator generator;
+	private final ElementInfo annotationInfo;
+	private final Types typeUtils;
+
+	/**
+	 * the serialized fields in declaration order, set by {@link #createMethods}
+	 */
+	private final List<ProtoField> protoFields = new ArrayList<>();
+
+	/**
+	 * names of the static fields caching the values of enums, by enum type
+	 */
+	private final Map<TypeName, String> enumValueFields = new LinkedHashMap<>();
+
+	/**
+	 * counter for unique local variable names within one generated method
+	 */
+	private int variableCount;
+
+	/**
+	 * name of the generated class, set by {@link #createMethods}
+	 */
+	private ClassName mappedClass;
+
+	/**
+	 * @param generator      - the generator of the mapped class
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 */
+	public ProtobufGenerator(final AbstractClassGenerator generator, final ElementInfo annotationInfo) {
+		this.generator = generator;
+		this.annotationInfo = annotationInfo;
+		this.typeUtils = generator.getTypeUtils();
+	}
+
+	/**
+	 * add the codec methods, and the constants they need, to the generated class
+	 *
+	 * @param mappedClass - name of the generated class
+	 * @param fields      - fields of the generated class
+	 * @param methods     - methods of the generated class
+	 */
+	public void createMethods(final ClassName mappedClass, final List<FieldSpec> fields,
+			final Map<String, MethodSpec> methods) {
+		this.mappedClass = mappedClass;
+		Map<String, TypeMirror> sourceTypes = new HashMap<>();
+		Map<String, VariableElement> sourceFields = new HashMap<>();
+		annotationInfo.fields().stream().filter(field -> !generator.isFieldFinalStatic(field)).forEach(field -> {
+			sourceTypes.put(field.getSimpleName().toString(), annotationInfo.fieldType(field));
+			sourceFields.put(field.getSimpleName().toString(), field);
+		});
+		if (annotationInfo.additionalFields() != null) {
+			sourceTypes.putAll(annotationInfo.additionalFields());
+		}
+
+		// numbers follow the position of the field, so unsupported fields keep their number
+		Map<Integer, String> numbers = new HashMap<>();
+		List<String> numberedByPosition = new ArrayList<>();
+		int position = 0;
+		for (FieldSpec field : fields) {
+			if (field.hasModifier(Modifier.STATIC) || field.hasModifier(Modifier.FINAL)
+					|| !sourceTypes.containsKey(field.name)) {
+				continue;
+			}
+			position++;
+			VariableElement sourceField = sourceFields.get(field.name);
+			PROTOField annotation = sourceField != null ? sourceField.getAnnotation(PROTOField.class) : null;
+			int number = annotation != null ? annotation.value() : position;
+			Element element = sourceField != null ? sourceField : annotationInfo.element();
+			if (number < 1 || number > MAX_NUMBER || (number >= FIRST_RESERVED_NUMBER && number <= LAST_RESERVED_NUMBER)) {
+				generator.messager.printMessage(Diagnostic.Kind.ERROR, "Invalid protobuf field number " + number
+						+ " for field " + field.name + ", numbers range from 1 to " + MAX_NUMBER
+						+ " except " + FIRST_RESERVED_NUMBER + " to " + LAST_RESERVED_NUMBER + ".", element);
+				continue;
+			}
+			if (numbers.containsKey(number)) {
+				generator.messager.printMessage(Diagnostic.Kind.ERROR, "Protobuf field number " + number + " of field "
+						+ field.name + " is already used by field " + numbers.get(number) + ".", element);
+				continue;
+			}
+			numbers.put(number, field.name);
+			Codec codec = codecFor(sourceTypes.get(field.name), true);
+			if (codec == null) {
+				generator.messager.printMessage(Diagnostic.Kind.WARNING, "Field " + field.name + " of type " + field.type
+						+ " is not supported by the protobuf codec and will not be written.", annotationInfo.element());
+			} else {
+				protoFields.add(new ProtoField(field.name, number, codec));
+				if (annotation == null && sourceField != null) {
+					numberedByPosition.add(field.name + " = " + number);
+				}
+			}
+		}
+		if (!numberedByPosition.isEmpty()) {
+			generator.messager.printMessage(Diagnostic.Kind.WARNING, "Fields of " + annotationInfo.element()
+					+ " without @PROTOField are numbered by their position (" + String.join(", ", numberedByPosition)
+					+ "). Reordering, inserting or removing fields changes these numbers and breaks messages written"
+					+ " before, set them with @PROTOField.", annotationInfo.element());
+		}
+
+		createWriteProto(mappedClass, methods);
+		createProtoSize(methods, false);
+		createProtoSize(methods, true);
+		if (!annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT)) {
+			createParseProto(mappedClass, methods);
+		}
+		enumValueFields.forEach((enumType, fieldName) -> fields.add(
+				FieldSpec.builder(ArrayTypeName.of(enumType), fieldName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						 .initializer("$T.values()", enumType).build()));
+	}
+
+	/**
+	 * generate <i>writeProto(OutputStream)</i>, <i>writeProto(ProtoWriter)</i> and
+	 * <i>writeProtoFields(ProtoWriter)</i>
+	 */
+	private void createWriteProto(final ClassName mappedClass, final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder writeProto = MethodSpec.methodBuilder("writeProto").addModifiers(Modifier.PUBLIC)
+				.addParameter(OutputStream.class, "out").returns(OutputStream.class).addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes this instance as protobuf message, see the schema $L.proto.\n", mappedClass.simpleName())
+						.add("@param out - the target, which is flushed but not closed\n")
+						.add("@return the target\n")
+						.add("@throws IOException if the target cannot be written\n").build());
+		generator.beginMeasurement(writeProto);
+		writeProto.addStatement("$T writer = new $T(out)", ProtoWriter.class, ProtoWriter.class)
+				  .addStatement("writeProto(writer)")
+				  .addStatement("writer.flush()");
+		generator.endMeasurement(writeProto, mappedClass, ClassName.get(OutputStream.class), "writeProto", "out", "this");
+		methods.put("writeProto", writeProto.build());
+
+		variableCount = 0;
+		CodeBlock.Builder code = CodeBlock.builder();
+		for (ProtoField field : protoFields) {
+			String value = "this." + field.name;
+			switch (field.codec.kind) {
+				case REPEATED:
+					writeRepeated(code, field, value);
+					break;
+				case MAP:
+					writeMap(code, field, value);
+					break;
+				default:
+					code.beginControlFlow("if ($L)", isPresent(field.codec, value));
+					writeTag(code, field.number, field.codec.wireType);
+					write(code, field.codec, value);
+					code.endControlFlow();
+			}
+		}
+		methods.put("writeProto(ProtoWriter)", MethodSpec.methodBuilder("writeProto").addModifiers(Modifier.PUBLIC)
+				.addParameter(ProtoWriter.class, "writer").addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes the fields of this instance, as this message or as nested message of a message\n")
+						.add("written by hand. The sizes of all nested messages are computed once, before anything is written.\n")
+						.add("@param writer - the target\n")
+						.add("@throws IOException if the target cannot be written\n").build())
+				.addStatement("writer.clearSizes()")
+				.addStatement("protoSize(writer)")
+				.addStatement("writeProtoFields(writer)").build());
+		methods.put("writeProtoFields", MethodSpec.methodBuilder("writeProtoFields").addModifiers(Modifier.PUBLIC)
+				.addParameter(ProtoWriter.class, "writer").addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Writes the fields of this instance as nested message, the sizes of its nested messages are\n")
+						.add("taken from the writer, where {@code protoSize(ProtoWriter)} of the outermost message recorded them.\n")
+						.add("@param writer - the target\n")
+						.add("@throws IOException if the target cannot be written\n").build())
+				.addCode(code.build()).build());
+	}
+
+	private void writeRepeated(final CodeBlock.Builder code, final ProtoField field, final String value) {
+		Codec element = field.codec.element;
+		String item = "e" + variableCount++;
+		code.beginControlFlow("if ($L)", isNotEmpty(field.codec, value));
+		if (element.packable) {
+			// the elements are checked while the length is computed, before anything is written
+			String length = "length" + variableCount++;
+			addPackedLength(code, field, value, item, length);
+			writeTag(code, field.number, ProtoWriter.LEN);
+			code.addStatement("writer.writeUInt32($L)", length)
+				.beginControlFlow("for ($T $L : $L)", element.type, item, value);
+			write(code, element, item);
+			code.endControlFlow();
+		} else {
+			code.beginControlFlow("for ($T $L : $L)", element.type, item, value);
+			requireElement(code, field, element, item);
+			writeTag(code, field.number, element.wireType);
+			write(code, element, item);
+			code.endControlFlow();
+		}
+		code.endControlFlow();
+	}
+
+	private void writeMap(final CodeBlock.Builder code, final ProtoField field, final String value) {
+		Codec key = field.codec.key;
+		Codec element = field.codec.element;
+		String entry = "e" + variableCount++;
+		String length = "length" + variableCount++;
+		code.beginControlFlow("if ($L != null)", value)
+			.beginControlFlow("for ($T.Entry<$T, $T> $L : $L.entrySet())", Map.class, key.type, element.type, entry, value);
+		requireElement(code, field, key, entry + ".getKey()");
+		requireElement(code, field, element, entry + ".getValue()");
+		code.addStatement("int $L = 2", length);
+		addSize(code, key, entry + ".getKey()", length, false);
+		// the size of a message value is needed for the entry and in front of the value
+		String size = null;
+		if (element.kind == Kind.MESSAGE) {
+			size = "size" + variableCount++;
+			code.addStatement("int $L = writer.nextSize()", size)
+				.addStatement("$L += $T.sizeOfLength($L)", length, ProtoWriter.class, size);
+		} else {
+			addSize(code, element, entry + ".getValue()", length, false);
+		}
+		writeTag(code, field.number, ProtoWriter.LEN);
+		code.addStatement("writer.writeUInt32($L)", length);
+		writeTag(code, 1, key.wireType);
+		write(code, key, entry + ".getKey()");
+		writeTag(code, 2, element.wireType);
+		if (size != null) {
+			writeMessage(code, entry + ".getValue()", size);
+		} else {
+			write(code, element, entry + ".getValue()");
+		}
+		code.endControlFlow().endControlFlow();
+	}
+
+	/**
+	 * statements declaring the variable <i>length</i> with the number of bytes of the packed elements
+	 */
+	private void addPackedLength(final CodeBlock.Builder code, final ProtoField field, final String value,
+			final String item, final String length) {
+		Codec element = field.codec.element;
+		if (field.codec.array && element.fixedSize > 0) {
+			code.addStatement("int $L = $L.length * $L", length, value, element.fixedSize);
+			return;
+		}
+		code.addStatement("int $L = 0", length)
+			.beginControlFlow("for ($T $L : $L)", element.type, item, value);
+		requireElement(code, field, element, item);
+		addSize(code, element, item, length, false);
+		code.endControlFlow();
+	}
+
+	/**
+	 * statement failing on a null element, key or value, which protobuf cannot represent
+	 */
+	private void requireElement(final CodeBlock.Builder code, final ProtoField field, final Codec codec,
+			final String value) {
+		if (!codec.type.isPrimitive()) {
+			code.addStatement("$T.requireElement($L, $S)", ProtoWriter.class, value,
+					mappedClass.simpleName() + "." + field.name);
+		}
+	}
+
+	/**
+	 * @return condition under which a repeated field has elements
+	 */
+	private CodeBlock isNotEmpty(final Codec codec, final String value) {
+		return codec.array ? CodeBlock.of("$L != null && $L.length > 0", value, value)
+				: CodeBlock.of("$L != null && !$L.isEmpty()", value, value);
+	}
+
+	private void writeTag(final CodeBlock.Builder code, int number, int wireType) {
+		code.addStatement("writer.writeTag($L, $T.$L)", number, ProtoWriter.class, wireTypeName(wireType));
+	}
+
+	/**
+	 * statements writing a non-null value without tag
+	 */
+	private void write(final CodeBlock.Builder code, final Codec codec, final String value) {
+		if (codec.kind == Kind.MESSAGE) {
+			writeMessage(code, value, "writer.nextSize()");
+		} else if (codec.kind == Kind.STRING) {
+			code.addStatement("writer.writeString($L.toString())", value);
+		} else {
+			code.addStatement("writer.$L($L)", codec.writer, value);
+		}
+	}
+
+	/**
+	 * statements writing a nested message with its size in front
+	 */
+	private void writeMessage(final CodeBlock.Builder code, final String value, final String size) {
+		code.addStatement("writer.writeUInt32($L)", size)
+			.addStatement("$L.writeProtoFields(writer)", value);
+	}
+
+	/**
+	 * generate <i>protoSize()</i> or <i>protoSize(ProtoWriter)</i>, which records the sizes of the
+	 * nested messages as well
+	 */
+	private void createProtoSize(final Map<String, MethodSpec> methods, boolean recording) {
+		variableCount = 0;
+		CodeBlock.Builder code = CodeBlock.builder().addStatement("int size = 0");
+		for (ProtoField field : protoFields) {
+			String value = "this." + field.name;
+			int tagSize = tagSize(field.number);
+			switch (field.codec.kind) {
+				case REPEATED: {
+					Codec element = field.codec.element;
+					String item = "e" + variableCount++;
+					code.beginControlFlow("if ($L)", isNotEmpty(field.codec, value));
+					if (element.packable) {
+						String length = "length" + variableCount++;
+						addPackedLength(code, field, value, item, length);
+						code.addStatement("size += $L + $T.sizeOfLength($L)", tagSize, ProtoWriter.class, length);
+					} else {
+						code.beginControlFlow("for ($T $L : $L)", element.type, item, value);
+						requireElement(code, field, element, item);
+						code.addStatement("size += $L", tagSize);
+						addSize(code, element, item, "size", recording);
+						code.endControlFlow();
+					}
+					code.endControlFlow();
+					break;
+				}
+				case MAP: {
+					String entry = "e" + variableCount++;
+					String length = "length" + variableCount++;
+					code.beginControlFlow("if ($L != null)", value)
+						.beginControlFlow("for ($T.Entry<$T, $T> $L : $L.entrySet())", Map.class, field.codec.key.type,
+								field.codec.element.type, entry, value);
+					requireElement(code, field, field.codec.key, entry + ".getKey()");
+					requireElement(code, field, field.codec.element, entry + ".getValue()");
+					code.addStatement("int $L = 2", length);
+					addSize(code, field.codec.key, entry + ".getKey()", length, recording);
+					addSize(code, field.codec.element, entry + ".getValue()", length, recording);
+					code.addStatement("size += $L + $T.sizeOfLength($L)", tagSize, ProtoWriter.class, length)
+						.endControlFlow().endControlFlow();
+					break;
+				}
+				default:
+					code.beginControlFlow("if ($L)", isPresent(field.codec, value))
+						.addStatement("size += $L", tagSize);
+					addSize(code, field.codec, value, "size", recording);
+					code.endControlFlow();
+			}
+		}
+		code.addStatement("return size");
+		if (recording) {
+			methods.put("protoSize(ProtoWriter)", MethodSpec.methodBuilder("protoSize").addModifiers(Modifier.PUBLIC)
+					.addParameter(ProtoWriter.class, "writer").returns(TypeName.INT)
+					.addJavadoc(CodeBlock.builder()
+							.add("Computes the size like {@code protoSize()} and records the sizes of the nested messages\n")
+							.add("in the writer, in the order {@code writeProtoFields} writes them.\n")
+							.add("@param writer - the writer the message is written with\n")
+							.add("@return the number of bytes {@code writeProto} writes for the current values\n").build())
+					.addCode(code.build()).build());
+		} else {
+			methods.put("protoSize", MethodSpec.methodBuilder("protoSize").addModifiers(Modifier.PUBLIC)
+					.returns(TypeName.INT)
+					.addJavadoc("@return the number of bytes {@code writeProto} writes for the current values\n")
+					.addCode(code.build()).build());
+		}
+	}
+
+	/**
+	 * statement adding the size of a non-null value without tag to the given variable
+	 */
+	private void addSize(final CodeBlock.Builder code, final Codec codec, final String value, final String variable,
+			boolean recording) {
+		switch (codec.kind) {
+			case MESSAGE:
+				if (recording) {
+					// the slot is reserved before the nested message records the sizes of its own
+					code.addStatement("$L += $T.sizeOfLength(writer.recordSize(writer.reserveSize(), $L.protoSize(writer)))",
+							variable, ProtoWriter.class, value);
+				} else {
+					code.addStatement("$L += $T.sizeOfLength($L.protoSize())", variable, ProtoWriter.class, value);
+				}
+				break;
+			case STRING:
+				code.addStatement("$L += $T.sizeOfString($L.toString())", variable, ProtoWriter.class, value);
+				break;
+			default:
+				if (codec.fixedSize > 0) {
+					code.addStatement("$L += $L", variable, codec.fixedSize);
+				} else {
+					code.addStatement("$L += $T.$L($L)", variable, ProtoWriter.class, codec.sizer, value);
+				}
+		}
+	}
+
+	/**
+	 * generate the static <i>parseProto(InputStream)</i> and <i>parseProto(ProtoReader)</i>
+	 */
+	private void createParseProto(final ClassName mappedClass, final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder parseProto = MethodSpec.methodBuilder("parseProto").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(InputStream.class, "in").returns(mappedClass).addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates a new instance of {@code $T} from a protobuf message, see the schema $L.proto.\n",
+								mappedClass, mappedClass.simpleName())
+						.add("Fields with unknown numbers are skipped.\n")
+						.add("@param in - the message, which is read up to its end\n")
+						.add("@return the new instance\n")
+						.add("@throws IOException if the input cannot be read or is malformed\n").build());
+		generator.beginMeasurement(parseProto);
+		parseProto.addStatement("$T dto = parseProto(new $T(in))", mappedClass, ProtoReader.class);
+		generator.endMeasurement(parseProto, ClassName.get(InputStream.class), mappedClass, "parseProto", "dto", "dto");
+		methods.put("parseProto", parseProto.build());
+
+		variableCount = 0;
+		CodeBlock.Builder code = CodeBlock.builder()
+				.addStatement("$T dto = new $T()", mappedClass, mappedClass)
+				.addStatement("int tag")
+				.beginControlFlow("while ((tag = reader.readTag()) != 0)")
+				.beginControlFlow("switch (tag)");
+		for (ProtoField field : protoFields) {
+			String target = "dto." + field.name;
+			switch (field.codec.kind) {
+				case REPEATED: {
+					Codec element = field.codec.element;
+					if (field.codec.array) {
+						readArray(code, field, target);
+						break;
+					}
+					if (element.packable) {
+						String previous = "previous" + variableCount++;
+						code.add("case $L: {\n$>", tag(field.number, ProtoWriter.LEN))
+							.addStatement("long $L = reader.pushLimit(reader.readLength())", previous);
+						createList(code, target);
+						code.beginControlFlow("while (!reader.isAtLimit())")
+							.addStatement("$L.add($L)", target, read(element))
+							.endControlFlow()
+							.addStatement("reader.popLimit($L)", previous)
+							.addStatement("break")
+							.add("$<}\n");
+					}
+					code.add("case $L:\n$>", tag(field.number, element.wireType));
+					createList(code, target);
+					code.addStatement("$L.add($L)", target, read(element))
+						.addStatement("break")
+						.add("$<");
+					break;
+				}
+				case MAP: {
+					Codec key = field.codec.key;
+					Codec element = field.codec.element;
+					String previous = "previous" + variableCount++;
+					String mapKey = "k" + variableCount++;
+					String mapValue = "v" + variableCount++;
+					String entryTag = "t" + variableCount++;
+					code.add("case $L: {\n$>", tag(field.number, ProtoWriter.LEN))
+						.addStatement("long $L = reader.pushLimit(reader.readLength())", previous)
+						.addStatement("$T $L = $L", key.type, mapKey, key.defaultValue)
+						.addStatement("$T $L = $L", element.type, mapValue,
+								element.defaultValue != null ? element.defaultValue : "null")
+						.addStatement("int $L", entryTag)
+						.beginControlFlow("while (($L = reader.readTag()) != 0)", entryTag)
+						.beginControlFlow("if ($L == $L)", entryTag, tag(1, key.wireType))
+						.addStatement("$L = $L", mapKey, read(key))
+						.nextControlFlow("else if ($L == $L)", entryTag, tag(2, element.wireType))
+						.addStatement("$L = $L", mapValue, read(element))
+						.nextControlFlow("else")
+						.addStatement("reader.skipField($L)", entryTag)
+						.endControlFlow()
+						.endControlFlow()
+						.addStatement("reader.popLimit($L)", previous)
+						.beginControlFlow("if ($L == null)", target)
+						.addStatement("$L = new $T<>()", target, LinkedHashMap.class)
+						.endControlFlow()
+						.addStatement("$L.put($L, $L)", target, mapKey, mapValue)
+						.addStatement("break")
+						.add("$<}\n");
+					break;
+				}
+				default:
+					code.add("case $L:\n$>", tag(field.number, field.codec.wireType))
+						.addStatement("$L = $L", target, read(field.codec))
+						.addStatement("break")
+						.add("$<");
+			}
+		}
+		code.add("default:\n$>")
+			.addStatement("reader.skipField(tag)")
+			.add("$<")
+			.endControlFlow()
+			.endControlFlow()
+			.addStatement("return dto");
+		methods.put("parseProto(ProtoReader)", MethodSpec.methodBuilder("parseProto")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(ProtoReader.class, "reader").returns(mappedClass).addException(IOException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("Reads the fields of a message up to the end of the input or of the nested message.\n")
+						.add("@param reader - the source\n")
+						.add("@return the new instance\n")
+						.add("@throws IOException if the input cannot be read or is malformed\n").build())
+				.addCode(code.build()).build());
+	}
+
+	/**
+	 * cases reading a packed or unpacked array of primitives, the elements are appended to
+	 * those read before
+	 */
+	private void readArray(final CodeBlock.Builder code, final ProtoField field, final String target) {
+		Codec element = field.codec.element;
+		String previous = "previous" + variableCount++;
+		String array = "a" + variableCount++;
+		String count = "n" + variableCount++;
+		code.add("case $L: {\n$>", tag(field.number, ProtoWriter.LEN))
+			.addStatement("long $L = reader.pushLimit(reader.readLength())", previous)
+			.addStatement("$T $L = $L == null ? new $T[8] : $T.copyOf($L, $L.length + 8)", field.codec.type, array,
+					target, element.type, Arrays.class, target, target)
+			.addStatement("int $L = $L == null ? 0 : $L.length", count, target, target)
+			.beginControlFlow("while (!reader.isAtLimit())")
+			.beginControlFlow("if ($L == $L.length)", count, array)
+			.addStatement("$L = $T.copyOf($L, $L * 2)", array, Arrays.class, array, count)
+			.endControlFlow()
+			.addStatement("$L[$L++] = $L", array, count, read(element))
+			.endControlFlow()
+			.addStatement("reader.popLimit($L)", previous)
+			.addStatement("$L = $T.copyOf($L, $L)", target, Arrays.class, array, count)
+			.addStatement("break")
+			.add("$<}\n");
+		count = "n" + variableCount++;
+		code.add("case $L: {\n$>", tag(field.number, element.wireType))
+			.addStatement("int $L = $L == null ? 0 : $L.length", count, target, target)
+			.addStatement("$L = $L == null ? new $T[1] : $T.copyOf($L, $L + 1)", target, target, element.type,
+					Arrays.class, target, count)
+			.addStatement("$L[$L] = $L", target, count, read(element))
+			.addStatement("break")
+			.add("$<}\n");
+	}
+
+	private void createList(final CodeBlock.Builder code, final String target) {
+		code.beginControlFlow("if ($L == null)", target)
+			.addStatement("$L = new $T<>()", target, ArrayList.class)
+			.endControlFlow();
+	}
+
+	/**
+	 * @return expression reading a value without tag
+	 */
+	private CodeBlock read(final Codec codec) {
+		switch (codec.kind) {
+			case MESSAGE:
+				return CodeBlock.of("reader.readMessage($T::parseProto)", codec.type);
+			case STRING:
+				return CodeBlock.of(STRING_TYPES.get(codec.type.toString()), codec.type, "reader.readString()");
+			case ENUM:
+				return CodeBlock.of("reader.readEnum($L)", enumValuesField(codec.type));
+			default:
+				return codec.cast != null ? CodeBlock.of("($T) reader.$L()", codec.cast, codec.reader)
+						: CodeBlock.of("reader.$L()", codec.reader);
+		}
+	}
+
+	/**
+	 * @return condition under which a singular field is written
+	 */
+	private CodeBlock isPresent(final Codec codec, final String value) {
+		TypeName type = codec.type;
+		if (!type.isPrimitive()) {
+			return CodeBlock.of("$L != null", value);
+		}
+		if (type.equals(TypeName.BOOLEAN)) {
+			return CodeBlock.of("$L", value);
+		}
+		// -0.0 and NaN differ from the default value as well
+		if (type.equals(TypeName.FLOAT)) {
+			return CodeBlock.of("$T.floatToRawIntBits($L) != 0", Float.class, value);
+		}
+		if (type.equals(TypeName.DOUBLE)) {
+			return CodeBlock.of("$T.doubleToRawLongBits($L) != 0", Double.class, value);
+		}
+		return CodeBlock.of("$L != 0", value);
+	}
+
+	/**
+	 * @param sourceType  - type of the field in the annotated class
+	 * @param allowNested - whether collections and maps are supported
+	 * @return the {@code Codec} for the type or {@code null} if it is not supported
+	 */
+	private Codec codecFor(final TypeMirror sourceType, boolean allowNested) {
+		TypeName typeName = TypeName.get(sourceType);
+		if (sourceType.getKind().isPrimitive()) {
+			return scalar(typeName, typeName.toString());
+		}
+		if (sourceType.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) sourceType).getComponentType();
+			if (componentType.getKind() == TypeKind.BYTE) {
+				return new Codec(Kind.SCALAR, typeName, "bytes", ProtoWriter.LEN).io("writeBytes", "sizeOfBytes", "readBytes");
+			}
+			if (!allowNested || !componentType.getKind().isPrimitive()) {
+				return null;
+			}
+			// arrays of primitives are packed repeated fields
+			Codec element = scalar(TypeName.get(componentType), componentType.toString());
+			return new Codec(Kind.REPEATED, typeName, "repeated " + element.protoType, ProtoWriter.LEN).array(element);
+		}
+		if (sourceType.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement typeElement = (TypeElement) typeUtils.asElement(sourceType);
+		String qualifiedName = typeElement.getQualifiedName().toString();
+		Codec scalar = scalar(typeName, qualifiedName);
+		if (scalar != null) {
+			return scalar;
+		}
+		if (STRING_TYPES.containsKey(qualifiedName)) {
+			return new Codec(Kind.STRING, typeName, "string", ProtoWriter.LEN);
+		}
+		if ("java.time.Instant".equals(qualifiedName)) {
+			return new Codec(Kind.SCALAR, typeName, "google.protobuf.Timestamp", ProtoWriter.LEN)
+					.io("writeTimestamp", "sizeOfTimestamp", "readTimestamp");
+		}
+		if (typeElement.getKind() == ElementKind.ENUM) {
+			Codec codec = new Codec(Kind.ENUM, typeName, typeElement.getSimpleName().toString(), ProtoWriter.VARINT)
+					.io("writeEnum", "sizeOfEnum", null);
+			codec.packable = true;
+			codec.enumElement = typeElement;
+			return codec;
+		}
+		if (generator.typeIsMapped(typeElement)) {
+			ElementInfo mappedInfo = mappedInfo(typeElement);
+			if (mappedInfo == null || !mappedInfo.protobuf() || typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+				return null;
+			}
+			TypeName mappedType = generator.getMappedTypeForClassName(ClassName.get(typeElement));
+			return new Codec(Kind.MESSAGE, mappedType, ((ClassName) mappedType).canonicalName(), ProtoWriter.LEN);
+		}
+		if (!allowNested) {
+			return null;
+		}
+		List<? extends TypeMirror> typeArguments = ((DeclaredType) sourceType).getTypeArguments();
+		TypeMirror erasure = typeUtils.erasure(sourceType);
+		if (typeArguments.size() == 1 && typeUtils.isAssignable(erasure,
+				typeUtils.erasure(generator.getElementUtils().getTypeElement("java.util.Collection").asType()))) {
+			Codec element = codecFor(typeArguments.get(0), false);
+			return element == null ? null
+					: new Codec(Kind.REPEATED, ParameterizedTypeName.get(ClassName.get(List.class), element.type),
+							"repeated " + element.protoType, ProtoWriter.LEN).element(element);
+		}
+		if (typeArguments.size() == 2 && typeUtils.isAssignable(erasure,
+				typeUtils.erasure(generator.getElementUtils().getTypeElement("java.util.Map").asType()))) {
+			Codec key = codecFor(typeArguments.get(0), false);
+			Codec value = codecFor(typeArguments.get(1), false);
+			if (key == null || value == null || !MAP_KEY_TYPES.contains(key.protoType)) {
+				return null;
+			}
+			return new Codec(Kind.MAP, ParameterizedTypeName.get(ClassName.get(Map.class), key.type, value.type),
+					"map<" + key.protoType + ", " + value.protoType + ">", ProtoWriter.LEN).key(key).element(value);
+		}
+		return null;
+	}
+
+	/**
+	 * codecs of primitives, their boxed types and {@code String}
+	 */
+	private Codec scalar(final TypeName typeName, final String name) {
+		switch (name) {
+			case "boolean":
+			case "java.lang.Boolean":
+				return new Codec(Kind.SCALAR, typeName, "bool", ProtoWriter.VARINT).io("writeBool", null, "readBool")
+						.fixed(1).packed().defaultValue("false");
+			case "int":
+			case "java.lang.Integer":
+				return new Codec(Kind.SCALAR, typeName, "int32", ProtoWriter.VARINT).io("writeInt32", "sizeOfInt32", "readInt32")
+						.packed().defaultValue("0");
+			case "short":
+			case "java.lang.Short":
+				return new Codec(Kind.SCALAR, typeName, "int32", ProtoWriter.VARINT).io("writeInt32", "sizeOfInt32", "readInt32")
+						.packed().cast(TypeName.SHORT).defaultValue("(short) 0");
+			case "byte":
+			case "java.lang.Byte":
+				return new Codec(Kind.SCALAR, typeName, "int32", ProtoWriter.VARINT).io("writeInt32", "sizeOfInt32", "readInt32")
+						.packed().cast(TypeName.BYTE).defaultValue("(byte) 0");
+			case "char":
+			case "java.lang.Character":
+				return new Codec(Kind.SCALAR, typeName, "uint32", ProtoWriter.VARINT).io("writeUInt32", "sizeOfUInt32", "readUInt32")
+						.packed().cast(TypeName.CHAR).defaultValue("(char) 0");
+			case "long":
+			case "java.lang.Long":
+				return new Codec(Kind.SCALAR, typeName, "int64", ProtoWriter.VARINT).io("writeInt64", "sizeOfInt64", "readInt64")
+						.packed().defaultValue("0L");
+			case "float":
+			case "java.lang.Float":
+				return new Codec(Kind.SCALAR, typeName, "float", ProtoWriter.I32).io("writeFloat", null, "readFloat")
+						.fixed(4).packed().defaultValue("0f");
+			case "double":
+			case "java.lang.Double":
+				return new Codec(Kind.SCALAR, typeName, "double", ProtoWriter.I64).io("writeDouble", null, "readDouble")
+						.fixed(8).packed().defaultValue("0d");
+			case "java.lang.String":
+				return new Codec(Kind.SCALAR, typeName, "string", ProtoWriter.LEN).io("writeString", "sizeOfString", "readString")
+						.defaultValue("\"\"");
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @return the {@code ElementInfo} of the given type for the generator type of this class
+	 */
+	private ElementInfo mappedInfo(final TypeElement typeElement) {
+		List<ElementInfo> infos = generator.classMap.get(ClassName.get(typeElement));
+		return infos == null ? null
+				: infos.stream().filter(info -> info.type() == annotationInfo.type()).findFirst().orElse(null);
+	}
+
+	private String enumValuesField(final TypeName enumType) {
+		return enumValueFields.computeIfAbsent(enumType,
+				type -> type.toString().replace('.', '_').toUpperCase() + "_VALUES");
+	}
+
+	private static int tag(int number, int wireType) {
+		return (number << 3) | wireType;
+	}
+
+	private static int tagSize(int number) {
+		return ProtoWriter.sizeOfUInt32(tag(number, 0));
+	}
+
+	private static String wireTypeName(int wireType) {
+		switch (wireType) {
+			case ProtoWriter.VARINT:
+				return "VARINT";
+			case ProtoWriter.I64:
+				return "I64";
+			case ProtoWriter.I32:
+				return "I32";
+			default:
+				return "LEN";
+		}
+	}
+
+	/**
+	 * render the schema of the message, to be called after {@link #createMethods}
+	 *
+	 * @param mappedClass - name of the generated class
+	 * @return content of <i>XXX.proto</i>
+	 */
+	public String schema(final ClassName mappedClass) {
+		Set<String> imports = new TreeSet<>();
+		Set<TypeElement> enums = new LinkedHashSet<>();
+		StringBuilder body = new StringBuilder();
+		for (ProtoField field : protoFields) {
+			List<Codec> codecs = new ArrayList<>(List.of(field.codec));
+			if (field.codec.element != null) {
+				codecs.add(field.codec.element);
+			}
+			if (field.codec.key != null) {
+				codecs.add(field.codec.key);
+			}
+			for (Codec codec : codecs) {
+				if (codec.kind == Kind.MESSAGE) {
+					imports.add(((ClassName) codec.type).canonicalName().replace('.', '/') + ".proto");
+				} else if (codec.protoType.equals("google.protobuf.Timestamp")) {
+					imports.add("google/protobuf/timestamp.proto");
+				} else if (codec.kind == Kind.ENUM) {
+					enums.add(codec.enumElement);
+				}
+			}
+			boolean optional = field.codec.kind != Kind.REPEATED && field.codec.kind != Kind.MAP
+					&& field.codec.kind != Kind.MESSAGE && !field.codec.type.isPrimitive();
+			body.append("  ").append(optional ? "optional " : "").append(field.codec.protoType).append(' ')
+				.append(field.name).append(" = ").append(field.number).append(";\n");
+		}
+
+		StringBuilder schema = new StringBuilder()
+				.append("// ").append(mappedClass.canonicalName()).append(" generated by Kilauea. (@Mapped)\n")
+				.append("// from ").append(ClassName.get(annotationInfo.element()).canonicalName()).append("\n")
+				.append("syntax = \"proto3\";\n\n");
+		if (!mappedClass.packageName().isEmpty()) {
+			schema.append("package ").append(mappedClass.packageName()).append(";\n\n");
+		}
+		imports.forEach(file -> schema.append("import \"").append(file).append("\";\n"));
+		if (!imports.isEmpty()) {
+			schema.append('\n');
+		}
+		schema.append("message ").append(mappedClass.simpleName()).append(" {\n");
+		for (TypeElement enumElement : enums) {
+			schema.append("  // numbered by ordinal, new constants must be appended\n")
+				  .append("  enum ").append(enumElement.getSimpleName()).append(" {\n");
+			int ordinal = 0;
+			for (Element constant : enumElement.getEnclosedElements()) {
+				if (constant.getKind() == ElementKind.ENUM_CONSTANT) {
+					schema.append("    ").append(constant.getSimpleName()).append(" = ").append(ordinal++).append(";\n");
+				}
+			}
+			schema.append("  }\n");
+		}
+		return schema.append(body).append("}\n").toString();
+	}
+
+	/**
+	 * kind of value handled by a {@code Codec}
+	 */
+	private enum Kind {
+		/** written by a method of {@code ProtoWriter} */
+		SCALAR,
+		/** written as {@code string} with {@code toString()} */
+		STRING,
+		ENUM,
+		/** nested message of a type mapped with protobuf */
+		MESSAGE,
+		REPEATED,
+		MAP
+	}
+
+	/**
+	 * describes how a value is written, read and measured
+	 */
+	private static final class Codec {
+		private final Kind kind;
+		/** type of the value in the generated class */
+		private final TypeName type;
+		/** type in the schema */
+		private final String protoType;
+		private final int wireType;
+		/** names of the {@code ProtoWriter} and {@code ProtoReader} methods */
+		private String writer;
+		private String sizer;
+		private String reader;
+		/** number of bytes of values of a fixed size, 0 otherwise */
+		private int fixedSize;
+		/** numbers, booleans and enums are packed when repeated */
+		private boolean packable;
+		/** type the value read is cast to */
+		private TypeName cast;
+		/** value of missing map keys and values, null for messages and types without default */
+		private String defaultValue;
+		private TypeElement enumElement;
+		/** element codec of repeated fields, value codec of maps */
+		private Codec element;
+		/** repeated field of an array of primitives */
+		private boolean array;
+		/** key codec of maps */
+		private Codec key;
+
+		private Codec(final Kind kind, final TypeName type, final String protoType, int wireType) {
+			this.kind = kind;
+			this.type = type;
+			this.protoType = protoType;
+			this.wireType = wireType;
+		}
+
+		private Codec io(final String writer, final String sizer, final String reader) {
+			this.writer = writer;
+			this.sizer = sizer;
+			this.reader = reader;
+			return this;
+		}
+
+		private Codec fixed(int fixedSize) {
+			this.fixedSize = fixedSize;
+			return this;
+		}
+
+		private Codec packed() {
+			this.packable = true;
+			return this;
+		}
+
+		private Codec cast(final TypeName cast) {
+			this.cast = cast;
+			return this;
+		}
+
+		private Codec defaultValue(final String defaultValue) {
+			this.defaultValue = defaultValue;
+			return this;
+		}
+
+		private Codec element(final Codec element) {
+			this.element = element.boxed();
+			return this;
+		}
+
+		/**
+		 * elements of arrays keep their primitive type
+		 */
+		private Codec array(final Codec element) {
+			this.element = element;
+			this.array = true;
+			return this;
+		}
+
+		private Codec key(final Codec key) {
+			this.key = key.boxed();
+			return this;
+		}
+
+		/**
+		 * type arguments are never primitive
+		 */
+		private Codec boxed() {
+			if (!type.isPrimitive()) {
+				return this;
+			}
+			Codec boxed = new Codec(kind, type.box(), protoType, wireType).io(writer, sizer, reader);
+			boxed.fixedSize = fixedSize;
+			boxed.packable = packable;
+			boxed.cast = cast;
+			boxed.defaultValue = defaultValue;
+			return boxed;
+		}
+	}
+
+	/**
+	 * a field of the message
+	 */
+	private static final class ProtoField {
+		private final String name;
+		private final int number;
+		private final Codec codec;
+
+		private ProtoField(final String name, int number, final Codec codec) {
+			this.name = name;
+			this.number = number;
+			this.codec = codec;
+		}
+	}
+}
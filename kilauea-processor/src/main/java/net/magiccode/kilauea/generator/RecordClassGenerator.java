@@ -0,0 +1,306 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: RecordClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.VariableElement;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import net.magiccode.kilauea.util.ReflectionUtil;
+
+/**
+ * Generates a record instead of a class for {@code @Mapped(record = true)}.
+ *
+ * The fields of the annotated class become the components of the record, annotated just
+ * like the fields of the generated class. The static <i>of()</i> method reads the annotated
+ * class through its getters and calls the canonical constructor, collections and maps are
+ * stored as unmodifiable copies. There are no setters, instances can be shared freely.
+ * <p>
+ * JavaPoet does not support records, hence the record is generated as a class with the
+ * explicit members only, whose declaration is turned into the record header with the
+ * components when the source is rendered.
+ * <p>
+ * {@link ImmutableClassGenerator} generates immutable classes the same way.
+ */
+public class RecordClassGenerator {
+
+	protected final AbstractClassGenerator generator;
+	protected final ElementInfo annotationInfo;
+
+	/**
+	 * the generated type, for a record as class without fields, rendered by {@link #render(String)}
+	 */
+	protected TypeSpec generatedType;
+
+	/**
+	 * the components in the order of the record header
+	 */
+	private final List<ParameterSpec> recordComponents = new ArrayList<>();
+
+	/**
+	 * @param generator      - the generator of the mapped type, provides the type specific parts
+	 * @param annotationInfo - {@code ElementInfo} instance of the annotated class
+	 */
+	public RecordClassGenerator(final AbstractClassGenerator generator, final ElementInfo annotationInfo) {
+		this.generator = generator;
+		this.annotationInfo = annotationInfo;
+	}
+
+	/**
+	 * generate the record
+	 *
+	 * @param recordClass - name of the record to generate
+	 * @return the record described as class with fields, canonical constructor and accessors
+	 */
+	public TypeSpec generate(final ClassName recordClass) {
+		ClassName sourceClass = ClassName.get(annotationInfo.element());
+		List<Component> components = new ArrayList<>();
+		annotationInfo.fields().stream().filter(field -> !generator.isFieldFinalStatic(field))
+				.forEach(field -> components.add(new Component(field)));
+		List<FieldSpec> additionalFields = new ArrayList<>();
+		generator.createAdditionalFields(annotationInfo, additionalFields);
+		additionalFields.forEach(field -> components.add(new Component(field)));
+
+		DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+		TypeSpec.Builder record = TypeSpec.classBuilder(recordClass).addModifiers(Modifier.PUBLIC)
+				.addJavadoc(CodeBlock.builder()
+						.add(recordClass.canonicalName() + " generated by Kilauea. (@Mapped)\n")
+						.add("from " + sourceClass.canonicalName() + "\n")
+						.add("See https://github.com/CodeWeazle/kilauea\n\n")
+						.add("@created " + LocalDateTime.now().format(pattern) + "\n").build())
+				.addSuperinterface(Serializable.class)
+				.addAnnotation(generator.createMappedByAnnotation(annotationInfo));
+		List<AnnotationSpec> additionalAnnotations = generator.getAdditionalAnnotationsForClass(annotationInfo);
+		if (additionalAnnotations != null) {
+			additionalAnnotations.forEach(record::addAnnotation);
+		}
+		if (annotationInfo.interfaces() != null) {
+			annotationInfo.interfaces().forEach(record::addSuperinterface);
+		}
+
+		List<FieldConversion> constructorArguments = generator.sourceConstructorArguments(annotationInfo);
+		boolean hasTo = constructorArguments != null || annotationInfo.annotatedClassHasPublicConstructor();
+		boolean ofThrows = components.stream().anyMatch(component -> component.conversion != null
+				&& (component.conversion.accessors().getter() == null || component.conversion.kind() == FieldConversion.Kind.MAPPED));
+		boolean toThrows = constructorArguments != null
+				? constructorArguments.stream().anyMatch(argument -> argument.kind() == FieldConversion.Kind.MAPPED)
+				: components.stream().anyMatch(component -> component.conversion != null
+						&& (!component.conversion.hasDirectSetter() || component.conversion.kind() == FieldConversion.Kind.MAPPED));
+		for (Component component : components) {
+			if (component.conversion != null && (component.conversion.accessors().getter() == null
+					|| (hasTo && constructorArguments == null && !component.conversion.hasDirectSetter()))) {
+				record.addField(FieldSpec.builder(Field.class, component.reflectionField(), Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						.initializer("$T.deepGetField($T.class, $S, true)", ReflectionUtil.class, sourceClass, component.name).build());
+			}
+		}
+
+		addComponents(record, recordClass, components);
+		record.addMethod(createOf(recordClass, sourceClass, components, ofThrows));
+		if (hasTo) {
+			record.addMethod(createTo(recordClass, sourceClass, components, constructorArguments, toThrows));
+		}
+		// toJSONString(), toXMLString() etc.
+		List<FieldSpec> specificFields = new ArrayList<>();
+		Map<String, MethodSpec> specificMethods = new HashMap<>();
+		generator.createSpecificFieldsAndMethods(sourceClass, recordClass.packageName(), recordClass.simpleName(),
+				annotationInfo, specificFields, specificMethods);
+		specificFields.stream().filter(field -> field.hasModifier(Modifier.STATIC)).forEach(record::addField);
+		record.addMethods(specificMethods.values());
+		generator.createMapperSingleton(annotationInfo, recordClass.simpleName(), recordClass.packageName(), hasTo,
+				ofThrows, toThrows, record);
+		generatedType = record.build();
+		return describe(components);
+	}
+
+	/**
+	 * add the components to the generated type, for a record they are kept for the record
+	 * header written by {@link #render(String)}
+	 *
+	 * @param type       - builder of the generated type
+	 * @param typeClass  - name of the generated type
+	 * @param components - the components
+	 */
+	protected void addComponents(final TypeSpec.Builder type, final ClassName typeClass,
+			final List<Component> components) {
+		components.forEach(component -> recordComponents.add(ParameterSpec.builder(component.type, component.name)
+				.addAnnotations(component.annotations).build()));
+	}
+
+	/**
+	 * @param components - the components
+	 * @return the generated type with all members, for a record including the implicit ones
+	 */
+	protected TypeSpec describe(final List<Component> components) {
+		TypeSpec.Builder description = generatedType.toBuilder()
+				.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC).addParameters(recordComponents).build());
+		components.forEach(component -> description
+				.addField(FieldSpec.builder(component.type, component.name, Modifier.PRIVATE, Modifier.FINAL).build())
+				.addMethod(MethodSpec.methodBuilder(component.name).addModifiers(Modifier.PUBLIC)
+						.returns(component.type).addStatement("return this.$L", component.name).build()));
+		return description.build();
+	}
+
+	/**
+	 * render the record generated by {@link #generate(ClassName)}. The components are written
+	 * with qualified names, since they are not part of the type rendered by JavaPoet.
+	 *
+	 * @param packageName - package of the record
+	 * @return source code of the record
+	 */
+	public String render(final String packageName) {
+		String source = JavaFile.builder(packageName, generatedType).indent("    ").build().toString();
+		String header = recordComponents.stream().map(ParameterSpec::toString).collect(Collectors.joining(", "));
+		// JavaPoet starts the line of a top level type with its modifiers and kind
+		return Pattern.compile("^public class " + Pattern.quote(generatedType.name) + "\\b", Pattern.MULTILINE)
+				.matcher(source)
+				.replaceFirst(Matcher.quoteReplacement("public record " + generatedType.name + "(" + header + ")"));
+	}
+
+	/**
+	 * static <i>of(source)</i> reading all fields and calling the canonical constructor
+	 */
+	private MethodSpec createOf(final ClassName recordClass, final ClassName sourceClass,
+			final List<Component> components, boolean reflective) {
+		String incomingObjectName = "incoming" + sourceClass.simpleName();
+		MethodSpec.Builder of = MethodSpec.methodBuilder("of").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(sourceClass, incomingObjectName).returns(recordClass)
+				.addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates an instance of {@code $T} from the given instance of {@code $T}.\n\n", recordClass, sourceClass)
+						.add("@param $L - the incoming object of type $L to be mapped.\n", incomingObjectName, sourceClass.simpleName())
+						.add("@return new instance of {@code $T}.\n", recordClass).build())
+				.beginControlFlow("if ($L == null)", incomingObjectName)
+				.addStatement("return null")
+				.endControlFlow();
+		generator.beginMeasurement(of);
+		boolean unchecked = false;
+		List<CodeBlock> arguments = new ArrayList<>();
+		for (Component component : components) {
+			if (component.conversion == null) {
+				arguments.add(CodeBlock.of(component.type.isPrimitive() ? (component.type.equals(TypeName.BOOLEAN) ? "false" : "0") : "null"));
+				continue;
+			}
+			FieldConversion conversion = component.conversion;
+			if (conversion.accessors().getter() != null) {
+				of.addStatement("$T $L = $L.$L()", conversion.sourceType(), component.name, incomingObjectName,
+						conversion.accessors().getter());
+			} else {
+				unchecked |= conversion.sourceType() instanceof ParameterizedTypeName;
+				of.addStatement("$T $L = ($T) $T.invokeGetterMethod($L, $L)", conversion.sourceType(), component.name,
+						conversion.sourceType(), ReflectionUtil.class, incomingObjectName, component.reflectionField());
+			}
+			arguments.add(conversion.toMapped(component.name));
+		}
+		of.addStatement("$T mappedRecord = new $T($L)", recordClass, recordClass, CodeBlock.join(arguments, ", "));
+		generator.endMeasurement(of, sourceClass, recordClass, "of", "mappedRecord", "mappedRecord");
+		if (unchecked) {
+			of.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build());
+		}
+		return of.build();
+	}
+
+	/**
+	 * <i>to()</i> creating an instance of the annotated class with the values of the record,
+	 * by its all-args constructor if there is one, otherwise by its no-args constructor and setters
+	 */
+	private MethodSpec createTo(final ClassName recordClass, final ClassName sourceClass,
+			final List<Component> components, final List<FieldConversion> constructorArguments, boolean reflective) {
+		MethodSpec.Builder to = MethodSpec.methodBuilder("to").addModifiers(Modifier.PUBLIC).returns(sourceClass)
+				.addExceptions(exceptions(reflective))
+				.addJavadoc(CodeBlock.builder()
+						.add("Creates an instance of {@code $T} with the values of this instance.\n\n", sourceClass)
+						.add("@return new instance of {@code $T}.\n", sourceClass).build());
+		generator.beginMeasurement(to);
+		if (constructorArguments != null) {
+			to.addStatement("$T target = new $T($L)", sourceClass, sourceClass, CodeBlock.join(constructorArguments
+					.stream().map(argument -> argument.toSource("this." + argument.name())).collect(Collectors.toList()), ", "));
+			generator.endMeasurement(to, recordClass, sourceClass, "to", "target", "this");
+			return to.build();
+		}
+		to.addStatement("$T target = new $T()", sourceClass, sourceClass);
+		for (Component component : components) {
+			if (component.conversion == null) {
+				continue;
+			}
+			CodeBlock value = component.conversion.toSource("this." + component.name);
+			if (component.conversion.hasDirectSetter()) {
+				to.addStatement("target.$L($L)", component.conversion.accessors().setter(), value);
+			} else {
+				to.addStatement("$T.invokeSetterMethod(target, $L, $L)", ReflectionUtil.class,
+						component.reflectionField(), value);
+			}
+		}
+		generator.endMeasurement(to, recordClass, sourceClass, "to", "target", "this");
+		return to.build();
+	}
+
+	/**
+	 * reflection and the <i>of()</i> and <i>to()</i> of mapped fields throw {@code IllegalAccessException}
+	 */
+	private static List<TypeName> exceptions(boolean reflective) {
+		return reflective ? List.of(TypeName.get(IllegalAccessException.class)) : List.of();
+	}
+
+	/**
+	 * one component of the record
+	 */
+	protected final class Component {
+		final String name;
+		/** type of the component */
+		final TypeName type;
+		final List<AnnotationSpec> annotations;
+		/** null for additional fields, which are not part of the annotated class */
+		final FieldConversion conversion;
+
+		private Component(final FieldSpec additionalField) {
+			this.name = additionalField.name;
+			this.type = additionalField.type;
+			this.annotations = additionalField.annotations;
+			this.conversion = null;
+		}
+
+		private Component(final VariableElement field) {
+			this.conversion = new FieldConversion(generator, annotationInfo, field);
+			this.name = conversion.name();
+			this.type = conversion.type();
+			// annotations as on the fields of the generated class
+			this.annotations = generator.createFieldSpec(field, annotationInfo, type,
+					conversion.kind() == FieldConversion.Kind.MAPPED).annotations;
+		}
+
+		String reflectionField() {
+			return name + "Field";
+		}
+	}
+}
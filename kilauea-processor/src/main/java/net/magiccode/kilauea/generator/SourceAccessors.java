@@ -0,0 +1,78 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: SourceAccessors.java
+ */
+package net.magiccode.kilauea.generator;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import net.magiccode.kilauea.util.StringUtil;
+
+/**
+ * The public getter and setter of a field of the annotated class, if there are any. Generated
+ * code can call them directly, fields without them need {@code ReflectionUtil}.
+ * Accessors are named <i>getX</i>, <i>isX</i> and <i>setX</i> or fluent <i>x</i>.
+ */
+@Getter
+@Accessors(fluent = true)
+public class SourceAccessors {
+
+	/**
+	 * name of the getter, null if there is none
+	 */
+	private String getter;
+
+	/**
+	 * name of the setter, null if there is none
+	 */
+	private String setter;
+
+	/**
+	 * @param elementUtils  - the element utilities
+	 * @param typeUtils     - the type utilities
+	 * @param sourceElement - the annotated class
+	 * @param field         - a field of the annotated class or one of its superclasses
+	 */
+	public SourceAccessors(final Elements elementUtils, final Types typeUtils, final TypeElement sourceElement,
+			final VariableElement field) {
+		String fieldName = field.getSimpleName().toString();
+		String capitalised = StringUtil.capitalise(fieldName);
+		// compare as members of the annotated class, inherited generic fields and accessors are substituted alike
+		DeclaredType sourceType = (DeclaredType) sourceElement.asType();
+		TypeMirror fieldType = typeUtils.asMemberOf(sourceType, field);
+		for (ExecutableElement method : ElementFilter.methodsIn(elementUtils.getAllMembers(sourceElement))) {
+			if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			String methodName = method.getSimpleName().toString();
+			ExecutableType methodType = (ExecutableType) typeUtils.asMemberOf(sourceType, method);
+			if (method.getParameters().isEmpty() && typeUtils.isSameType(methodType.getReturnType(), fieldType)
+					&& (methodName.equals("get" + capitalised) || methodName.equals("is" + capitalised)
+							|| methodName.equals(fieldName))) {
+				getter = methodName;
+			} else if (method.getParameters().size() == 1
+					&& typeUtils.isSameType(methodType.getParameterTypes().get(0), fieldType)
+					&& (methodName.equals("set" + capitalised) || methodName.equals(fieldName))) {
+				setter = methodName;
+			}
+		}
+	}
+}
@@ -0,0 +1,931 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: XMLClassGenerator.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+import net.magiccode.kilauea.annotation.Mapped;
+import net.magiccode.kilauea.annotation.XMLMappedBy;
+import net.magiccode.kilauea.annotation.XMLNamespace;
+import net.magiccode.kilauea.annotation.XMLRequired;
+import net.magiccode.kilauea.annotation.XMLTransient;
+import net.magiccode.kilauea.runtime.xml.XmlStreams;
+import net.magiccode.kilauea.util.StringUtil;
+
+// 
+/**
+ * Generates XML annotated mapping class for a given java class.
+ * 
+ * The generated class provides all the fields of the annotated class as well as methods to 
+ * map between instances of these two classes seamlessly. (to/of methods)
+ */
+public class XMLClassGenerator extends AbstractClassGenerator {
+
+	/**
+	 * types written as text with {@code toString()}, mapped to the expression parsing them
+	 */
+	private static final Map<String, String> XML_TEXT_TYPES = Map.of(
+			"java.math.BigDecimal", "new $T($L)",
+			"java.math.BigInteger", "new $T($L)",
+			"java.util.UUID", "$T.fromString($L)",
+			"java.time.LocalDate", "$T.parse($L)",
+			"java.time.LocalTime", "$T.parse($L)",
+			"java.time.LocalDateTime", "$T.parse($L)",
+			"java.time.OffsetDateTime", "$T.parse($L)",
+			"java.time.ZonedDateTime", "$T.parse($L)",
+			"java.time.Instant", "$T.parse($L)",
+			"java.time.Duration", "$T.parse($L)");
+
+	/**
+	 * types Jackson writes as decimal seconds by default, mapped to the method of {@code XmlStreams}
+	 * which parses them from either form
+	 */
+	private static final Map<String, String> XML_TIMESTAMP_TYPES = Map.of(
+			"java.time.Instant", "parseInstant",
+			"java.time.OffsetDateTime", "parseOffsetDateTime",
+			"java.time.ZonedDateTime", "parseZonedDateTime",
+			"java.time.Duration", "parseDuration");
+
+	/**
+	 * The purpose of this class is to generate XML annotated Java code using the
+	 * JavaPoet framework. See documentation for more details about
+	 * <i>Mapped(type=GeneratorType.XML)</i>
+	 * 
+	 * @param procEnv  - the processing environment
+	 * @param filer    - the filer
+	 * @param messager - used to output messages
+	 * @param annotationInfo - {@code ElementInfo} instance containing information about the {@code @Mapped(type=GeneratorType.XML)} annotation
+	 */
+	public XMLClassGenerator(final ProcessingEnvironment procEnv, 
+							  final Filer filer, 
+							  final Messager messager,
+							  final ElementInfo annotationInfo,
+							  final ClassName annotatedClass,
+							  final Map<ClassName, List<ElementInfo>> input) {
+		super(procEnv, filer, messager, annotationInfo, annotatedClass, input);
+	}
+
+
+	
+	/**
+	 * create XML specific methods
+	 */
+	@Override
+	public
+	void createSpecificFieldsAndMethods(ClassName incomingObjectClass, String packageName, String className,
+			ElementInfo annotationInfo, List<FieldSpec> fields, Map<String, MethodSpec> methods) {
+		createToXMLString(methods);		
+		// records and immutable classes cannot be read field by field, abstract classes are generated as classes
+		boolean isAbstract = annotationInfo.element().getModifiers().contains(Modifier.ABSTRACT);
+		if (isAbstract || !(annotationInfo.record() || annotationInfo.immutable())) {
+			List<XMLStreamField> streamFields = getXMLStreamFields(annotationInfo);
+			createWriteXML(streamFields, methods);
+			if (!isAbstract) {
+				createReadXML(streamFields, methods);
+			}
+		}
+	}
+	
+	/**
+	 * mapped by annotation is specific to type of mapper
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return annotation {@code AnnotationSpec} instance of created mapped-by annotation
+	 */
+	public AnnotationSpec createMappedByAnnotation(final ElementInfo annotationInfo) {
+		return AnnotationSpec.builder(XMLMappedBy.class)
+				.addMember("mappedClass", "$T.class", ClassName.get(annotationInfo.element())).build();
+	}
+	
+	/**
+	 * annotations specifically for the type XML
+	 *
+	 * @param annotationInfo {@code ElementInfo} instance describing the annotation options
+	 * @return List of annotations {@code AnnotationSpec} instances or null.
+	 */
+	
+	public List<AnnotationSpec> getAdditionalAnnotationsForClass(final ElementInfo annotationInfo) {
+		AnnotationSpec.Builder xmlRootAnnotationBuilder = AnnotationSpec.builder(XmlRootElement.class);		
+		xmlRootAnnotationBuilder.addMember("name", "$S", StringUtil.camelToSnake( annotatedClass.simpleName() ) );
+		if (StringUtil.isNotBlank(annotationInfo.xmlns())) {
+			xmlRootAnnotationBuilder.addMember("namespace", "$S" , annotationInfo.xmlns());
+		}
+		
+		List<AnnotationSpec> annotations =
+				List.of(xmlRootAnnotationBuilder.build(),
+							  
+				AnnotationSpec.builder(XmlAccessorType.class)
+							  .addMember("value", "$T.$L", XmlAccessType.class, XmlAccessType.FIELD.name())
+							  .build());
+		return annotations;
+	}
+	
+
+	/**
+	 * generate toString method
+	 * 
+	 * @param methods - Map containing the methods to be created. Key is the name of the method, value a MethodSpec instance
+	 * 		
+	 */
+	private void createToXMLString(final Map<String, MethodSpec> methods) {
+		// create toXMLString method
+		MethodSpec.Builder toStringBuilder = MethodSpec.methodBuilder("toXMLString").addModifiers(Modifier.PUBLIC)
+				.addJavadoc(CodeBlock.builder().add("provides a formatted XML string with all fields\n")
+						.add("and their current values.\n").build());
+		beginMeasurement(toStringBuilder);
+		toStringBuilder.addStatement("$T mapper = new $T()", ObjectMapper.class, XmlMapper.class)
+				.addStatement("mapper.registerModule(new $T())", JaxbAnnotationModule.class)
+				
+				.addStatement("mapper.findAndRegisterModules()");
+		if (annotationInfo.xmlTimeAsText()) {
+			// java.time values as ISO text, like writeXML writes them
+			toStringBuilder.addStatement("mapper.disable($T.WRITE_DATES_AS_TIMESTAMPS)", SerializationFeature.class);
+		}
+		toStringBuilder.addStatement("String value = this.getClass().getName()+\"\\n\"")
+				.beginControlFlow("try")
+				.addStatement("value += mapper.writerWithDefaultPrettyPrinter().writeValueAsString(this)")
+				.endControlFlow().beginControlFlow("catch ($T e)", JsonProcessingException.class)
+				.addStatement("e.printStackTrace()").endControlFlow();
+		endMeasurement(toStringBuilder, generatedClass, ClassName.get(String.class), "toXMLString", "value", "this");
+		toStringBuilder.returns(ClassName.get(String.class));
+		methods.put("toXMLString",  toStringBuilder.build());
+	}
+
+	/**
+	 * generate <i>writeXML(XMLStreamWriter)</i> and <i>writeXMLElement(...)</i>, which write
+	 * attributes and elements in the layout of <i>toXMLString()</i>: collections and arrays
+	 * within an element named like the field, maps with an element per entry named like
+	 * the key and null values as empty elements.
+	 * 
+	 * @param streamFields - the fields to be written
+	 * @param methods      - Map containing the methods to be created. Key is the name of the method, value a MethodSpec instance
+	 */
+	private void createWriteXML(final List<XMLStreamField> streamFields, final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder writeXML = MethodSpec.methodBuilder("writeXML").addModifiers(Modifier.PUBLIC)
+				.addParameter(XMLStreamWriter.class, "writer").returns(XMLStreamWriter.class)
+				.addException(XMLStreamException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("writes this instance as element <i>$L</i>, without starting or ending a document.\n", rootElementName())
+						.add("@param writer - the target\n")
+						.add("@return the target\n")
+						.add("@throws XMLStreamException if the target cannot be written\n").build());
+		beginMeasurement(writeXML);
+		writeXML.addStatement("writeXMLElement(writer, $S, $S)", rootNamespace(), rootElementName());
+		endMeasurement(writeXML, generatedClass, ClassName.get(XMLStreamWriter.class), "writeXML", "writer", "this");
+		methods.put("writeXML", writeXML.build());
+
+		CodeBlock.Builder code = CodeBlock.builder()
+				.addStatement("$T.writeStartElement(writer, namespace, localName)", XmlStreams.class);
+		streamFields.stream().filter(field -> field.attribute).forEach(field -> {
+			String value = "this." + field.name;
+			if (!field.type.getKind().isPrimitive()) {
+				code.beginControlFlow("if ($L != null)", value);
+			}
+			code.addStatement("$T.writeAttribute(writer, $S, $S, $L)", XmlStreams.class, field.namespace, field.xmlName,
+					xmlText(field.type, value));
+			if (!field.type.getKind().isPrimitive()) {
+				code.endControlFlow();
+			}
+		});
+		streamFields.stream().filter(field -> !field.attribute).forEach(field -> {
+			String value = "this." + field.name;
+			CodeBlock xmlName = CodeBlock.of("$S", field.xmlName);
+			switch (field.shape) {
+				case COLLECTION:
+				case ARRAY:
+					// null collections are omitted, like Jackson does
+					code.beginControlFlow("if ($L != null)", value)
+						.addStatement("$T.writeStartElement(writer, $S, $S)", XmlStreams.class, field.namespace, field.xmlName)
+						.beginControlFlow("for ($T element : $L)", field.elementTypeName, value);
+					writeXMLValueStatement(code, field.namespace, xmlName, field.elementType, "element");
+					code.endControlFlow()
+						.addStatement("writer.writeEndElement()")
+						.endControlFlow();
+					break;
+				case MAP:
+					code.beginControlFlow("if ($L == null)", value)
+						.addStatement("$T.writeEmptyElement(writer, $S, $S)", XmlStreams.class, field.namespace, field.xmlName)
+						.nextControlFlow("else")
+						.addStatement("$T.writeStartElement(writer, $S, $S)", XmlStreams.class, field.namespace, field.xmlName)
+						.beginControlFlow("for ($T entry : $L.entrySet())", ParameterizedTypeName.get(ClassName.get(Map.Entry.class),
+								TypeName.get(field.keyType), field.elementTypeName), value)
+						.beginControlFlow("if (entry.getKey() == null)")
+						.addStatement("throw new $T($S)", XMLStreamException.class, "Field " + generatedClass.simpleName() + "." + field.name
+								+ " contains a null key, which cannot be written as XML")
+						.endControlFlow();
+					writeXMLValueStatement(code, field.namespace, xmlText(field.keyType, "entry.getKey()"), field.elementType,
+							"entry.getValue()");
+					code.endControlFlow()
+						.addStatement("writer.writeEndElement()")
+						.endControlFlow();
+					break;
+				default:
+					writeXMLValueStatement(code, field.namespace, xmlName, field.type, value);
+			}
+		});
+		code.addStatement("writer.writeEndElement()");
+		methods.put("writeXMLElement", MethodSpec.methodBuilder("writeXMLElement").addModifiers(Modifier.PUBLIC)
+				.addParameter(XMLStreamWriter.class, "writer")
+				.addParameter(String.class, "namespace")
+				.addParameter(String.class, "localName")
+				.addException(XMLStreamException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("writes this instance as element with the given name, used for this class and\n")
+						.add("for fields of this type in other classes.\n")
+						.add("@param writer    - the target\n")
+						.add("@param namespace - namespace URI of the element, empty for none\n")
+						.add("@param localName - name of the element\n")
+						.add("@throws XMLStreamException if the target cannot be written\n").build())
+				.addCode(code.build()).build());
+	}
+
+	/**
+	 * write a value as element, null as empty element
+	 * 
+	 * @param code      - the code to add the statements to
+	 * @param namespace - namespace of the element
+	 * @param xmlName   - expression of the name of the element
+	 * @param type      - type of the value
+	 * @param value     - expression of the value
+	 */
+	private void writeXMLValueStatement(final CodeBlock.Builder code, final String namespace, final CodeBlock xmlName,
+			final TypeMirror type, final String value) {
+		if (!type.getKind().isPrimitive()) {
+			code.beginControlFlow("if ($L == null)", value)
+				.addStatement("$T.writeEmptyElement(writer, $S, $L)", XmlStreams.class, namespace, xmlName)
+				.nextControlFlow("else");
+		}
+		if (isXMLStreamMapped(type)) {
+			code.addStatement("$L.writeXMLElement(writer, $S, $L)", value, namespace, xmlName);
+		} else {
+			code.addStatement("$T.writeElement(writer, $S, $L, $L)", XmlStreams.class, namespace, xmlName,
+					xmlText(type, value));
+		}
+		if (!type.getKind().isPrimitive()) {
+			code.endControlFlow();
+		}
+	}
+
+	/**
+	 * generate the static <i>readXML(XMLStreamReader)</i> and <i>readXMLElement(XMLStreamReader)</i>,
+	 * which read attributes and elements by their local names, in the layout written by
+	 * <i>writeXML(...)</i>. The output of <i>toXMLString()</i> is read as long as it has no 
+	 * <i>LocalDate</i>, <i>LocalTime</i> or <i>LocalDateTime</i> values, which Jackson writes as 
+	 * one element per number unless the class sets <i>xmlTimeAsText</i>.
+	 * 
+	 * @param streamFields - the fields to be read
+	 * @param methods      - Map containing the methods to be created. Key is the name of the method, value a MethodSpec instance
+	 */
+	private void createReadXML(final List<XMLStreamField> streamFields, final Map<String, MethodSpec> methods) {
+		MethodSpec.Builder readXML = MethodSpec.methodBuilder("readXML").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(XMLStreamReader.class, "reader").returns(generatedClass)
+				.addException(XMLStreamException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("reads an element <i>$L</i>, starting at the current or next start element.\n", rootElementName())
+						.add("Afterwards the reader is positioned at the end of the element.\n")
+						.add("@param reader - the source\n")
+						.add("@return a new instance of {@code $T}\n", generatedClass)
+						.add("@throws XMLStreamException if the input cannot be read, is no element <i>$L</i>\n", rootElementName())
+						.add("                             or contains invalid values\n").build());
+		beginMeasurement(readXML);
+		readXML.addStatement("$T.requireStartElement(reader, $S)", XmlStreams.class, rootElementName())
+			   .addStatement("$T dto = readXMLElement(reader)", generatedClass)
+			   .beginControlFlow("if (dto == null)")
+			   .addStatement("dto = new $T()", generatedClass)
+			   .endControlFlow();
+		endMeasurement(readXML, ClassName.get(XMLStreamReader.class), generatedClass, "readXML", "dto", "dto");
+		methods.put("readXML", readXML.build());
+
+		CodeBlock.Builder code = CodeBlock.builder()
+				.addStatement("$T dto = new $T()", generatedClass, generatedClass)
+				.addStatement("boolean empty = reader.getAttributeCount() == 0")
+				.beginControlFlow("try");
+		if (streamFields.stream().anyMatch(field -> field.attribute)) {
+			code.beginControlFlow("for (int i = 0; i < reader.getAttributeCount(); i++)")
+				.beginControlFlow("switch (reader.getAttributeLocalName(i))");
+			streamFields.stream().filter(field -> field.attribute).forEach(field -> 
+				code.add("case $S:\n$>", field.xmlName)
+					.addStatement("dto.$L = $L", field.name, xmlValue(field.type, "reader.getAttributeValue(i)"))
+					.addStatement("break")
+					.add("$<"));
+			code.endControlFlow().endControlFlow();
+		}
+		code.beginControlFlow("while (reader.nextTag() == $T.START_ELEMENT)", XMLStreamConstants.class)
+			.addStatement("empty = false")
+			.beginControlFlow("switch (reader.getLocalName())");
+		streamFields.stream().filter(field -> !field.attribute).forEach(field -> {
+			switch (field.shape) {
+				case COLLECTION:
+					code.add("case $S:\n$>", field.xmlName)
+						.addStatement("dto.$L = new $T<>()", field.name, ArrayList.class)
+						.beginControlFlow("while (reader.nextTag() == $T.START_ELEMENT)", XMLStreamConstants.class)
+						.addStatement("dto.$L.add($L)", field.name, readXMLValue(field.elementType))
+						.endControlFlow();
+					break;
+				case ARRAY:
+					TypeName elementTypeName = field.elementTypeName;
+					code.add("case $S: {\n$>", field.xmlName)
+						.addStatement("$T<$T> elements = new $T<>()", List.class, elementTypeName.box(), ArrayList.class)
+						.beginControlFlow("while (reader.nextTag() == $T.START_ELEMENT)", XMLStreamConstants.class)
+						.addStatement("elements.add($L)", readXMLValue(field.elementType))
+						.endControlFlow();
+					if (elementTypeName.isPrimitive()) {
+						code.addStatement("dto.$L = new $T[elements.size()]", field.name, elementTypeName)
+							.beginControlFlow("for (int index = 0; index < elements.size(); index++)")
+							.addStatement("dto.$L[index] = elements.get(index)", field.name)
+							.endControlFlow();
+					} else {
+						code.addStatement("dto.$L = elements.toArray(new $T[0])", field.name, elementTypeName);
+					}
+					break;
+				case MAP:
+					// entries are named like their keys, the key is taken before the value moves the reader
+					code.add("case $S:\n$>", field.xmlName)
+						.addStatement("dto.$L = new $T<>()", field.name, LinkedHashMap.class)
+						.beginControlFlow("while (reader.nextTag() == $T.START_ELEMENT)", XMLStreamConstants.class)
+						.addStatement("dto.$L.put($L, $L)", field.name, xmlValue(field.keyType, "reader.getLocalName()"),
+								readXMLValue(field.elementType))
+						.endControlFlow();
+					break;
+				default:
+					code.add("case $S:\n$>", field.xmlName)
+						.addStatement("dto.$L = $L", field.name, readXMLValue(field.type));
+			}
+			code.addStatement("break")
+				.add(field.shape == XMLStreamShape.ARRAY ? "$<}\n" : "$<");
+		});
+		code.add("default:\n$>")
+			.addStatement("$T.skipElement(reader)", XmlStreams.class)
+			.add("$<")
+			.endControlFlow()
+			.endControlFlow()
+			.nextControlFlow("catch ($T | $T e)", IllegalArgumentException.class, DateTimeException.class)
+			.addStatement("throw new $T(\"Invalid value in <\" + reader.getLocalName() + \">: \" + e.getMessage(), reader.getLocation(), e)",
+					XMLStreamException.class)
+			.endControlFlow()
+			.addStatement("return empty ? null : dto");
+		methods.put("readXMLElement", MethodSpec.methodBuilder("readXMLElement").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(XMLStreamReader.class, "reader").returns(generatedClass)
+				.addException(XMLStreamException.class)
+				.addJavadoc(CodeBlock.builder()
+						.add("reads the attributes and content of the current element, used for this class and\n")
+						.add("for fields of this type in other classes. Unknown elements are skipped.\n")
+						.add("@param reader - the source, positioned at a start element, afterwards at its end\n")
+						.add("@return a new instance of {@code $T} or null if the element has neither attributes nor content\n", generatedClass)
+						.add("@throws XMLStreamException if the input cannot be read or contains invalid values\n").build())
+				.addCode(code.build()).build());
+	}
+
+	/**
+	 * @param type - type of the value
+	 * @return expression reading the current element as value of the given type, null if
+	 *         it is empty and the type is not primitive
+	 */
+	private CodeBlock readXMLValue(final TypeMirror type) {
+		if (isXMLStreamMapped(type)) {
+			return CodeBlock.of("$T.readXMLElement(reader)",
+					getMappedTypeForClassName(ClassName.get((TypeElement) typeUtils.asElement(type))));
+		}
+		if (type.getKind().isPrimitive()) {
+			return xmlValue(type, "reader.getElementText()");
+		}
+		return CodeBlock.of("$T.readElement(reader, text -> $L)", XmlStreams.class, xmlValue(type, "text"));
+	}
+
+	/**
+	 * collect the fields which are read and written by <i>writeXML</i> and <i>readXML</i>, with the
+	 * same names, namespaces and choice between attribute and element as the XML annotations
+	 * of the generated fields. Fields of unsupported types are reported with a warning.
+	 * 
+	 * @param annotationInfo - information about the arguments of the <i>@Mapped</i> annotation
+	 * @return the fields, in declaration order
+	 */
+	private List<XMLStreamField> getXMLStreamFields(final ElementInfo annotationInfo) {
+		List<XMLStreamField> streamFields = new ArrayList<>();
+		annotationInfo.fields().stream().filter(field -> !isFieldFinalStatic(field))
+				.filter(field -> field.getAnnotation(XMLTransient.class) == null && field.getAnnotation(XmlTransient.class) == null)
+				.forEach(field -> {
+					String namespace = getNamespaceForField(field, annotationInfo, fieldIsMapped(field));
+					addXMLStreamField(streamFields, field.getSimpleName().toString(), annotationInfo.fieldType(field),
+							StringUtil.isBlank(namespace) ? "" : namespace);
+				});
+		annotationInfo.additionalFields().forEach((name, type) -> {
+			if (streamFields.stream().noneMatch(field -> field.name.equals(name))) {
+				addXMLStreamField(streamFields, name, type, "");
+			}
+		});
+		return streamFields;
+	}
+
+	private void addXMLStreamField(final List<XMLStreamField> streamFields, final String name, final TypeMirror type,
+			final String namespace) {
+		boolean attribute = isXMLAttribute(TypeName.get(type), type);
+		XMLStreamField streamField = new XMLStreamField(name, StringUtil.camelToSnake(name), namespace, attribute, type);
+		boolean supported;
+		TypeMirror elementType;
+		List<? extends TypeMirror> mapTypes;
+		if (attribute) {
+			supported = xmlText(type, name) != null;
+		} else if (xmlText(type, name) != null || isXMLStreamMapped(type)) {
+			supported = true;
+		} else if (type.getKind() == TypeKind.ARRAY) {
+			// arrays of mapped classes keep the source type in the generated class
+			elementType = ((ArrayType) type).getComponentType();
+			supported = xmlText(elementType, name) != null;
+			streamField.setElements(XMLStreamShape.ARRAY, elementType, TypeName.get(elementType));
+		} else if ((elementType = getCollectionElementType(type)) != null) {
+			supported = isXMLValue(elementType);
+			streamField.setElements(XMLStreamShape.COLLECTION, elementType, xmlTypeName(elementType));
+		} else if ((mapTypes = getMapTypes(type)) != null) {
+			// keys are element names, which excludes numbers and most other types
+			TypeMirror keyType = mapTypes.get(0);
+			elementType = mapTypes.get(1);
+			supported = (TypeName.get(keyType).equals(ClassName.get(String.class))
+					|| typeUtils.asElement(keyType).getKind() == ElementKind.ENUM) && isXMLValue(elementType);
+			streamField.setElements(XMLStreamShape.MAP, elementType, xmlTypeName(elementType));
+			streamField.keyType = keyType;
+		} else {
+			supported = false;
+		}
+		if (supported) {
+			streamFields.add(streamField);
+		} else {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Field " + name + " of type " + type
+					+ " is not supported by writeXML and readXML and will not be written.", annotationInfo.element());
+		}
+	}
+
+	/**
+	 * @param type - type of a value
+	 * @return true if the value can be written as element by <i>writeXML</i>
+	 */
+	private boolean isXMLValue(final TypeMirror type) {
+		return xmlText(type, "") != null || isXMLStreamMapped(type);
+	}
+
+	/**
+	 * @param type - type of a value
+	 * @return the type in the generated class, the generated XML class for mapped types
+	 */
+	private TypeName xmlTypeName(final TypeMirror type) {
+		return isXMLStreamMapped(type)
+				? getMappedTypeForClassName(ClassName.get((TypeElement) typeUtils.asElement(type)))
+				: TypeName.get(type);
+	}
+
+	/**
+	 * @param type - type of a field
+	 * @return the types of keys and values if the type is a map, otherwise null
+	 */
+	private List<? extends TypeMirror> getMapTypes(final TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).getTypeArguments().size() != 2) {
+			return null;
+		}
+		TypeMirror mapType = getElementUtils().getTypeElement("java.util.Map").asType();
+		return getTypeUtils().isAssignable(getTypeUtils().erasure(type), getTypeUtils().erasure(mapType))
+				? ((DeclaredType) type).getTypeArguments()
+				: null;
+	}
+
+	/**
+	 * @param type - type of a field
+	 * @return the type of the elements if the type is a collection, otherwise null
+	 */
+	private TypeMirror getCollectionElementType(final TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).getTypeArguments().size() != 1) {
+			return null;
+		}
+		TypeMirror collectionType = getElementUtils().getTypeElement("java.util.Collection").asType();
+		return getTypeUtils().isAssignable(getTypeUtils().erasure(type), getTypeUtils().erasure(collectionType))
+				? ((DeclaredType) type).getTypeArguments().get(0)
+				: null;
+	}
+
+	/**
+	 * @param type - type of a field
+	 * @return true if the type is mapped to a class generated with <i>writeXMLElement</i> and <i>readXMLElement</i>
+	 */
+	private boolean isXMLStreamMapped(final TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		TypeElement typeElement = (TypeElement) typeUtils.asElement(type);
+		if (!typeIsMapped(typeElement) || typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		List<ElementInfo> infos = classMap.get(ClassName.get(typeElement));
+		return infos != null && infos.stream()
+				.anyMatch(info -> info.type() == GeneratorType.XML && !info.record() && !info.immutable());
+	}
+
+	/**
+	 * @param type  - type of the value
+	 * @param value - expression of the value, not null
+	 * @return expression converting the value to text or null if the type is not supported
+	 */
+	private CodeBlock xmlText(final TypeMirror type, final String value) {
+		if (type.getKind().isPrimitive()) {
+			return CodeBlock.of("$T.valueOf($L)", String.class, value);
+		}
+		if (type.getKind() == TypeKind.ARRAY) {
+			return ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE
+					? CodeBlock.of("$T.getEncoder().encodeToString($L)", Base64.class, value)
+					: null;
+		}
+		if (type.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement typeElement = (TypeElement) typeUtils.asElement(type);
+		String qualifiedName = typeElement.getQualifiedName().toString();
+		if (qualifiedName.equals("java.lang.String")) {
+			return CodeBlock.of("$L", value);
+		}
+		if (qualifiedName.equals("java.math.BigDecimal")) {
+			return CodeBlock.of("$L.toPlainString()", value);
+		}
+		if (typeElement.getKind() == ElementKind.ENUM) {
+			return CodeBlock.of("$L.name()", value);
+		}
+		if (XML_TEXT_TYPES.containsKey(qualifiedName) || isBoxed(type)) {
+			return CodeBlock.of("$L.toString()", value);
+		}
+		return null;
+	}
+
+	/**
+	 * @param type - type of the value, supported by {@link #xmlText(TypeMirror, String)}
+	 * @param text - expression of the text
+	 * @return expression parsing the text
+	 */
+	private CodeBlock xmlValue(final TypeMirror type, final String text) {
+		TypeName typeName = TypeName.get(type);
+		if (typeName.equals(ClassName.get(String.class))) {
+			return CodeBlock.of("$L", text);
+		}
+		if (type.getKind().isPrimitive() || isBoxed(type)) {
+			TypeName primitive = typeName.isPrimitive() ? typeName : typeName.unbox();
+			if (primitive.equals(TypeName.BOOLEAN)) {
+				return CodeBlock.of("$T.parseBoolean($L.strip())", XmlStreams.class, text);
+			}
+			if (primitive.equals(TypeName.CHAR)) {
+				return CodeBlock.of("$T.parseChar($L)", XmlStreams.class, text);
+			}
+			String name = primitive.toString();
+			return CodeBlock.of("$T.parse$L($L.strip())", primitive.box(),
+					Character.toUpperCase(name.charAt(0)) + name.substring(1), text);
+		}
+		if (type.getKind() == TypeKind.ARRAY) {
+			return CodeBlock.of("$T.getMimeDecoder().decode($L)", Base64.class, text);
+		}
+		TypeElement typeElement = (TypeElement) typeUtils.asElement(type);
+		if (typeElement.getKind() == ElementKind.ENUM) {
+			return CodeBlock.of("$T.valueOf($L.strip())", typeName, text);
+		}
+		String qualifiedName = typeElement.getQualifiedName().toString();
+		if (XML_TIMESTAMP_TYPES.containsKey(qualifiedName)) {
+			return CodeBlock.of("$T.$L($L.strip())", XmlStreams.class, XML_TIMESTAMP_TYPES.get(qualifiedName), text);
+		}
+		return CodeBlock.of(XML_TEXT_TYPES.get(qualifiedName), typeName,
+				CodeBlock.of("$L.strip()", text));
+	}
+
+	private boolean isBoxed(final TypeMirror type) {
+		return type.getKind() == TypeKind.DECLARED && TypeName.get(type).isBoxedPrimitive();
+	}
+
+	private String rootElementName() {
+		return StringUtil.camelToSnake(annotatedClass.simpleName());
+	}
+
+	private String rootNamespace() {
+		return StringUtil.isBlank(annotationInfo.xmlns()) ? "" : annotationInfo.xmlns();
+	}
+
+	/**
+	 * how a field is laid out in XML
+	 */
+	private enum XMLStreamShape {
+		/** a single attribute or element */
+		VALUE,
+		/** an element containing an element per value */
+		COLLECTION,
+		/** like a collection */
+		ARRAY,
+		/** an element containing an element per entry, named like the key */
+		MAP
+	}
+
+	/**
+	 * a field read and written by <i>writeXML</i> and <i>readXML</i>
+	 */
+	private static final class XMLStreamField {
+		private final String name;
+		private final String xmlName;
+		private final String namespace;
+		private final boolean attribute;
+		private final TypeMirror type;
+		private XMLStreamShape shape = XMLStreamShape.VALUE;
+		/** type of the elements of collections and arrays or of the values of maps, null for other fields */
+		private TypeMirror elementType;
+		private TypeName elementTypeName;
+		/** type of the keys of maps */
+		private TypeMirror keyType;
+
+		private XMLStreamField(final String name, final String xmlName, final String namespace, boolean attribute,
+				final TypeMirror type) {
+			this.name = name;
+			this.xmlName = xmlName;
+			this.namespace = namespace;
+			this.attribute = attribute;
+			this.type = type;
+		}
+
+		private void setElements(final XMLStreamShape shape, final TypeMirror elementType, final TypeName elementTypeName) {
+			this.shape = shape;
+			this.elementType = elementType;
+			this.elementTypeName = elementTypeName;
+		}
+	}
+
+	/**
+	 * create field
+	 * 
+	 * @param field         - VariableElement representation of field to be created
+	 * @param annotationInfo - {@code ElementInfo} instance containing information about the {@code @Mapped(type=GeneratorType.XML)} annotation
+	 * @param fieldClass    - TypeName for class field shall be created in.
+	 * @param fieldIsMapped - indicates whether or not the given field is annotated  with {@code Mapped(type=GeneratorType.XML)}.
+	 * @return field specification for the create field.
+	 */
+	@Override
+	public FieldSpec createFieldSpec(final VariableElement field, 
+									 final ElementInfo annotationInfo, 
+									 final TypeName fieldClass,				
+									 boolean fieldIsMapped) {
+
+		List<AnnotationSpec> annotations = new ArrayList<>();
+		
+		FieldSpec fieldspec = null;
+		String fieldName = field.getSimpleName().toString();
+		if (field.getAnnotation(XMLTransient.class) == null && field.getAnnotation(XmlTransient.class) == null) {
+			AnnotationSpec.Builder xmlPropertyAnnotationBuilder = createXMLAnnotationBuilderForField(field,
+					annotationInfo, fieldClass, fieldIsMapped);
+
+			annotations.add(xmlPropertyAnnotationBuilder.build());
+			
+			TypeMirror type = annotationInfo.fieldType(field);
+
+			TypeName fieldType = fieldClass;
+			if (fieldIsMapped) {
+				TypeMirror fieldTypeMirror = annotationInfo.fieldType(field);
+				Element fieldElement = typeUtils.asElement(fieldTypeMirror);
+				if (fieldElement instanceof TypeElement) {
+					ClassName fieldClassName = ClassName.get((TypeElement) fieldElement);
+					fieldType = getMappedTypeForClassName(fieldClassName);
+				}
+			}
+			fieldType = checkFieldTypeForCollections(annotationInfo, type, fieldType);
+
+			FieldSpec.Builder fieldSpecBuilder = FieldSpec.builder(fieldType, fieldName, Modifier.PRIVATE); 
+			annotations.stream().forEach(annotation -> {
+				fieldSpecBuilder.addAnnotation(annotation);
+			});
+			fieldspec = fieldSpecBuilder.build();
+			
+		} else {
+			fieldspec = FieldSpec.builder(fieldClass, fieldName, Modifier.PRIVATE)
+								 .addAnnotation(XmlTransient.class)
+								 .build();
+		}
+		return fieldspec;
+	}
+
+
+
+	/**
+	 * @param field
+	 * @param annotationInfo
+	 * @param fieldClass
+	 * @param fieldIsMapped
+	 * @return
+	 */
+	private AnnotationSpec.Builder createXMLAnnotationBuilderForField(final VariableElement field,
+			final ElementInfo annotationInfo, final TypeName fieldClass, boolean fieldIsMapped) {
+		AnnotationSpec.Builder xmlPropertyAnnotationBuilder;
+		if (isXMLAttribute(fieldClass, annotationInfo.fieldType(field))) {
+			xmlPropertyAnnotationBuilder = AnnotationSpec.builder(XmlAttribute.class).addMember(
+					"name", StringUtil.quote(StringUtil.camelToSnake(field.getSimpleName().toString()), '"'));
+		} else { // others as elements
+			xmlPropertyAnnotationBuilder = AnnotationSpec.builder(XmlElement.class).addMember(
+					"name", StringUtil.quote(StringUtil.camelToSnake(field.getSimpleName().toString()), '"'));
+		}
+		
+		if (field.getAnnotation(XMLRequired.class) != null) {
+			xmlPropertyAnnotationBuilder.addMember("required", "true");
+		}
+
+		String namespace = getNamespaceForField(field, annotationInfo, fieldIsMapped);
+		if (StringUtil.isNotBlank(namespace))
+			xmlPropertyAnnotationBuilder.addMember("namespace", "$S" , namespace);
+		return xmlPropertyAnnotationBuilder;
+	}
+
+	/**
+	 * primitive types (and types in java.lang) are mapped as attributes, others as elements.
+	 * Arrays are elements, as an attribute cannot hold several values.
+	 * 
+	 * @param fieldClass - TypeName of the field
+	 * @param fieldType  - type of the field
+	 * @return true if the field is mapped as attribute
+	 */
+	private boolean isXMLAttribute(final TypeName fieldClass, final TypeMirror fieldType) {
+		return fieldType.getKind() != TypeKind.ARRAY
+				&& (fieldClass.isPrimitive() || fieldType.toString().startsWith("java.lang"));
+	}
+
+	/**
+	 * namespace of a field, given by its {@code XMLNamespace} annotation, by the
+	 * {@code Mapped} annotation of its type or by the namespace of the class.
+	 * 
+	 * @param field          - the field
+	 * @param annotationInfo - information about the arguments of the <i>@Mapped</i> annotation
+	 * @param fieldIsMapped  - indicates whether or not the type of the field is mapped
+	 * @return the namespace, blank if there is none
+	 */
+	private String getNamespaceForField(final VariableElement field, final ElementInfo annotationInfo,
+			boolean fieldIsMapped) {
+		// check for namespace annotation on field
+		if (field.getAnnotation(XMLNamespace.class) != null) {
+			return field.getAnnotation(XMLNamespace.class).value();
+		}
+		String namespace = fieldIsMapped ? getMappingAnnotationNamespace(field) : annotationInfo.xmlns();
+		if (StringUtil.isBlank(namespace) && StringUtil.isNotBlank(annotationInfo.xmlns())) {	// add default namespace if not blank
+			namespace = annotationInfo.xmlns();
+		}
+		return namespace;
+	}
+
+	/**
+	 * create (additional) field
+	 * 
+	 * @param annotationInfo - information about the arguments of the <i>@Mapped</i> annotation
+	 * @param fields         - list of fields to be created
+	 * 
+	 */
+	@Override
+	public void createAdditionalFields(ElementInfo annotationInfo, final List<FieldSpec> fields) {
+		annotationInfo.additionalFields().entrySet().stream().forEach(field -> {
+			
+			FieldSpec.Builder fieldspecBuilder = getFieldAnnotation(field);
+			fields.add(fieldspecBuilder.build());
+		});
+	}
+
+
+	/**
+	 * create appropriate annotation for the given field depending on the GeneratorType.
+	 * 
+	 * 
+	 * @param field
+	 * @return
+	 */
+	private FieldSpec.Builder getFieldAnnotation(Entry<String, TypeMirror> field) {
+		TypeMirror fieldMirror = field.getValue();
+		TypeName fieldClass = TypeName.get(fieldMirror);
+		
+		AnnotationSpec.Builder xmlPropertyAnnotationBuilder;
+		if (isXMLAttribute(fieldClass, fieldMirror)) {
+			xmlPropertyAnnotationBuilder = AnnotationSpec.builder(XmlAttribute.class).addMember(
+					"name", StringUtil.quote(StringUtil.camelToSnake(field.getKey()), '"'));
+		} else { // others as elements
+			xmlPropertyAnnotationBuilder = AnnotationSpec.builder(XmlElement.class).addMember(
+					"name", StringUtil.quote(StringUtil.camelToSnake(field.getKey()), '"'));
+		}
+		
+		FieldSpec.Builder fieldspecBuilder = FieldSpec.builder(TypeName.get(fieldMirror), 
+																field.getKey(), 
+																Modifier.PRIVATE);			
+		fieldspecBuilder.addAnnotation(xmlPropertyAnnotationBuilder.build());
+		return fieldspecBuilder;
+	}
+
+	
+	/**
+	 * create (additional) fields with getters and setters
+	 * 
+	 * @param annotationInfo - information about the arguments of the <i>@Mapped</i> annotation
+	 * @param fields         - list of fields to be created
+	 * @param methods        - maps with MethodSpec definitions for methods to be
+	 * 
+	 */
+	@Override
+	public void createAdditionalFieldsGettersAndSetters(final ElementInfo annotationInfo, 
+														 final List<FieldSpec> fields, 
+														 final Map<String, MethodSpec> methods) {
+		annotationInfo.additionalFields().entrySet().stream().forEach(field -> {
+			if (fields.stream().anyMatch(fieldSpec -> fieldSpec.name.equals(field.getKey()))) {
+				System.out.println("Additional field "+field.getKey()+" cannot be generated because it already exists. Check your annotated class and remove or rename this argument.");
+			} else {
+				FieldSpec.Builder fieldspecBuilder = getFieldAnnotation(field);
+				fields.add(fieldspecBuilder.build());
+				
+				createAdditionalGetterMethodSpec(annotationInfo, field.getKey(), field.getValue(), methods);
+				createAdditionalSetterMethodSpec(annotationInfo, field.getKey(), field.getValue(), methods);
+			}
+		});
+	}
+	
+	/**
+	 * retrieve namespace entry of {@code Mapped} annotation of field mapped 
+	 * with {@code Mappde(type=GeneratorType.XML)}
+	 * 
+	 * @param field the field to check for as a {@code VariableElement}
+	 * @return the namespace of the class of the field.
+	 */
+	private String getMappingAnnotationNamespace(VariableElement field) {
+		Element fieldClassType = getTypeUtils().asElement(annotationInfo.fieldType(field));
+		String nameSpace="";
+		if (fieldClassType instanceof TypeElement) {
+			nameSpace = 
+				Arrays.asList(fieldClassType.getAnnotationsByType(Mapped.class))
+				.stream()
+				.filter(annotation -> ((Mapped) annotation).type().equals(GeneratorType.XML))
+				.map(annotation -> ((Mapped) annotation).xmlns())
+				.findFirst().orElse("");
+		}
+		return nameSpace;		
+	}
+	
+	@Override
+	public Types getTypeUtils() {
+		return procEnv.getTypeUtils();
+	}
+
+	@Override
+	public Elements getElementUtils() {
+		return procEnv.getElementUtils();
+	}
+	
+	public boolean fieldIsMapped(final Element field) {
+		return fieldIsAnnotedWith(field, Mapped.class, GeneratorType.XML);
+	}
+
+	public boolean typeIsMapped(final TypeElement typeElement) {
+		return typeIsAnnotatedWith(typeElement, Mapped.class, GeneratorType.XML);
+	}
+
+}
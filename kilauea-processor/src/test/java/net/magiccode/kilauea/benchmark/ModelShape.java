@@ -0,0 +1,88 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ModelShape.java
+ */
+package net.magiccode.kilauea.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Describes the shape of a synthesized domain model. All values can be given as
+ * <i>key=value</i> arguments or as system properties prefixed with <i>kilauea.bench.</i>
+ */
+public class ModelShape {
+
+	/** number of annotated classes */
+	int classes = 100;
+	/** number of plain fields per annotated class */
+	int fields = 10;
+	/** length of the chain of mapped classes referenced by each class */
+	int nestingDepth = 2;
+	/** number of List/Map fields with mapped type arguments per class */
+	int collectionFanOut = 2;
+	/** depth of the (not annotated) superclass hierarchy each class extends */
+	int inheritanceDepth = 2;
+	/** generator types every class is annotated with */
+	List<GeneratorType> types = new ArrayList<>(List.of(GeneratorType.POJO, GeneratorType.JSON, GeneratorType.XML));
+
+	/**
+	 * create shape from system properties, overridden by the given arguments
+	 *
+	 * @param args - arguments of the form <i>key=value</i>
+	 * @return the configured shape
+	 */
+	static ModelShape of(final Map<String, String> args) {
+		ModelShape shape = new ModelShape();
+		shape.classes = intValue(args, "classes", shape.classes);
+		shape.fields = intValue(args, "fields", shape.fields);
+		shape.nestingDepth = intValue(args, "nestingDepth", shape.nestingDepth);
+		shape.collectionFanOut = intValue(args, "collectionFanOut", shape.collectionFanOut);
+		shape.inheritanceDepth = intValue(args, "inheritanceDepth", shape.inheritanceDepth);
+		String types = value(args, "types");
+		if (types != null) {
+			shape.types = Arrays.stream(types.split(","))
+								.map(String::trim)
+								.map(String::toUpperCase)
+								.map(GeneratorType::valueOf)
+								.collect(Collectors.toList());
+		}
+		return shape;
+	}
+
+	/**
+	 * @return the shape as JMH parameters
+	 */
+	Map<String, String> params() {
+		Map<String, String> params = new LinkedHashMap<>();
+		params.put("classes", String.valueOf(classes));
+		params.put("fields", String.valueOf(fields));
+		params.put("nestingDepth", String.valueOf(nestingDepth));
+		params.put("collectionFanOut", String.valueOf(collectionFanOut));
+		params.put("inheritanceDepth", String.valueOf(inheritanceDepth));
+		params.put("types", types.stream().map(Enum::name).collect(Collectors.joining(",")));
+		return params;
+	}
+
+	static int intValue(final Map<String, String> args, final String key, int defaultValue) {
+		String value = value(args, key);
+		return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+	}
+
+	static String value(final Map<String, String> args, final String key) {
+		return args.getOrDefault(key, System.getProperty("kilauea.bench." + key));
+	}
+}
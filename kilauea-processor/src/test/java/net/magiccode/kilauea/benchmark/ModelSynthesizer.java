@@ -0,0 +1,119 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ModelSynthesizer.java
+ */
+package net.magiccode.kilauea.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the sources of an annotated domain model with the given {@code ModelShape}.
+ *
+ * Every class <i>EntityN</i> extends the hierarchy <i>BaseK ... Base0</i>, has plain fields of
+ * various types, references the next classes of the model (nesting) and contains
+ * {@code List} and {@code Map} fields with mapped type arguments (fan-out).
+ */
+public class ModelSynthesizer {
+
+	static final String PACKAGE = "bench.model";
+
+	private static final String[] FIELD_TYPES = { "String", "Integer", "long", "Double", "boolean",
+			"java.time.LocalDate", "java.time.LocalDateTime", "java.math.BigDecimal" };
+
+	private final ModelShape shape;
+
+	ModelSynthesizer(final ModelShape shape) {
+		this.shape = shape;
+	}
+
+	/**
+	 * write all sources into the given directory
+	 *
+	 * @param sourceDir - the root of the source tree
+	 * @return the written files
+	 * @throws IOException if a file cannot be written
+	 */
+	List<Path> write(final Path sourceDir) throws IOException {
+		Path packageDir = sourceDir.resolve(PACKAGE.replace('.', '/'));
+		Files.createDirectories(packageDir);
+		List<Path> files = new ArrayList<>();
+		for (int level = 0; level < shape.inheritanceDepth; level++) {
+			files.add(write(packageDir, "Base" + level, baseClass(level)));
+		}
+		for (int index = 0; index < shape.classes; index++) {
+			files.add(write(packageDir, "Entity" + index, entityClass(index)));
+		}
+		return files;
+	}
+
+	private Path write(final Path packageDir, final String className, final String source) throws IOException {
+		Path file = packageDir.resolve(className + ".java");
+		Files.writeString(file, source, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	private String baseClass(int level) {
+		StringBuilder source = new StringBuilder("package " + PACKAGE + ";\n\n");
+		source.append("public abstract class Base").append(level)
+			  .append(level > 0 ? " extends Base" + (level - 1) : "").append(" {\n");
+		field(source, "Long", "id" + level);
+		field(source, "String", "audit" + level);
+		return source.append("}\n").toString();
+	}
+
+	private String entityClass(int index) {
+		StringBuilder source = new StringBuilder("package " + PACKAGE + ";\n\n");
+		source.append("import net.magiccode.kilauea.annotation.Mapped;\n")
+			  .append("import net.magiccode.kilauea.annotation.Mappers;\n")
+			  .append("import net.magiccode.kilauea.generator.GeneratorType;\n\n")
+			  .append("@Mappers({")
+			  .append(shape.types.stream().map(type -> "@Mapped(type = GeneratorType." + type.name() + ")")
+					  			.collect(Collectors.joining(", ")))
+			  .append("})\n")
+			  .append("public class Entity").append(index)
+			  .append(shape.inheritanceDepth > 0 ? " extends Base" + (shape.inheritanceDepth - 1) : "")
+			  .append(" {\n");
+		for (int field = 0; field < shape.fields; field++) {
+			field(source, FIELD_TYPES[field % FIELD_TYPES.length], "value" + field);
+		}
+		for (int depth = 1; depth <= shape.nestingDepth; depth++) {
+			field(source, entityName(index + depth), "nested" + depth);
+		}
+		for (int fanOut = 0; fanOut < shape.collectionFanOut; fanOut++) {
+			String target = entityName(index + fanOut + 1);
+			if (fanOut % 2 == 0) {
+				field(source, "java.util.List<" + target + ">", "list" + fanOut);
+			} else {
+				field(source, "java.util.Map<String, " + target + ">", "map" + fanOut);
+			}
+		}
+		return source.append("}\n").toString();
+	}
+
+	private String entityName(int index) {
+		return "Entity" + (index % shape.classes);
+	}
+
+	private static void field(final StringBuilder source, final String type, final String name) {
+		String accessorSuffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		source.append("    private ").append(type).append(' ').append(name).append(";\n")
+			  .append("    public ").append(type).append(' ')
+			  .append(type.equals("boolean") ? "is" : "get").append(accessorSuffix)
+			  .append("() { return ").append(name).append("; }\n")
+			  .append("    public void set").append(accessorSuffix).append('(').append(type).append(' ')
+			  .append(name).append(") { this.").append(name).append(" = ").append(name).append("; }\n");
+	}
+}
@@ -0,0 +1,284 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ProcessorScaleBenchmark.java
+ */
+package net.magiccode.kilauea.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import net.magiccode.kilauea.Mapper;
+
+/**
+ * Scale benchmark for the annotation processor itself.
+ *
+ * Synthesizes an annotated domain model (see {@code ModelShape}), runs the {@code Mapper}
+ * processor on it in-process using {@code javax.tools.JavaCompiler} and reports throughput
+ * in annotated classes per second, peak heap and the amount of generated source.
+ * The results are written in the JSON format of JMH, so they can be compared with the
+ * usual JMH tooling.
+ *
+ * Run with <i>mvn -P processor-benchmark test-compile exec:exec</i>, arguments are given as
+ * <i>key=value</i>: classes, fields, nestingDepth, collectionFanOut, inheritanceDepth,
+ * types (comma separated {@code GeneratorType}s), warmup, iterations, procOnly and result.
+ */
+public class ProcessorScaleBenchmark {
+
+	private static final String BENCHMARK = ProcessorScaleBenchmark.class.getName() + ".process";
+
+	private static final double[] PERCENTILES = { 0.0, 50.0, 90.0, 95.0, 99.0, 99.9, 99.99, 99.999, 99.9999, 100.0 };
+
+	/**
+	 * z-value for the 99.9% confidence interval reported as score error
+	 */
+	private static final double CONFIDENCE_Z = 3.291;
+
+	private final ModelShape shape;
+	private final int warmupIterations;
+	private final int measurementIterations;
+	private final boolean procOnly;
+
+	ProcessorScaleBenchmark(final ModelShape shape, int warmupIterations, int measurementIterations, boolean procOnly) {
+		this.shape = shape;
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.procOnly = procOnly;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> arguments = new HashMap<>();
+		Arrays.stream(args).filter(arg -> arg.contains("="))
+			  .forEach(arg -> arguments.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1)));
+
+		ModelShape shape = ModelShape.of(arguments);
+		ProcessorScaleBenchmark benchmark = new ProcessorScaleBenchmark(shape,
+				ModelShape.intValue(arguments, "warmup", 2),
+				ModelShape.intValue(arguments, "iterations", 5),
+				Boolean.parseBoolean(arguments.getOrDefault("procOnly", "true")));
+		String result = ModelShape.value(arguments, "result");
+		Path resultFile = Paths.get(result != null ? result : "target/kilauea-processor-benchmark.json");
+
+		String json = benchmark.run();
+		if (resultFile.getParent() != null) {
+			Files.createDirectories(resultFile.getParent());
+		}
+		Files.writeString(resultFile, json, StandardCharsets.UTF_8);
+		System.out.println("Result written to " + resultFile.toAbsolutePath());
+	}
+
+	/**
+	 * run warmup and measurement iterations
+	 *
+	 * @return the result in JMH JSON format
+	 * @throws IOException if the model cannot be written
+	 */
+	String run() throws IOException {
+		Path workDir = Files.createTempDirectory("kilauea-bench");
+		try {
+			List<Path> sources = new ModelSynthesizer(shape).write(workDir.resolve("src"));
+			System.out.println("Model " + shape.params() + ", " + sources.size() + " source files");
+
+			for (int i = 0; i < warmupIterations; i++) {
+				Sample sample = compile(sources, workDir.resolve("warmup" + i));
+				System.out.println(String.format(Locale.ROOT, "# Warmup Iteration %d: %.3f classes/s", i + 1, sample.throughput));
+			}
+			List<Sample> samples = new ArrayList<>();
+			for (int i = 0; i < measurementIterations; i++) {
+				Sample sample = compile(sources, workDir.resolve("iteration" + i));
+				samples.add(sample);
+				System.out.println(String.format(Locale.ROOT, "Iteration %d: %.3f classes/s, peak heap %d B, generated %d B",
+						i + 1, sample.throughput, sample.peakHeap, sample.generatedBytes));
+			}
+			return toJMHJson(samples);
+		} finally {
+			delete(workDir);
+		}
+	}
+
+	/**
+	 * compile the sources once, running the {@code Mapper} processor
+	 */
+	private Sample compile(final List<Path> sources, final Path outputDir) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		Path classOutput = Files.createDirectories(outputDir.resolve("classes"));
+		Path sourceOutput = Files.createDirectories(outputDir.resolve("generated"));
+
+		List<String> options = new ArrayList<>(List.of("-classpath", System.getProperty("java.class.path"),
+				"-encoding", "UTF-8", "-Xlint:none", "-nowarn"));
+		if (procOnly) {
+			options.add("-proc:only");
+		}
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+				StandardCharsets.UTF_8)) {
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(classOutput.toFile()));
+			fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(sourceOutput.toFile()));
+			Iterable<? extends JavaFileObject> units = fileManager
+					.getJavaFileObjectsFromFiles(sources.stream().map(Path::toFile).collect(Collectors.toList()));
+
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, units);
+			task.setProcessors(List.of(new Mapper()));
+
+			System.gc();
+			List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+					.filter(pool -> pool.getType() == MemoryType.HEAP).collect(Collectors.toList());
+			heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+			long start = System.nanoTime();
+			boolean success = task.call();
+			long duration = System.nanoTime() - start;
+
+			long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+			if (!success) {
+				String errors = diagnostics.getDiagnostics().stream()
+						.filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+						.limit(10)
+						.map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+						.collect(Collectors.joining("\n"));
+				throw new IllegalStateException("Compilation of the synthesized model failed:\n" + errors);
+			}
+			return new Sample(shape.classes / (duration / 1_000_000_000d), peakHeap, size(sourceOutput));
+		}
+	}
+
+	/**
+	 * build the result in the JSON format written by JMH with <i>-rf json</i>
+	 */
+	private String toJMHJson(final List<Sample> samples) {
+		StringBuilder json = new StringBuilder("[\n    {\n");
+		json.append("        \"jmhVersion\" : \"1.37\",\n")
+			.append("        \"benchmark\" : \"").append(BENCHMARK).append("\",\n")
+			.append("        \"mode\" : \"thrpt\",\n")
+			.append("        \"threads\" : 1,\n")
+			.append("        \"forks\" : 0,\n")
+			.append("        \"jvm\" : \"").append(escape(Paths.get(System.getProperty("java.home"), "bin", "java").toString())).append("\",\n")
+			.append("        \"jvmArgs\" : [").append(ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+					.map(arg -> "\"" + escape(arg) + "\"").collect(Collectors.joining(", "))).append("],\n")
+			.append("        \"jdkVersion\" : \"").append(System.getProperty("java.version")).append("\",\n")
+			.append("        \"vmName\" : \"").append(escape(System.getProperty("java.vm.name"))).append("\",\n")
+			.append("        \"vmVersion\" : \"").append(System.getProperty("java.vm.version")).append("\",\n")
+			.append("        \"warmupIterations\" : ").append(warmupIterations).append(",\n")
+			.append("        \"warmupTime\" : \"single shot\",\n")
+			.append("        \"warmupBatchSize\" : 1,\n")
+			.append("        \"measurementIterations\" : ").append(measurementIterations).append(",\n")
+			.append("        \"measurementTime\" : \"single shot\",\n")
+			.append("        \"measurementBatchSize\" : 1,\n")
+			.append("        \"params\" : {\n")
+			.append(shape.params().entrySet().stream()
+					.map(param -> "            \"" + param.getKey() + "\" : \"" + param.getValue() + "\"")
+					.collect(Collectors.joining(",\n")))
+			.append("\n        },\n")
+			.append("        \"primaryMetric\" : ")
+			.append(metric(samples.stream().mapToDouble(sample -> sample.throughput).toArray(), "classes/s", "            "))
+			.append(",\n        \"secondaryMetrics\" : {\n")
+			.append("            \"peakHeap\" : ")
+			.append(metric(samples.stream().mapToDouble(sample -> sample.peakHeap).toArray(), "B", "                "))
+			.append(",\n            \"generatedBytes\" : ")
+			.append(metric(samples.stream().mapToDouble(sample -> sample.generatedBytes).toArray(), "B", "                "))
+			.append("\n        }\n    }\n]\n");
+		return json.toString();
+	}
+
+	private static String metric(final double[] values, final String unit, final String indent) {
+		double mean = Arrays.stream(values).average().orElse(Double.NaN);
+		double error = Double.NaN;
+		if (values.length > 1) {
+			double variance = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum() / (values.length - 1);
+			error = CONFIDENCE_Z * Math.sqrt(variance) / Math.sqrt(values.length);
+		}
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		StringBuilder metric = new StringBuilder("{\n");
+		metric.append(indent).append("\"score\" : ").append(number(mean)).append(",\n")
+			  .append(indent).append("\"scoreError\" : ").append(number(error)).append(",\n")
+			  .append(indent).append("\"scoreConfidence\" : [ ").append(number(mean - error)).append(", ")
+			  .append(number(mean + error)).append(" ],\n")
+			  .append(indent).append("\"scorePercentiles\" : {\n")
+			  .append(Arrays.stream(PERCENTILES)
+					  .mapToObj(percentile -> indent + "    \"" + percentile
+							  + "\" : " + number(percentile(sorted, percentile)))
+					  .collect(Collectors.joining(",\n")))
+			  .append("\n").append(indent).append("},\n")
+			  .append(indent).append("\"scoreUnit\" : \"").append(unit).append("\",\n")
+			  .append(indent).append("\"rawData\" : [\n").append(indent).append("    [ ")
+			  .append(Arrays.stream(values).mapToObj(ProcessorScaleBenchmark::number).collect(Collectors.joining(", ")))
+			  .append(" ]\n").append(indent).append("]\n")
+			  .append(indent.substring(4)).append("}");
+		return metric.toString();
+	}
+
+	private static double percentile(final double[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.ceil(percentile / 100d * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	private static String number(double value) {
+		return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	private static String escape(final String value) {
+		return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	private static long size(final Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+		}
+	}
+
+	private static void delete(final Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	/**
+	 * figures of one measured compilation
+	 */
+	private static class Sample {
+		private final double throughput;
+		private final long peakHeap;
+		private final long generatedBytes;
+
+		Sample(double throughput, long peakHeap, long generatedBytes) {
+			this.throughput = throughput;
+			this.peakHeap = peakHeap;
+			this.generatedBytes = generatedBytes;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ImmutabilityAnalyzerTest.java
+ */
+package net.magiccode.kilauea.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import net.magiccode.kilauea.generator.ImmutabilityAnalyzer.Mutability;
+
+/**
+ * Classifies the fields of a sample class with the {@code ImmutabilityAnalyzer}, run by a
+ * processor of its own within an in-process compilation.
+ */
+class ImmutabilityAnalyzerTest {
+
+	private static final String FIELDS = "package sample;\n"
+			+ "import java.time.LocalDate;\n"
+			+ "import java.util.Date;\n"
+			+ "import java.util.List;\n"
+			+ "import java.util.Map;\n"
+			+ "public class Fields {\n"
+			+ "	public enum Status { OPEN, CLOSED }\n"
+			+ "	int primitive;\n"
+			+ "	String text;\n"
+			+ "	Long boxed;\n"
+			+ "	LocalDate date;\n"
+			+ "	Status status;\n"
+			+ "	Point point;\n"
+			+ "	Wrapper wrapper;\n"
+			+ "	Marked marked;\n"
+			+ "	Foreign foreign;\n"
+			+ "	Node node;\n"
+			+ "	Left left;\n"
+			+ "	Holder holder;\n"
+			+ "	Open open;\n"
+			+ "	Child child;\n"
+			+ "	Listed listed;\n"
+			+ "	Date mutableDate;\n"
+			+ "	StringBuilder builder;\n"
+			+ "	List<String> names;\n"
+			+ "	Map<Status, Point> points;\n"
+			+ "	int[] numbers;\n"
+			+ "	String[] texts;\n"
+			+ "	List<Holder> holders;\n"
+			+ "	List<List<String>> nested;\n"
+			+ "	Holder[] holderArray;\n"
+			+ "	@SuppressWarnings(\"rawtypes\") List raw;\n"
+			+ "}\n";
+
+	private static final String TYPES = "package sample;\n"
+			+ "import java.time.LocalDate;\n"
+			+ "import java.util.List;\n"
+			+ "import net.magiccode.kilauea.annotation.Immutable;\n"
+			+ "record Point(int x, String label) {}\n"
+			+ "record Listed(List<String> values) {}\n"
+			+ "final class Wrapper { private final Point point = null; private final LocalDate date = null; "
+			+ "private static List<String> shared; }\n"
+			+ "@Immutable class Marked { List<String> values; }\n"
+			+ "@sample.other.Immutable class Foreign { List<String> values; }\n"
+			+ "final class Node { private final Node next = null; private final String label = null; }\n"
+			+ "final class Left { private final Right right = null; }\n"
+			+ "final class Right { private final Left left = null; }\n"
+			+ "final class Holder { String name; }\n"
+			+ "class Open { private final String name = null; }\n"
+			+ "final class Child extends Open { private final String value = null; }\n";
+
+	/** annotation of another library with the simple name {@code Immutable} */
+	private static final String FOREIGN_IMMUTABLE = "package sample.other;\n"
+			+ "public @interface Immutable {}\n";
+
+	private static Map<String, Mutability> classified;
+
+	private static Map<String, Mutability> classifiedAgain;
+
+	@BeforeAll
+	static void classifyFields() throws Exception {
+		ClassifyingProcessor processor = new ClassifyingProcessor();
+		TestCompiler.Compilation compilation = TestCompiler.compile(
+				Map.of("sample.Fields", FIELDS, "sample.Types", TYPES, "sample.other.Immutable", FOREIGN_IMMUTABLE),
+				processor);
+		assertTrue(compilation.success(), () -> String.join("\n", compilation.messages(Diagnostic.Kind.ERROR)));
+		classified = processor.classified;
+		classifiedAgain = processor.classifiedAgain;
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "primitive, IMMUTABLE", "text, IMMUTABLE", "boxed, IMMUTABLE", "date, IMMUTABLE",
+			"status, IMMUTABLE", "point, IMMUTABLE", "wrapper, IMMUTABLE", "marked, IMMUTABLE", "foreign, IMMUTABLE",
+			"holder, UNKNOWN", "open, UNKNOWN", "child, UNKNOWN", "listed, UNKNOWN", "mutableDate, UNKNOWN",
+			"builder, UNKNOWN", "names, SHALLOW_MUTABLE", "points, SHALLOW_MUTABLE", "numbers, SHALLOW_MUTABLE",
+			"texts, SHALLOW_MUTABLE", "holders, UNKNOWN", "nested, UNKNOWN", "holderArray, UNKNOWN", "raw, UNKNOWN" })
+	void classifiesField(final String field, final Mutability expected) {
+		assertEquals(expected, classified.get(field), field);
+	}
+
+	/**
+	 * a type referencing itself, directly or through another type, is not known to be immutable
+	 */
+	@ParameterizedTest
+	@CsvSource({ "node, UNKNOWN", "left, UNKNOWN" })
+	void cyclesAreUnknown(final String field, final Mutability expected) {
+		assertEquals(expected, classified.get(field), field);
+	}
+
+	@Test
+	void resultsAreCached() {
+		assertEquals(classified, classifiedAgain);
+	}
+
+	/**
+	 * classifies the fields of {@code sample.Fields} twice with the same analyzer
+	 */
+	private static final class ClassifyingProcessor extends AbstractProcessor {
+
+		private final Map<String, Mutability> classified = new LinkedHashMap<>();
+
+		private final Map<String, Mutability> classifiedAgain = new LinkedHashMap<>();
+
+		@Override
+		public Set<String> getSupportedAnnotationTypes() {
+			return Set.of("*");
+		}
+
+		@Override
+		public SourceVersion getSupportedSourceVersion() {
+			return SourceVersion.latestSupported();
+		}
+
+		@Override
+		public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+			TypeElement fields = processingEnv.getElementUtils().getTypeElement("sample.Fields");
+			if (roundEnv.processingOver() || fields == null || !classified.isEmpty()) {
+				return false;
+			}
+			ImmutabilityAnalyzer analyzer = new ImmutabilityAnalyzer(processingEnv.getTypeUtils(),
+					processingEnv.getElementUtils());
+			for (VariableElement field : ElementFilter.fieldsIn(fields.getEnclosedElements())) {
+				classified.put(field.getSimpleName().toString(), analyzer.classify(field.asType()));
+			}
+			for (VariableElement field : ElementFilter.fieldsIn(fields.getEnclosedElements())) {
+				classifiedAgain.put(field.getSimpleName().toString(), analyzer.classify(field.asType()));
+			}
+			return false;
+		}
+	}
+}
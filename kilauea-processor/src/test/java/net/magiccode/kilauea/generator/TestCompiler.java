@@ -0,0 +1,154 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: TestCompiler.java
+ */
+package net.magiccode.kilauea.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles sources given as strings in-process with {@code javax.tools.JavaCompiler},
+ * running the given annotation processors. The classpath of the test is used, so the
+ * annotations and the runtime of kilauea are available to the sources.
+ */
+final class TestCompiler {
+
+	private TestCompiler() {
+	}
+
+	/**
+	 * compile the given sources
+	 *
+	 * @param sources    - source code by fully qualified class name
+	 * @param processors - the annotation processors to run
+	 * @return the result of the compilation
+	 * @throws IOException if the output directory cannot be created
+	 */
+	static Compilation compile(final Map<String, String> sources, final Processor... processors) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		Path outputDir = Files.createTempDirectory("kilauea-test");
+		Path classOutput = Files.createDirectories(outputDir.resolve("classes"));
+		Path sourceOutput = Files.createDirectories(outputDir.resolve("generated"));
+
+		List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-encoding", "UTF-8");
+		List<JavaFileObject> units = new ArrayList<>();
+		sources.forEach((className, source) -> units.add(new SourceFile(className, source)));
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+				StandardCharsets.UTF_8)) {
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(classOutput.toFile()));
+			fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(sourceOutput.toFile()));
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, units);
+			task.setProcessors(List.of(processors));
+			boolean success = task.call();
+			return new Compilation(success, diagnostics.getDiagnostics(), classOutput, sourceOutput);
+		}
+	}
+
+	/**
+	 * result of a compilation
+	 */
+	static final class Compilation {
+
+		private final boolean success;
+		private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+		private final Path classOutput;
+		private final Path sourceOutput;
+
+		private Compilation(final boolean success, final List<Diagnostic<? extends JavaFileObject>> diagnostics,
+				final Path classOutput, final Path sourceOutput) {
+			this.success = success;
+			this.diagnostics = diagnostics;
+			this.classOutput = classOutput;
+			this.sourceOutput = sourceOutput;
+		}
+
+		/**
+		 * @return true if the sources and all generated sources compiled without errors
+		 */
+		boolean success() {
+			return success;
+		}
+
+		/**
+		 * @param kind - kind of the diagnostics
+		 * @return the messages of the diagnostics of the given kind
+		 */
+		List<String> messages(final Diagnostic.Kind kind) {
+			return diagnostics.stream().filter(diagnostic -> diagnostic.getKind() == kind)
+					.map(diagnostic -> diagnostic.getMessage(Locale.ROOT)).collect(Collectors.toList());
+		}
+
+		/**
+		 * @param className - fully qualified name of a generated class
+		 * @return the generated source
+		 */
+		String generatedSource(final String className) {
+			try {
+				return Files.readString(sourceOutput.resolve(className.replace('.', '/') + ".java"));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * @return class loader for the compiled classes, delegating to the class loader of the test
+		 */
+		ClassLoader classLoader() {
+			try {
+				return new URLClassLoader(new URL[] { classOutput.toUri().toURL() }, TestCompiler.class.getClassLoader());
+			} catch (MalformedURLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * source held in memory
+	 */
+	private static final class SourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		private SourceFile(final String className, final String source) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return source;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: TypeArgumentMappingTest.java
+ */
+package net.magiccode.kilauea.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.tools.Diagnostic;
+
+import org.junit.jupiter.api.Test;
+
+import net.magiccode.kilauea.Mapper;
+
+/**
+ * Collections and maps whose type arguments are mapped classes with type arguments of
+ * their own, like {@code List<Tagged<String>>}.
+ */
+class TypeArgumentMappingTest {
+
+	private static final String TAGGED = "package sample;\n"
+			+ "import net.magiccode.kilauea.annotation.Mapped;\n"
+			+ "@Mapped\n"
+			+ "public class Tagged<T> {\n"
+			+ "	private String label;\n"
+			+ "	public String getLabel() { return label; }\n"
+			+ "	public void setLabel(String label) { this.label = label; }\n"
+			+ "}\n";
+
+	private static final String HOLDER = "package sample;\n"
+			+ "import java.util.List;\n"
+			+ "import java.util.Map;\n"
+			+ "import net.magiccode.kilauea.annotation.Mapped;\n"
+			+ "@Mapped\n"
+			+ "public class Holder {\n"
+			+ "	private List<Tagged<String>> tags;\n"
+			+ "	private Map<String, Tagged<Integer>> tagsByName;\n"
+			+ "	public List<Tagged<String>> getTags() { return tags; }\n"
+			+ "	public void setTags(List<Tagged<String>> tags) { this.tags = tags; }\n"
+			+ "	public Map<String, Tagged<Integer>> getTagsByName() { return tagsByName; }\n"
+			+ "	public void setTagsByName(Map<String, Tagged<Integer>> tagsByName) { this.tagsByName = tagsByName; }\n"
+			+ "}\n";
+
+	private static final String ROUND_TRIP = "package sample;\n"
+			+ "import java.util.List;\n"
+			+ "import java.util.Map;\n"
+			+ "import java.util.function.Supplier;\n"
+			+ "import sample.pojo.POJOHolder;\n"
+			+ "public class RoundTrip implements Supplier<String> {\n"
+			+ "	public String get() {\n"
+			+ "		Tagged<String> tag = new Tagged<>();\n"
+			+ "		tag.setLabel(\"listed\");\n"
+			+ "		Tagged<Integer> named = new Tagged<>();\n"
+			+ "		named.setLabel(\"named\");\n"
+			+ "		Holder holder = new Holder();\n"
+			+ "		holder.setTags(List.of(tag));\n"
+			+ "		holder.setTagsByName(Map.of(\"key\", named));\n"
+			+ "		try {\n"
+			+ "			Holder copy = POJOHolder.of(holder).to();\n"
+			+ "			return copy.getTags().get(0).getLabel() + \",\" + copy.getTagsByName().get(\"key\").getLabel();\n"
+			+ "		} catch (IllegalAccessException e) {\n"
+			+ "			throw new IllegalStateException(e);\n"
+			+ "		}\n"
+			+ "	}\n"
+			+ "}\n";
+
+	@Test
+	void mapsParameterizedTypeArguments() throws Exception {
+		TestCompiler.Compilation compilation = TestCompiler.compile(
+				Map.of("sample.Tagged", TAGGED, "sample.Holder", HOLDER, "sample.RoundTrip", ROUND_TRIP), new Mapper());
+
+		assertTrue(compilation.success(), () -> String.join("\n", compilation.messages(Diagnostic.Kind.ERROR)));
+		String holder = compilation.generatedSource("sample.pojo.POJOHolder");
+		assertTrue(holder.contains("mapTaggedToPOJOTagged("), holder);
+		assertTrue(holder.contains("mapPOJOTaggedToTagged("), holder);
+
+		@SuppressWarnings("unchecked")
+		Supplier<String> roundTrip = (Supplier<String>) compilation.classLoader().loadClass("sample.RoundTrip")
+				.getConstructor().newInstance();
+		assertEquals("listed,named", roundTrip.get());
+	}
+}
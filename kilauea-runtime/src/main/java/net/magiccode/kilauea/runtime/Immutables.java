@@ -0,0 +1,190 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Immutables.java
+ */
+package net.magiccode.kilauea.runtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Copies collections of immutable values for the setters of generated classes, unless
+ * the collection itself is immutable, in which case it is shared.
+ * <p>
+ * Immutable are the collections created by {@code List.of}, {@code Set.of}, {@code Map.of},
+ * their {@code copyOf} variants, {@code Stream.toList()} and the empty and singleton
+ * collections of {@code java.util.Collections}. The unmodifiable views of
+ * {@code java.util.Collections} are copied, since their backing collection may change.
+ * <p>
+ * Generated records hold unmodifiable copies created by {@code unmodifiableList} and
+ * {@code unmodifiableMap}, their {@code to()} methods create modifiable copies again.
+ */
+public final class Immutables {
+
+	private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(final Class<?> type) {
+			String name = type.getName();
+			return name.startsWith("java.util.ImmutableCollections$")
+					|| name.startsWith("java.util.Collections$Empty")
+					|| name.startsWith("java.util.Collections$Singleton");
+		}
+	};
+
+	private Immutables() {
+	}
+
+	/**
+	 * @param collection - collection to check, may be null
+	 * @return {@code true} if the collection or map can not be modified by anyone
+	 */
+	public static boolean isImmutable(final Object collection) {
+		return collection != null && IMMUTABLE.get(collection.getClass());
+	}
+
+	/**
+	 * @param <E>  - type of the elements
+	 * @param list - list of immutable values, may be null
+	 * @return the list itself if it is immutable or null, a copy otherwise
+	 */
+	public static <E> List<E> copyOf(final List<E> list) {
+		return list == null || isImmutable(list) ? list : new ArrayList<>(list);
+	}
+
+	/**
+	 * @param <E>        - type of the elements
+	 * @param collection - collection of immutable values, may be null
+	 * @return the collection itself if it is immutable or null, a copy otherwise
+	 */
+	public static <E> Collection<E> copyOf(final Collection<E> collection) {
+		return collection == null || isImmutable(collection) ? collection : new ArrayList<>(collection);
+	}
+
+	/**
+	 * @param <E> - type of the elements
+	 * @param set - set of immutable values, may be null
+	 * @return the set itself if it is immutable or null, a copy otherwise
+	 */
+	public static <E> Set<E> copyOf(final Set<E> set) {
+		return set == null || isImmutable(set) ? set : new HashSet<>(set);
+	}
+
+	/**
+	 * @param <K> - type of the keys
+	 * @param <V> - type of the values
+	 * @param map - map of immutable keys and values, may be null
+	 * @return the map itself if it is immutable or null, a copy otherwise
+	 */
+	public static <K, V> Map<K, V> copyOf(final Map<K, V> map) {
+		return map == null || isImmutable(map) ? map : new HashMap<>(map);
+	}
+
+	/**
+	 * @param <E>        - type of the elements
+	 * @param collection - collection of values, may be null
+	 * @return the collection itself if it is an immutable list or null, an unmodifiable copy otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> List<E> unmodifiableList(final Collection<? extends E> collection) {
+		if (collection == null || (collection instanceof List && isImmutable(collection))) {
+			return (List<E>) collection;
+		}
+		return Collections.unmodifiableList(new ArrayList<>(collection));
+	}
+
+	/**
+	 * @param <S>        - type of the elements
+	 * @param <T>        - type of the mapped elements
+	 * @param collection - collection of values, may be null
+	 * @param mapper     - applied to each element
+	 * @return an unmodifiable list of the mapped elements, null if {@code collection} is null
+	 */
+	public static <S, T> List<T> unmodifiableList(final Collection<? extends S> collection,
+			final Function<? super S, ? extends T> mapper) {
+		return collection == null ? null : Collections.unmodifiableList(copyOf(collection, mapper));
+	}
+
+	/**
+	 * @param <K> - type of the keys
+	 * @param <V> - type of the values
+	 * @param map - map of values, may be null
+	 * @return the map itself if it is immutable or null, an unmodifiable copy otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> Map<K, V> unmodifiableMap(final Map<? extends K, ? extends V> map) {
+		if (map == null || isImmutable(map)) {
+			return (Map<K, V>) map;
+		}
+		return Collections.unmodifiableMap(new HashMap<>(map));
+	}
+
+	/**
+	 * @param <K>         - type of the keys
+	 * @param <V>         - type of the values
+	 * @param <L>         - type of the mapped keys
+	 * @param <W>         - type of the mapped values
+	 * @param map         - map of values, may be null
+	 * @param keyMapper   - applied to each key
+	 * @param valueMapper - applied to each value
+	 * @return an unmodifiable map of the mapped keys and values, null if {@code map} is null
+	 */
+	public static <K, V, L, W> Map<L, W> unmodifiableMap(final Map<? extends K, ? extends V> map,
+			final Function<? super K, ? extends L> keyMapper, final Function<? super V, ? extends W> valueMapper) {
+		return map == null ? null : Collections.unmodifiableMap(copyOf(map, keyMapper, valueMapper));
+	}
+
+	/**
+	 * @param <S>        - type of the elements
+	 * @param <T>        - type of the mapped elements
+	 * @param collection - collection of values, may be null
+	 * @param mapper     - applied to each element
+	 * @return a new list of the mapped elements, null if {@code collection} is null
+	 */
+	public static <S, T> List<T> copyOf(final Collection<? extends S> collection,
+			final Function<? super S, ? extends T> mapper) {
+		if (collection == null) {
+			return null;
+		}
+		List<T> copy = new ArrayList<>(collection.size());
+		for (S element : collection) {
+			copy.add(mapper.apply(element));
+		}
+		return copy;
+	}
+
+	/**
+	 * @param <K>         - type of the keys
+	 * @param <V>         - type of the values
+	 * @param <L>         - type of the mapped keys
+	 * @param <W>         - type of the mapped values
+	 * @param map         - map of values, may be null
+	 * @param keyMapper   - applied to each key
+	 * @param valueMapper - applied to each value
+	 * @return a new map of the mapped keys and values, null if {@code map} is null
+	 */
+	public static <K, V, L, W> Map<L, W> copyOf(final Map<? extends K, ? extends V> map,
+			final Function<? super K, ? extends L> keyMapper, final Function<? super V, ? extends W> valueMapper) {
+		if (map == null) {
+			return null;
+		}
+		Map<L, W> copy = new HashMap<>();
+		for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			copy.put(keyMapper.apply(entry.getKey()), valueMapper.apply(entry.getValue()));
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: Mapper.java
+ */
+package net.magiccode.kilauea.runtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Stateless mapper between an annotated class and one of its generated classes. Every
+ * generated class provides its implementation as singleton in the static field {@code MAPPER},
+ * e.g. {@code JSONOrder.MAPPER}, which can be used as method reference or {@code Function}
+ * in streams and futures. Generated classes which cannot map back, because the annotated class
+ * has neither a public no-args nor an all-args constructor, provide a {@link OneWayMapper} instead.
+ * <p>
+ * Other than the generated {@code of} and {@code to} methods, the methods of this
+ * interface do not throw checked exceptions, failures are reported as {@link MappingException}.
+ *
+ * @param <S> - the annotated class
+ * @param <D> - the generated class
+ */
+public interface Mapper<S, D> extends OneWayMapper<S, D> {
+
+	/**
+	 * @param dto - the object to map back, may be null
+	 * @return a new instance of the annotated class, or {@code null} if {@code dto} is null
+	 */
+	S unmap(D dto);
+
+	/**
+	 * @param dtos - the objects to map back
+	 * @return the mapped objects in iteration order of {@code dtos}
+	 */
+	default List<S> unmapAll(final Collection<? extends D> dtos) {
+		List<S> result = new ArrayList<>(dtos.size());
+		for (D dto : dtos) {
+			result.add(unmap(dto));
+		}
+		return result;
+	}
+
+	/**
+	 * @return a {@code Function} mapping generated objects back to the annotated class
+	 */
+	default Function<D, S> inverse() {
+		return this::unmap;
+	}
+}
@@ -0,0 +1,239 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: MapperIndex.java
+ */
+package net.magiccode.kilauea.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.log4j.Log4j2;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Index of all generated classes, written by the annotation processor to {@value #LOCATION}.
+ * Each line holds the {@code GeneratorType}, the binary name of the annotated class and the
+ * binary name of the generated class, separated by tabs. Lines starting with <i>#</i> are comments.
+ * <p>
+ * The index replaces classpath scanning for the {@code XXXMappedBy} annotations. The indices
+ * of all jars visible to the class loader are read and merged on first access of
+ * {@link #getInstance()}; classes are only loaded when they are asked for.
+ */
+@Log4j2
+public final class MapperIndex {
+
+	/**
+	 * location of the index relative to the class path root
+	 */
+	public static final String LOCATION = "META-INF/kilauea/mappers.idx";
+
+	/**
+	 * separator of the columns of one line
+	 */
+	public static final char SEPARATOR = '\t';
+
+	private final Map<GeneratorType, Map<String, Entry>> bySource = new EnumMap<>(GeneratorType.class);
+	private final Map<String, Entry> byGenerated = new HashMap<>();
+	private final ClassLoader classLoader;
+
+	private MapperIndex(final ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * @return the index of the thread context class loader at the time of first access,
+	 *         or of the class loader of kilauea-runtime if there is none
+	 */
+	public static MapperIndex getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * read and merge all indices visible to the given class loader
+	 *
+	 * @param classLoader - the class loader to search for {@value #LOCATION}
+	 * @return the merged index
+	 */
+	public static MapperIndex load(final ClassLoader classLoader) {
+		MapperIndex index = new MapperIndex(classLoader);
+		try {
+			Enumeration<URL> resources = classLoader.getResources(LOCATION);
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				try (BufferedReader reader = new BufferedReader(
+						new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						Entry entry = Entry.parse(line);
+						if (entry != null) {
+							index.add(entry, resource);
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("Mapper index " + LOCATION + " could not be read completely", e);
+		}
+		return index;
+	}
+
+	/**
+	 * @param sourceClass - the annotated class
+	 * @param type        - the {@code GeneratorType}
+	 * @return the class generated for {@code sourceClass}, loaded by its class loader
+	 */
+	public Optional<Class<?>> generatedClass(final Class<?> sourceClass, final GeneratorType type) {
+		return generatedClassName(sourceClass.getName(), type)
+				.map(name -> loadClass(name, sourceClass.getClassLoader()));
+	}
+
+	/**
+	 * @param sourceClassName - binary name of the annotated class
+	 * @param type            - the {@code GeneratorType}
+	 * @return binary name of the class generated for the given class
+	 */
+	public Optional<String> generatedClassName(final String sourceClassName, final GeneratorType type) {
+		Map<String, Entry> entries = bySource.get(type);
+		return Optional.ofNullable(entries == null ? null : entries.get(sourceClassName))
+					   .map(Entry::generatedClassName);
+	}
+
+	/**
+	 * @param generatedClass - a generated class
+	 * @return the annotated class it has been generated for
+	 */
+	public Optional<Class<?>> sourceClass(final Class<?> generatedClass) {
+		return Optional.ofNullable(byGenerated.get(generatedClass.getName()))
+					   .map(entry -> loadClass(entry.sourceClassName(), generatedClass.getClassLoader()));
+	}
+
+	/**
+	 * @param generatedClassName - binary name of a generated class
+	 * @return the index entry of the generated class
+	 */
+	public Optional<Entry> entry(final String generatedClassName) {
+		return Optional.ofNullable(byGenerated.get(generatedClassName));
+	}
+
+	/**
+	 * @return all entries of the index
+	 */
+	public Collection<Entry> entries() {
+		return Collections.unmodifiableCollection(byGenerated.values());
+	}
+
+	private void add(final Entry entry, final URL resource) {
+		Entry previous = bySource.computeIfAbsent(entry.type(), type -> new LinkedHashMap<>())
+								 .putIfAbsent(entry.sourceClassName(), entry);
+		if (previous != null && !previous.generatedClassName().equals(entry.generatedClassName())) {
+			logger.warn("Mapper index " + resource + " maps " + entry.sourceClassName() + " (" + entry.type()
+					+ ") to " + entry.generatedClassName() + ", keeping " + previous.generatedClassName());
+			return;
+		}
+		byGenerated.putIfAbsent(entry.generatedClassName(), entry);
+	}
+
+	private Class<?> loadClass(final String name, final ClassLoader preferred) {
+		try {
+			return Class.forName(name, false, preferred != null ? preferred : classLoader);
+		} catch (ClassNotFoundException e) {
+			logger.warn("Class " + name + " listed in " + LOCATION + " could not be loaded");
+			return null;
+		}
+	}
+
+	/**
+	 * one line of the index
+	 */
+	@Getter @Accessors(fluent = true)
+	public static final class Entry {
+
+		/**
+		 * the {@code GeneratorType} used
+		 */
+		private final GeneratorType type;
+
+		/**
+		 * binary name of the annotated class
+		 */
+		private final String sourceClassName;
+
+		/**
+		 * binary name of the generated class
+		 */
+		private final String generatedClassName;
+
+		/**
+		 * @param type               - the {@code GeneratorType} used
+		 * @param sourceClassName    - binary name of the annotated class
+		 * @param generatedClassName - binary name of the generated class
+		 */
+		public Entry(final GeneratorType type, final String sourceClassName, final String generatedClassName) {
+			this.type = type;
+			this.sourceClassName = sourceClassName;
+			this.generatedClassName = generatedClassName;
+		}
+
+		/**
+		 * @param line - one line of the index
+		 * @return the entry, or {@code null} for blank lines, comments and malformed lines
+		 */
+		public static Entry parse(final String line) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+				return null;
+			}
+			int first = trimmed.indexOf(SEPARATOR);
+			int second = first < 0 ? -1 : trimmed.indexOf(SEPARATOR, first + 1);
+			if (second < 0) {
+				return null;
+			}
+			try {
+				return new Entry(GeneratorType.valueOf(trimmed.substring(0, first)),
+						trimmed.substring(first + 1, second), trimmed.substring(second + 1));
+			} catch (IllegalArgumentException e) {
+				// written by a newer processor with an unknown generator type
+				return null;
+			}
+		}
+
+		/**
+		 * @return the entry as one line of the index, without line separator
+		 */
+		public String format() {
+			return type.name() + SEPARATOR + sourceClassName + SEPARATOR + generatedClassName;
+		}
+	}
+
+	/**
+	 * loads the default index on first access
+	 */
+	private static final class Holder {
+		private static final MapperIndex INSTANCE = load(defaultClassLoader());
+
+		private static ClassLoader defaultClassLoader() {
+			ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+			return contextClassLoader != null ? contextClassLoader : MapperIndex.class.getClassLoader();
+		}
+	}
+}
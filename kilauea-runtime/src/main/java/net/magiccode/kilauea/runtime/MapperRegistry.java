@@ -0,0 +1,186 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: MapperRegistry.java
+ */
+package net.magiccode.kilauea.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import net.magiccode.kilauea.annotation.BINARYMappedBy;
+import net.magiccode.kilauea.annotation.CSVMappedBy;
+import net.magiccode.kilauea.annotation.JSONMappedBy;
+import net.magiccode.kilauea.annotation.OFFHEAPMappedBy;
+import net.magiccode.kilauea.annotation.POJOMappedBy;
+import net.magiccode.kilauea.annotation.XMLMappedBy;
+import net.magiccode.kilauea.generator.GeneratorType;
+
+/**
+ * Maps any annotated object to its generated class and back, without knowing the
+ * classes at compile time.
+ * <p>
+ * The generated {@code of} and {@code to} methods are looked up once per class using the
+ * {@link MapperIndex} and kept as {@code MethodHandle} in a {@code ClassValue}, so each call
+ * is a lock-free lookup followed by a direct invocation. Subclasses of annotated classes use
+ * the mapper of their nearest annotated superclass.
+ */
+public final class MapperRegistry {
+
+	private static final MethodType GENERIC = MethodType.methodType(Object.class, Object.class);
+
+	private static final Map<GeneratorType, ClassValue<MethodHandle>> OF = new EnumMap<>(GeneratorType.class);
+
+	static {
+		for (GeneratorType type : GeneratorType.values()) {
+			OF.put(type, new ClassValue<MethodHandle>() {
+				@Override
+				protected MethodHandle computeValue(final Class<?> sourceClass) {
+					return findOf(sourceClass, type);
+				}
+			});
+		}
+	}
+
+	private static final ClassValue<MethodHandle> TO = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(final Class<?> generatedClass) {
+			return findTo(generatedClass);
+		}
+	};
+
+	private MapperRegistry() {
+	}
+
+	/**
+	 * map an instance of an annotated class to the class generated for the given type
+	 *
+	 * @param <D>    - the generated class
+	 * @param source - instance of an annotated class or one of its subclasses, may be null
+	 * @param type   - the {@code GeneratorType}
+	 * @return the mapped instance, or {@code null} if {@code source} is null
+	 * @throws MappingException if there is no mapper for the class or the mapping fails
+	 */
+	@SuppressWarnings("unchecked")
+	public static <D> D map(final Object source, final GeneratorType type) {
+		if (source == null) {
+			return null;
+		}
+		MethodHandle of = OF.get(type).get(source.getClass());
+		if (of == null) {
+			throw new MappingException("No " + type + " mapper for " + source.getClass().getName());
+		}
+		try {
+			return (D) (Object) of.invokeExact(source);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new MappingException("Mapping " + source.getClass().getName() + " failed", e);
+		}
+	}
+
+	/**
+	 * map an instance of a generated class back to its annotated class
+	 *
+	 * @param <S> - the annotated class
+	 * @param dto - instance of a generated class, may be null
+	 * @return the new instance of the annotated class, or {@code null} if {@code dto} is null
+	 * @throws MappingException if the class is not generated or the mapping fails
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S> S unmap(final Object dto) {
+		if (dto == null) {
+			return null;
+		}
+		MethodHandle to = TO.get(dto.getClass());
+		if (to == null) {
+			throw new MappingException(dto.getClass().getName() + " is not a generated class");
+		}
+		try {
+			return (S) (Object) to.invokeExact(dto);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new MappingException("Mapping " + dto.getClass().getName() + " failed", e);
+		}
+	}
+
+	/**
+	 * @param sourceClass - annotated class or one of its subclasses
+	 * @param type        - the {@code GeneratorType}
+	 * @return {@code true} if there is a mapper for the class
+	 */
+	public static boolean canMap(final Class<?> sourceClass, final GeneratorType type) {
+		return OF.get(type).get(sourceClass) != null;
+	}
+
+	/**
+	 * look up {@code of(source)} of the nearest annotated class in the hierarchy
+	 */
+	private static MethodHandle findOf(final Class<?> sourceClass, final GeneratorType type) {
+		for (Class<?> current = sourceClass; current != null && current != Object.class; current = current.getSuperclass()) {
+			Optional<Class<?>> generatedClass = MapperIndex.getInstance().generatedClass(current, type);
+			if (generatedClass.isPresent()) {
+				try {
+					return MethodHandles.publicLookup()
+							.findStatic(generatedClass.get(), "of", MethodType.methodType(generatedClass.get(), current))
+							.asType(GENERIC);
+				} catch (NoSuchMethodException | IllegalAccessException e) {
+					// abstract classes have no of(source), try the superclass
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * look up {@code to()} of the generated class, or of its nearest generated superclass
+	 */
+	private static MethodHandle findTo(final Class<?> generatedClass) {
+		for (Class<?> current = generatedClass; current != null && current != Object.class; current = current.getSuperclass()) {
+			Class<?> candidate = current;
+			Class<?> sourceClass = MapperIndex.getInstance().sourceClass(candidate).orElseGet(() -> mappedBy(candidate));
+			if (sourceClass != null) {
+				try {
+					return MethodHandles.publicLookup()
+							.findVirtual(current, "to", MethodType.methodType(sourceClass))
+							.asType(GENERIC);
+				} catch (NoSuchMethodException | IllegalAccessException e) {
+					// abstract classes have no to(), try the superclass
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * fallback for classes which are not listed in the index, e.g. when compiled by an older version
+	 */
+	private static Class<?> mappedBy(final Class<?> generatedClass) {
+		Class<?> mappedClass = null;
+		if (generatedClass.isAnnotationPresent(JSONMappedBy.class)) {
+			mappedClass = generatedClass.getAnnotation(JSONMappedBy.class).mappedClass();
+		} else if (generatedClass.isAnnotationPresent(XMLMappedBy.class)) {
+			mappedClass = generatedClass.getAnnotation(XMLMappedBy.class).mappedClass();
+		} else if (generatedClass.isAnnotationPresent(POJOMappedBy.class)) {
+			mappedClass = generatedClass.getAnnotation(POJOMappedBy.class).mappedClass();
+		} else if (generatedClass.isAnnotationPresent(BINARYMappedBy.class)) {
+			mappedClass = generatedClass.getAnnotation(BINARYMappedBy.class).mappedClass();
+		} else if (generatedClass.isAnnotationPresent(OFFHEAPMappedBy.class)) {
+			mappedClass = generatedClass.getAnnotation(OFFHEAPMappedBy.class).mappedClass();
+		} else if (generatedClass.isAnnotationPresent(CSVMappedBy.class)) {
+			mappedClass = generatedClass.getAnnotation(CSVMappedBy.class).mappedClass();
+		}
+		return mappedClass == Object.class ? null : mappedClass;
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: MappingException.java
+ */
+package net.magiccode.kilauea.runtime;
+
+/**
+ * Unchecked exception thrown by the runtime mapping entry points, wrapping the
+ * checked exceptions of the generated {@code of} and {@code to} methods.
+ */
+public class MappingException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @param message - description of the problem
+	 */
+	public MappingException(final String message) {
+		super(message);
+	}
+
+	/**
+	 * @param message - description of the problem
+	 * @param cause   - the exception thrown by the mapping
+	 */
+	public MappingException(final String message, final Throwable cause) {
+		super(message, cause);
+	}
+}
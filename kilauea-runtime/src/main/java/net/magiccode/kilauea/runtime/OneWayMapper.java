@@ -0,0 +1,58 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: OneWayMapper.java
+ */
+package net.magiccode.kilauea.runtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Stateless mapper from an annotated class to one of its generated classes. It is the type
+ * of the static field {@code MAPPER} of generated classes without a {@code to} method, because
+ * the annotated class has neither a public no-args nor an all-args constructor. All other
+ * generated classes provide a {@link Mapper}, which maps in both directions.
+ * <p>
+ * Other than the generated {@code of} methods, the methods of this interface do not throw
+ * checked exceptions, failures are reported as {@link MappingException}.
+ *
+ * @param <S> - the annotated class
+ * @param <D> - the generated class
+ */
+public interface OneWayMapper<S, D> extends Function<S, D> {
+
+	/**
+	 * @param source - the object to map, may be null
+	 * @return a new instance of the generated class, or {@code null} if {@code source} is null
+	 */
+	D map(S source);
+
+	/**
+	 * same as {@link #map(Object)}
+	 */
+	@Override
+	default D apply(final S source) {
+		return map(source);
+	}
+
+	/**
+	 * @param sources - the objects to map
+	 * @return the mapped objects in iteration order of {@code sources}
+	 */
+	default List<D> mapAll(final Collection<? extends S> sources) {
+		List<D> result = new ArrayList<>(sources.size());
+		for (S source : sources) {
+			result.add(map(source));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,509 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: BinaryCodec.java
+ */
+package net.magiccode.kilauea.runtime.binary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Wire format of the classes generated with {@code GeneratorType.BINARY}. The generated
+ * {@code writeTo}, {@code readFrom} and {@code serializedSize} methods call these methods
+ * for each field, every value type has a {@code writeXXX}, {@code readXXX} and
+ * {@code sizeOfXXX} method.
+ * <ul>
+ * <li>{@code int}, {@code short}, {@code long}, {@code char}: zigzag encoded varints</li>
+ * <li>{@code boolean}, {@code byte}: one byte, {@code float}, {@code double}: 4 and 8 bytes, big endian</li>
+ * <li>{@code String}: varint length followed by the UTF-8 bytes</li>
+ * <li>{@code byte[]}, {@code BigInteger}: varint length followed by the bytes</li>
+ * <li>{@code BigDecimal}: zigzag varint scale followed by the unscaled {@code BigInteger}</li>
+ * <li>{@code LocalDate}: zigzag varint epoch day, {@code LocalTime}: varint nano of day,
+ * {@code LocalDateTime}: both, {@code Instant}: zigzag varint seconds and varint nanos</li>
+ * <li>{@code UUID}: two longs of 8 bytes</li>
+ * </ul>
+ * Nullable fields are not written if they are null, a presence bitmap in front of the
+ * fields tells which fields follow. Collections are written as varint count followed by
+ * the elements, each element of a nullable type is preceded by a presence byte.
+ */
+public final class BinaryCodec {
+
+	private BinaryCodec() {
+	}
+
+	// varints
+
+	/**
+	 * write an unsigned varint, 7 bits per byte, least significant group first
+	 *
+	 * @param buffer - the target buffer
+	 * @param value  - the value, treated as unsigned
+	 */
+	public static void writeVarInt(final ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * @param buffer - the source buffer
+	 * @return the unsigned varint read
+	 */
+	public static int readVarInt(final ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed varint at position " + buffer.position());
+	}
+
+	/**
+	 * read a length or an element count, which is not trusted before anything is allocated for it.
+	 * Each element takes at least one byte, so the count cannot exceed the remaining bytes.
+	 *
+	 * @param buffer - the source buffer
+	 * @return the count read, between 0 and the number of remaining bytes
+	 * @throws IllegalStateException    if the count is negative
+	 * @throws BufferUnderflowException if fewer bytes than the count remain
+	 */
+	public static int readCount(final ByteBuffer buffer) {
+		int count = readVarInt(buffer);
+		if (count < 0) {
+			throw new IllegalStateException("Malformed count " + (count & 0xFFFFFFFFL) + " at position " + buffer.position());
+		}
+		if (count > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		return count;
+	}
+
+	/**
+	 * read the ordinal of an enum constant, which is not trusted before it is used as index.
+	 *
+	 * @param buffer    - the source buffer
+	 * @param constants - the number of constants of the enum
+	 * @return the ordinal read, between 0 and the number of constants
+	 * @throws IllegalStateException if the ordinal is no constant of the enum
+	 */
+	public static int readOrdinal(final ByteBuffer buffer, final int constants) {
+		int ordinal = readVarInt(buffer);
+		if (ordinal < 0 || ordinal >= constants) {
+			throw new IllegalStateException("Malformed enum ordinal " + (ordinal & 0xFFFFFFFFL) + " at position " + buffer.position());
+		}
+		return ordinal;
+	}
+
+	/**
+	 * @param value - the value, treated as unsigned
+	 * @return the number of bytes of the varint
+	 */
+	public static int sizeOfVarInt(final int value) {
+		return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+	}
+
+	/**
+	 * write an unsigned varint of up to 64 bits
+	 *
+	 * @param buffer - the target buffer
+	 * @param value  - the value, treated as unsigned
+	 */
+	public static void writeVarLong(final ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * @param buffer - the source buffer
+	 * @return the unsigned varint read
+	 */
+	public static long readVarLong(final ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed varint at position " + buffer.position());
+	}
+
+	/**
+	 * @param value - the value, treated as unsigned
+	 * @return the number of bytes of the varint
+	 */
+	public static int sizeOfVarLong(final long value) {
+		return value == 0 ? 1 : (70 - Long.numberOfLeadingZeros(value)) / 7;
+	}
+
+	// presence bitmap
+
+	/**
+	 * write the lowest {@code bytes} bytes of a presence bitmap
+	 *
+	 * @param buffer - the target buffer
+	 * @param bits   - one bit per nullable field, set if the field is present
+	 * @param bytes  - number of bytes to write, 1 to 8
+	 */
+	public static void writeBits(final ByteBuffer buffer, final long bits, final int bytes) {
+		for (int i = 0; i < bytes; i++) {
+			buffer.put((byte) (bits >>> (i * 8)));
+		}
+	}
+
+	/**
+	 * @param buffer - the source buffer
+	 * @param bytes  - number of bytes to read, 1 to 8
+	 * @return the presence bitmap
+	 */
+	public static long readBits(final ByteBuffer buffer, final int bytes) {
+		long bits = 0;
+		for (int i = 0; i < bytes; i++) {
+			bits |= (buffer.get() & 0xFFL) << (i * 8);
+		}
+		return bits;
+	}
+
+	/**
+	 * write the presence byte of a collection element
+	 *
+	 * @param buffer  - the target buffer
+	 * @param present - whether the element is not null
+	 */
+	public static void writePresence(final ByteBuffer buffer, final boolean present) {
+		buffer.put(present ? (byte) 1 : (byte) 0);
+	}
+
+	/**
+	 * @param buffer - the source buffer
+	 * @return whether the next element is present
+	 */
+	public static boolean readPresence(final ByteBuffer buffer) {
+		return buffer.get() != 0;
+	}
+
+	// primitives
+
+	public static void writeBoolean(final ByteBuffer buffer, final boolean value) {
+		buffer.put(value ? (byte) 1 : (byte) 0);
+	}
+
+	public static boolean readBoolean(final ByteBuffer buffer) {
+		return buffer.get() != 0;
+	}
+
+	public static int sizeOfBoolean(final boolean value) {
+		return 1;
+	}
+
+	public static void writeByte(final ByteBuffer buffer, final byte value) {
+		buffer.put(value);
+	}
+
+	public static byte readByte(final ByteBuffer buffer) {
+		return buffer.get();
+	}
+
+	public static int sizeOfByte(final byte value) {
+		return 1;
+	}
+
+	public static void writeShort(final ByteBuffer buffer, final short value) {
+		writeInt(buffer, value);
+	}
+
+	public static short readShort(final ByteBuffer buffer) {
+		return (short) readInt(buffer);
+	}
+
+	public static int sizeOfShort(final short value) {
+		return sizeOfInt(value);
+	}
+
+	public static void writeChar(final ByteBuffer buffer, final char value) {
+		writeVarInt(buffer, value);
+	}
+
+	public static char readChar(final ByteBuffer buffer) {
+		return (char) readVarInt(buffer);
+	}
+
+	public static int sizeOfChar(final char value) {
+		return sizeOfVarInt(value);
+	}
+
+	/**
+	 * write a zigzag encoded varint, so small negative values stay short
+	 *
+	 * @param buffer - the target buffer
+	 * @param value  - the value
+	 */
+	public static void writeInt(final ByteBuffer buffer, final int value) {
+		writeVarInt(buffer, (value << 1) ^ (value >> 31));
+	}
+
+	public static int readInt(final ByteBuffer buffer) {
+		int zigzag = readVarInt(buffer);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	public static int sizeOfInt(final int value) {
+		return sizeOfVarInt((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * write a zigzag encoded varint, so small negative values stay short
+	 *
+	 * @param buffer - the target buffer
+	 * @param value  - the value
+	 */
+	public static void writeLong(final ByteBuffer buffer, final long value) {
+		writeVarLong(buffer, (value << 1) ^ (value >> 63));
+	}
+
+	public static long readLong(final ByteBuffer buffer) {
+		long zigzag = readVarLong(buffer);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	public static int sizeOfLong(final long value) {
+		return sizeOfVarLong((value << 1) ^ (value >> 63));
+	}
+
+	public static void writeFloat(final ByteBuffer buffer, final float value) {
+		buffer.putFloat(value);
+	}
+
+	public static float readFloat(final ByteBuffer buffer) {
+		return buffer.getFloat();
+	}
+
+	public static int sizeOfFloat(final float value) {
+		return Float.BYTES;
+	}
+
+	public static void writeDouble(final ByteBuffer buffer, final double value) {
+		buffer.putDouble(value);
+	}
+
+	public static double readDouble(final ByteBuffer buffer) {
+		return buffer.getDouble();
+	}
+
+	public static int sizeOfDouble(final double value) {
+		return Double.BYTES;
+	}
+
+	// strings and bytes
+
+	/**
+	 * write a string as varint length and UTF-8 bytes, without an intermediate byte array
+	 *
+	 * @param buffer - the target buffer
+	 * @param value  - the string
+	 */
+	public static void writeString(final ByteBuffer buffer, final String value) {
+		int length = value.length();
+		writeVarInt(buffer, utf8Length(value));
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >>> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer.put((byte) (0xF0 | (codePoint >>> 18)));
+				buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+				buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				// unpaired surrogate, encoded as '?' like String.getBytes does
+				buffer.put((byte) '?');
+			} else {
+				buffer.put((byte) (0xE0 | (c >>> 12)));
+				buffer.put((byte) (0x80 | ((c >>> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	public static String readString(final ByteBuffer buffer) {
+		int length = readCount(buffer);
+		String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		} else {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+
+	public static int sizeOfString(final String value) {
+		int length = utf8Length(value);
+		return sizeOfVarInt(length) + length;
+	}
+
+	/**
+	 * @param value - the string
+	 * @return the number of bytes of the UTF-8 encoding of the string
+	 */
+	public static int utf8Length(final String value) {
+		int length = value.length();
+		int bytes = length;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				if (c < 0x800) {
+					bytes += 1;
+				} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					// 4 bytes for two chars
+					bytes += 2;
+					i++;
+				} else if (!Character.isSurrogate(c)) {
+					bytes += 2;
+				}
+			}
+		}
+		return bytes;
+	}
+
+	public static void writeBytes(final ByteBuffer buffer, final byte[] value) {
+		writeVarInt(buffer, value.length);
+		buffer.put(value);
+	}
+
+	public static byte[] readBytes(final ByteBuffer buffer) {
+		int length = readCount(buffer);
+		byte[] value = new byte[length];
+		buffer.get(value);
+		return value;
+	}
+
+	public static int sizeOfBytes(final byte[] value) {
+		return sizeOfVarInt(value.length) + value.length;
+	}
+
+	// numbers
+
+	public static void writeBigInteger(final ByteBuffer buffer, final BigInteger value) {
+		writeBytes(buffer, value.toByteArray());
+	}
+
+	public static BigInteger readBigInteger(final ByteBuffer buffer) {
+		return new BigInteger(readBytes(buffer));
+	}
+
+	public static int sizeOfBigInteger(final BigInteger value) {
+		int length = value.bitLength() / 8 + 1;
+		return sizeOfVarInt(length) + length;
+	}
+
+	public static void writeBigDecimal(final ByteBuffer buffer, final BigDecimal value) {
+		writeInt(buffer, value.scale());
+		writeBigInteger(buffer, value.unscaledValue());
+	}
+
+	public static BigDecimal readBigDecimal(final ByteBuffer buffer) {
+		int scale = readInt(buffer);
+		return new BigDecimal(readBigInteger(buffer), scale);
+	}
+
+	public static int sizeOfBigDecimal(final BigDecimal value) {
+		return sizeOfInt(value.scale()) + sizeOfBigInteger(value.unscaledValue());
+	}
+
+	public static void writeUUID(final ByteBuffer buffer, final UUID value) {
+		buffer.putLong(value.getMostSignificantBits());
+		buffer.putLong(value.getLeastSignificantBits());
+	}
+
+	public static UUID readUUID(final ByteBuffer buffer) {
+		return new UUID(buffer.getLong(), buffer.getLong());
+	}
+
+	public static int sizeOfUUID(final UUID value) {
+		return 2 * Long.BYTES;
+	}
+
+	// java.time
+
+	public static void writeLocalDate(final ByteBuffer buffer, final LocalDate value) {
+		writeLong(buffer, value.toEpochDay());
+	}
+
+	public static LocalDate readLocalDate(final ByteBuffer buffer) {
+		return LocalDate.ofEpochDay(readLong(buffer));
+	}
+
+	public static int sizeOfLocalDate(final LocalDate value) {
+		return sizeOfLong(value.toEpochDay());
+	}
+
+	public static void writeLocalTime(final ByteBuffer buffer, final LocalTime value) {
+		writeVarLong(buffer, value.toNanoOfDay());
+	}
+
+	public static LocalTime readLocalTime(final ByteBuffer buffer) {
+		return LocalTime.ofNanoOfDay(readVarLong(buffer));
+	}
+
+	public static int sizeOfLocalTime(final LocalTime value) {
+		return sizeOfVarLong(value.toNanoOfDay());
+	}
+
+	public static void writeLocalDateTime(final ByteBuffer buffer, final LocalDateTime value) {
+		writeLocalDate(buffer, value.toLocalDate());
+		writeLocalTime(buffer, value.toLocalTime());
+	}
+
+	public static LocalDateTime readLocalDateTime(final ByteBuffer buffer) {
+		return LocalDateTime.of(readLocalDate(buffer), readLocalTime(buffer));
+	}
+
+	public static int sizeOfLocalDateTime(final LocalDateTime value) {
+		return sizeOfLocalDate(value.toLocalDate()) + sizeOfLocalTime(value.toLocalTime());
+	}
+
+	public static void writeInstant(final ByteBuffer buffer, final Instant value) {
+		writeLong(buffer, value.getEpochSecond());
+		writeVarInt(buffer, value.getNano());
+	}
+
+	public static Instant readInstant(final ByteBuffer buffer) {
+		long seconds = readLong(buffer);
+		return Instant.ofEpochSecond(seconds, readVarInt(buffer));
+	}
+
+	public static int sizeOfInstant(final Instant value) {
+		return sizeOfLong(value.getEpochSecond()) + sizeOfVarInt(value.getNano());
+	}
+}
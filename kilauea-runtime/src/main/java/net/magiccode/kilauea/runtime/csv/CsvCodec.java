@@ -0,0 +1,202 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: CsvCodec.java
+ */
+package net.magiccode.kilauea.runtime.csv;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writing side of the CSV format of the classes generated with {@code GeneratorType.CSV}.
+ * The generated {@code writeRow} and {@code writeHeader} methods call these methods for each
+ * column, reading is done by {@link CsvReader}.
+ * <ul>
+ * <li>columns are separated by {@link #SEPARATOR}, rows are terminated by {@link #ROW_END}</li>
+ * <li>values containing the separator, quotes or line breaks are enclosed in quotes, quotes
+ * within are doubled</li>
+ * <li>{@code null} is written as an empty column, an empty {@code String} as {@code ""}</li>
+ * </ul>
+ * Numbers are appended digit by digit, no intermediate strings are created for them.
+ */
+public final class CsvCodec {
+
+	/**
+	 * separator of the columns of a row
+	 */
+	public static final char SEPARATOR = ',';
+
+	/**
+	 * quote character
+	 */
+	public static final char QUOTE = '"';
+
+	/**
+	 * end of a row, as recommended by RFC 4180
+	 */
+	public static final String ROW_END = "\r\n";
+
+	private CsvCodec() {
+	}
+
+	/**
+	 * write the column names, separated and terminated like a row
+	 *
+	 * @param out     - the target
+	 * @param columns - names of the columns
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeHeader(final Appendable out, final List<String> columns) throws IOException {
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				out.append(SEPARATOR);
+			}
+			writeString(out, columns.get(i));
+		}
+		out.append(ROW_END);
+	}
+
+	/**
+	 * write a value, enclosed in quotes if necessary. {@code null} is not written at all.
+	 *
+	 * @param out   - the target
+	 * @param value - the value or null
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeString(final Appendable out, final CharSequence value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		int length = value.length();
+		if (length == 0 || needsQuotes(value)) {
+			out.append(QUOTE);
+			int start = 0;
+			for (int i = 0; i < length; i++) {
+				if (value.charAt(i) == QUOTE) {
+					// append up to and including the quote, the next chunk starts with it again
+					out.append(value, start, i + 1);
+					start = i;
+				}
+			}
+			out.append(value, start, length).append(QUOTE);
+		} else {
+			out.append(value);
+		}
+	}
+
+	private static boolean needsQuotes(final CharSequence value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == SEPARATOR || c == QUOTE || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		// leading or trailing blanks are kept by the reader, but other tools may trim them
+		return value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ';
+	}
+
+	/**
+	 * write the string representation of an object, e.g. {@code BigDecimal} or {@code LocalDate}
+	 *
+	 * @param out   - the target
+	 * @param value - the value or null
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeObject(final Appendable out, final Object value) throws IOException {
+		if (value != null) {
+			writeString(out, value.toString());
+		}
+	}
+
+	/**
+	 * @param out   - the target
+	 * @param value - the value or null
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeEnum(final Appendable out, final Enum<?> value) throws IOException {
+		if (value != null) {
+			writeString(out, value.name());
+		}
+	}
+
+	/**
+	 * @param out   - the target
+	 * @param value - the value
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeBoolean(final Appendable out, boolean value) throws IOException {
+		out.append(value ? "true" : "false");
+	}
+
+	/**
+	 * @param out   - the target
+	 * @param value - the value
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeChar(final Appendable out, char value) throws IOException {
+		if (value == SEPARATOR || value == QUOTE || value == '\n' || value == '\r' || value == ' ') {
+			writeString(out, String.valueOf(value));
+		} else {
+			out.append(value);
+		}
+	}
+
+	/**
+	 * @param out   - the target
+	 * @param value - the value
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeInt(final Appendable out, int value) throws IOException {
+		writeLong(out, value);
+	}
+
+	/**
+	 * write the decimal digits of a long without creating a string
+	 *
+	 * @param out   - the target
+	 * @param value - the value
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeLong(final Appendable out, long value) throws IOException {
+		if (value == Long.MIN_VALUE) {
+			out.append("-9223372036854775808");
+			return;
+		}
+		if (value < 0) {
+			out.append('-');
+			value = -value;
+		}
+		long divisor = 1;
+		while (divisor <= value / 10) {
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10) {
+			out.append((char) ('0' + (value / divisor) % 10));
+		}
+	}
+
+	/**
+	 * @param out   - the target
+	 * @param value - the value
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeFloat(final Appendable out, float value) throws IOException {
+		out.append(Float.toString(value));
+	}
+
+	/**
+	 * @param out   - the target
+	 * @param value - the value
+	 * @throws IOException if the target cannot be written
+	 */
+	public static void writeDouble(final Appendable out, double value) throws IOException {
+		out.append(Double.toString(value));
+	}
+}
@@ -0,0 +1,501 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: CsvReader.java
+ */
+package net.magiccode.kilauea.runtime.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader for the CSV format written by {@link CsvCodec}, which creates one object per
+ * row. The rows are parsed character by character into buffers which are reused for every row,
+ * so apart from the objects created by the {@link RowMapper} and the values which have to be
+ * strings, reading does not allocate.
+ *
+ * Columns are addressed by their index in the list of columns given to the constructor. If the
+ * input starts with a header, its columns may be in any order, columns which are not expected are
+ * skipped and expected columns which are missing are read as null. The classes generated with
+ * {@code GeneratorType.CSV} provide a {@code RowMapper} as static method <i>readRow</i> and a
+ * reader for their columns with <i>csvReader(Reader)</i>.
+ *
+ * Instances are not thread-safe.
+ *
+ * @param <T> - type of the objects created from the rows
+ */
+public final class CsvReader<T> implements Iterable<T>, Closeable {
+
+	/**
+	 * creates an object from the current row of a reader
+	 *
+	 * @param <T> - type of the objects created
+	 */
+	@FunctionalInterface
+	public interface RowMapper<T> {
+
+		/**
+		 * @param row - the reader, positioned on the row to be mapped
+		 * @return the object created from the row
+		 * @throws IOException if a value cannot be parsed
+		 */
+		T map(CsvReader<?> row) throws IOException;
+	}
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Reader in;
+	private final RowMapper<T> mapper;
+	private final List<String> columns;
+
+	/** position of each expected column in the input, -1 if it is missing */
+	private final int[] columnPositions;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private boolean endOfInput;
+
+	/** unescaped content of all columns of the current row */
+	private char[] row = new char[256];
+	private int rowLength;
+	private int[] starts = new int[16];
+	private int[] ends = new int[16];
+	private boolean[] quoted = new boolean[16];
+	private int columnCount;
+	private long lineNumber = 1;
+	private long rowLineNumber;
+
+	/** view on the current value, see {@link #getChars(int)} */
+	private final Value value = new Value();
+	/** view on the whole row, numbers are parsed from it */
+	private final Value rowView = new Value();
+
+	/**
+	 * create a reader for input starting with a header
+	 *
+	 * @param in      - the input, which is buffered by the reader
+	 * @param columns - names of the expected columns
+	 * @param mapper  - creates an object from a row
+	 * @throws IOException if the header cannot be read
+	 */
+	public CsvReader(final Reader in, final List<String> columns, final RowMapper<T> mapper) throws IOException {
+		this(in, columns, mapper, true);
+	}
+
+	/**
+	 * @param in        - the input, which is buffered by the reader
+	 * @param columns   - names of the expected columns
+	 * @param mapper    - creates an object from a row
+	 * @param hasHeader - if true, the first row contains the names of the columns, otherwise
+	 *                  the rows have exactly the expected columns in the given order
+	 * @throws IOException if the header cannot be read
+	 */
+	public CsvReader(final Reader in, final List<String> columns, final RowMapper<T> mapper, boolean hasHeader)
+			throws IOException {
+		this.in = in;
+		this.columns = columns;
+		this.mapper = mapper;
+		this.columnPositions = new int[columns.size()];
+		if (peek() == '\uFEFF') {
+			// byte order mark
+			next();
+		}
+		if (hasHeader && nextRow()) {
+			Arrays.fill(columnPositions, -1);
+			for (int position = 0; position < columnCount; position++) {
+				int column = columns.indexOf(new String(row, starts[position], ends[position] - starts[position]).trim());
+				if (column >= 0) {
+					columnPositions[column] = position;
+				}
+			}
+		} else {
+			Arrays.setAll(columnPositions, column -> column);
+		}
+	}
+
+	/**
+	 * @return the object created from the next row or null at the end of the input
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public T read() throws IOException {
+		while (nextRow()) {
+			// blank lines are skipped, unless there is only one column which can be empty
+			if (columnCount > 1 || columns.size() == 1 || ends[0] > starts[0] || quoted[0]) {
+				return mapper.map(this);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * iterates over the remaining rows, {@code IOException}s are rethrown as {@code UncheckedIOException}
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+			private T next;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null) {
+					try {
+						next = read();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				T current = next;
+				next = null;
+				return current;
+			}
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * @return line of the input on which the current row starts, beginning with 1
+	 */
+	public long lineNumber() {
+		return rowLineNumber;
+	}
+
+	// access to the values of the current row, by index of the expected column
+
+	/**
+	 * @param column - index of the expected column
+	 * @return true if the column is missing or empty and not quoted
+	 */
+	public boolean isNull(int column) {
+		int position = columnPositions[column];
+		return position < 0 || position >= columnCount || (starts[position] == ends[position] && !quoted[position]);
+	}
+
+	/**
+	 * @param column - index of the expected column
+	 * @return the value or null
+	 */
+	public String getString(int column) {
+		if (isNull(column)) {
+			return null;
+		}
+		int position = columnPositions[column];
+		return new String(row, starts[position], ends[position] - starts[position]);
+	}
+
+	/**
+	 * @param column - index of the expected column
+	 * @return view on the value, which is valid until the next call of this method, or null
+	 */
+	public CharSequence getChars(int column) {
+		if (isNull(column)) {
+			return null;
+		}
+		int position = columnPositions[column];
+		value.start = starts[position];
+		value.end = ends[position];
+		return value;
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not <i>true</i> or <i>false</i>
+	 */
+	public boolean getBoolean(int column) throws IOException {
+		int position = columnPositions[column];
+		int length = ends[position] - starts[position];
+		if (length == 4 && regionMatches(position, "true")) {
+			return true;
+		}
+		if (length == 5 && regionMatches(position, "false")) {
+			return false;
+		}
+		throw malformed(column, "boolean");
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not exactly one character
+	 */
+	public char getChar(int column) throws IOException {
+		int position = columnPositions[column];
+		if (ends[position] - starts[position] != 1) {
+			throw malformed(column, "char");
+		}
+		return row[starts[position]];
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not an int
+	 */
+	public int getInt(int column) throws IOException {
+		int position = columnPositions[column];
+		try {
+			rowView.end = rowLength;
+			return Integer.parseInt(rowView, starts[position], ends[position], 10);
+		} catch (NumberFormatException e) {
+			throw malformed(column, "int");
+		}
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not a long
+	 */
+	public long getLong(int column) throws IOException {
+		int position = columnPositions[column];
+		try {
+			rowView.end = rowLength;
+			return Long.parseLong(rowView, starts[position], ends[position], 10);
+		} catch (NumberFormatException e) {
+			throw malformed(column, "long");
+		}
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not a float
+	 */
+	public float getFloat(int column) throws IOException {
+		try {
+			return Float.parseFloat(getString(column));
+		} catch (NumberFormatException e) {
+			throw malformed(column, "float");
+		}
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not a double
+	 */
+	public double getDouble(int column) throws IOException {
+		try {
+			return Double.parseDouble(getString(column));
+		} catch (NumberFormatException e) {
+			throw malformed(column, "double");
+		}
+	}
+
+	/**
+	 * @param column - index of the expected column, which must not be null
+	 * @return the value
+	 * @throws IOException if the value is not a decimal number
+	 */
+	public BigDecimal getBigDecimal(int column) throws IOException {
+		int position = columnPositions[column];
+		try {
+			return new BigDecimal(row, starts[position], ends[position] - starts[position]);
+		} catch (NumberFormatException e) {
+			throw malformed(column, "BigDecimal");
+		}
+	}
+
+	/**
+	 * @param <E>    - type of the enum
+	 * @param column - index of the expected column, which must not be null
+	 * @param values - the constants of the enum
+	 * @return the constant with the name of the value
+	 * @throws IOException if there is no constant with this name
+	 */
+	public <E extends Enum<E>> E getEnum(int column, final E[] values) throws IOException {
+		int position = columnPositions[column];
+		int length = ends[position] - starts[position];
+		for (E constant : values) {
+			String name = constant.name();
+			if (name.length() == length && regionMatches(position, name)) {
+				return constant;
+			}
+		}
+		throw malformed(column, values.length > 0 ? values[0].getDeclaringClass().getSimpleName() : "enum");
+	}
+
+	private boolean regionMatches(int position, final String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (row[starts[position] + i] != text.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param column - index of the expected column
+	 * @param type   - the expected type
+	 * @return exception describing the value which cannot be parsed
+	 */
+	public IOException malformed(int column, final String type) {
+		return new IOException("Value '" + getString(column) + "' of column " + columns.get(column)
+				+ " in line " + rowLineNumber + " is not a valid " + type);
+	}
+
+	// parser
+
+	/**
+	 * parse the next row into the row buffer
+	 *
+	 * @return false at the end of the input
+	 */
+	private boolean nextRow() throws IOException {
+		int c = next();
+		if (c < 0) {
+			return false;
+		}
+		rowLength = 0;
+		columnCount = 0;
+		rowLineNumber = lineNumber;
+		while (true) {
+			if (columnCount == starts.length) {
+				starts = Arrays.copyOf(starts, columnCount * 2);
+				ends = Arrays.copyOf(ends, columnCount * 2);
+				quoted = Arrays.copyOf(quoted, columnCount * 2);
+			}
+			starts[columnCount] = rowLength;
+			quoted[columnCount] = c == CsvCodec.QUOTE;
+			if (c == CsvCodec.QUOTE) {
+				c = readQuoted();
+			} else {
+				while (c >= 0 && c != CsvCodec.SEPARATOR && c != '\n' && c != '\r') {
+					append((char) c);
+					c = next();
+				}
+			}
+			ends[columnCount++] = rowLength;
+			if (c == CsvCodec.SEPARATOR) {
+				c = next();
+				continue;
+			}
+			if (c == '\r' && peek() == '\n') {
+				next();
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * read a quoted value, the opening quote has been read
+	 *
+	 * @return the character following the closing quote
+	 */
+	private int readQuoted() throws IOException {
+		while (true) {
+			int c = next();
+			if (c < 0) {
+				throw new IOException("Quoted value starting in line " + rowLineNumber + " is not terminated");
+			}
+			if (c == CsvCodec.QUOTE) {
+				c = next();
+				if (c != CsvCodec.QUOTE) {
+					if (c >= 0 && c != CsvCodec.SEPARATOR && c != '\n' && c != '\r') {
+						throw new IOException("Unexpected character '" + (char) c + "' after quoted value in line "
+								+ lineNumber);
+					}
+					return c;
+				}
+			}
+			append((char) c);
+		}
+	}
+
+	private void append(char c) {
+		if (rowLength == row.length) {
+			row = Arrays.copyOf(row, rowLength * 2);
+		}
+		row[rowLength++] = c;
+	}
+
+	private int next() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		char c = buffer[position++];
+		if (c == '\n') {
+			lineNumber++;
+		}
+		return c;
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		if (endOfInput) {
+			return false;
+		}
+		int count = in.read(buffer, 0, buffer.length);
+		while (count == 0) {
+			count = in.read(buffer, 0, buffer.length);
+		}
+		if (count < 0) {
+			endOfInput = true;
+			return false;
+		}
+		position = 0;
+		limit = count;
+		return true;
+	}
+
+	/**
+	 * {@code CharSequence} on the row buffer, it covers the whole row for parsing numbers and a
+	 * single value for {@link #getChars(int)}
+	 */
+	private final class Value implements CharSequence {
+		private int start;
+		private int end;
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return row[start + index];
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return new String(row, start + from, to - from);
+		}
+
+		@Override
+		public String toString() {
+			return new String(row, start, end - start);
+		}
+	}
+}
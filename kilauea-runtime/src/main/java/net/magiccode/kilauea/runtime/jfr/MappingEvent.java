@@ -0,0 +1,75 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: MappingEvent.java
+ */
+package net.magiccode.kilauea.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event <i>kilauea.Mapping</i>, emitted by the {@code of}, {@code to}, {@code toJSONString} 
+ * and {@code toXMLString} methods of generated classes when they are generated with 
+ * {@code @Mapped(jfrEvents = true)} or the processor option <i>kilauea.jfr</i>.
+ * 
+ * Generated code creates the event, calls {@code begin()} and finally {@link #complete}.
+ * As long as no recording has the event enabled, nothing but the (usually eliminated) 
+ * allocation of the event remains.
+ */
+@Name(MappingEvent.NAME)
+@Label("Kilauea Mapping")
+@Category("Kilauea")
+@Description("Mapping between an annotated class and the class generated for it")
+@StackTrace(false)
+public class MappingEvent extends Event {
+
+	public static final String NAME = "kilauea.Mapping";
+
+	@Label("Source Class")
+	private Class<?> sourceClass;
+
+	@Label("Target Class")
+	private Class<?> targetClass;
+
+	@Label("Operation")
+	private String operation;
+
+	@Label("Elements")
+	@Description("Number of mapped elements, 1 for the object plus the elements of its collection, map and array fields")
+	private long elements;
+
+	/**
+	 * end the event and commit it, if it passes the settings of the recording.
+	 * 
+	 * @param sourceClass  - the class mapped from
+	 * @param targetClass  - the class mapped to
+	 * @param operation    - name of the generated method
+	 * @param elements     - number of mapped elements
+	 */
+	public void complete(final Class<?> sourceClass, 
+						 final Class<?> targetClass, 
+						 final String operation, 
+						 final long elements) {
+		if (isEnabled()) {
+			end();
+			if (shouldCommit()) {
+				this.sourceClass = sourceClass;
+				this.targetClass = targetClass;
+				this.operation = operation;
+				this.elements = elements;
+				commit();
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: JacksonSupport.java
+ */
+package net.magiccode.kilauea.runtime.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import net.magiccode.kilauea.runtime.MappingException;
+
+/**
+ * Holds the Jackson configuration shared by all classes generated with type JSON.
+ * <p>
+ * Creating an {@code ObjectMapper} is expensive and each one builds its own serializers,
+ * including the encoded property names, on first use of a class. The mappers held here are
+ * created once per format and the writers and readers are cached per class, so every call
+ * after the first one reuses them.
+ * <p>
+ * CBOR and Smile are optional: they require {@code jackson-dataformat-cbor} or
+ * {@code jackson-dataformat-smile} on the classpath only when they are used.
+ */
+public final class JacksonSupport {
+
+	private static final Format JSON = new Format("JSON", new ObjectMapper());
+
+	private static final ObjectWriter PRETTY_WRITER = JSON.mapper.writerWithDefaultPrettyPrinter();
+
+	private JacksonSupport() {
+	}
+
+	/**
+	 * @return the shared {@code ObjectMapper} for JSON
+	 */
+	public static ObjectMapper jsonMapper() {
+		return JSON.mapper;
+	}
+
+	/**
+	 * @return a writer for formatted JSON, used by the generated {@code toJSONString()}
+	 */
+	public static ObjectWriter prettyJSONWriter() {
+		return PRETTY_WRITER;
+	}
+
+	/**
+	 * @param value - the object to write
+	 * @return the CBOR representation of {@code value}
+	 * @throws MappingException if writing fails or {@code jackson-dataformat-cbor} is missing
+	 */
+	public static byte[] toCBOR(final Object value) {
+		return cbor().write(value);
+	}
+
+	/**
+	 * @param <T>   - the type to read
+	 * @param bytes - CBOR as written by {@link #toCBOR(Object)}
+	 * @param type  - the class to read
+	 * @return a new instance of {@code type}
+	 * @throws MappingException if reading fails or {@code jackson-dataformat-cbor} is missing
+	 */
+	public static <T> T fromCBOR(final byte[] bytes, final Class<T> type) {
+		return cbor().read(bytes, type);
+	}
+
+	/**
+	 * @param value - the object to write
+	 * @return the Smile representation of {@code value}
+	 * @throws MappingException if writing fails or {@code jackson-dataformat-smile} is missing
+	 */
+	public static byte[] toSmile(final Object value) {
+		return smile().write(value);
+	}
+
+	/**
+	 * @param <T>   - the type to read
+	 * @param bytes - Smile as written by {@link #toSmile(Object)}
+	 * @param type  - the class to read
+	 * @return a new instance of {@code type}
+	 * @throws MappingException if reading fails or {@code jackson-dataformat-smile} is missing
+	 */
+	public static <T> T fromSmile(final byte[] bytes, final Class<T> type) {
+		return smile().read(bytes, type);
+	}
+
+	private static Format cbor() {
+		try {
+			return CBORHolder.CBOR;
+		} catch (NoClassDefFoundError e) {
+			throw new MappingException("CBOR requires com.fasterxml.jackson.dataformat:jackson-dataformat-cbor on the classpath", e);
+		}
+	}
+
+	private static Format smile() {
+		try {
+			return SmileHolder.SMILE;
+		} catch (NoClassDefFoundError e) {
+			throw new MappingException("Smile requires com.fasterxml.jackson.dataformat:jackson-dataformat-smile on the classpath", e);
+		}
+	}
+
+	/**
+	 * loaded on first use of CBOR only
+	 */
+	private static final class CBORHolder {
+		private static final Format CBOR = new Format("CBOR", new CBORMapper());
+	}
+
+	/**
+	 * loaded on first use of Smile only
+	 */
+	private static final class SmileHolder {
+		private static final Format SMILE = new Format("Smile", new SmileMapper());
+	}
+
+	/**
+	 * mapper of one format with its writers and readers per class
+	 */
+	private static final class Format {
+
+		private final String name;
+		private final ObjectMapper mapper;
+		private final ClassValue<ObjectWriter> writers;
+		private final ClassValue<ObjectReader> readers;
+
+		private Format(final String name, final ObjectMapper mapper) {
+			this.name = name;
+			this.mapper = mapper.findAndRegisterModules();
+			this.writers = new ClassValue<>() {
+				@Override
+				protected ObjectWriter computeValue(final Class<?> type) {
+					return Format.this.mapper.writerFor(type);
+				}
+			};
+			this.readers = new ClassValue<>() {
+				@Override
+				protected ObjectReader computeValue(final Class<?> type) {
+					return Format.this.mapper.readerFor(type);
+				}
+			};
+		}
+
+		private byte[] write(final Object value) {
+			try {
+				return writers.get(value.getClass()).writeValueAsBytes(value);
+			} catch (IOException e) {
+				throw new MappingException("Could not write " + value.getClass().getName() + " as " + name, e);
+			}
+		}
+
+		private <T> T read(final byte[] bytes, final Class<T> type) {
+			try {
+				return readers.get(type).readValue(bytes);
+			} catch (IOException e) {
+				throw new MappingException("Could not read " + type.getName() + " from " + name, e);
+			}
+		}
+	}
+}
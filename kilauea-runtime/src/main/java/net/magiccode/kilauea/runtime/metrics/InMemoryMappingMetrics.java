@@ -0,0 +1,82 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: InMemoryMappingMetrics.java
+ */
+package net.magiccode.kilauea.runtime.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Built-in sink keeping counters and latency histograms per generated class in memory.
+ * The statistics of each class are registered as MXBean on first use, see {@link MapperStatisticsMXBean}.
+ * Enabled with the system property <i>kilauea.metrics=true</i>.
+ */
+@Log4j2
+public class InMemoryMappingMetrics implements MappingMetricsSink {
+
+	/** domain of the registered MXBeans */
+	public static final String JMX_DOMAIN = "net.magiccode.kilauea";
+
+	private static final InMemoryMappingMetrics INSTANCE = new InMemoryMappingMetrics();
+
+	private final Map<Class<?>, MapperStatistics> statistics = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the shared instance
+	 */
+	public static InMemoryMappingMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public void recordMapping(final Class<?> mapperClass, final String operation, final long elements,
+			final long durationNanos) {
+		statisticsFor(mapperClass).record(elements, durationNanos);
+	}
+
+	@Override
+	public void recordFailure(final Class<?> mapperClass, final String operation, final Throwable failure) {
+		statisticsFor(mapperClass).failure();
+	}
+
+	/**
+	 * @return the statistics of all generated classes seen so far
+	 */
+	public Map<Class<?>, MapperStatistics> statistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	private MapperStatistics statisticsFor(final Class<?> mapperClass) {
+		MapperStatistics mapperStatistics = statistics.get(mapperClass);
+		if (mapperStatistics == null) {
+			mapperStatistics = statistics.computeIfAbsent(mapperClass, this::register);
+		}
+		return mapperStatistics;
+	}
+
+	private MapperStatistics register(final Class<?> mapperClass) {
+		MapperStatistics mapperStatistics = new MapperStatistics();
+		try {
+			ObjectName name = new ObjectName(JMX_DOMAIN + ":type=MappingMetrics,name=" + mapperClass.getName());
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mapperStatistics, name);
+		} catch (JMException e) {
+			logger.warn("Could not register mapping metrics of " + mapperClass.getName() + " for JMX", e);
+		}
+		return mapperStatistics;
+	}
+}
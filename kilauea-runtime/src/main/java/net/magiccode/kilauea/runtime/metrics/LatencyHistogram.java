@@ -0,0 +1,77 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: LatencyHistogram.java
+ */
+package net.magiccode.kilauea.runtime.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with power-of-two buckets. 
+ * Counts are striped by thread, so concurrent mappings rarely update the same cache line.
+ */
+public class LatencyHistogram {
+
+	private static final int BUCKETS = 64;
+	/** distance between stripes, keeps stripes on separate cache lines */
+	private static final int PADDING = 8;
+	private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+
+	private final AtomicLongArray counts = new AtomicLongArray(STRIPES * (BUCKETS + PADDING));
+
+	/**
+	 * @param durationNanos - the duration to record
+	 */
+	public void record(final long durationNanos) {
+		int bucket = BUCKETS - Long.numberOfLeadingZeros(Math.max(1L, durationNanos));
+		int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+		counts.incrementAndGet(stripe * (BUCKETS + PADDING) + Math.min(bucket, BUCKETS - 1));
+	}
+
+	/**
+	 * @return the recorded counts per bucket summed over all stripes. Bucket <i>n</i> holds
+	 *         durations below 2<sup>n</sup> nanoseconds.
+	 */
+	public long[] snapshot() {
+		long[] buckets = new long[BUCKETS];
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			int offset = stripe * (BUCKETS + PADDING);
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				buckets[bucket] += counts.get(offset + bucket);
+			}
+		}
+		return buckets;
+	}
+
+	/**
+	 * @param percentile - between 0 and 100
+	 * @return upper bound in nanoseconds of the bucket containing the given percentile, 
+	 * 		   0 if nothing was recorded
+	 */
+	public long percentile(final double percentile) {
+		long[] buckets = snapshot();
+		long total = 0;
+		for (long count : buckets) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100d);
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += buckets[bucket];
+			if (seen >= Math.max(1, rank)) {
+				return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+}
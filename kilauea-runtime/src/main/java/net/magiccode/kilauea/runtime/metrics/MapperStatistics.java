@@ -0,0 +1,85 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: MapperStatistics.java
+ */
+package net.magiccode.kilauea.runtime.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of one generated class.
+ */
+public class MapperStatistics implements MapperStatisticsMXBean {
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder elements = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	void record(final long elementCount, final long durationNanos) {
+		calls.increment();
+		elements.add(elementCount);
+		totalNanos.add(durationNanos);
+		latency.record(durationNanos);
+	}
+
+	void failure() {
+		failures.increment();
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getElements() {
+		return elements.sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	@Override
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	@Override
+	public double getMeanNanos() {
+		long count = calls.sum();
+		return count == 0 ? 0d : (double) totalNanos.sum() / count;
+	}
+
+	@Override
+	public long getP50Nanos() {
+		return latency.percentile(50d);
+	}
+
+	@Override
+	public long getP99Nanos() {
+		return latency.percentile(99d);
+	}
+
+	@Override
+	public long getP999Nanos() {
+		return latency.percentile(99.9d);
+	}
+
+	/**
+	 * @return the latency histogram
+	 */
+	public LatencyHistogram latency() {
+		return latency;
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: MapperStatisticsMXBean.java
+ */
+package net.magiccode.kilauea.runtime.metrics;
+
+/**
+ * JMX view on the metrics of one generated class, registered by {@link InMemoryMappingMetrics}
+ * as <i>net.magiccode.kilauea:type=MappingMetrics,name=&lt;generated class&gt;</i>.
+ */
+public interface MapperStatisticsMXBean {
+
+	long getCalls();
+
+	/**
+	 * @return the mapped elements summed over all calls, 1 per object plus the elements 
+	 * 		   of its collection, map and array fields
+	 */
+	long getElements();
+
+	long getFailures();
+
+	long getTotalNanos();
+
+	double getMeanNanos();
+
+	long getP50Nanos();
+
+	long getP99Nanos();
+
+	long getP999Nanos();
+}
@@ -0,0 +1,88 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: MappingMetrics.java
+ */
+package net.magiccode.kilauea.runtime.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Entry point for the metrics calls of generated classes. 
+ * 
+ * Sinks are loaded once with {@code ServiceLoader}. Setting the system property 
+ * <i>kilauea.metrics=true</i> adds the built-in {@link InMemoryMappingMetrics}, which
+ * is queryable via JMX. Without any sink {@link #ENABLED} is false; since it is a static final
+ * field, the JIT removes the guarded metrics code from generated methods entirely.
+ */
+@Log4j2
+public final class MappingMetrics {
+
+	/** system property enabling the built-in in-memory sink */
+	public static final String PROPERTY = "kilauea.metrics";
+
+	private static final MappingMetricsSink[] SINKS = loadSinks();
+
+	/** true if at least one sink is available */
+	public static final boolean ENABLED = SINKS.length > 0;
+
+	private MappingMetrics() {
+	}
+
+	/**
+	 * pass a completed mapping to all sinks
+	 * 
+	 * @param mapperClass - the generated class
+	 * @param operation   - name of the generated method
+	 * @param elements    - number of mapped elements
+	 * @param startNanos  - value of {@code System.nanoTime()} when the method was entered
+	 */
+	public static void record(final Class<?> mapperClass, final String operation, final long elements,
+			final long startNanos) {
+		long durationNanos = System.nanoTime() - startNanos;
+		for (MappingMetricsSink sink : SINKS) {
+			try {
+				sink.recordMapping(mapperClass, operation, elements, durationNanos);
+			} catch (RuntimeException e) {
+				// metrics must never break the mapping
+				logger.debug("Sink " + sink.getClass().getName() + " failed to record mapping", e);
+			}
+		}
+	}
+
+	/**
+	 * pass a failed mapping to all sinks
+	 * 
+	 * @param mapperClass - the generated class
+	 * @param operation   - name of the generated method
+	 * @param failure     - the exception thrown
+	 */
+	public static void failure(final Class<?> mapperClass, final String operation, final Throwable failure) {
+		for (MappingMetricsSink sink : SINKS) {
+			try {
+				sink.recordFailure(mapperClass, operation, failure);
+			} catch (RuntimeException e) {
+				logger.debug("Sink " + sink.getClass().getName() + " failed to record failure", e);
+			}
+		}
+	}
+
+	private static MappingMetricsSink[] loadSinks() {
+		List<MappingMetricsSink> sinks = new ArrayList<>();
+		ServiceLoader.load(MappingMetricsSink.class).forEach(sinks::add);
+		if (Boolean.getBoolean(PROPERTY)) {
+			sinks.add(InMemoryMappingMetrics.getInstance());
+		}
+		return sinks.toArray(new MappingMetricsSink[0]);
+	}
+}
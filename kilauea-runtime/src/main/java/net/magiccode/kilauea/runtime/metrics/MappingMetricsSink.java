@@ -0,0 +1,42 @@
+/**
+ * kilauea
+ * 
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ * 
+ * Code: https://github.com/CodeWeazle/kilauea
+ * 
+ * @author CodeWeazle (2023)
+ * 
+ * Filename: MappingMetricsSink.java
+ */
+package net.magiccode.kilauea.runtime.metrics;
+
+/**
+ * Receives the metrics of generated mapping classes. Implementations are discovered
+ * with {@code ServiceLoader}, register them in 
+ * <i>META-INF/services/net.magiccode.kilauea.runtime.metrics.MappingMetricsSink</i>.
+ * 
+ * Methods are called on the mapping thread and must not block.
+ */
+public interface MappingMetricsSink {
+
+	/**
+	 * a mapping or serialization method completed.
+	 * 
+	 * @param mapperClass   - the generated class
+	 * @param operation     - name of the generated method, like <i>of</i> or <i>toJSONString</i>
+	 * @param elements      - number of mapped elements, 1 for the object plus the elements
+	 *                       of its collection, map and array fields
+	 * @param durationNanos - time spent in the method
+	 */
+	void recordMapping(Class<?> mapperClass, String operation, long elements, long durationNanos);
+
+	/**
+	 * a mapping or serialization method threw an exception.
+	 * 
+	 * @param mapperClass - the generated class
+	 * @param operation   - name of the generated method
+	 * @param failure     - the exception thrown
+	 */
+	void recordFailure(Class<?> mapperClass, String operation, Throwable failure);
+}
@@ -0,0 +1,128 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: OffHeap.java
+ */
+package net.magiccode.kilauea.runtime.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffer operations used by the classes generated with type OFFHEAP. Records are stored at
+ * fixed offsets in direct buffers in native byte order, outside of the garbage collected heap.
+ * <p>
+ * Each record starts with a presence bitmap, one bit per field which can be null. A record
+ * with all bytes zero therefore has all nullable fields set to null and all primitive fields
+ * set to zero. Strings are stored in slots of a fixed size: the number of UTF-8 bytes as
+ * {@code short}, followed by the bytes.
+ */
+public final class OffHeap {
+
+	private OffHeap() {
+	}
+
+	/**
+	 * @param bytes - size of the buffer
+	 * @return a new direct buffer in native byte order, all bytes are zero
+	 */
+	public static ByteBuffer allocate(final int bytes) {
+		return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * @param buffer       - the current buffer
+	 * @param usedBytes    - number of bytes in use, which are copied
+	 * @param minimumBytes - required capacity
+	 * @return a buffer of at least {@code minimumBytes}, {@code buffer} itself if it is large enough
+	 * @throws IllegalStateException if {@code minimumBytes} exceeds the maximum size of a buffer
+	 */
+	public static ByteBuffer grow(final ByteBuffer buffer, final int usedBytes, final long minimumBytes) {
+		if (minimumBytes <= buffer.capacity()) {
+			return buffer;
+		}
+		if (minimumBytes > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Off-heap store exceeds " + Integer.MAX_VALUE + " bytes");
+		}
+		int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(minimumBytes, 2L * buffer.capacity()));
+		ByteBuffer grown = allocate(capacity);
+		grown.put(0, buffer, 0, usedBytes);
+		return grown;
+	}
+
+	/**
+	 * set the given range to zero
+	 *
+	 * @param buffer - the buffer
+	 * @param offset - start of the range
+	 * @param length - length of the range
+	 */
+	public static void clear(final ByteBuffer buffer, final int offset, final int length) {
+		int index = offset;
+		int end = offset + length;
+		for (; index + Long.BYTES <= end; index += Long.BYTES) {
+			buffer.putLong(index, 0L);
+		}
+		for (; index < end; index++) {
+			buffer.put(index, (byte) 0);
+		}
+	}
+
+	/**
+	 * @param buffer - the buffer
+	 * @param offset - start of the record
+	 * @param bit    - index of the field in the presence bitmap
+	 * @return whether the field is not null
+	 */
+	public static boolean isPresent(final ByteBuffer buffer, final int offset, final int bit) {
+		return (buffer.get(offset + (bit >>> 3)) & (1 << (bit & 7))) != 0;
+	}
+
+	/**
+	 * @param buffer  - the buffer
+	 * @param offset  - start of the record
+	 * @param bit     - index of the field in the presence bitmap
+	 * @param present - whether the field is not null
+	 */
+	public static void setPresent(final ByteBuffer buffer, final int offset, final int bit, final boolean present) {
+		int index = offset + (bit >>> 3);
+		int mask = 1 << (bit & 7);
+		byte bits = buffer.get(index);
+		buffer.put(index, (byte) (present ? bits | mask : bits & ~mask));
+	}
+
+	/**
+	 * @param buffer   - the buffer
+	 * @param offset   - start of the slot
+	 * @param maxBytes - number of bytes available for the UTF-8 encoded value
+	 * @param value    - the value to store, not null
+	 * @throws IllegalArgumentException if the encoded value does not fit into the slot
+	 */
+	public static void putString(final ByteBuffer buffer, final int offset, final int maxBytes, final String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > maxBytes) {
+			throw new IllegalArgumentException("String of " + bytes.length + " UTF-8 bytes exceeds the slot of " + maxBytes
+					+ " bytes, use @OFFHEAPLength to enlarge it");
+		}
+		buffer.putShort(offset, (short) bytes.length);
+		buffer.put(offset + Short.BYTES, bytes);
+	}
+
+	/**
+	 * @param buffer - the buffer
+	 * @param offset - start of the slot
+	 * @return the stored value
+	 */
+	public static String getString(final ByteBuffer buffer, final int offset) {
+		byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+		buffer.get(offset + Short.BYTES, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
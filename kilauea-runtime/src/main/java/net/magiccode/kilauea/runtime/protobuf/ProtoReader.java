@@ -0,0 +1,398 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ProtoReader.java
+ */
+package net.magiccode.kilauea.runtime.protobuf;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reads the protobuf binary wire format written by {@link ProtoWriter} or any other protobuf
+ * implementation from an {@code InputStream}, used by the <i>parseProto</i> methods generated
+ * for {@code @Mapped(protobuf = true)}.
+ *
+ * The generated code reads tags with {@link #readTag()} until it returns 0, which happens at the
+ * end of the input or of the current message. Fields with unknown numbers are skipped with
+ * {@link #skipField(int)}. Nested messages and packed repeated fields are read within a limit set
+ * by {@link #pushLimit(int)}.
+ *
+ * Instances are not thread-safe.
+ */
+public final class ProtoReader {
+
+	/**
+	 * reads a message from the reader, which is limited to the message
+	 *
+	 * @param <T> - type of the message
+	 */
+	@FunctionalInterface
+	public interface MessageParser<T> {
+
+		/**
+		 * @param reader - the reader, limited to the message
+		 * @return the message
+		 * @throws IOException if the input cannot be read or is malformed
+		 */
+		T parse(ProtoReader reader) throws IOException;
+	}
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final InputStream in;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	/** number of bytes of the input in front of the buffer */
+	private long consumed;
+	/** offset in the input at which the current message ends */
+	private long end = Long.MAX_VALUE;
+
+	/**
+	 * @param in - the input, which is read in chunks of the size of the internal buffer
+	 */
+	public ProtoReader(final InputStream in) {
+		this.in = in;
+	}
+
+	private long offset() {
+		return consumed + position;
+	}
+
+	/**
+	 * make the given number of bytes, at most the size of the buffer, available in the buffer
+	 *
+	 * @return false if the input ends before
+	 */
+	private boolean ensure(int length) throws IOException {
+		if (limit - position >= length) {
+			return true;
+		}
+		System.arraycopy(buffer, position, buffer, 0, limit - position);
+		consumed += position;
+		limit -= position;
+		position = 0;
+		while (limit < length) {
+			int count = in.read(buffer, limit, BUFFER_SIZE - limit);
+			if (count < 0) {
+				return false;
+			}
+			limit += count;
+		}
+		return true;
+	}
+
+	private void require(int length) throws IOException {
+		if (!ensure(length)) {
+			throw new EOFException("Protobuf input ends within a value at offset " + offset());
+		}
+	}
+
+	/**
+	 * @return the next tag or 0 at the end of the input or of the current message
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public int readTag() throws IOException {
+		long offset = offset();
+		if (offset >= end) {
+			if (offset > end) {
+				throw new IOException("Protobuf message exceeds its length at offset " + offset);
+			}
+			return 0;
+		}
+		if (!ensure(1)) {
+			if (end != Long.MAX_VALUE) {
+				throw new EOFException("Protobuf input ends within a message at offset " + offset);
+			}
+			return 0;
+		}
+		int tag = readUInt32();
+		if (tag >>> 3 == 0) {
+			throw new IOException("Invalid protobuf tag " + tag + " at offset " + offset);
+		}
+		return tag;
+	}
+
+	/**
+	 * @return the varint read, truncated to 32 bits
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public int readUInt32() throws IOException {
+		return (int) readUInt64();
+	}
+
+	/**
+	 * @return the varint read
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public long readUInt64() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			require(1);
+			byte b = buffer[position++];
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint at offset " + offset());
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public int readInt32() throws IOException {
+		return (int) readUInt64();
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public long readInt64() throws IOException {
+		return readUInt64();
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public boolean readBool() throws IOException {
+		return readUInt64() != 0;
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read
+	 */
+	public int readFixed32() throws IOException {
+		require(4);
+		int value = (buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8
+				| (buffer[position + 2] & 0xFF) << 16 | (buffer[position + 3] & 0xFF) << 24;
+		position += 4;
+		return value;
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read
+	 */
+	public long readFixed64() throws IOException {
+		return (readFixed32() & 0xFFFFFFFFL) | (long) readFixed32() << 32;
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read
+	 */
+	public float readFloat() throws IOException {
+		return Float.intBitsToFloat(readFixed32());
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read
+	 */
+	public double readDouble() throws IOException {
+		return Double.longBitsToDouble(readFixed64());
+	}
+
+	/**
+	 * @param <E>    - type of the enum
+	 * @param values - the constants of the enum
+	 * @return the constant with the ordinal read or null if there is none, e.g. when the
+	 *         writer knows more constants
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public <E extends Enum<E>> E readEnum(final E[] values) throws IOException {
+		int ordinal = readInt32();
+		return ordinal >= 0 && ordinal < values.length ? values[ordinal] : null;
+	}
+
+	/**
+	 * @return the length of a length delimited value
+	 * @throws IOException if the input cannot be read or the length is invalid
+	 */
+	public int readLength() throws IOException {
+		int length = readUInt32();
+		if (length < 0 || offset() + length > end) {
+			throw new IOException("Invalid protobuf length " + length + " at offset " + offset());
+		}
+		return length;
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public String readString() throws IOException {
+		int length = readLength();
+		if (length <= BUFFER_SIZE) {
+			require(length);
+			String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+		return new String(readLarge(length), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the value
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public byte[] readBytes() throws IOException {
+		int length = readLength();
+		if (length <= BUFFER_SIZE) {
+			require(length);
+			byte[] value = new byte[length];
+			System.arraycopy(buffer, position, value, 0, length);
+			position += length;
+			return value;
+		}
+		return readLarge(length);
+	}
+
+	/**
+	 * read a value larger than the buffer, the buffered bytes first and the remainder from the stream
+	 */
+	private byte[] readLarge(int length) throws IOException {
+		byte[] value = new byte[length];
+		int buffered = limit - position;
+		System.arraycopy(buffer, position, value, 0, buffered);
+		int read = buffered + in.readNBytes(value, buffered, length - buffered);
+		if (read < length) {
+			throw new EOFException("Protobuf input ends within a value at offset " + (offset() + read));
+		}
+		consumed += limit + length - buffered;
+		position = 0;
+		limit = 0;
+		return value;
+	}
+
+	/**
+	 * read a message {@code google.protobuf.Timestamp}
+	 *
+	 * @return the value
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public Instant readTimestamp() throws IOException {
+		long previous = pushLimit(readLength());
+		long seconds = 0;
+		int nanos = 0;
+		int tag;
+		while ((tag = readTag()) != 0) {
+			if (tag == 8) {
+				seconds = readInt64();
+			} else if (tag == 16) {
+				nanos = readInt32();
+			} else {
+				skipField(tag);
+			}
+		}
+		popLimit(previous);
+		return Instant.ofEpochSecond(seconds, nanos);
+	}
+
+	/**
+	 * read a length delimited message
+	 *
+	 * @param <T>    - type of the message
+	 * @param parser - reads the message, typically <i>XXX::parseProto</i>
+	 * @return the message
+	 * @throws IOException if the input cannot be read or is malformed
+	 */
+	public <T> T readMessage(final MessageParser<T> parser) throws IOException {
+		long previous = pushLimit(readLength());
+		T message = parser.parse(this);
+		popLimit(previous);
+		return message;
+	}
+
+	/**
+	 * limit reading to the given number of bytes, {@link #readTag()} returns 0 when they have been read
+	 *
+	 * @param length - number of bytes
+	 * @return the previous limit, to be passed to {@link #popLimit(long)}
+	 */
+	public long pushLimit(int length) {
+		long previous = end;
+		end = offset() + length;
+		return previous;
+	}
+
+	/**
+	 * @param previous - the limit returned by {@link #pushLimit(int)}
+	 * @throws IOException if the limited value has not been read completely
+	 */
+	public void popLimit(long previous) throws IOException {
+		if (offset() != end) {
+			throw new IOException("Protobuf value does not match its length at offset " + offset());
+		}
+		end = previous;
+	}
+
+	/**
+	 * @return true if the limit set by {@link #pushLimit(int)} has been reached
+	 */
+	public boolean isAtLimit() {
+		return offset() >= end;
+	}
+
+	/**
+	 * skip the value of a field with unknown number
+	 *
+	 * @param tag - the tag read
+	 * @throws IOException if the input cannot be read or the wire type is not supported
+	 */
+	public void skipField(int tag) throws IOException {
+		switch (tag & 7) {
+			case ProtoWriter.VARINT:
+				readUInt64();
+				break;
+			case ProtoWriter.I64:
+				skip(8);
+				break;
+			case ProtoWriter.LEN:
+				skip(readLength());
+				break;
+			case ProtoWriter.I32:
+				skip(4);
+				break;
+			default:
+				throw new IOException("Unsupported protobuf wire type " + (tag & 7) + " at offset " + offset());
+		}
+	}
+
+	private void skip(int length) throws IOException {
+		int buffered = Math.min(length, limit - position);
+		position += buffered;
+		long remaining = length - buffered;
+		if (remaining > 0) {
+			consumed += limit;
+			position = 0;
+			limit = 0;
+			while (remaining > 0) {
+				long skipped = in.skip(remaining);
+				if (skipped <= 0) {
+					if (in.read() < 0) {
+						throw new EOFException("Protobuf input ends within a value at offset " + (consumed));
+					}
+					skipped = 1;
+				}
+				consumed += skipped;
+				remaining -= skipped;
+			}
+		}
+	}
+}
@@ -0,0 +1,439 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: ProtoWriter.java
+ */
+package net.magiccode.kilauea.runtime.protobuf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+
+import net.magiccode.kilauea.runtime.MappingException;
+
+/**
+ * Writes the protobuf binary wire format to an {@code OutputStream}, used by the
+ * <i>writeProto</i> methods generated for {@code @Mapped(protobuf = true)}. The values are
+ * collected in a buffer of its own, which is written to the stream when it is full and by
+ * {@link #flush()}.
+ * <ul>
+ * <li>{@code int32}, {@code int64}, {@code uint32}, {@code bool} and enums as varints, negative
+ * {@code int32} values sign extended to 10 bytes</li>
+ * <li>{@code float} and {@code double} as 4 and 8 bytes, little endian</li>
+ * <li>{@code string}, {@code bytes} and messages with a varint length in front</li>
+ * <li>{@code Instant} as message {@code google.protobuf.Timestamp}</li>
+ * </ul>
+ * The static {@code sizeOfXXX} methods return the number of bytes a value takes without its tag,
+ * they are used to write the length of messages before their content. Strings are encoded
+ * directly into the buffer, without intermediate byte arrays.
+ *
+ * The sizes of nested messages are computed once per message written: the generated
+ * <i>protoSize(ProtoWriter)</i> records them with {@link #reserveSize()} and
+ * {@link #recordSize(int, int)} in the order the messages are written, <i>writeProtoFields</i>
+ * takes them back with {@link #nextSize()}.
+ *
+ * Instances are not thread-safe.
+ */
+public final class ProtoWriter {
+
+	/** wire type of varints */
+	public static final int VARINT = 0;
+	/** wire type of 8 byte values */
+	public static final int I64 = 1;
+	/** wire type of length delimited values */
+	public static final int LEN = 2;
+	/** wire type of 4 byte values */
+	public static final int I32 = 5;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final OutputStream out;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+
+	/**
+	 * sizes of the nested messages of the message being written, allocated with the first one
+	 */
+	private int[] sizes;
+	private int sizeCount;
+	private int sizeIndex;
+
+	/**
+	 * @param out - the target, which is written in chunks of the size of the internal buffer
+	 */
+	public ProtoWriter(final OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * write the buffered bytes to the stream and flush it
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void flush() throws IOException {
+		drain();
+		out.flush();
+	}
+
+	private void drain() throws IOException {
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	/**
+	 * make room for the given number of bytes, at most the size of the buffer
+	 */
+	private void require(int length) throws IOException {
+		if (BUFFER_SIZE - position < length) {
+			drain();
+		}
+	}
+
+	/**
+	 * forget the sizes of nested messages recorded before, called before the sizes of the next
+	 * message are computed
+	 */
+	public void clearSizes() {
+		sizeCount = 0;
+		sizeIndex = 0;
+	}
+
+	/**
+	 * reserve the slot for the size of a nested message, before the sizes of the messages nested
+	 * in it are recorded, so the slots follow the order in which the messages are written
+	 *
+	 * @return index of the slot
+	 */
+	public int reserveSize() {
+		if (sizes == null) {
+			sizes = new int[16];
+		} else if (sizeCount == sizes.length) {
+			sizes = Arrays.copyOf(sizes, sizeCount * 2);
+		}
+		return sizeCount++;
+	}
+
+	/**
+	 * @param slot - index returned by {@link #reserveSize()}
+	 * @param size - number of bytes of the nested message without its length
+	 * @return the size
+	 */
+	public int recordSize(int slot, int size) {
+		sizes[slot] = size;
+		return size;
+	}
+
+	/**
+	 * @return the size of the next nested message to be written
+	 * @throws IllegalStateException if the sizes of fewer messages have been recorded
+	 */
+	public int nextSize() {
+		if (sizeIndex == sizeCount) {
+			throw new IllegalStateException("The size of nested message " + (sizeIndex + 1)
+					+ " has not been recorded by protoSize(ProtoWriter) or the message has changed since");
+		}
+		return sizes[sizeIndex++];
+	}
+
+	/**
+	 * @param number   - field number
+	 * @param wireType - one of {@link #VARINT}, {@link #I64}, {@link #LEN} and {@link #I32}
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeTag(int number, int wireType) throws IOException {
+		writeUInt32((number << 3) | wireType);
+	}
+
+	/**
+	 * @param value - the value, treated as unsigned
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeUInt32(int value) throws IOException {
+		require(5);
+		while ((value & ~0x7F) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	/**
+	 * @param value - the value, treated as unsigned
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeUInt64(long value) throws IOException {
+		require(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	/**
+	 * @param value - the value, negative values take 10 bytes
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeInt32(int value) throws IOException {
+		if (value >= 0) {
+			writeUInt32(value);
+		} else {
+			writeUInt64(value);
+		}
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeInt64(long value) throws IOException {
+		writeUInt64(value);
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeBool(boolean value) throws IOException {
+		require(1);
+		buffer[position++] = (byte) (value ? 1 : 0);
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeFixed32(int value) throws IOException {
+		require(4);
+		buffer[position++] = (byte) value;
+		buffer[position++] = (byte) (value >>> 8);
+		buffer[position++] = (byte) (value >>> 16);
+		buffer[position++] = (byte) (value >>> 24);
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeFixed64(long value) throws IOException {
+		writeFixed32((int) value);
+		writeFixed32((int) (value >>> 32));
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeFloat(float value) throws IOException {
+		writeFixed32(Float.floatToRawIntBits(value));
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeDouble(double value) throws IOException {
+		writeFixed64(Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * @param value - the value, an enum constant is written as its ordinal
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeEnum(final Enum<?> value) throws IOException {
+		writeUInt32(value.ordinal());
+	}
+
+	/**
+	 * write the length of the UTF-8 encoding followed by the encoded characters. Unpaired
+	 * surrogates are written as '?', as {@code String.getBytes} does.
+	 *
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeString(final String value) throws IOException {
+		writeUInt32(utf8Length(value));
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			require(4);
+			if (c < 0x80) {
+				buffer[position++] = (byte) c;
+			} else if (c < 0x800) {
+				buffer[position++] = (byte) (0xC0 | (c >>> 6));
+				buffer[position++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer[position++] = (byte) (0xF0 | (codePoint >>> 18));
+				buffer[position++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+				buffer[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				buffer[position++] = '?';
+			} else {
+				buffer[position++] = (byte) (0xE0 | (c >>> 12));
+				buffer[position++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeBytes(final byte[] value) throws IOException {
+		writeUInt32(value.length);
+		if (value.length <= BUFFER_SIZE - position) {
+			System.arraycopy(value, 0, buffer, position, value.length);
+			position += value.length;
+		} else {
+			drain();
+			out.write(value);
+		}
+	}
+
+	/**
+	 * write an {@code Instant} as message {@code google.protobuf.Timestamp}, including its length
+	 *
+	 * @param value - the value
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void writeTimestamp(final Instant value) throws IOException {
+		writeUInt32(timestampLength(value));
+		if (value.getEpochSecond() != 0) {
+			writeTag(1, VARINT);
+			writeInt64(value.getEpochSecond());
+		}
+		if (value.getNano() != 0) {
+			writeTag(2, VARINT);
+			writeInt32(value.getNano());
+		}
+	}
+
+	// sizes
+
+	/**
+	 * @param value - the value, treated as unsigned
+	 * @return number of bytes of the varint
+	 */
+	public static int sizeOfUInt32(int value) {
+		return (32 - Integer.numberOfLeadingZeros(value | 1) + 6) / 7;
+	}
+
+	/**
+	 * @param value - the value, treated as unsigned
+	 * @return number of bytes of the varint
+	 */
+	public static int sizeOfUInt64(long value) {
+		return (64 - Long.numberOfLeadingZeros(value | 1) + 6) / 7;
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes of the varint, 10 for negative values
+	 */
+	public static int sizeOfInt32(int value) {
+		return value >= 0 ? sizeOfUInt32(value) : 10;
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes of the varint
+	 */
+	public static int sizeOfInt64(long value) {
+		return sizeOfUInt64(value);
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes of the ordinal
+	 */
+	public static int sizeOfEnum(final Enum<?> value) {
+		return sizeOfUInt32(value.ordinal());
+	}
+
+	/**
+	 * @param length - number of bytes of a length delimited value
+	 * @return number of bytes of the value including its length
+	 */
+	public static int sizeOfLength(int length) {
+		return sizeOfUInt32(length) + length;
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes of the UTF-8 encoding including its length
+	 */
+	public static int sizeOfString(final String value) {
+		return sizeOfLength(utf8Length(value));
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes including the length
+	 */
+	public static int sizeOfBytes(final byte[] value) {
+		return sizeOfLength(value.length);
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes of the {@code google.protobuf.Timestamp} including its length
+	 */
+	public static int sizeOfTimestamp(final Instant value) {
+		return sizeOfLength(timestampLength(value));
+	}
+
+	/**
+	 * check an element of a repeated field or a key or value of a map field, protobuf has no
+	 * representation for null in them
+	 *
+	 * @param value - the element, key or value
+	 * @param field - name of the field, used in the message
+	 * @throws MappingException if the value is null
+	 */
+	public static void requireElement(final Object value, final String field) {
+		if (value == null) {
+			throw new MappingException("Field " + field + " contains null, which cannot be written as protobuf");
+		}
+	}
+
+	private static int timestampLength(final Instant value) {
+		return (value.getEpochSecond() != 0 ? 1 + sizeOfInt64(value.getEpochSecond()) : 0)
+				+ (value.getNano() != 0 ? 1 + sizeOfInt32(value.getNano()) : 0);
+	}
+
+	/**
+	 * @param value - the value
+	 * @return number of bytes of the UTF-8 encoding, as written by {@link #writeString(String)}
+	 */
+	public static int utf8Length(final CharSequence value) {
+		int length = value.length();
+		int bytes = length;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				if (c < 0x800) {
+					bytes++;
+				} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					// two chars, four bytes
+					bytes += 2;
+					i++;
+				} else if (!Character.isSurrogate(c)) {
+					bytes += 2;
+				}
+			}
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,286 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: XmlStreams.java
+ */
+package net.magiccode.kilauea.runtime.xml;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * StAX helpers for the <i>writeXML</i> and <i>readXML</i> methods generated for
+ * {@code GeneratorType.XML}.
+ * <ul>
+ * <li>elements are written with the namespace as default namespace, which is declared only
+ * where it changes</li>
+ * <li>attributes with a namespace are written with a prefix, which is declared on the element
+ * if the namespace has none yet</li>
+ * <li>null values are written as empty elements, empty elements are read as null</li>
+ * <li>values are read by local name, elements which are not known are skipped</li>
+ * <li>{@code Instant}, {@code OffsetDateTime}, {@code ZonedDateTime} and {@code Duration} are read
+ * in ISO format or as decimal seconds, as Jackson writes them by default</li>
+ * </ul>
+ * The methods work with any {@code XMLStreamWriter}, including those which do not repair
+ * namespaces.
+ */
+public final class XmlStreams {
+
+	private XmlStreams() {
+	}
+
+	/**
+	 * write a start element in the given namespace
+	 *
+	 * @param writer    - the target
+	 * @param namespace - namespace URI of the element, empty for none
+	 * @param localName - name of the element
+	 * @throws XMLStreamException if the target cannot be written
+	 */
+	public static void writeStartElement(final XMLStreamWriter writer, final String namespace, final String localName)
+			throws XMLStreamException {
+		String current = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+		writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, localName, namespace);
+		if (!namespace.equals(current == null ? XMLConstants.NULL_NS_URI : current)) {
+			writer.writeDefaultNamespace(namespace);
+		}
+	}
+
+	/**
+	 * write an element containing text only
+	 *
+	 * @param writer    - the target
+	 * @param namespace - namespace URI of the element, empty for none
+	 * @param localName - name of the element
+	 * @param text      - content of the element
+	 * @throws XMLStreamException if the target cannot be written
+	 */
+	public static void writeElement(final XMLStreamWriter writer, final String namespace, final String localName,
+			final String text) throws XMLStreamException {
+		writeStartElement(writer, namespace, localName);
+		writer.writeCharacters(text);
+		writer.writeEndElement();
+	}
+
+	/**
+	 * write an element without content, which stands for null
+	 *
+	 * @param writer    - the target
+	 * @param namespace - namespace URI of the element, empty for none
+	 * @param localName - name of the element
+	 * @throws XMLStreamException if the target cannot be written
+	 */
+	public static void writeEmptyElement(final XMLStreamWriter writer, final String namespace, final String localName)
+			throws XMLStreamException {
+		writeStartElement(writer, namespace, localName);
+		writer.writeEndElement();
+	}
+
+	/**
+	 * write an attribute of the current element, to be called before its content
+	 *
+	 * @param writer    - the target
+	 * @param namespace - namespace URI of the attribute, empty for none
+	 * @param localName - name of the attribute
+	 * @param value     - value of the attribute
+	 * @throws XMLStreamException if the target cannot be written
+	 */
+	public static void writeAttribute(final XMLStreamWriter writer, final String namespace, final String localName,
+			final String value) throws XMLStreamException {
+		if (namespace.isEmpty()) {
+			writer.writeAttribute(localName, value);
+			return;
+		}
+		// the default namespace does not apply to attributes, they need a prefix
+		String prefix = writer.getNamespaceContext().getPrefix(namespace);
+		if (prefix == null || prefix.isEmpty()) {
+			// reuse a generated prefix of the namespace, some writers report the default prefix only
+			int index = 1;
+			String bound;
+			while ((bound = writer.getNamespaceContext().getNamespaceURI("ns" + index)) != null && !bound.isEmpty()
+					&& !bound.equals(namespace)) {
+				index++;
+			}
+			prefix = "ns" + index;
+			if (!namespace.equals(bound)) {
+				// bind the prefix for the following attributes, not all writers do so on writeNamespace
+				writer.setPrefix(prefix, namespace);
+				writer.writeNamespace(prefix, namespace);
+			}
+		}
+		writer.writeAttribute(prefix, namespace, localName, value);
+	}
+
+	/**
+	 * move the reader to the next start element, unless it is positioned at one, and check its name
+	 *
+	 * @param reader    - the source
+	 * @param localName - expected name of the element
+	 * @throws XMLStreamException if there is no further element or it has another name
+	 */
+	public static void requireStartElement(final XMLStreamReader reader, final String localName)
+			throws XMLStreamException {
+		while (!reader.isStartElement()) {
+			if (!reader.hasNext()) {
+				throw new XMLStreamException("Expected element <" + localName + "> but the input ends", reader.getLocation());
+			}
+			reader.next();
+		}
+		if (!localName.equals(reader.getLocalName())) {
+			throw new XMLStreamException("Expected element <" + localName + "> but found <" + reader.getLocalName() + ">",
+					reader.getLocation());
+		}
+	}
+
+	/**
+	 * read the text of the current element
+	 *
+	 * @param <T>    - type of the value
+	 * @param reader - the source, positioned at a start element, afterwards at the matching end element
+	 * @param parser - converts the text to the value
+	 * @return the value or null if the element is empty
+	 * @throws XMLStreamException if the input cannot be read or the element contains child elements
+	 */
+	public static <T> T readElement(final XMLStreamReader reader, final Function<String, T> parser)
+			throws XMLStreamException {
+		String text = reader.getElementText();
+		return text.isEmpty() ? null : parser.apply(text);
+	}
+
+	/**
+	 * skip the current element including its content
+	 *
+	 * @param reader - the source, positioned at a start element, afterwards at the matching end element
+	 * @throws XMLStreamException if the input cannot be read
+	 */
+	public static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * parse a boolean as defined by XML schema
+	 *
+	 * @param text - <i>true</i>, <i>false</i>, <i>1</i> or <i>0</i>
+	 * @return the value
+	 * @throws IllegalArgumentException if the text is none of them
+	 */
+	public static boolean parseBoolean(final String text) {
+		switch (text) {
+			case "true":
+			case "1":
+				return true;
+			case "false":
+			case "0":
+				return false;
+			default:
+				throw new IllegalArgumentException("Invalid boolean \"" + text + "\"");
+		}
+	}
+
+	/**
+	 * @param text - a single character
+	 * @return the character
+	 * @throws IllegalArgumentException if the text is not a single character
+	 */
+	public static char parseChar(final String text) {
+		if (text.length() != 1) {
+			throw new IllegalArgumentException("Invalid character \"" + text + "\"");
+		}
+		return text.charAt(0);
+	}
+
+	/**
+	 * @param text - ISO format or decimal seconds since the epoch
+	 * @return the value
+	 * @throws java.time.DateTimeException if the text is neither
+	 * @throws NumberFormatException if the text is no valid decimal number
+	 */
+	public static Instant parseInstant(final String text) {
+		if (!isDecimal(text)) {
+			return Instant.parse(text);
+		}
+		BigDecimal seconds = new BigDecimal(text);
+		long wholeSeconds = seconds.longValue();
+		return Instant.ofEpochSecond(wholeSeconds, nanos(seconds, wholeSeconds));
+	}
+
+	/**
+	 * @param text - ISO format or decimal seconds since the epoch, which are read with offset UTC
+	 * @return the value
+	 * @throws java.time.DateTimeException if the text is neither
+	 * @throws NumberFormatException if the text is no valid decimal number
+	 */
+	public static OffsetDateTime parseOffsetDateTime(final String text) {
+		return isDecimal(text) ? parseInstant(text).atOffset(ZoneOffset.UTC) : OffsetDateTime.parse(text);
+	}
+
+	/**
+	 * @param text - ISO format or decimal seconds since the epoch, which are read in zone UTC
+	 * @return the value
+	 * @throws java.time.DateTimeException if the text is neither
+	 * @throws NumberFormatException if the text is no valid decimal number
+	 */
+	public static ZonedDateTime parseZonedDateTime(final String text) {
+		return isDecimal(text) ? parseInstant(text).atZone(ZoneOffset.UTC) : ZonedDateTime.parse(text);
+	}
+
+	/**
+	 * @param text - ISO format or decimal seconds
+	 * @return the value
+	 * @throws java.time.DateTimeException if the text is neither
+	 * @throws NumberFormatException if the text is no valid decimal number
+	 */
+	public static Duration parseDuration(final String text) {
+		if (!isDecimal(text)) {
+			return Duration.parse(text);
+		}
+		BigDecimal seconds = new BigDecimal(text);
+		long wholeSeconds = seconds.longValue();
+		return Duration.ofSeconds(wholeSeconds, nanos(seconds, wholeSeconds));
+	}
+
+	/**
+	 * the ISO formats contain letters like <i>T</i> or <i>P</i>, decimal numbers at most an exponent
+	 */
+	private static boolean isDecimal(final String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'E' && c != 'e') {
+				return false;
+			}
+		}
+		return !text.isEmpty();
+	}
+
+	/**
+	 * @return the fraction of the seconds in nanoseconds, negative for negative seconds
+	 */
+	private static long nanos(final BigDecimal seconds, long wholeSeconds) {
+		return seconds.subtract(BigDecimal.valueOf(wholeSeconds)).movePointRight(9).longValue();
+	}
+}
@@ -0,0 +1,205 @@
+/**
+ * kilauea
+ *
+ * Published under Apache-2.0 license (https://github.com/CodeWeazle/kilauea/blob/main/LICENSE)
+ *
+ * Code: https://github.com/CodeWeazle/kilauea
+ *
+ * @author CodeWeazle (2023)
+ *
+ * Filename: JacksonSupportTest.java
+ */
+package net.magiccode.kilauea.runtime.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import net.magiccode.kilauea.runtime.MappingException;
+
+/**
+ * Tests the CBOR and Smile support of {@code JacksonSupport}:
+ * <ul>
+ * <li><i>toCBOR</i> and <i>fromCBOR</i>, <i>toSmile</i> and <i>fromSmile</i> round trip and write
+ * the respective format</li>
+ * <li>malformed input fails with a {@code MappingException}</li>
+ * <li>without the data format on the classpath, CBOR or Smile fail with a {@code MappingException}
+ * naming the missing artifact, while the other format still works</li>
+ * </ul>
+ */
+class JacksonSupportTest {
+
+	/** every Smile document starts with ":)\n" */
+	private static final byte[] SMILE_HEADER = ":)\n".getBytes(StandardCharsets.US_ASCII);
+
+	@Test
+	void cborRoundTrip() {
+		Sample sample = sample();
+		byte[] cbor = JacksonSupport.toCBOR(sample);
+		// major type 5, a map
+		assertEquals(0xA0, cbor[0] & 0xE0, "first byte of " + Integer.toHexString(cbor[0] & 0xFF));
+		assertEquals(sample, JacksonSupport.fromCBOR(cbor, Sample.class));
+	}
+
+	@Test
+	void smileRoundTrip() {
+		Sample sample = sample();
+		byte[] smile = JacksonSupport.toSmile(sample);
+		byte[] header = new byte[SMILE_HEADER.length];
+		System.arraycopy(smile, 0, header, 0, header.length);
+		assertArrayEquals(SMILE_HEADER, header);
+		assertEquals(sample, JacksonSupport.fromSmile(smile, Sample.class));
+	}
+
+	@Test
+	void emptyInstanceRoundTrip() {
+		assertEquals(new Sample(), JacksonSupport.fromCBOR(JacksonSupport.toCBOR(new Sample()), Sample.class));
+		assertEquals(new Sample(), JacksonSupport.fromSmile(JacksonSupport.toSmile(new Sample()), Sample.class));
+	}
+
+	@Test
+	void rejectsMalformedInput() {
+		byte[] malformed = { (byte) 0xFF, 0x00, 0x13 };
+		assertThrows(MappingException.class, () -> JacksonSupport.fromCBOR(malformed, Sample.class));
+		assertThrows(MappingException.class, () -> JacksonSupport.fromSmile(malformed, Sample.class));
+	}
+
+	@Test
+	void cborWithoutDataFormat() throws Exception {
+		assertMissing(SmileMapper.class, "toCBOR", "jackson-dataformat-cbor");
+	}
+
+	@Test
+	void smileWithoutDataFormat() throws Exception {
+		assertMissing(CBORMapper.class, "toSmile", "jackson-dataformat-smile");
+	}
+
+	/**
+	 * calls the given method of {@code JacksonSupport} loaded with Jackson and only one of the data
+	 * formats, twice, since the second call finds the holder class failed already
+	 *
+	 * @param available - a class of the data format on the classpath
+	 * @param missing   - the method using the data format which is not on the classpath
+	 * @param artifact  - the artifact the failure has to name
+	 */
+	private static void assertMissing(final Class<?> available, final String missing, final String artifact)
+			throws Exception {
+		try (URLClassLoader loader = new URLClassLoader(locations(JacksonSupport.class, ObjectMapper.class,
+				JsonFactory.class, JsonProperty.class, available), ClassLoader.getPlatformClassLoader())) {
+			Class<?> support = loader.loadClass(JacksonSupport.class.getName());
+			Method method = support.getMethod(missing, Object.class);
+			for (int call = 1; call <= 2; call++) {
+				InvocationTargetException failure = assertThrows(InvocationTargetException.class,
+						() -> method.invoke(null, Map.of("count", 1)));
+				Throwable cause = failure.getCause();
+				assertEquals(MappingException.class.getName(), cause.getClass().getName(), "call " + call);
+				assertTrue(cause.getMessage().contains(artifact), () -> cause.getMessage());
+			}
+			String other = missing.equals("toCBOR") ? "toSmile" : "toCBOR";
+			byte[] written = (byte[]) support.getMethod(other, Object.class).invoke(null, Map.of("count", 1));
+			assertTrue(written.length > 0, () -> other + " without the other data format");
+		}
+	}
+
+	/**
+	 * @return the jars or directories the given classes are loaded from
+	 */
+	private static URL[] locations(final Class<?>... classes) {
+		List<URL> locations = new ArrayList<>();
+		Stream.of(classes).map(type -> type.getProtectionDomain().getCodeSource().getLocation())
+				.distinct().forEach(locations::add);
+		return locations.toArray(new URL[0]);
+	}
+
+	private static Sample sample() {
+		Sample sample = new Sample();
+		sample.setName("süd & co");
+		sample.setCount(-42);
+		sample.setRatio(-0.5d);
+		sample.setTags(List.of("first", ""));
+		return sample;
+	}
+
+	/**
+	 * bean written and read by Jackson
+	 */
+	public static final class Sample {
+
+		private String name;
+		private int count;
+		private double ratio;
+		private List<String> tags;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(final String name) {
+			this.name = name;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public double getRatio() {
+			return ratio;
+		}
+
+		public void setRatio(double ratio) {
+			this.ratio = ratio;
+		}
+
+		public List<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(final List<String> tags) {
+			this.tags = tags;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if (!(other instanceof Sample)) {
+				return false;
+			}
+			Sample that = (Sample) other;
+			return Objects.equals(name, that.name) && count == that.count
+					&& Double.compare(ratio, that.ratio) == 0 && Objects.equals(tags, that.tags);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(name, count, ratio, tags);
+		}
+
+		@Override
+		public String toString() {
+			return "name=" + name + ", count=" + count + ", ratio=" + ratio + ", tags=" + tags;
+		}
+	}
+}